@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
+import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.IoContext;
+import com.couchbase.client.core.msg.RequestContext;
+import com.couchbase.client.core.msg.kv.NoopRequest;
+import com.couchbase.client.core.retry.FailFastRetryStrategy;
+import com.couchbase.client.core.retry.RetryReason;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the events emitted for every failed response or retry in an error-heavy workload, while
+ * only a subscriber at WARN (like the default logging consumer) is attached to the {@link DefaultEventBus}.
+ *
+ * <p>Unguarded, the events are created and then discarded by the bus. Guarded, the call sites check
+ * {@link EventBus#isEnabled(Event.Severity, Event.Category)} first and do not create them at all. Run with
+ * {@code -prof gc} to compare the allocation rate per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBusBenchmark {
+
+  private static final short UNKNOWN_STATUS = (short) 0x7fff;
+
+  @Param({"false", "true"})
+  public boolean guarded;
+
+  private DefaultEventBus eventBus;
+  private IoContext ioContext;
+  private RequestContext requestContext;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .errorLogging(Optional.empty())
+      .build();
+    eventBus.subscribe(event -> { }, Event.Severity.WARN);
+    eventBus.start().block();
+
+    CoreContext ctx = new CoreContext(null, 1, null, null);
+    ioContext = new IoContext(
+      ctx,
+      new InetSocketAddress("127.0.0.1", 12345),
+      new InetSocketAddress("127.0.0.1", 11210),
+      Optional.of("default")
+    );
+    requestContext = new NoopRequest(
+      Duration.ofMillis(2500),
+      ctx,
+      FailFastRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("default")
+    ).context();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    eventBus.stop(Duration.ofSeconds(5)).block();
+  }
+
+  @Benchmark
+  public EventBus.PublishResult unknownResponseStatus() {
+    if (guarded && !eventBus.isEnabled(Event.Severity.INFO, Event.Category.IO)) {
+      return null;
+    }
+    return eventBus.publish(new UnknownResponseStatusReceivedEvent(ioContext, UNKNOWN_STATUS));
+  }
+
+  @Benchmark
+  public EventBus.PublishResult retryScheduled() {
+    if (guarded && !eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.REQUEST)) {
+      return null;
+    }
+    return eventBus.publish(new RequestRetryScheduledEvent(
+      Duration.ofMillis(1),
+      requestContext,
+      NoopRequest.class,
+      RetryReason.KV_TEMPORARY_FAILURE
+    ));
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.retry.FailFastRetryStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of a KV get response, both the header fields the {@link KeyValueMessageHandler} reads
+ * for every response and the full decode into a {@link GetResponse}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MemcacheProtocolDecodeBenchmark {
+
+  @Param({"256", "16384", "102400"})
+  public int documentSize;
+
+  private GetRequest request;
+  private ByteBuf response;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    byte[] content = new byte[documentSize];
+    ThreadLocalRandom.current().nextBytes(content);
+
+    request = new GetRequest("airline_10123", Duration.ofMillis(2500), new CoreContext(null, 1, null, null),
+      CollectionIdentifier.fromDefault("travel-sample"), FailFastRetryStrategy.INSTANCE, null);
+    response = Unpooled.unreleasableBuffer(MemcacheProtocol.response(UnpooledByteBufAllocator.DEFAULT,
+      MemcacheProtocol.Opcode.GET, (byte) 0, (short) 0, 1, 1234L,
+      Unpooled.buffer(Integer.BYTES).writeInt(0x02000006), Unpooled.EMPTY_BUFFER, Unpooled.wrappedBuffer(content)));
+  }
+
+  @Benchmark
+  public void decodeHeader(final Blackhole bh) {
+    bh.consume(MemcacheProtocol.opaque(response));
+    bh.consume(MemcacheProtocol.opcode(response));
+    bh.consume(MemcacheProtocol.status(response));
+    bh.consume(MemcacheProtocol.cas(response));
+  }
+
+  @Benchmark
+  public GetResponse decodeGet() {
+    return request.decode(response, null);
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the copying request encoders in {@link MemcacheProtocol} with their composite counterparts
+ * which attach the (already wrapped) document body instead of copying it.
+ *
+ * <p>Next to the throughput, the {@link CopyCounters#bytesCopied} auxiliary counter reports the rate of bytes
+ * copied into freshly allocated buffers. Divided by the primary score it yields the bytes copied per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MemcacheProtocolEncodeBenchmark {
+
+  private static final ByteBufAllocator ALLOC = PooledByteBufAllocator.DEFAULT;
+
+  @Param({"256", "16384", "102400", "1048576"})
+  public int documentSize;
+
+  private byte[] content;
+  private ByteBuf key;
+  private ByteBuf extras;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    content = new byte[documentSize];
+    ThreadLocalRandom.current().nextBytes(content);
+    key = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer("airline_10123", StandardCharsets.UTF_8));
+    extras = Unpooled.unreleasableBuffer(Unpooled.buffer(Integer.BYTES * 2).writeInt(0).writeInt(0));
+  }
+
+  /**
+   * Tracks the bytes which are copied per encoded request.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class CopyCounters {
+    public long bytesCopied;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytesCopied = 0;
+    }
+  }
+
+  @Benchmark
+  public int copyingRequest(final CopyCounters counters) {
+    ByteBuf body = Unpooled.wrappedBuffer(content);
+    ByteBuf request = MemcacheProtocol.request(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0, (short) 12,
+      1, 0, extras.duplicate(), key.duplicate(), body);
+    return finish(counters, request, body);
+  }
+
+  @Benchmark
+  public int compositeRequest(final CopyCounters counters) {
+    ByteBuf body = Unpooled.wrappedBuffer(content);
+    ByteBuf request = MemcacheProtocol.compositeRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 12, 1, 0, extras.duplicate(), key.duplicate(), body);
+    return finish(counters, request, body);
+  }
+
+  /**
+   * Records the copied bytes and releases all buffers like the netty write path would.
+   */
+  private static int finish(final CopyCounters counters, final ByteBuf request, final ByteBuf body) {
+    int size = request.readableBytes();
+    counters.bytesCopied += request instanceof CompositeByteBuf
+      ? size - body.readableBytes()
+      : size;
+    body.release();
+    request.release();
+    return size;
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares snappy compression and decompression through intermediate byte arrays with the {@link ByteBuf}
+ * based helpers in {@link MemcacheProtocol}.
+ *
+ * <p>The response side decompresses the body of a pooled direct buffer, which is what the channel hands to
+ * the decoders: {@code decompressByteBuf} is the path of the get decoders, {@code decompressPooled} the one of
+ * the subdoc decoders. For incompressible documents the compression benchmarks show the effect of bailing out after
+ * the sample. Run with {@code -prof gc} to compare the allocation rate per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SnappyCompressionBenchmark {
+
+  private static final ByteBufAllocator ALLOC = PooledByteBufAllocator.DEFAULT;
+  private static final double MIN_RATIO = 0.83;
+
+  @Param({"1024", "16384", "102400", "1048576"})
+  public int documentSize;
+
+  @Param({"true", "false"})
+  public boolean compressible;
+
+  private byte[] content;
+  private ByteBuf response;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    content = new byte[documentSize];
+    if (compressible) {
+      byte[] row = "{\"type\":\"airline\",\"name\":\"Texas Wings\",\"country\":\"United States\"},"
+        .getBytes(StandardCharsets.UTF_8);
+      for (int i = 0; i < documentSize; i++) {
+        content[i] = row[i % row.length];
+      }
+    } else {
+      ThreadLocalRandom.current().nextBytes(content);
+    }
+
+    byte[] compressed = Snappy.compress(content);
+    ByteBuf body = Unpooled.wrappedBuffer(compressed);
+    response = MemcacheProtocol.response(ALLOC, MemcacheProtocol.Opcode.GET,
+      MemcacheProtocol.Datatype.SNAPPY.datatype(), (short) 0, 1, 0, MemcacheProtocol.noExtras(),
+      MemcacheProtocol.noKey(), body);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    response.release();
+  }
+
+  @Benchmark
+  public int compressArray() {
+    byte[] compressed = Snappy.compress(content);
+    if (((double) compressed.length / content.length) > MIN_RATIO) {
+      return 0;
+    }
+    ByteBuf buf = Unpooled.wrappedBuffer(compressed);
+    int size = buf.readableBytes();
+    buf.release();
+    return size;
+  }
+
+  @Benchmark
+  public int compressByteBuf() {
+    ByteBuf compressed = MemcacheProtocol.tryCompression(ALLOC, Unpooled.wrappedBuffer(content), MIN_RATIO);
+    if (compressed == null) {
+      return 0;
+    }
+    int size = compressed.readableBytes();
+    compressed.release();
+    return size;
+  }
+
+  @Benchmark
+  public byte[] decompressArray() {
+    byte[] body = MemcacheProtocol.bodyAsBytes(response);
+    return MemcacheProtocol.tryDecompression(body, MemcacheProtocol.datatype(response));
+  }
+
+  @Benchmark
+  public byte[] decompressByteBuf() {
+    return MemcacheProtocol.decompressedBodyAsBytes(response);
+  }
+
+  @Benchmark
+  public int decompressPooled() {
+    ByteBuf decompressed = MemcacheProtocol.retainedDecompressedBody(response).get();
+    int size = decompressed.readableBytes();
+    decompressed.release();
+    return size;
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SeedNode;
+import com.couchbase.client.core.env.TimeoutTracking;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.NoopRequest;
+import com.couchbase.client.core.retry.FailFastRetryStrategy;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noBody;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noExtras;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.noKey;
+
+/**
+ * Measures the lifecycle overhead of a KV request that completes well within its timeout, with either the
+ * per-request timer registration or the deadline sweep of the channel.
+ *
+ * <p>Each operation creates a request, registers it with the {@link com.couchbase.client.core.Timer} of the
+ * environment like the core does on send, writes it through a {@link KeyValueMessageHandler} and completes
+ * it with a response read from the channel. The scheduled tasks of the channel (including the deadline sweep)
+ * are run after every operation, against a number of requests which are kept outstanding. Run with
+ * {@code -prof gc} to compare the allocation rate per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeoutTrackingBenchmark {
+
+  private static final CollectionIdentifier COLLECTION = CollectionIdentifier.fromDefault("default");
+
+  @Param({"TIMER_WHEEL", "DEADLINE_SWEEP"})
+  public TimeoutTracking tracking;
+
+  /**
+   * The number of requests kept outstanding, so the sweep has a realistically filled table to check.
+   */
+  @Param({"128"})
+  public int inFlight;
+
+  private CoreEnvironment env;
+  private Core core;
+  private EmbeddedChannel channel;
+  private ByteBuf response;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    env = CoreEnvironment.builder().timeoutTracking(tracking).build();
+    core = Core.create(env, PasswordAuthenticator.create("user", "pass"), SeedNode.LOCALHOST);
+    EndpointContext endpointContext = new EndpointContext(core.context(), new HostAndPort("127.0.0.1", 11210),
+      null, ServiceType.KV, Optional.empty(), Optional.of("default"), Optional.empty());
+    channel = new EmbeddedChannel(new KeyValueMessageHandler(null, endpointContext, Optional.of("default")));
+
+    ByteBuf template = MemcacheProtocol.response(channel.alloc(), MemcacheProtocol.Opcode.NOOP, (byte) 0,
+      MemcacheProtocol.Status.SUCCESS.status(), 0, 0, noExtras(), noKey(), noBody());
+    response = Unpooled.unreleasableBuffer(template);
+
+    // these requests never get a response, they only act as sweep load
+    for (int i = 0; i < inFlight; i++) {
+      send(newRequest(Duration.ofDays(1)));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    channel.finishAndReleaseAll();
+    core.shutdown().block();
+    env.shutdown();
+  }
+
+  private NoopRequest newRequest(final Duration timeout) {
+    return new NoopRequest(timeout, core.context(), FailFastRetryStrategy.INSTANCE, COLLECTION);
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private <R extends Request<? extends Response>> int send(final R request) {
+    env.timer().register((Request<Response>) request);
+    channel.writeOutbound(request);
+    ByteBuf encoded = channel.readOutbound();
+    int opaque = MemcacheProtocol.opaque(encoded);
+    ReferenceCountUtil.release(encoded);
+    return opaque;
+  }
+
+  @Benchmark
+  public boolean requestLifecycle() {
+    NoopRequest request = newRequest(Duration.ofMillis(2500));
+    int opaque = send(request);
+
+    response.setInt(MemcacheProtocol.OPAQUE_OFFSET, opaque).readerIndex(0);
+    channel.writeInbound(response);
+    channel.runScheduledPendingTasks();
+    return request.completed();
+  }
+
+}
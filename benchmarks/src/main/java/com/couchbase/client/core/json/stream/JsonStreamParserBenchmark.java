@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.json.stream;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures streaming a query-style response through the {@link JsonStreamParser}, emitting every row as it
+ * is found like the chunk response parsers do.
+ *
+ * <p>The response is fed in chunks of {@code chunkSize} bytes to mimic the HTTP content chunks handed over
+ * by the pipeline. The score is the number of complete responses parsed per millisecond.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonStreamParserBenchmark {
+
+  @Param({"1000"})
+  public int rows;
+
+  @Param({"1024", "16384"})
+  public int chunkSize;
+
+  private byte[] response;
+  private JsonStreamParser.Builder builder;
+  private Blackhole blackhole;
+
+  @Setup(Level.Trial)
+  public void setup(final Blackhole bh) {
+    StringBuilder sb = new StringBuilder("{\"requestID\":\"f0a1c5a2-6d8c-4e3b-a7f5-3c3f1e8b9d21\",\"signature\":{\"*\":\"*\"},\"results\":[");
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"id\":").append(i)
+        .append(",\"type\":\"airline\",\"name\":\"Airline ").append(i)
+        .append("\",\"iata\":\"Q5\",\"icao\":\"MLA\",\"callsign\":\"MILE-AIR\",\"country\":\"United States\"}");
+    }
+    sb.append("],\"status\":\"success\",\"metrics\":{\"elapsedTime\":\"12.3ms\",\"executionTime\":\"12.1ms\",\"resultCount\":")
+      .append(rows).append("}}");
+    response = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+    blackhole = bh;
+    builder = JsonStreamParser.builder()
+      .doOnValue("/requestID", v -> blackhole.consume(v.readString()))
+      .doOnValue("/results/-", v -> blackhole.consume(v.readBytes()))
+      .doOnValue("/status", v -> blackhole.consume(v.readString()))
+      .doOnValue("/metrics", v -> blackhole.consume(v.readBytes()));
+  }
+
+  @Benchmark
+  public void parseRows() {
+    try (JsonStreamParser parser = builder.build()) {
+      for (int offset = 0; offset < response.length; offset += chunkSize) {
+        ByteBuf chunk = Unpooled.wrappedBuffer(response, offset, Math.min(chunkSize, response.length - offset));
+        parser.feed(chunk);
+      }
+      parser.endOfInput();
+    }
+  }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.BucketConfigParser;
+import com.couchbase.client.core.config.ClusterConfig;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link KeyValueLocator#dispatch} for couchbase buckets of various cluster sizes, both with the
+ * precomputed partition routing table and with the regular node lookup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyValueLocatorBenchmark {
+
+  private static final String BUCKET = "default";
+  private static final int NUM_PARTITIONS = 1024;
+  private static final int NUM_REQUESTS = 4096;
+
+  @Param({"1", "8", "64"})
+  public int numNodes;
+
+  @Param({"true", "false"})
+  public boolean routingTable;
+
+  private CoreEnvironment env;
+  private CoreContext ctx;
+  private KeyValueLocator locator;
+  private ClusterConfig clusterConfig;
+  private List<Node> nodes;
+  private GetRequest[] requests;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    env = CoreEnvironment.create();
+    ctx = new CoreContext(null, 1, env, PasswordAuthenticator.create("user", "pass"));
+
+    clusterConfig = new ClusterConfig();
+    clusterConfig.setBucketConfig(BucketConfigParser.parse(bucketConfig(numNodes), env, "10.0.0.1"));
+
+    nodes = new ArrayList<>();
+    for (int i = 0; i < numNodes; i++) {
+      nodes.add(new NoopNode(ctx, new NodeIdentifier(host(i), 8091)));
+    }
+
+    locator = new KeyValueLocator();
+    if (routingTable) {
+      locator.updateRoutingTables(clusterConfig, nodes);
+    }
+
+    CollectionIdentifier collection = CollectionIdentifier.fromDefault(BUCKET);
+    requests = new GetRequest[NUM_REQUESTS];
+    for (int i = 0; i < NUM_REQUESTS; i++) {
+      requests[i] = new GetRequest("airline_" + i, Duration.ofSeconds(2), ctx, collection,
+        BestEffortRetryStrategy.INSTANCE, null);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    env.shutdown();
+  }
+
+  @Benchmark
+  public short dispatch() {
+    GetRequest request = requests[next++ & (NUM_REQUESTS - 1)];
+    locator.dispatch(request, nodes, clusterConfig, ctx);
+    return request.partition();
+  }
+
+  private static String host(final int index) {
+    return "10.0.0." + (index + 1);
+  }
+
+  /**
+   * Creates a couchbase bucket config where actives and replicas are evenly spread across all nodes.
+   */
+  private static String bucketConfig(final int numNodes) {
+    StringBuilder nodes = new StringBuilder();
+    StringBuilder nodesExt = new StringBuilder();
+    StringBuilder serverList = new StringBuilder();
+    for (int i = 0; i < numNodes; i++) {
+      String separator = i == 0 ? "" : ",";
+      nodes.append(separator).append("{\"hostname\":\"").append(host(i))
+        .append(":8091\",\"ports\":{\"direct\":11210}}");
+      nodesExt.append(separator).append("{\"hostname\":\"").append(host(i))
+        .append("\",\"services\":{\"mgmt\":8091,\"kv\":11210}}");
+      serverList.append(separator).append('"').append(host(i)).append(":11210\"");
+    }
+
+    StringBuilder vBucketMap = new StringBuilder();
+    for (int p = 0; p < NUM_PARTITIONS; p++) {
+      int replica = numNodes > 1 ? (p + 1) % numNodes : -1;
+      vBucketMap.append(p == 0 ? "" : ",").append('[').append(p % numNodes).append(',').append(replica).append(']');
+    }
+
+    return "{\"rev\":1,\"name\":\"" + BUCKET + "\",\"uuid\":\"aa4b515529fa706f1e5f09f21abb5c06\","
+      + "\"nodeLocator\":\"vbucket\",\"nodes\":[" + nodes + "],\"nodesExt\":[" + nodesExt + "],"
+      + "\"vBucketServerMap\":{\"hashAlgorithm\":\"CRC\",\"numReplicas\":1,\"serverList\":[" + serverList + "],"
+      + "\"vBucketMap\":[" + vBucketMap + "]},\"bucketCapabilities\":[\"cccp\",\"nodesExt\",\"couchapi\"]}";
+  }
+
+  /**
+   * A node which does not forward the request anywhere, so only the locator itself is measured.
+   */
+  static class NoopNode extends Node {
+
+    long dispatched;
+
+    NoopNode(final CoreContext ctx, final NodeIdentifier identifier) {
+      super(ctx, identifier, Optional.empty());
+    }
+
+    @Override
+    public <R extends Request<? extends Response>> void send(final R request) {
+      dispatched++;
+    }
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.env.SeedNode;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.io.netty.kv.KeyValueMessageHandler;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.CodecFlags;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.GetResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an {@link AsyncCollection#get(String)} end-to-end, from the API down to the encoded request and back
+ * through the decoded response into the {@link GetResult} content.
+ *
+ * <p>Instead of routing through the locator and the endpoints, the {@link StubCore} writes each request straight
+ * into an {@link EmbeddedChannel} holding a {@link KeyValueMessageHandler}, and answers it in-process with a
+ * successful get response carrying the same opaque. Everything in between runs the production code path.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncCollectionGetBenchmark {
+
+  private static final String BUCKET = "travel-sample";
+
+  @Param({"256", "16384"})
+  public int documentSize;
+
+  private ClusterEnvironment environment;
+  private StubCore core;
+  private AsyncCollection collection;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    StringBuilder sb = new StringBuilder("{\"type\":\"airline\",\"padding\":\"");
+    while (sb.length() < documentSize - 2) {
+      sb.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+    }
+    byte[] document = sb.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+
+    environment = ClusterEnvironment.create();
+    core = new StubCore(environment, document);
+    collection = new AsyncCollection(CollectionIdentifier.DEFAULT_COLLECTION, CollectionIdentifier.DEFAULT_SCOPE, BUCKET,
+      core, environment);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    core.close();
+    environment.shutdown();
+  }
+
+  @Benchmark
+  public JsonObject get() throws Exception {
+    return collection.get("airline_10123").get().contentAsObject();
+  }
+
+  /**
+   * A core which answers every KV request through an in-process {@link KeyValueMessageHandler}.
+   */
+  static class StubCore extends Core {
+
+    /**
+     * The offset of the opaque in the memcache header of the encoded request.
+     */
+    private static final int OPAQUE_OFFSET = 12;
+
+    private final EmbeddedChannel channel;
+    private final ByteBuf document;
+
+    StubCore(final ClusterEnvironment environment, final byte[] document) {
+      super(environment, PasswordAuthenticator.create("Administrator", "password"), SeedNode.LOCALHOST);
+      this.document = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(document));
+      EndpointContext endpointContext = new EndpointContext(context(), new HostAndPort("127.0.0.1", 11210),
+        null, ServiceType.KV, Optional.empty(), Optional.of(BUCKET), Optional.empty());
+      this.channel = new EmbeddedChannel(new KeyValueMessageHandler(null, endpointContext, Optional.of(BUCKET)));
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public <R extends Response> void send(final Request<R> request, final boolean registerForTimeout) {
+      if (registerForTimeout) {
+        context().environment().timer().register((Request<Response>) request);
+      }
+
+      channel.writeOutbound(request);
+      ByteBuf encoded = channel.readOutbound();
+      int opaque = encoded.getInt(OPAQUE_OFFSET);
+      encoded.release();
+
+      ByteBuf extras = PooledByteBufAllocator.DEFAULT.buffer(Integer.BYTES).writeInt(CodecFlags.JSON_COMPAT_FLAGS);
+      try {
+        channel.writeInbound(MemcacheProtocol.response(PooledByteBufAllocator.DEFAULT, MemcacheProtocol.Opcode.GET,
+          (byte) 0x01, (short) 0, opaque, 1234L, extras, Unpooled.EMPTY_BUFFER, document.duplicate()));
+      } finally {
+        extras.release();
+      }
+    }
+
+    void close() {
+      channel.finishAndReleaseAll();
+      shutdown().block();
+    }
+
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.msg.kv.CodecFlags;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and decoding documents through the {@link JsonTranscoder} backed by the
+ * {@link DefaultJsonSerializer}, both for a {@link JsonObject} and for a plain POJO.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonTranscoderBenchmark {
+
+  private Transcoder transcoder;
+  private JsonObject jsonObject;
+  private Airline pojo;
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    transcoder = JsonTranscoder.create(DefaultJsonSerializer.create());
+
+    pojo = new Airline();
+    pojo.id = 10123;
+    pojo.type = "airline";
+    pojo.name = "Texas Wings";
+    pojo.iata = "TQ";
+    pojo.icao = "TXW";
+    pojo.callsign = "TXW";
+    pojo.country = "United States";
+    pojo.routes = Arrays.asList("AUS", "DFW", "HOU", "IAH", "SAT");
+
+    jsonObject = JsonObject.create()
+      .put("id", pojo.id)
+      .put("type", pojo.type)
+      .put("name", pojo.name)
+      .put("iata", pojo.iata)
+      .put("icao", pojo.icao)
+      .put("callsign", pojo.callsign)
+      .put("country", pojo.country)
+      .put("routes", JsonArray.from(pojo.routes));
+
+    encoded = transcoder.encode(jsonObject).encoded();
+  }
+
+  @Benchmark
+  public byte[] encodeJsonObject() {
+    return transcoder.encode(jsonObject).encoded();
+  }
+
+  @Benchmark
+  public JsonObject decodeJsonObject() {
+    return transcoder.decode(JsonObject.class, encoded, CodecFlags.JSON_COMPAT_FLAGS);
+  }
+
+  @Benchmark
+  public byte[] encodePojo() {
+    return transcoder.encode(pojo).encoded();
+  }
+
+  @Benchmark
+  public Airline decodePojo() {
+    return transcoder.decode(Airline.class, encoded, CodecFlags.JSON_COMPAT_FLAGS);
+  }
+
+  public static class Airline {
+    public int id;
+    public String type;
+    public String name;
+    public String iata;
+    public String icao;
+    public String callsign;
+    public String country;
+    public List<String> routes;
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the different ways of constructing a {@link JsonObject}: through the fluent put API, from a
+ * {@link Map} (which validates and converts every value) and by parsing its JSON representation, as well
+ * as the reverse of the latter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonObjectBenchmark {
+
+  private Map<String, Object> map;
+  private JsonObject document;
+  private String json;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Map<String, Object> geo = new HashMap<>();
+    geo.put("lat", 30.194528);
+    geo.put("lon", -97.669889);
+
+    map = new HashMap<>();
+    map.put("id", 10123);
+    map.put("type", "airport");
+    map.put("airportname", "Austin Bergstrom Intl");
+    map.put("city", "Austin");
+    map.put("country", "United States");
+    map.put("faa", "AUS");
+    map.put("icao", "KAUS");
+    map.put("tz", "America/Chicago");
+    map.put("geo", geo);
+    map.put("runways", Arrays.asList("17L", "17R", "35L", "35R"));
+
+    document = JsonObject.from(map);
+    json = document.toString();
+  }
+
+  @Benchmark
+  public JsonObject put() {
+    return JsonObject.create(10)
+      .put("id", 10123)
+      .put("type", "airport")
+      .put("airportname", "Austin Bergstrom Intl")
+      .put("city", "Austin")
+      .put("country", "United States")
+      .put("faa", "AUS")
+      .put("icao", "KAUS")
+      .put("tz", "America/Chicago")
+      .put("geo", JsonObject.create(2).put("lat", 30.194528).put("lon", -97.669889))
+      .put("runways", JsonArray.from("17L", "17R", "35L", "35R"));
+  }
+
+  @Benchmark
+  public JsonObject fromMap() {
+    return JsonObject.from(map);
+  }
+
+  @Benchmark
+  public JsonObject fromJson() {
+    return JsonObject.fromJson(json);
+  }
+
+  @Benchmark
+  public String toJson() {
+    return document.toString();
+  }
+
+}
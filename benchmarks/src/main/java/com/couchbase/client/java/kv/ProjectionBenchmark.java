@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.projections.ProjectionWriter;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.projections.ProjectionsApplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares assembling the document of a 16 path projection through a {@link JsonObject} tree against writing it
+ * directly with the {@link ProjectionWriter}.
+ *
+ * <p>The paths mix top level fields, nested objects and arrays, and the values mix strings, numbers, booleans,
+ * objects and arrays like a typical profile document would. Run with {@code -prof gc} to compare the allocation
+ * rate per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectionBenchmark {
+
+  private static final String[] PATHS = {
+    "name",
+    "email",
+    "age",
+    "active",
+    "score",
+    "address.street",
+    "address.city",
+    "address.geo.lat",
+    "address.geo.lon",
+    "tags",
+    "roles[0]",
+    "company.name",
+    "company.departments[1].name",
+    "preferences",
+    "history.logins",
+    "history.lastSeen",
+  };
+
+  private static final String[] VALUES = {
+    "\"Jane Doe\"",
+    "\"jane.doe@example.com\"",
+    "42",
+    "true",
+    "1234.5678",
+    "\"1 Main Street\"",
+    "\"Springfield\"",
+    "37.7749",
+    "-122.4194",
+    "[\"alpha\",\"beta\",\"gamma\",\"delta\"]",
+    "\"admin\"",
+    "\"Example Corp\"",
+    "\"Engineering\"",
+    "{\"theme\":\"dark\",\"language\":\"en\",\"notifications\":{\"email\":true,\"sms\":false}}",
+    "[1589000000,1589100000,1589200000,1589300000]",
+    "\"2020-05-10T12:00:00Z\"",
+  };
+
+  private byte[][] values;
+
+  @Setup
+  public void setup() {
+    values = new byte[VALUES.length][];
+    for (int i = 0; i < VALUES.length; i++) {
+      values[i] = VALUES[i].getBytes(UTF_8);
+    }
+  }
+
+  @Benchmark
+  public byte[] jsonObjectTree() {
+    JsonObject out = JsonObject.create();
+    for (int i = 0; i < PATHS.length; i++) {
+      ProjectionsApplier.parse(out, PATHS[i], values[i]);
+    }
+    return out.toBytes();
+  }
+
+  @Benchmark
+  public byte[] projectionWriter() {
+    ProjectionWriter out = new ProjectionWriter();
+    for (int i = 0; i < PATHS.length; i++) {
+      out.add(PATHS[i], values[i]);
+    }
+    return out.toBytes();
+  }
+
+}
@@ -77,6 +77,16 @@ public class ProposedBucketConfigInspectingProvider implements ConfigurationProv
     delegate.proposeGlobalConfig(ctx);
   }
 
+  @Override
+  public void clustermapPushEnabled(String bucket) {
+    delegate.clustermapPushEnabled(bucket);
+  }
+
+  @Override
+  public void clustermapPushDisabled(String bucket) {
+    delegate.clustermapPushDisabled(bucket);
+  }
+
   @Override
   public Mono<Void> loadAndRefreshGlobalConfig() {
     return delegate.loadAndRefreshGlobalConfig();
@@ -107,4 +117,14 @@ public class ProposedBucketConfigInspectingProvider implements ConfigurationProv
     return false;
   }
 
+  @Override
+  public long skippedBucketConfigs() {
+    return delegate.skippedBucketConfigs();
+  }
+
+  @Override
+  public long skippedGlobalConfigs() {
+    return delegate.skippedGlobalConfigs();
+  }
+
 }
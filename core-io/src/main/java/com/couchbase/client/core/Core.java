@@ -63,6 +63,7 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
@@ -98,8 +99,11 @@ public class Core {
 
   /**
    * Locates the right node for the KV service.
+   *
+   * <p>Note that unlike the other locators this one is per core, since it holds the partition routing
+   * tables built from the configurations applied to this core.</p>
    */
-  private static final KeyValueLocator KEY_VALUE_LOCATOR = new KeyValueLocator();
+  private final KeyValueLocator keyValueLocator = new KeyValueLocator();
 
   /**
    * Locates the right node for the manager service.
@@ -109,27 +113,26 @@ public class Core {
 
   /**
    * Locates the right node for the query service.
+   *
+   * <p>This and the other http locators are per core, since they might need to select the nodes based on
+   * the latency aware selection configured on the environment.</p>
    */
-  private static final RoundRobinLocator QUERY_LOCATOR =
-    new RoundRobinLocator(ServiceType.QUERY);
+  private final RoundRobinLocator queryLocator;
 
   /**
    * Locates the right node for the analytics service.
    */
-  private static final RoundRobinLocator ANALYTICS_LOCATOR =
-    new RoundRobinLocator(ServiceType.ANALYTICS);
+  private final RoundRobinLocator analyticsLocator;
 
   /**
    * Locates the right node for the search service.
    */
-  private static final RoundRobinLocator SEARCH_LOCATOR =
-    new RoundRobinLocator(ServiceType.SEARCH);
+  private final RoundRobinLocator searchLocator;
 
   /**
    * Locates the right node for the view service.
    */
-  private static final RoundRobinLocator VIEWS_LOCATOR =
-    new ViewLocator();
+  private final RoundRobinLocator viewLocator;
 
   /**
    * Holds the current core context.
@@ -203,6 +206,11 @@ public class Core {
 
     this.seedNodes = seedNodes;
     this.coreContext = new CoreContext(this, createInstanceId(), environment, authenticator);
+    Set<ServiceType> latencyAware = environment.ioConfig().latencyAwareSelection();
+    this.queryLocator = new RoundRobinLocator(ServiceType.QUERY, latencyAware.contains(ServiceType.QUERY));
+    this.analyticsLocator = new RoundRobinLocator(ServiceType.ANALYTICS, latencyAware.contains(ServiceType.ANALYTICS));
+    this.searchLocator = new RoundRobinLocator(ServiceType.SEARCH, latencyAware.contains(ServiceType.SEARCH));
+    this.viewLocator = new ViewLocator(latencyAware.contains(ServiceType.VIEWS));
     this.configurationProvider = createConfigurationProvider();
     this.nodes = new CopyOnWriteArrayList<>();
     this.eventBus = environment.eventBus();
@@ -283,6 +291,29 @@ public class Core {
     locator(request.serviceType()).dispatch(request, nodes, currentConfig, context());
   }
 
+  /**
+   * Sends a batch of requests into the core layer, sharing a single timeout registration.
+   *
+   * <p>All requests in the batch are expected to have the same timeout. Key-value requests are dispatched grouped
+   * by their target node and partition, so that requests for the same endpoint are written back-to-back.</p>
+   *
+   * @param requests the requests to dispatch.
+   */
+  @Stability.Internal
+  public void sendBatch(final List<? extends Request<? extends Response>> requests) {
+    if (shutdown.get()) {
+      for (Request<? extends Response> request : requests) {
+        request.cancel(CancellationReason.SHUTDOWN);
+      }
+      return;
+    }
+
+    timer.registerBatch(requests);
+    for (Request<? extends Response> request : KeyValueLocator.dispatchOrder(requests, currentConfig)) {
+      send(request, false);
+    }
+  }
+
   /**
    * Returns the {@link CoreContext} of this core instance.
    */
@@ -526,7 +557,7 @@ public class Core {
       final ClusterConfig configForThisAttempt = currentConfig;
 
       if (configForThisAttempt.bucketConfigs().isEmpty() && configForThisAttempt.globalConfig() == null) {
-        reconfigureDisconnectAll();
+        reconfigureDisconnectAll(configForThisAttempt);
         return;
       }
 
@@ -550,6 +581,7 @@ public class Core {
           eventBus.publish(new ReconfigurationErrorDetectedEvent(context(), e));
         },
         () -> {
+          keyValueLocator.updateRoutingTables(configForThisAttempt, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationCompletedEvent(
             Duration.ofNanos(System.nanoTime() - start),
@@ -568,8 +600,10 @@ public class Core {
    *
    * <p>This is usually called by the parent {@link #reconfigure()} when all buckets are closed which
    * points to a shutdown/all buckets closed disconnect phase.</p>
+   *
+   * @param configForThisAttempt the configuration which is applied.
    */
-  private void reconfigureDisconnectAll() {
+  private void reconfigureDisconnectAll(final ClusterConfig configForThisAttempt) {
     long start = System.nanoTime();
     Flux
       .fromIterable(new ArrayList<>(nodes))
@@ -582,6 +616,7 @@ public class Core {
           eventBus.publish(new ReconfigurationErrorDetectedEvent(context(), e));
         },
         () -> {
+          keyValueLocator.updateRoutingTables(configForThisAttempt, nodes);
           clearReconfigureInProgress();
           eventBus.publish(new ReconfigurationCompletedEvent(
             Duration.ofNanos(System.nanoTime() - start),
@@ -763,20 +798,20 @@ public class Core {
    * @param serviceType the service type for which a locator should be returned.
    * @return the locator for the service type, or an exception if unknown.
    */
-  private static Locator locator(final ServiceType serviceType) {
+  private Locator locator(final ServiceType serviceType) {
     switch (serviceType) {
       case KV:
-        return KEY_VALUE_LOCATOR;
+        return keyValueLocator;
       case MANAGER:
         return MANAGER_LOCATOR;
       case QUERY:
-        return QUERY_LOCATOR;
+        return queryLocator;
       case ANALYTICS:
-        return ANALYTICS_LOCATOR;
+        return analyticsLocator;
       case SEARCH:
-        return SEARCH_LOCATOR;
+        return searchLocator;
       case VIEWS:
-        return VIEWS_LOCATOR;
+        return viewLocator;
       default:
         throw new IllegalStateException("Unsupported ServiceType: " + serviceType);
     }
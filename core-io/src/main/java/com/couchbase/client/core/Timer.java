@@ -17,15 +17,21 @@
 package com.couchbase.client.core;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.TimeoutTracking;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import com.couchbase.client.core.deps.io.netty.util.HashedWheelTimer;
 import com.couchbase.client.core.deps.io.netty.util.Timeout;
 import com.couchbase.client.core.deps.io.netty.util.concurrent.DefaultThreadFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -66,6 +72,11 @@ public class Timer {
    */
   private final long maxNumRequestsInRetry;
 
+  /**
+   * How the timeouts of in-flight requests are tracked.
+   */
+  private final TimeoutTracking timeoutTracking;
+
   /**
    * Creates a new {@link Timer} with default values.
    *
@@ -73,7 +84,18 @@ public class Timer {
    * @return the created timer.
    */
   public static Timer create(final long maxNumRequestsInRetry) {
-    return new Timer(maxNumRequestsInRetry);
+    return create(maxNumRequestsInRetry, CoreEnvironment.DEFAULT_TIMEOUT_TRACKING);
+  }
+
+  /**
+   * Creates a new {@link Timer} with a custom timeout tracking mode.
+   *
+   * @param maxNumRequestsInRetry the maximum number of requests in retry allowed before backpressure hits.
+   * @param timeoutTracking how the timeouts of in-flight requests are tracked.
+   * @return the created timer.
+   */
+  public static Timer create(final long maxNumRequestsInRetry, final TimeoutTracking timeoutTracking) {
+    return new Timer(maxNumRequestsInRetry, timeoutTracking);
   }
 
   /**
@@ -83,7 +105,18 @@ public class Timer {
    * @return the created and started timer.
    */
   public static Timer createAndStart(final long maxNumRequestsInRetry) {
-    Timer timer = create(maxNumRequestsInRetry);
+    return createAndStart(maxNumRequestsInRetry, CoreEnvironment.DEFAULT_TIMEOUT_TRACKING);
+  }
+
+  /**
+   * Creates and starts a timer with a custom timeout tracking mode.
+   *
+   * @param maxNumRequestsInRetry the maximum number of requests in retry allowed before backpressure hits.
+   * @param timeoutTracking how the timeouts of in-flight requests are tracked.
+   * @return the created and started timer.
+   */
+  public static Timer createAndStart(final long maxNumRequestsInRetry, final TimeoutTracking timeoutTracking) {
+    Timer timer = create(maxNumRequestsInRetry, timeoutTracking);
     timer.start();
     return timer;
   }
@@ -92,9 +125,11 @@ public class Timer {
    * Internal timer constructor.
    *
    * @param maxNumRequestsInRetry the maximum number of requests in retry allowed before backpressure hits.
+   * @param timeoutTracking how the timeouts of in-flight requests are tracked.
    */
-  private Timer(final long maxNumRequestsInRetry) {
+  private Timer(final long maxNumRequestsInRetry, final TimeoutTracking timeoutTracking) {
     this.maxNumRequestsInRetry = maxNumRequestsInRetry;
+    this.timeoutTracking = timeoutTracking;
     wheelTimer = new HashedWheelTimer(
       new DefaultThreadFactory("cb-timer", true),
       DEFAULT_TICK_DURATION.toMillis(),
@@ -126,7 +161,10 @@ public class Timer {
     outstandingForRetry.incrementAndGet();
     schedule(() -> {
       outstandingForRetry.decrementAndGet();
-      if (!request.completed()) {
+      if (request.timeoutElapsed()) {
+        request.cancel(CancellationReason.TIMEOUT);
+      } else if (!request.completed()) {
+        registerUntilWritten(request);
         core.send(request, false);
       }
     }, runAfter);
@@ -145,6 +183,10 @@ public class Timer {
   /**
    * Registers the given request to be tracked with its timeout value.
    *
+   * <p>Requests whose timeout is tracked by their deadline (see {@link #tracksDeadline(Request)}) are not
+   * registered, since they are swept by the channel once written. If they have to wait somewhere on the way
+   * they are bounded through {@link #registerUntilWritten(Request)} instead.</p>
+   *
    * @param request the request to track.
    */
   public void register(final Request<Response> request) {
@@ -153,6 +195,10 @@ public class Timer {
       return;
     }
 
+    if (tracksDeadline(request)) {
+      return;
+    }
+
     final Timeout registration = wheelTimer.newTimeout(
       timeout -> request.cancel(CancellationReason.TIMEOUT),
       request.timeout().toNanos(),
@@ -161,6 +207,109 @@ public class Timer {
     request.response().whenComplete((r, throwable) -> registration.cancel());
   }
 
+  /**
+   * Registers a batch of requests with a single timeout registration.
+   *
+   * <p>All requests in the batch share the deadline of the first request, so they are expected to be created
+   * with the same timeout. Once all of them are completed the registration is cancelled, otherwise all the
+   * requests that are still outstanding once it fires are cancelled with {@link CancellationReason#TIMEOUT}.</p>
+   *
+   * <p>Requests whose timeout is tracked by their deadline (see {@link #tracksDeadline(Request)}) are not part of
+   * the registration, since they are swept by the channel once written.</p>
+   *
+   * @param requests the requests to track.
+   */
+  public void registerBatch(final List<? extends Request<? extends Response>> requests) {
+    if (requests.isEmpty()) {
+      return;
+    }
+
+    if (stopped) {
+      for (Request<? extends Response> request : requests) {
+        request.cancel(CancellationReason.SHUTDOWN);
+      }
+      return;
+    }
+
+    if (timeoutTracking == TimeoutTracking.DEADLINE_SWEEP) {
+      List<Request<? extends Response>> tracked = new ArrayList<>();
+      for (Request<? extends Response> request : requests) {
+        if (!tracksDeadline(request)) {
+          tracked.add(request);
+        }
+      }
+      if (tracked.size() < requests.size()) {
+        registerBatch(tracked);
+        return;
+      }
+    }
+
+    final Timeout registration = wheelTimer.newTimeout(
+      timeout -> {
+        for (Request<? extends Response> request : requests) {
+          if (!request.completed()) {
+            request.cancel(CancellationReason.TIMEOUT);
+          }
+        }
+      },
+      requests.get(0).timeout().toNanos(),
+      TimeUnit.NANOSECONDS
+    );
+
+    final AtomicInteger outstanding = new AtomicInteger(requests.size());
+    for (Request<? extends Response> request : requests) {
+      request.response().whenComplete((r, throwable) -> {
+        if (outstanding.decrementAndGet() == 0) {
+          registration.cancel();
+        }
+      });
+    }
+  }
+
+  /**
+   * Bounds a request which is tracked by its deadline until it is written to a channel.
+   * <p>
+   * While such a request waits for a retry or for a free endpoint no channel sweeps it, so it keeps a timer
+   * registration against its absolute deadline until the channel cancels it on write. Requests on their first
+   * send are not registered, since they go straight to the channel. Does nothing for all other requests.
+   *
+   * @param request the request to bound.
+   */
+  public void registerUntilWritten(final Request<? extends Response> request) {
+    if (stopped || !tracksDeadline(request)) {
+      return;
+    }
+
+    final KeyValueRequest<? extends Response> keyValueRequest = (KeyValueRequest<? extends Response>) request;
+    keyValueRequest.pendingTimeout(wheelTimer.newTimeout(
+      timeout -> {
+        if (!request.completed()) {
+          request.cancel(CancellationReason.TIMEOUT);
+        }
+      },
+      Math.max(request.absoluteTimeout() - System.nanoTime(), 0),
+      TimeUnit.NANOSECONDS
+    ));
+  }
+
+  /**
+   * Returns true if the timeout of the request is not tracked by this timer while it is in-flight, but rather
+   * by the channel it has been written to (which sweeps its in-flight requests against their absolute timeout).
+   *
+   * @param request the request to check.
+   * @return true if the request is tracked by its deadline.
+   */
+  public boolean tracksDeadline(final Request<? extends Response> request) {
+    return timeoutTracking == TimeoutTracking.DEADLINE_SWEEP && request instanceof KeyValueRequest;
+  }
+
+  /**
+   * Returns how the timeouts of in-flight requests are tracked.
+   */
+  public TimeoutTracking timeoutTracking() {
+    return timeoutTracking;
+  }
+
   /**
    * Starts this timer.
    */
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Represents a generic counter, created and tracked by a {@link Meter}.
+ */
+@Stability.Volatile
+public interface Counter {
+
+  /**
+   * Adds the given number to the counter, which can also be negative to count values which go up and down.
+   *
+   * @param number the number to add.
+   */
+  void incrementBy(long number);
+
+}
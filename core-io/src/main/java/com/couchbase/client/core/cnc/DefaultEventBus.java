@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.cnc;
 
+import com.couchbase.client.core.cnc.metrics.NoopCounter;
+import com.couchbase.client.core.cnc.metrics.NoopValueRecorder;
 import com.couchbase.client.core.deps.org.jctools.queues.QueueFactory;
 import com.couchbase.client.core.deps.org.jctools.queues.spec.ConcurrentQueueSpec;
 import reactor.core.publisher.Flux;
@@ -24,11 +26,17 @@ import reactor.core.scheduler.Scheduler;
 
 import java.io.PrintStream;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The {@link DefaultEventBus} provides the default and very efficient implementation
@@ -37,6 +45,11 @@ import java.util.function.Consumer;
  * <p>It is built on top of a very fast, bounded MPSC (multi-producer single-consumer)
  * queue which allows to quickly send events into the bus without blocking the sender.</p>
  *
+ * <p>The consuming thread drains the queue in batches and hands every batch to the subscribers. If
+ * there is nothing to consume it waits based on the configured {@link WaitStrategy}, which by default
+ * spins shortly and then parks until the next event is published. Events below the lowest severity
+ * any subscriber is interested in are not enqueued at all.</p>
+ *
  * <p>Subscribers of this API are considered to be non-blocking and if they have to blocking
  * tasks need to fan them out into their own thread pool.</p>
  *
@@ -52,15 +65,54 @@ public class DefaultEventBus implements EventBus {
   private static final int DEFAULT_QUEUE_CAPACITY = 16384;
 
   /**
-   * If there are no events to process, the event bus will sleep for 100ms before checking the queue
-   * again.
+   * If there are no events to process and the bus is not signalled, it will check the queue again
+   * after 100ms at the latest.
    */
   private static final Duration DEFAULT_IDLE_SLEEP_DURATION = Duration.ofMillis(100);
 
+  /**
+   * The maximum number of events drained from the queue before they are handed to the subscribers.
+   */
+  private static final int DEFAULT_BATCH_SIZE = 256;
+
+  /**
+   * How often the severities the subscribers are interested in are evaluated again, so that i.e. logger
+   * levels changed at runtime are picked up.
+   */
+  private static final Duration DEFAULT_SEVERITY_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+  /**
+   * Used as the minimum severity ordinal if there are no subscribers, so that all events are discarded.
+   */
+  private static final int NO_SUBSCRIBERS = Event.Severity.values().length;
+
+  /**
+   * Maps the paths of all known categories back to the categories.
+   */
+  private static final Map<String, Event.Category> CATEGORIES = new HashMap<>();
+
+  static {
+    for (Event.Category category : Event.Category.values()) {
+      CATEGORIES.put(category.path(), category);
+    }
+  }
+
   /**
    * Holds all current event subscribers.
+   *
+   * <p>The array is replaced on every change so that the consuming thread can iterate it without locking.</p>
    */
-  private final CopyOnWriteArraySet<Consumer<Event>> subscribers;
+  private volatile Subscriber[] subscribers = new Subscriber[0];
+
+  /**
+   * The lowest severity ordinal any of the current subscribers is interested in.
+   */
+  private volatile int minimumSeverity = NO_SUBSCRIBERS;
+
+  /**
+   * The lowest severity ordinal any of the current subscribers is interested in, indexed by category ordinal.
+   */
+  private volatile int[] minimumSeverities = noSubscriberSeverities();
 
   /**
    * Holds the bounded event mpsc queue dealing with all the events.
@@ -84,15 +136,55 @@ public class DefaultEventBus implements EventBus {
   private final String threadName;
 
   /**
-   * The duration to sleep when no events are consumable.
+   * Decides how the running thread waits when no events are consumable.
    */
-  private final Duration idleSleepDuration;
+  private final WaitStrategy waitStrategy;
+
+  /**
+   * The maximum number of events handed to the subscribers at once.
+   */
+  private final int batchSize;
+
+  /**
+   * The interval in nanoseconds after which the running thread refreshes the subscriber severities.
+   */
+  private final long severityRefreshInterval;
 
   /**
    * The scheduler used during i.e. shutdown.
    */
   private final Scheduler scheduler;
 
+  /**
+   * Counts the events which could not be published because the queue was full.
+   */
+  private final LongAdder droppedEvents = new LongAdder();
+
+  /**
+   * Publishes the dropped events through the {@link Meter}, if one has been set.
+   */
+  private volatile Counter droppedEventsCounter = NoopCounter.INSTANCE;
+
+  /**
+   * Publishes the dispatch latency of every event through the {@link Meter}, if one has been set.
+   */
+  private volatile ValueRecorder dispatchLatencyRecorder = NoopValueRecorder.INSTANCE;
+
+  /**
+   * The number of events handed to the subscribers, only written from the running thread.
+   */
+  private volatile long dispatchedEvents;
+
+  /**
+   * The summed up time events spent between their creation and being dispatched, only written from the running thread.
+   */
+  private volatile long totalDispatchLatency;
+
+  /**
+   * The longest time an event spent between its creation and being dispatched, only written from the running thread.
+   */
+  private volatile long maxDispatchLatency;
+
   /**
    * If the event bus is running, this variable holds the thread.
    */
@@ -108,7 +200,6 @@ public class DefaultEventBus implements EventBus {
 
   private DefaultEventBus(final Builder builder) {
     scheduler = builder.scheduler;
-    subscribers = new CopyOnWriteArraySet<>();
     running = new AtomicBoolean(false);
 
     eventQueue = QueueFactory.newQueue(
@@ -116,27 +207,101 @@ public class DefaultEventBus implements EventBus {
     );
     errorLogging = builder.errorLogging.orElse(null);
     threadName = builder.threadName;
-    idleSleepDuration = builder.idleSleepDuration;
+    waitStrategy = builder.waitStrategy != null
+      ? builder.waitStrategy
+      : ParkingWaitStrategy.create(builder.idleSleepDuration);
+    batchSize = builder.batchSize;
+    severityRefreshInterval = builder.severityRefreshInterval.toNanos();
   }
 
   @Override
   public EventSubscription subscribe(final Consumer<Event> consumer) {
-    subscribers.add(consumer);
+    return subscribe(consumer, Event.Severity.VERBOSE);
+  }
+
+  @Override
+  public EventSubscription subscribe(final Consumer<Event> consumer, final Event.Severity minimumSeverity) {
+    return subscribe(consumer, category -> minimumSeverity);
+  }
+
+  @Override
+  public synchronized EventSubscription subscribe(final Consumer<Event> consumer,
+                                                  final Function<Event.Category, Event.Severity> minimumSeverity) {
+    Subscriber[] current = subscribers;
+    for (Subscriber subscriber : current) {
+      if (subscriber.consumer == consumer) {
+        return new EventSubscription(this, consumer);
+      }
+    }
+
+    Subscriber[] updated = new Subscriber[current.length + 1];
+    System.arraycopy(current, 0, updated, 0, current.length);
+    updated[current.length] = new Subscriber(consumer, minimumSeverity);
+    updateSubscribers(updated);
     return new EventSubscription(this, consumer);
   }
 
+  /**
+   * Evaluates the severities all current subscribers are interested in again.
+   *
+   * <p>This is done periodically by the running thread, but can also be called to pick up changes (like
+   * lowered logger levels) right away.</p>
+   */
+  public synchronized void refreshSubscriptions() {
+    Subscriber[] current = subscribers;
+    Subscriber[] updated = new Subscriber[current.length];
+    for (int i = 0; i < current.length; i++) {
+      updated[i] = new Subscriber(current[i].consumer, current[i].severities);
+    }
+    updateSubscribers(updated);
+  }
+
   @Override
-  public void unsubscribe(final EventSubscription subscription) {
-    subscribers.remove(subscription.consumer());
+  public synchronized void unsubscribe(final EventSubscription subscription) {
+    Subscriber[] current = subscribers;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i].consumer == subscription.consumer()) {
+        Subscriber[] updated = new Subscriber[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+        updateSubscribers(updated);
+        return;
+      }
+    }
+  }
+
+  private void updateSubscribers(final Subscriber[] updated) {
+    int minimum = NO_SUBSCRIBERS;
+    int[] minimumPerCategory = noSubscriberSeverities();
+    for (Subscriber subscriber : updated) {
+      minimum = Math.min(minimum, subscriber.minimumSeverity);
+      for (int i = 0; i < minimumPerCategory.length; i++) {
+        minimumPerCategory[i] = Math.min(minimumPerCategory[i], subscriber.minimumSeverities[i]);
+      }
+    }
+    subscribers = updated;
+    minimumSeverities = minimumPerCategory;
+    minimumSeverity = minimum;
+  }
+
+  private static int[] noSubscriberSeverities() {
+    int[] severities = new int[Event.Category.values().length];
+    Arrays.fill(severities, NO_SUBSCRIBERS);
+    return severities;
   }
 
   @Override
   public PublishResult publish(final Event event) {
     if (!isRunning()) {
       return PublishResult.SHUTDOWN;
+    } else if (!isEnabled(event.severity())) {
+      return PublishResult.SUCCESS;
     } else if (eventQueue.offer(event)) {
+      waitStrategy.signal();
       return PublishResult.SUCCESS;
     } else {
+      droppedEvents.increment();
+      droppedEventsCounter.incrementBy(1);
       if (errorLogging != null) {
         errorLogging.println("Could not publish Event because the queue is full. " + event);
       }
@@ -144,6 +309,20 @@ public class DefaultEventBus implements EventBus {
     }
   }
 
+  /**
+   * Returns true if at least one subscriber is interested in events of the given severity.
+   *
+   * @param severity the severity of the event, events without one are always of interest.
+   */
+  private boolean isEnabled(final Event.Severity severity) {
+    return severity == null || severity.ordinal() >= minimumSeverity;
+  }
+
+  @Override
+  public boolean isEnabled(final Event.Severity severity, final Event.Category category) {
+    return severity.ordinal() >= minimumSeverities[category.ordinal()];
+  }
+
   /**
    * Starts the {@link DefaultEventBus}.
    */
@@ -152,34 +331,37 @@ public class DefaultEventBus implements EventBus {
     return Mono.defer(() -> {
       if (running.compareAndSet(false, true)) {
         runningThread = new Thread(() -> {
-          long idleSleepTime = idleSleepDuration.toMillis();
+          final Event[] batch = new Event[batchSize];
+          final Event.Category[] categories = new Event.Category[batchSize];
+          int idleRounds = 0;
+          long lastRefresh = System.nanoTime();
           while (isRunning() || !eventQueue.isEmpty()) {
-            Event event = eventQueue.poll();
-            while (event != null) {
-              for (Consumer<Event> subscriber : subscribers) {
-                try {
-                  subscriber.accept(event);
-                } catch (Throwable t) {
-                  // any exception thrown in the event consumer is
-                  // ignored, since it would otherwise kill the
-                  // event bus thread!
-                  if (errorLogging != null) {
-                    errorLogging.println("Exception caught in EventBus Consumer: " + t);
-                    t.printStackTrace();
-                  }
-                }
+            int size = 0;
+            Event event;
+            while (size < batch.length && (event = eventQueue.poll()) != null) {
+              batch[size++] = event;
+            }
+
+            if (size > 0) {
+              dispatch(batch, categories, size);
+              idleRounds = 0;
+            } else if (isRunning()) {
+              waitStrategy.idle(idleRounds, () -> !eventQueue.isEmpty() || !isRunning());
+              if (idleRounds < Integer.MAX_VALUE) {
+                idleRounds++;
               }
-              event = eventQueue.poll();
             }
 
-            try {
-              if (isRunning()) {
-                Thread.sleep(idleSleepTime);
+            long now = System.nanoTime();
+            if (now - lastRefresh >= severityRefreshInterval) {
+              lastRefresh = now;
+              try {
+                refreshSubscriptions();
+              } catch (Throwable t) {
+                if (errorLogging != null) {
+                  errorLogging.println("Exception caught while refreshing EventBus subscriptions: " + t);
+                }
               }
-            } catch (InterruptedException e) {
-              // If this thread is interrupted, we continue
-              // into the loop early. so if interrupted for
-              // shutdown it completes quickly while sleeping
             }
           }
         });
@@ -192,6 +374,63 @@ public class DefaultEventBus implements EventBus {
     });
   }
 
+  /**
+   * Hands a batch of events to all current subscribers and clears it afterwards.
+   *
+   * @param batch the batch of events.
+   * @param categories space to hold the known categories of the events.
+   * @param size the number of events in the batch.
+   */
+  private void dispatch(final Event[] batch, final Event.Category[] categories, final int size) {
+    recordDispatchLatency(batch, size);
+
+    Subscriber[] current = subscribers;
+    for (int i = 0; i < size; i++) {
+      categories[i] = CATEGORIES.get(batch[i].category());
+    }
+
+    for (Subscriber subscriber : current) {
+      for (int i = 0; i < size; i++) {
+        Event event = batch[i];
+        if (!subscriber.accepts(event, categories[i])) {
+          continue;
+        }
+        try {
+          subscriber.consumer.accept(event);
+        } catch (Throwable t) {
+          // any exception thrown in the event consumer is
+          // ignored, since it would otherwise kill the
+          // event bus thread!
+          if (errorLogging != null) {
+            errorLogging.println("Exception caught in EventBus Consumer: " + t);
+            t.printStackTrace();
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      batch[i] = null;
+      categories[i] = null;
+    }
+  }
+
+  private void recordDispatchLatency(final Event[] batch, final int size) {
+    long now = System.nanoTime();
+    long total = totalDispatchLatency;
+    long max = maxDispatchLatency;
+    ValueRecorder recorder = dispatchLatencyRecorder;
+    for (int i = 0; i < size; i++) {
+      long latency = Math.max(0, now - batch[i].createdAt());
+      total += latency;
+      max = Math.max(max, latency);
+      recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+    }
+    totalDispatchLatency = total;
+    maxDispatchLatency = max;
+    dispatchedEvents = dispatchedEvents + size;
+  }
+
   /**
    * Stops the {@link DefaultEventBus} from running.
    */
@@ -200,7 +439,7 @@ public class DefaultEventBus implements EventBus {
     return Mono
       .defer(() -> {
         if(running.compareAndSet(true, false)) {
-          runningThread.interrupt();
+          waitStrategy.signal();
         }
         return Mono.empty();
       })
@@ -208,6 +447,49 @@ public class DefaultEventBus implements EventBus {
       .timeout(timeout, scheduler);
   }
 
+  /**
+   * Publishes the dropped events and the dispatch latency of this event bus through the given {@link Meter}.
+   *
+   * <p>The meter usually depends on the event bus, so it can only be set once both have been created.</p>
+   *
+   * @param meter the meter to publish the metrics through.
+   */
+  public void meter(final Meter meter) {
+    droppedEventsCounter = meter.counter(Meter.METRIC_EVENTS_DROPPED, Collections.emptyMap());
+    dispatchLatencyRecorder = meter.valueRecorder(Meter.METRIC_EVENTS_DISPATCH_LATENCY, Collections.emptyMap());
+  }
+
+  /**
+   * Returns the number of events which could not be published because the queue was full.
+   */
+  public long droppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  /**
+   * Returns the number of events which have been handed to the subscribers.
+   */
+  public long dispatchedEvents() {
+    return dispatchedEvents;
+  }
+
+  /**
+   * Returns the average time events spent between their creation and being handed to the subscribers.
+   */
+  public Duration averageDispatchLatency() {
+    long dispatched = dispatchedEvents;
+    return dispatched == 0
+      ? Duration.ZERO
+      : Duration.ofNanos(totalDispatchLatency / dispatched);
+  }
+
+  /**
+   * Returns the longest time an event spent between its creation and being handed to the subscribers.
+   */
+  public Duration maxDispatchLatency() {
+    return Duration.ofNanos(maxDispatchLatency);
+  }
+
   /**
    * True if running, false otherwise.
    */
@@ -219,7 +501,44 @@ public class DefaultEventBus implements EventBus {
    * True if there are subscribers on the event bus right now.
    */
   boolean hasSubscribers() {
-    return !subscribers.isEmpty();
+    return subscribers.length > 0;
+  }
+
+  /**
+   * A consumer together with the lowest severities it wants to receive.
+   */
+  private static class Subscriber {
+
+    final Consumer<Event> consumer;
+    final Function<Event.Category, Event.Severity> severities;
+    final int[] minimumSeverities;
+    final int minimumSeverity;
+
+    Subscriber(final Consumer<Event> consumer, final Function<Event.Category, Event.Severity> minimumSeverity) {
+      this.consumer = consumer;
+      this.severities = minimumSeverity;
+      this.minimumSeverities = new int[Event.Category.values().length];
+      int minimum = NO_SUBSCRIBERS;
+      for (Event.Category category : Event.Category.values()) {
+        int severity = minimumSeverity.apply(category).ordinal();
+        minimumSeverities[category.ordinal()] = severity;
+        minimum = Math.min(minimum, severity);
+      }
+      this.minimumSeverity = minimum;
+    }
+
+    /**
+     * Checks if the event should be delivered, events of unknown categories are checked against the lowest
+     * severity of all categories.
+     */
+    boolean accepts(final Event event, final Event.Category category) {
+      Event.Severity severity = event.severity();
+      if (severity == null) {
+        return true;
+      }
+      return severity.ordinal() >= (category == null ? minimumSeverity : minimumSeverities[category.ordinal()]);
+    }
+
   }
 
   /**
@@ -233,6 +552,9 @@ public class DefaultEventBus implements EventBus {
     Optional<PrintStream> errorLogging;
     String threadName;
     Duration idleSleepDuration;
+    WaitStrategy waitStrategy;
+    int batchSize;
+    Duration severityRefreshInterval;
 
     Builder(Scheduler scheduler) {
       this.scheduler = scheduler;
@@ -241,6 +563,8 @@ public class DefaultEventBus implements EventBus {
       errorLogging = Optional.of(System.err);
       threadName = "cb-events";
       idleSleepDuration = DEFAULT_IDLE_SLEEP_DURATION;
+      batchSize = DEFAULT_BATCH_SIZE;
+      severityRefreshInterval = DEFAULT_SEVERITY_REFRESH_INTERVAL;
     }
 
     public Builder queueCapacity(final int queueCapacity) {
@@ -258,11 +582,45 @@ public class DefaultEventBus implements EventBus {
       return this;
     }
 
+    /**
+     * Sets the maximum time the idle event bus thread waits before checking for events again if it
+     * is not woken up by a publisher.
+     *
+     * <p>Only has an effect if no custom {@link #waitStrategy(WaitStrategy)} is set.</p>
+     */
     public Builder idleSleepDuration(final Duration idleSleepDuration) {
       this.idleSleepDuration = idleSleepDuration;
       return this;
     }
 
+    /**
+     * Sets a custom {@link WaitStrategy} for the event bus thread, by default a {@link ParkingWaitStrategy}
+     * is used.
+     */
+    public Builder waitStrategy(final WaitStrategy waitStrategy) {
+      this.waitStrategy = waitStrategy;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of events which are drained from the queue and handed to the subscribers at once.
+     */
+    public Builder batchSize(final int batchSize) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("The batch size must be at least 1");
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets how often the severities the subscribers are interested in are evaluated again.
+     */
+    public Builder severityRefreshInterval(final Duration severityRefreshInterval) {
+      this.severityRefreshInterval = severityRefreshInterval;
+      return this;
+    }
+
     public DefaultEventBus build() {
       return new DefaultEventBus(this);
     }
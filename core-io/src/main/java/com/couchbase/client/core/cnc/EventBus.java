@@ -20,6 +20,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The {@link EventBus} is the main demarcation line between internal behavior and external
@@ -46,6 +47,63 @@ public interface EventBus {
    */
   EventSubscription subscribe(Consumer<Event> consumer);
 
+  /**
+   * Subscribes a {@link Consumer} to receive only {@link Event Events} of at least the given severity.
+   *
+   * <p>Event buses which are aware of the severities their subscribers are interested in may discard other
+   * events before they are even enqueued. Events without a severity are always delivered.</p>
+   *
+   * @param consumer the consumer which will receive events.
+   * @param minimumSeverity the lowest severity the consumer wants to receive.
+   * @return a {@link EventSubscription} that can be used to unsubscribe.
+   */
+  default EventSubscription subscribe(final Consumer<Event> consumer, final Event.Severity minimumSeverity) {
+    return subscribe(event -> {
+      if (event.severity() == null || event.severity().compareTo(minimumSeverity) >= 0) {
+        consumer.accept(event);
+      }
+    });
+  }
+
+  /**
+   * Subscribes a {@link Consumer} to receive only {@link Event Events} of at least the severity given for
+   * their {@link Event.Category}.
+   *
+   * <p>By default the function is only evaluated once during subscription, and all events of at least the lowest
+   * of these severities are delivered. Event buses which keep track of the categories may evaluate it again later
+   * on, the {@link DefaultEventBus} does so periodically.</p>
+   *
+   * @param consumer the consumer which will receive events.
+   * @param minimumSeverity returns the lowest severity the consumer wants to receive per category.
+   * @return a {@link EventSubscription} that can be used to unsubscribe.
+   */
+  default EventSubscription subscribe(final Consumer<Event> consumer,
+                                      final Function<Event.Category, Event.Severity> minimumSeverity) {
+    Event.Severity lowest = Event.Severity.TRACING;
+    for (Event.Category category : Event.Category.values()) {
+      Event.Severity severity = minimumSeverity.apply(category);
+      if (severity.compareTo(lowest) < 0) {
+        lowest = severity;
+      }
+    }
+    return subscribe(consumer, lowest);
+  }
+
+  /**
+   * Checks if any subscriber is interested in events of the given severity and category.
+   *
+   * <p>This check is cheap and should be used to avoid creating events (and their contexts) on hot code
+   * paths if they would be discarded anyways. Note that a negative answer only reflects the subscribers at
+   * the time of the call.</p>
+   *
+   * @param severity the severity of the event.
+   * @param category the category of the event.
+   * @return true if an event with this severity and category should be published, false otherwise.
+   */
+  default boolean isEnabled(final Event.Severity severity, final Event.Category category) {
+    return true;
+  }
+
   /**
    * Unsubscribes the {@link Consumer} from this {@link EventBus}.
    *
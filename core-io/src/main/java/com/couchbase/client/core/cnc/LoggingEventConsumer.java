@@ -91,6 +91,33 @@ public class LoggingEventConsumer implements Consumer<Event> {
     return logger;
   }
 
+  /**
+   * Returns the lowest severity this consumer would log for the given category.
+   *
+   * <p>Used to subscribe to the {@link EventBus} so that events which would not be logged anyways are not
+   * even created. The {@link DefaultEventBus} calls this again periodically, so that logger levels lowered at
+   * runtime are picked up after a short delay (or right away through {@link DefaultEventBus#refreshSubscriptions()}).
+   * Other event buses may only call it once during subscription.</p>
+   *
+   * @param category the category of the events.
+   * @return the lowest severity which is logged.
+   */
+  public Event.Severity minimumSeverity(final Event.Category category) {
+    Logger logger = createLogger(category.path());
+    if (logger.isTraceEnabled()) {
+      return Event.Severity.VERBOSE;
+    } else if (logger.isDebugEnabled()) {
+      return Event.Severity.DEBUG;
+    } else if (logger.isInfoEnabled()) {
+      return Event.Severity.INFO;
+    } else if (logger.isWarnEnabled()) {
+      return Event.Severity.WARN;
+    } else if (logger.isErrorEnabled()) {
+      return Event.Severity.ERROR;
+    }
+    return Event.Severity.TRACING;
+  }
+
   @Override
   public void accept(final Event event) {
     if (event.severity() == Event.Severity.TRACING) {
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The {@link Meter} describes the metrics abstraction in the SDK.
+ * <p>
+ * Metrics are identified by their name and a set of tags (i.e. the service and the node a latency has been
+ * measured against). Implementations are expected to return the same {@link Counter} or {@link ValueRecorder}
+ * for the same name and tags, so callers on hot code paths are advised to hold on to the returned instances
+ * instead of looking them up for every recorded value.
+ */
+@Stability.Volatile
+public interface Meter {
+
+  /**
+   * The latency of a request from being written until its response has been received, in microseconds.
+   */
+  String METRIC_REQUEST_LATENCY = "cb.request.latency";
+
+  /**
+   * The number of times requests have been scheduled for retry.
+   */
+  String METRIC_REQUEST_RETRIES = "cb.request.retries";
+
+  /**
+   * The number of requests which have been cancelled because their timeout elapsed.
+   */
+  String METRIC_REQUEST_TIMEOUTS = "cb.request.timeouts";
+
+  /**
+   * The number of responses which arrived after their request has been completed already.
+   */
+  String METRIC_REQUEST_ORPHANS = "cb.request.orphans";
+
+  /**
+   * The number of requests currently written to an endpoint and waiting for their response.
+   */
+  String METRIC_ENDPOINT_IN_FLIGHT = "cb.endpoint.in_flight";
+
+  /**
+   * The number of requests written to an endpoint per drain of its write queue, if write coalescing is enabled.
+   */
+  String METRIC_ENDPOINT_WRITE_BATCH_SIZE = "cb.endpoint.write_batch_size";
+
+  /**
+   * The time a request waited in the queue of a pooled service until an endpoint became free, in microseconds.
+   */
+  String METRIC_SERVICE_QUEUE_LATENCY = "cb.service.queue_latency";
+
+  /**
+   * The number of hedged replica reads where the replicas have been read because the active was too slow.
+   */
+  String METRIC_REPLICA_HEDGES_FIRED = "cb.kv.replica_hedges_fired";
+
+  /**
+   * The number of hedged replica reads where a replica responded before the active.
+   */
+  String METRIC_REPLICA_HEDGES_WON = "cb.kv.replica_hedges_won";
+
+  /**
+   * The number of events which could not be published because the queue of the event bus was full.
+   */
+  String METRIC_EVENTS_DROPPED = "cb.events.dropped";
+
+  /**
+   * The time an event spent between its creation and being handed to the subscribers of the event bus,
+   * in microseconds.
+   */
+  String METRIC_EVENTS_DISPATCH_LATENCY = "cb.events.dispatch_latency";
+
+  /**
+   * The number of lookups which found an entry in a cache (like the prepared statement cache).
+   */
+  String METRIC_CACHE_HITS = "cb.cache.hits";
+
+  /**
+   * The number of lookups which did not find an entry in a cache.
+   */
+  String METRIC_CACHE_MISSES = "cb.cache.misses";
+
+  /**
+   * The number of entries which have been evicted from a cache because its capacity was exceeded.
+   */
+  String METRIC_CACHE_EVICTIONS = "cb.cache.evictions";
+
+  /**
+   * The tag identifying the service, using its {@link com.couchbase.client.core.service.ServiceType#ident()}.
+   */
+  String TAG_SERVICE = "service";
+
+  /**
+   * The tag identifying the operation (i.e. the opcode for key-value requests).
+   */
+  String TAG_OPERATION = "operation";
+
+  /**
+   * The tag identifying the remote node (host and port).
+   */
+  String TAG_NODE = "node";
+
+  /**
+   * The tag identifying a single endpoint (the id of its channel), for metrics tracked per connection.
+   */
+  String TAG_ENDPOINT = "endpoint";
+
+  /**
+   * The tag identifying the reason of a retry.
+   */
+  String TAG_REASON = "reason";
+
+  /**
+   * The tag identifying a cache.
+   */
+  String TAG_CACHE = "cache";
+
+  /**
+   * Returns the counter for the given name and tags, creating it if needed.
+   *
+   * @param name the name of the metric.
+   * @param tags the tags of the metric.
+   * @return the counter to update.
+   */
+  Counter counter(String name, Map<String, String> tags);
+
+  /**
+   * Returns the value recorder for the given name and tags, creating it if needed.
+   *
+   * @param name the name of the metric.
+   * @param tags the tags of the metric.
+   * @return the value recorder to record into.
+   */
+  ValueRecorder valueRecorder(String name, Map<String, String> tags);
+
+  /**
+   * Starts the meter if it hasn't been started, might be a noop depending on the implementation.
+   */
+  Mono<Void> start();
+
+  /**
+   * Stops the meter if it has been started previously, might be a noop depending on the implementation.
+   */
+  Mono<Void> stop(Duration timeout);
+
+}
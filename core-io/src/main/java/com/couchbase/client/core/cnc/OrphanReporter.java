@@ -20,6 +20,8 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.events.tracing.OrphanRecordDroppedEvent;
 import com.couchbase.client.core.cnc.events.tracing.OrphanReporterFailureDetectedEvent;
 import com.couchbase.client.core.cnc.events.tracing.OrphansRecordedEvent;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.cnc.metrics.RequestCounters;
 import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
 import com.couchbase.client.core.env.OrphanReporterConfig;
 import com.couchbase.client.core.msg.Request;
@@ -59,9 +61,15 @@ public class OrphanReporter {
   private final long emitIntervalNanos;
   private final int sampleSize;
   private final EventBus eventBus;
+  private final RequestCounters counters;
 
   public OrphanReporter(EventBus eventBus, OrphanReporterConfig config) {
+    this(eventBus, config, NoopMeter.INSTANCE);
+  }
+
+  public OrphanReporter(EventBus eventBus, OrphanReporterConfig config, Meter meter) {
     this.eventBus = eventBus;
+    this.counters = new RequestCounters(meter);
     this.orphanQueue = new MpscUnboundedArrayQueue<>(config.queueLength());
     this.emitIntervalNanos = config.emitInterval().toNanos();
     this.sampleSize = config.sampleSize();
@@ -92,6 +100,8 @@ public class OrphanReporter {
         return;
       }
 
+      counters.orphans(request.serviceType()).incrementBy(1);
+
       if (!orphanQueue.offer(request)) {
         eventBus.publish(new OrphanRecordDroppedEvent(request.getClass()));
       }
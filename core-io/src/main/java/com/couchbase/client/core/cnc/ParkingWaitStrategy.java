@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A {@link WaitStrategy} which first spins, then yields and finally parks the consuming thread until a producer
+ * signals that new work is available.
+ *
+ * <p>Spinning and yielding keep the latency low while events arrive in bursts, parking makes sure an idle
+ * consumer does not burn any CPU. Producers only pay for an unpark if the consumer is actually parked.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class ParkingWaitStrategy implements WaitStrategy {
+
+  /**
+   * The number of idle rounds spent spinning before yielding.
+   */
+  static final int DEFAULT_MAX_SPINS = 100;
+
+  /**
+   * The number of idle rounds spent yielding before parking.
+   */
+  static final int DEFAULT_MAX_YIELDS = 10;
+
+  /**
+   * Even if not signalled, the consumer checks for work again after this time.
+   */
+  static final Duration DEFAULT_MAX_PARK_DURATION = Duration.ofMillis(100);
+
+  private final int maxSpins;
+  private final int maxYields;
+  private final long maxParkNanos;
+
+  /**
+   * Holds the consumer thread while it is parked (or about to park), null otherwise.
+   */
+  private volatile Thread parkedThread;
+
+  public static ParkingWaitStrategy create() {
+    return create(DEFAULT_MAX_PARK_DURATION);
+  }
+
+  public static ParkingWaitStrategy create(final Duration maxParkDuration) {
+    return new ParkingWaitStrategy(DEFAULT_MAX_SPINS, DEFAULT_MAX_YIELDS, maxParkDuration);
+  }
+
+  ParkingWaitStrategy(final int maxSpins, final int maxYields, final Duration maxParkDuration) {
+    if (maxParkDuration.isNegative() || maxParkDuration.isZero()) {
+      throw new IllegalArgumentException("The maximum park duration must be positive");
+    }
+    this.maxSpins = maxSpins;
+    this.maxYields = maxYields;
+    this.maxParkNanos = maxParkDuration.toNanos();
+  }
+
+  @Override
+  public void idle(final int idleRounds, final BooleanSupplier workAvailable) {
+    if (idleRounds < maxSpins) {
+      return;
+    } else if (idleRounds < maxSpins + maxYields) {
+      Thread.yield();
+      return;
+    }
+
+    // The thread is published before checking for work one last time, and producers make their work visible
+    // before reading it. So either this check sees the new work or the producer sees the parked thread.
+    parkedThread = Thread.currentThread();
+    try {
+      if (!workAvailable.getAsBoolean()) {
+        LockSupport.parkNanos(this, maxParkNanos);
+      }
+    } finally {
+      parkedThread = null;
+    }
+  }
+
+  @Override
+  public void signal() {
+    Thread thread = parkedThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides how the consuming thread of the {@link DefaultEventBus} waits when there are no events to process.
+ *
+ * <p>The consumer calls {@link #idle(int, BooleanSupplier)} every time it found the queue empty, and every
+ * producer calls {@link #signal()} after it enqueued an event so that a waiting consumer can be woken up
+ * right away. Since a strategy usually keeps track of the waiting thread, an instance must not be shared
+ * between event buses.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public interface WaitStrategy {
+
+  /**
+   * Called from the consuming thread when there is no work to do.
+   *
+   * <p>Implementations must return early once the supplier signals that work is available, and must not wait
+   * longer than a bounded amount of time even if they never get signalled.</p>
+   *
+   * @param idleRounds the number of consecutive times the consumer has been idle before this call.
+   * @param workAvailable returns true if the consumer should stop waiting and check for work again.
+   */
+  void idle(int idleRounds, BooleanSupplier workAvailable);
+
+  /**
+   * Called from the producing threads once work has been made available.
+   *
+   * <p>This method is called on the hot path of every publish, so it needs to be cheap if the consumer is
+   * not waiting.</p>
+   */
+  void signal();
+
+}
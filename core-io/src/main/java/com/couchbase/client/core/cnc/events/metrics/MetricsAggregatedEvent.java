@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.events.metrics;
+
+import com.couchbase.client.core.cnc.AbstractEvent;
+import com.couchbase.client.core.json.Mapper;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Emits the metrics which have been aggregated during the last emit interval.
+ *
+ * <p>Counters are reported with their current value if it changed during the interval, value recorders with
+ * the count and the percentiles of the values recorded during the interval.</p>
+ */
+public class MetricsAggregatedEvent extends AbstractEvent {
+
+  private final Map<String, Object> counters;
+  private final Map<String, Object> valueRecorders;
+
+  public MetricsAggregatedEvent(final Duration duration, final Map<String, Object> counters,
+                                final Map<String, Object> valueRecorders) {
+    super(Severity.INFO, Category.METRICS, duration, null);
+    this.counters = counters;
+    this.valueRecorders = valueRecorders;
+  }
+
+  public Map<String, Object> counters() {
+    return counters;
+  }
+
+  public Map<String, Object> valueRecorders() {
+    return valueRecorders;
+  }
+
+  @Override
+  public String description() {
+    Map<String, Object> output = new LinkedHashMap<>();
+    output.put("counters", counters);
+    output.put("valueRecorders", valueRecorders);
+    return "Metrics aggregated: " + Mapper.encodeAsString(output);
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Counter} which keeps its value in-process, so that it can be queried and exported by the
+ * {@link AggregatingMeter}.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class AggregatingCounter implements Counter {
+
+  private final LongAdder value = new LongAdder();
+
+  AggregatingCounter() {
+  }
+
+  @Override
+  public void incrementBy(final long number) {
+    value.add(number);
+  }
+
+  /**
+   * Returns the current value of this counter.
+   */
+  public long value() {
+    return value.sum();
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.MetricsAggregatedEvent;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Meter} which aggregates all metrics in-process.
+ *
+ * <p>The environment only uses it if it is enabled through the {@link AggregatingMeterConfig}, otherwise no
+ * metrics are recorded unless a custom meter is configured.</p>
+ *
+ * <p>Latencies are aggregated into HdrHistograms and counters are kept as plain values. Both can be queried at
+ * any time through {@link #counters()} and {@link #valueRecorders()}. In addition, the values recorded during
+ * each emit interval are published as a {@link MetricsAggregatedEvent} on the {@link EventBus}.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class AggregatingMeter implements Meter {
+
+  private static final AtomicInteger METER_ID = new AtomicInteger();
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final Map<MetricIdentifier, AggregatingCounter> counters = new ConcurrentHashMap<>();
+  private final Map<MetricIdentifier, AggregatingValueRecorder> valueRecorders = new ConcurrentHashMap<>();
+  private final Map<MetricIdentifier, Long> lastExportedCounters = new ConcurrentHashMap<>();
+  private final EventBus eventBus;
+  private final Duration emitInterval;
+  private final Thread worker;
+
+  public static AggregatingMeter create(final EventBus eventBus, final AggregatingMeterConfig config) {
+    return new AggregatingMeter(eventBus, config);
+  }
+
+  private AggregatingMeter(final EventBus eventBus, final AggregatingMeterConfig config) {
+    this.eventBus = eventBus;
+    this.emitInterval = config.emitInterval();
+    this.worker = new Thread(new Worker());
+    worker.setDaemon(true);
+  }
+
+  @Override
+  public Counter counter(final String name, final Map<String, String> tags) {
+    return counters.computeIfAbsent(new MetricIdentifier(name, tags), id -> new AggregatingCounter());
+  }
+
+  @Override
+  public ValueRecorder valueRecorder(final String name, final Map<String, String> tags) {
+    return valueRecorders.computeIfAbsent(new MetricIdentifier(name, tags), id -> new AggregatingValueRecorder());
+  }
+
+  /**
+   * Returns all counters created so far.
+   */
+  public Map<MetricIdentifier, AggregatingCounter> counters() {
+    return Collections.unmodifiableMap(counters);
+  }
+
+  /**
+   * Returns all value recorders created so far.
+   */
+  public Map<MetricIdentifier, AggregatingValueRecorder> valueRecorders() {
+    return Collections.unmodifiableMap(valueRecorders);
+  }
+
+  @Override
+  public Mono<Void> start() {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(false, true)) {
+        worker.start();
+      }
+      return Mono.empty();
+    });
+  }
+
+  @Override
+  public Mono<Void> stop(final Duration timeout) {
+    return Mono.defer(() -> {
+      if (running.compareAndSet(true, false)) {
+        worker.interrupt();
+      }
+      return Mono.empty();
+    });
+  }
+
+  /**
+   * Exports all metrics which changed since the last export.
+   *
+   * @return the event to publish, or null if nothing changed.
+   */
+  MetricsAggregatedEvent exportAndReset() {
+    Map<String, Object> exportedCounters = new LinkedHashMap<>();
+    for (Map.Entry<MetricIdentifier, AggregatingCounter> entry : counters.entrySet()) {
+      long value = entry.getValue().value();
+      Long previous = lastExportedCounters.put(entry.getKey(), value);
+      if (previous == null || previous != value) {
+        exportedCounters.put(entry.getKey().toString(), value);
+      }
+    }
+
+    Map<String, Object> exportedRecorders = new LinkedHashMap<>();
+    for (Map.Entry<MetricIdentifier, AggregatingValueRecorder> entry : valueRecorders.entrySet()) {
+      Map<String, Object> exported = entry.getValue().exportAndReset();
+      if (exported != null) {
+        exportedRecorders.put(entry.getKey().toString(), exported);
+      }
+    }
+
+    if (exportedCounters.isEmpty() && exportedRecorders.isEmpty()) {
+      return null;
+    }
+    return new MetricsAggregatedEvent(emitInterval, exportedCounters, exportedRecorders);
+  }
+
+  private class Worker implements Runnable {
+
+    @Override
+    public void run() {
+      Thread.currentThread().setName("cb-metrics-" + METER_ID.incrementAndGet());
+      while (running.get()) {
+        try {
+          Thread.sleep(emitInterval.toMillis());
+          MetricsAggregatedEvent event = exportAndReset();
+          if (event != null) {
+            eventBus.publish(event);
+          }
+        } catch (final InterruptedException ex) {
+          // restoring the flag and looping again would make every following sleep fail right away
+          Thread.currentThread().interrupt();
+          return;
+        } catch (final Exception ex) {
+          // the worker must not die, the next interval will try again
+        }
+      }
+    }
+  }
+
+}
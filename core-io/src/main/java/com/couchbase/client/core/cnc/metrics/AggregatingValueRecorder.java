@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.org.HdrHistogram.Histogram;
+import com.couchbase.client.core.deps.org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link ValueRecorder} which aggregates the recorded values in-process into a HdrHistogram.
+ *
+ * <p>Values are recorded into a {@link Recorder}, so writers never block each other or the reader. The recorded
+ * intervals are then drained into a histogram covering all values since creation (which can be queried) and one
+ * covering the values since the last export.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class AggregatingValueRecorder implements ValueRecorder {
+
+  /**
+   * The number of significant value digits kept by the histograms.
+   */
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  /**
+   * The percentiles which are exported.
+   */
+  private static final double[] EXPORTED_PERCENTILES = new double[] { 50.0, 90.0, 99.0, 99.9 };
+
+  private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+  private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+  private final Histogram sinceLastExport = new Histogram(SIGNIFICANT_DIGITS);
+  private Histogram interval;
+
+  AggregatingValueRecorder() {
+  }
+
+  @Override
+  public void recordValue(final long value) {
+    recorder.recordValue(value);
+  }
+
+  /**
+   * Moves the values recorded since the last call into the aggregated histograms.
+   */
+  private void drain() {
+    interval = recorder.getIntervalHistogram(interval);
+    total.add(interval);
+    sinceLastExport.add(interval);
+  }
+
+  /**
+   * Returns the number of values recorded since creation.
+   */
+  public synchronized long count() {
+    drain();
+    return total.getTotalCount();
+  }
+
+  /**
+   * Returns the value at the given percentile of all values recorded since creation.
+   *
+   * @param percentile the percentile, i.e. 99.0 for the 99th percentile.
+   * @return the value at the percentile, or 0 if no value has been recorded yet.
+   */
+  public synchronized long valueAtPercentile(final double percentile) {
+    drain();
+    return total.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Returns the largest value recorded since creation.
+   */
+  public synchronized long maxValue() {
+    drain();
+    return total.getMaxValue();
+  }
+
+  /**
+   * Exports the values recorded since the last export and resets them.
+   *
+   * @return the exported values, or null if no values have been recorded in the meantime.
+   */
+  synchronized Map<String, Object> exportAndReset() {
+    drain();
+    if (sinceLastExport.getTotalCount() == 0) {
+      return null;
+    }
+
+    Map<String, Object> export = new LinkedHashMap<>();
+    export.put("count", sinceLastExport.getTotalCount());
+    for (double percentile : EXPORTED_PERCENTILES) {
+      export.put(Double.toString(percentile), sinceLastExport.getValueAtPercentile(percentile));
+    }
+    export.put("max", sinceLastExport.getMaxValue());
+    sinceLastExport.reset();
+    return export;
+  }
+
+}
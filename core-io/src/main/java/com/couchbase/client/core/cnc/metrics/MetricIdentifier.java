@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Uniquely identifies a metric by its name and tags.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public class MetricIdentifier {
+
+  private final String name;
+  private final Map<String, String> tags;
+
+  public MetricIdentifier(final String name, final Map<String, String> tags) {
+    this.name = name;
+    this.tags = tags == null || tags.isEmpty()
+      ? Collections.emptyMap()
+      : Collections.unmodifiableMap(new TreeMap<>(tags));
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public Map<String, String> tags() {
+    return tags;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    MetricIdentifier that = (MetricIdentifier) o;
+    return name.equals(that.name) && tags.equals(that.tags);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, tags);
+  }
+
+  @Override
+  public String toString() {
+    return tags.isEmpty() ? name : name + tags;
+  }
+
+}
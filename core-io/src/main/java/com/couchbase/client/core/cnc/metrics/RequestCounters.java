@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.retry.RetryReason;
+import com.couchbase.client.core.service.ServiceType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds on to the request counters of a {@link Meter} for every set of tags they are recorded with.
+ * <p>
+ * Timeouts, retries and orphans are tagged with the service type (and the retry reason), so looking up their
+ * counters for every event would allocate the tags each time. Instead the counters are created lazily once per
+ * tag set and reused afterwards. If two threads race on the creation both ask the meter, which returns the same
+ * counter for the same name and tags.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class RequestCounters {
+
+  private final Meter meter;
+  private final Counter[] timeouts = new Counter[ServiceType.values().length];
+  private final Counter[] orphans = new Counter[ServiceType.values().length];
+  private final Counter[][] retries = new Counter[ServiceType.values().length][RetryReason.values().length];
+
+  public RequestCounters(final Meter meter) {
+    this.meter = meter;
+  }
+
+  /**
+   * Returns the counter for requests of the given service which timed out.
+   *
+   * @param serviceType the service type of the request.
+   * @return the counter to update.
+   */
+  public Counter timeouts(final ServiceType serviceType) {
+    Counter counter = timeouts[serviceType.ordinal()];
+    if (counter == null) {
+      counter = meter.counter(Meter.METRIC_REQUEST_TIMEOUTS, serviceTags(serviceType));
+      timeouts[serviceType.ordinal()] = counter;
+    }
+    return counter;
+  }
+
+  /**
+   * Returns the counter for responses of the given service which arrived after their request completed.
+   *
+   * @param serviceType the service type of the request.
+   * @return the counter to update.
+   */
+  public Counter orphans(final ServiceType serviceType) {
+    Counter counter = orphans[serviceType.ordinal()];
+    if (counter == null) {
+      counter = meter.counter(Meter.METRIC_REQUEST_ORPHANS, serviceTags(serviceType));
+      orphans[serviceType.ordinal()] = counter;
+    }
+    return counter;
+  }
+
+  /**
+   * Returns the counter for requests of the given service which have been scheduled for retry.
+   *
+   * @param serviceType the service type of the request.
+   * @param reason the reason of the retry.
+   * @return the counter to update.
+   */
+  public Counter retries(final ServiceType serviceType, final RetryReason reason) {
+    Counter counter = retries[serviceType.ordinal()][reason.ordinal()];
+    if (counter == null) {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Meter.TAG_SERVICE, serviceType.ident());
+      tags.put(Meter.TAG_REASON, reason.name());
+      counter = meter.counter(Meter.METRIC_REQUEST_RETRIES, tags);
+      retries[serviceType.ordinal()][reason.ordinal()] = counter;
+    }
+    return counter;
+  }
+
+  private static Map<String, String> serviceTags(final ServiceType serviceType) {
+    return Collections.singletonMap(Meter.TAG_SERVICE, serviceType.ident());
+  }
+
+}
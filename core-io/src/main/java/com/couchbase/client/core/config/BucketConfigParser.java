@@ -21,6 +21,7 @@ import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.json.Mapper;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.DeserializationFeature;
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.InjectableValues;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.ObjectReader;
 
 import java.io.IOException;
 
@@ -41,16 +42,35 @@ public final class BucketConfigParser {
      */
     public static BucketConfig parse(final String input, final CoreEnvironment env, final String origin) {
         try {
-            InjectableValues inject = new InjectableValues.Std()
-                    .addValue("env", env)
-                    .addValue("origin", origin == null ? "127.0.0.1" : origin);
-            return Mapper.reader()
-                    .forType(BucketConfig.class)
-                    .with(inject)
-                    .with(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
-                    .readValue(input);
+            return reader(env, origin).readValue(input);
         } catch (IOException e) {
             throw new CouchbaseException("Could not parse configuration", e);
         }
     }
+
+    /**
+     * Parse a raw UTF-8 encoded configuration into a {@link BucketConfig}, without decoding it into a string first.
+     *
+     * @param input the raw encoded input.
+     * @param env the environment to use.
+     * @param origin the origin of the configuration. If null / none provided then localhost is assumed.
+     * @return the parsed bucket configuration.
+     */
+    public static BucketConfig parse(final byte[] input, final CoreEnvironment env, final String origin) {
+        try {
+            return reader(env, origin).readValue(input);
+        } catch (IOException e) {
+            throw new CouchbaseException("Could not parse configuration", e);
+        }
+    }
+
+    private static ObjectReader reader(final CoreEnvironment env, final String origin) {
+        InjectableValues inject = new InjectableValues.Std()
+                .addValue("env", env)
+                .addValue("origin", origin == null ? "127.0.0.1" : origin);
+        return Mapper.reader()
+                .forType(BucketConfig.class)
+                .with(inject)
+                .with(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL);
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonFactory;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonParser;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * The revision of a config, made up of the revision epoch (if sent by the server) and the revision number.
+ *
+ * <p>The revision can be extracted from the raw config without binding it, so that configs which are not newer
+ * than the current one can be skipped cheaply.</p>
+ *
+ * @since 2.1.0
+ */
+final class ConfigRevision {
+
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  private final long epoch;
+  private final long rev;
+
+  ConfigRevision(final long epoch, final long rev) {
+    this.epoch = epoch;
+    this.rev = rev;
+  }
+
+  /**
+   * Extracts the revision from the top level "revEpoch" and "rev" fields of a raw config.
+   *
+   * <p>Only the tokens are scanned, nested objects and arrays are skipped without being bound.</p>
+   *
+   * @param config the raw config.
+   * @return the revision if the config contains a revision number, empty otherwise.
+   */
+  static Optional<ConfigRevision> parse(final byte[] config) {
+    try (JsonParser parser = jsonFactory.createParser(config)) {
+      return parse(parser);
+    } catch (IOException ex) {
+      // Malformed configs are reported once they are bound.
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Extracts the revision from the top level "revEpoch" and "rev" fields of a raw config.
+   *
+   * @param config the raw config.
+   * @return the revision if the config contains a revision number, empty otherwise.
+   */
+  static Optional<ConfigRevision> parse(final String config) {
+    try (JsonParser parser = jsonFactory.createParser(config)) {
+      return parse(parser);
+    } catch (IOException ex) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<ConfigRevision> parse(final JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return Optional.empty();
+    }
+
+    long epoch = 0;
+    long rev = -1;
+    boolean epochFound = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken value = parser.nextToken();
+      if (value == JsonToken.VALUE_NUMBER_INT && "rev".equals(name)) {
+        rev = parser.getLongValue();
+      } else if (value == JsonToken.VALUE_NUMBER_INT && "revEpoch".equals(name)) {
+        epoch = parser.getLongValue();
+        epochFound = true;
+      } else {
+        parser.skipChildren();
+      }
+      if (rev >= 0 && epochFound) {
+        break;
+      }
+    }
+    return rev < 0 ? Optional.empty() : Optional.of(new ConfigRevision(epoch, rev));
+  }
+
+  long epoch() {
+    return epoch;
+  }
+
+  long rev() {
+    return rev;
+  }
+
+  /**
+   * Returns true if this revision is newer than the given one.
+   *
+   * <p>A higher epoch always wins, the revision number is only compared within the same epoch.</p>
+   */
+  boolean newerThan(final ConfigRevision other) {
+    if (epoch != other.epoch) {
+      return epoch > other.epoch;
+    }
+    return rev > other.rev;
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigRevision{epoch=" + epoch + ", rev=" + rev + '}';
+  }
+
+}
@@ -108,6 +108,22 @@ public interface ConfigurationProvider  {
    */
   void proposeGlobalConfig(ProposedGlobalConfigContext ctx);
 
+  /**
+   * Signals that a KV connection to the given bucket receives cluster map change notifications pushed by
+   * the server, so that polling for new configs is only needed as a fallback.
+   *
+   * @param bucket the name of the bucket.
+   */
+  void clustermapPushEnabled(String bucket);
+
+  /**
+   * Signals that a KV connection to the given bucket which received pushed cluster map change notifications
+   * has been closed.
+   *
+   * @param bucket the name of the bucket.
+   */
+  void clustermapPushDisabled(String bucket);
+
   /**
    * Instructs the provider to try and load the global config, and then manage it.
    */
@@ -149,4 +165,20 @@ public interface ConfigurationProvider  {
    */
   boolean collectionMapRefreshInProgress();
 
+  /**
+   * Returns the number of proposed bucket configs which have been skipped without being parsed, because their
+   * revision was not newer than the one of the current config.
+   *
+   * @return the number of skipped bucket configs.
+   */
+  long skippedBucketConfigs();
+
+  /**
+   * Returns the number of proposed global configs which have been skipped without being parsed, because their
+   * revision was not newer than the one of the current config.
+   *
+   * @return the number of skipped global configs.
+   */
+  long skippedGlobalConfigs();
+
 }
@@ -60,8 +60,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -126,6 +128,18 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   private volatile boolean bucketConfigLoadInProgress = false;
   private volatile boolean collectionMapRefreshInProgress = false;
 
+  /**
+   * The revisions of the currently applied bucket configs, which include the epoch if sent by the server.
+   */
+  private final Map<String, ConfigRevision> bucketConfigRevisions = new ConcurrentHashMap<>();
+  private volatile ConfigRevision globalConfigRevision;
+
+  /**
+   * Counts the proposed configs which have been skipped without being parsed, because they are not newer.
+   */
+  private final LongAdder skippedBucketConfigs = new LongAdder();
+  private final LongAdder skippedGlobalConfigs = new LongAdder();
+
   /**
    * Stores the current seed nodes used to bootstrap buckets and global configs.
    */
@@ -354,12 +368,21 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   public void proposeBucketConfig(final ProposedBucketConfigContext ctx) {
     if (!shutdown.get()) {
       try {
-        BucketConfig config = BucketConfigParser.parse(
-          ctx.config(),
-          core.context().environment(),
-          ctx.origin()
-        );
-        checkAndApplyConfig(config);
+        // configs proposed as strings are parsed as such, so they are not encoded just to be parsed
+        final boolean encoded = ctx.encoded();
+        final Optional<ConfigRevision> revision = encoded
+          ? ConfigRevision.parse(ctx.rawConfigBytes())
+          : ConfigRevision.parse(ctx.config());
+        if (revision.isPresent() && !isNewerBucketConfig(ctx.bucketName(), revision.get())) {
+          skippedBucketConfigs.increment();
+          publishOldOrSameRevision();
+          return;
+        }
+
+        BucketConfig config = encoded
+          ? BucketConfigParser.parse(ctx.configBytes(), core.context().environment(), ctx.origin())
+          : BucketConfigParser.parse(ctx.config(), core.context().environment(), ctx.origin());
+        checkAndApplyConfig(config, revision.orElse(new ConfigRevision(0, config.rev())));
       } catch (Exception ex) {
         eventBus.publish(new ConfigIgnoredEvent(
           core.context(),
@@ -382,8 +405,15 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
   public void proposeGlobalConfig(final ProposedGlobalConfigContext ctx) {
     if (!shutdown.get()) {
       try {
+        final Optional<ConfigRevision> revision = ConfigRevision.parse(ctx.config());
+        if (revision.isPresent() && !isNewerGlobalConfig(revision.get())) {
+          skippedGlobalConfigs.increment();
+          publishOldOrSameRevision();
+          return;
+        }
+
         GlobalConfig config = GlobalConfigParser.parse(ctx.config(), ctx.origin());
-        checkAndApplyConfig(config);
+        checkAndApplyConfig(config, revision.orElse(new ConfigRevision(0, config.rev())));
       } catch (Exception ex) {
         eventBus.publish(new ConfigIgnoredEvent(
           core.context(),
@@ -402,6 +432,61 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     }
   }
 
+  @Override
+  public void clustermapPushEnabled(final String bucket) {
+    keyValueRefresher.markPushEnabled(bucket);
+  }
+
+  @Override
+  public void clustermapPushDisabled(final String bucket) {
+    keyValueRefresher.markPushDisabled(bucket);
+  }
+
+  /**
+   * Checks if a proposed bucket config with the given revision is newer than the one currently applied.
+   *
+   * <p>Configs without a revision number (or with a revision of 0) are always considered newer.</p>
+   */
+  private boolean isNewerBucketConfig(final String name, final ConfigRevision revision) {
+    final BucketConfig current = currentConfig.bucketConfig(name);
+    if (revision.rev() <= 0 || current == null) {
+      return true;
+    }
+    final ConfigRevision currentRevision = bucketConfigRevisions.get(name);
+    return revision.newerThan(currentRevision != null ? currentRevision : new ConfigRevision(0, current.rev()));
+  }
+
+  /**
+   * Checks if a proposed global config with the given revision is newer than the one currently applied.
+   */
+  private boolean isNewerGlobalConfig(final ConfigRevision revision) {
+    final GlobalConfig current = currentConfig.globalConfig();
+    if (revision.rev() <= 0 || current == null) {
+      return true;
+    }
+    final ConfigRevision currentRevision = globalConfigRevision;
+    return revision.newerThan(currentRevision != null ? currentRevision : new ConfigRevision(0, current.rev()));
+  }
+
+  private void publishOldOrSameRevision() {
+    eventBus.publish(new ConfigIgnoredEvent(
+      core.context(),
+      ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
+      Optional.empty(),
+      Optional.empty()
+    ));
+  }
+
+  @Override
+  public long skippedBucketConfigs() {
+    return skippedBucketConfigs.sum();
+  }
+
+  @Override
+  public long skippedGlobalConfigs() {
+    return skippedGlobalConfigs.sum();
+  }
+
   @Override
   public Mono<Void> closeBucket(final String name) {
     return Mono.defer(() -> shutdown.get()
@@ -425,6 +510,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
     return Mono
       .defer(() -> {
         currentConfig.deleteBucketConfig(name);
+        bucketConfigRevisions.remove(name);
         pushConfig();
         return Mono.empty();
       })
@@ -542,18 +628,13 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
    * Analyzes the given config and decides if to apply it (and does so if needed).
    *
    * @param newConfig the config to apply.
+   * @param revision the revision of the config to apply.
    */
-  private void checkAndApplyConfig(final BucketConfig newConfig) {
+  private void checkAndApplyConfig(final BucketConfig newConfig, final ConfigRevision revision) {
     final String name = newConfig.name();
-    final BucketConfig oldConfig = currentConfig.bucketConfig(name);
 
-    if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
-      eventBus.publish(new ConfigIgnoredEvent(
-        core.context(),
-        ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
-        Optional.empty(),
-        Optional.empty()
-      ));
+    if (newConfig.rev() > 0 && !isNewerBucketConfig(name, revision)) {
+      publishOldOrSameRevision();
       return;
     }
 
@@ -567,6 +648,7 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
 
     eventBus.publish(new BucketConfigUpdatedEvent(core.context(), newConfig));
     currentConfig.setBucketConfig(newConfig);
+    bucketConfigRevisions.put(name, revision);
     checkAlternateAddress();
     updateSeedNodeList();
     pushConfig();
@@ -576,22 +658,17 @@ public class DefaultConfigurationProvider implements ConfigurationProvider {
    * Analyzes the given config and decides if to apply it (and does so if needed).
    *
    * @param newConfig the config to apply.
+   * @param revision the revision of the config to apply.
    */
-  private void checkAndApplyConfig(final GlobalConfig newConfig) {
-    final GlobalConfig oldConfig = currentConfig.globalConfig();
-
-    if (newConfig.rev() > 0 && oldConfig != null && newConfig.rev() <= oldConfig.rev()) {
-      eventBus.publish(new ConfigIgnoredEvent(
-        core.context(),
-        ConfigIgnoredEvent.Reason.OLD_OR_SAME_REVISION,
-        Optional.empty(),
-        Optional.empty()
-      ));
+  private void checkAndApplyConfig(final GlobalConfig newConfig, final ConfigRevision revision) {
+    if (newConfig.rev() > 0 && !isNewerGlobalConfig(revision)) {
+      publishOldOrSameRevision();
       return;
     }
 
     eventBus.publish(new GlobalConfigUpdatedEvent(core.context(), newConfig));
     currentConfig.setGlobalConfig(newConfig);
+    globalConfigRevision = revision;
     checkAlternateAddress();
     updateSeedNodeList();
     pushConfig();
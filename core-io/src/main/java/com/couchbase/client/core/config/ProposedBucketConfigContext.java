@@ -18,6 +18,9 @@ package com.couchbase.client.core.config;
 
 import com.couchbase.client.core.deps.io.netty.util.internal.ObjectUtil;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * This context keeps together a bunch of related information needed to turn a raw
  * config into a parsed one.
@@ -27,10 +30,17 @@ import com.couchbase.client.core.deps.io.netty.util.internal.ObjectUtil;
  */
 public class ProposedBucketConfigContext {
 
+    private static final byte[] HOST_PLACEHOLDER = "$HOST".getBytes(StandardCharsets.UTF_8);
+
     private final String bucketName;
-    private final String config;
     private final String origin;
 
+    /**
+     * The raw config as sent by the server, before the host placeholder is replaced. Null if created from a string.
+     */
+    private final byte[] rawConfig;
+    private volatile String config;
+
     /**
      * Creates a new proposed bucket config context.
      *
@@ -43,6 +53,25 @@ public class ProposedBucketConfigContext {
         ObjectUtil.checkNotNull(config, "the raw config cannot be null!");
         this.bucketName = bucketName;
         this.config = config.replace("$HOST", origin);
+        this.rawConfig = null;
+        this.origin = origin;
+    }
+
+    /**
+     * Creates a new proposed bucket config context from the encoded config as it was received from the server.
+     *
+     * <p>The config is only decoded if it is actually needed, so configs which are not newer than the current one
+     * can be skipped without it.</p>
+     *
+     * @param bucketName the name of the bucket, must not be null.
+     * @param config the raw UTF-8 encoded config, must not be null.
+     * @param origin the origin of the config, can be null.
+     */
+    public ProposedBucketConfigContext(final String bucketName, final byte[] config, final String origin) {
+        ObjectUtil.checkNotNull(bucketName, "bucket name cannot be null!");
+        ObjectUtil.checkNotNull(config, "the raw config cannot be null!");
+        this.bucketName = bucketName;
+        this.rawConfig = config;
         this.origin = origin;
     }
 
@@ -51,7 +80,79 @@ public class ProposedBucketConfigContext {
     }
 
     public String config() {
-        return config;
+        String decoded = config;
+        if (decoded == null) {
+            decoded = new String(rawConfig, StandardCharsets.UTF_8);
+            if (origin != null) {
+                decoded = decoded.replace("$HOST", origin);
+            }
+            config = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Returns true if this context has been created from the encoded config, false if from a string.
+     *
+     * <p>Only encoded configs should be read through {@link #configBytes()} and {@link #rawConfigBytes()}, since
+     * string configs would need to be encoded first.</p>
+     */
+    boolean encoded() {
+        return rawConfig != null;
+    }
+
+    /**
+     * Returns the UTF-8 encoded config with the host placeholder replaced by the origin.
+     */
+    byte[] configBytes() {
+        if (rawConfig == null) {
+            return config.getBytes(StandardCharsets.UTF_8);
+        }
+        return replaceHostPlaceholder(rawConfig, origin);
+    }
+
+    /**
+     * Returns the UTF-8 encoded config as it was received, the host placeholder is not replaced.
+     */
+    byte[] rawConfigBytes() {
+        return rawConfig == null ? config.getBytes(StandardCharsets.UTF_8) : rawConfig;
+    }
+
+    /**
+     * Replaces every host placeholder in the encoded config with the origin, without decoding it.
+     *
+     * @return the input itself if it does not contain the placeholder, a new array otherwise.
+     */
+    private static byte[] replaceHostPlaceholder(final byte[] input, final String origin) {
+        int found = indexOfPlaceholder(input, 0);
+        if (found < 0 || origin == null) {
+            return input;
+        }
+
+        final byte[] replacement = origin.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(input.length + replacement.length);
+        int start = 0;
+        while (found >= 0) {
+            output.write(input, start, found - start);
+            output.write(replacement, 0, replacement.length);
+            start = found + HOST_PLACEHOLDER.length;
+            found = indexOfPlaceholder(input, start);
+        }
+        output.write(input, start, input.length - start);
+        return output.toByteArray();
+    }
+
+    private static int indexOfPlaceholder(final byte[] input, final int fromIndex) {
+        outer:
+        for (int i = fromIndex; i <= input.length - HOST_PLACEHOLDER.length; i++) {
+            for (int j = 0; j < HOST_PLACEHOLDER.length; j++) {
+                if (input[i + j] != HOST_PLACEHOLDER[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
     }
 
     /**
@@ -77,7 +178,7 @@ public class ProposedBucketConfigContext {
         if (bucketName != null ? !bucketName.equals(that.bucketName) : that.bucketName != null) {
             return false;
         }
-        if (config != null ? !config.equals(that.config) : that.config != null) {
+        if (!config().equals(that.config())) {
             return false;
         }
         return origin != null ? origin.equals(that.origin) : that.origin == null;
@@ -86,7 +187,7 @@ public class ProposedBucketConfigContext {
     @Override
     public int hashCode() {
         int result = bucketName != null ? bucketName.hashCode() : 0;
-        result = 31 * result + (config != null ? config.hashCode() : 0);
+        result = 31 * result + config().hashCode();
         result = 31 * result + (origin != null ? origin.hashCode() : 0);
         return result;
     }
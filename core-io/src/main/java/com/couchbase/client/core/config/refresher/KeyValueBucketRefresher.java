@@ -44,8 +44,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 /**
  * The {@link KeyValueBucketRefresher} keeps configs up-to-date through the KV service.
  *
@@ -70,6 +68,12 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   static final Duration POLLER_INTERVAL = Duration.ofSeconds(1);
 
+  /**
+   * The minimum interval at which configs are still polled for buckets which receive pushed cluster map
+   * change notifications, as a fallback in case a notification is missed.
+   */
+  static final Duration PUSH_FALLBACK_POLL_INTERVAL = Duration.ofSeconds(30);
+
   /**
    * The number of config fetches in parallel at maximum per interval.
    */
@@ -108,6 +112,11 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    */
   private final Set<String> tainted = ConcurrentHashMap.newKeySet();
 
+  /**
+   * Holds the number of open KV connections per bucket which receive pushed cluster map change notifications.
+   */
+  private final Map<String, Integer> pushEnabled = new ConcurrentHashMap<>();
+
   /**
    * Holds the allowable config poll interval in nanoseconds.
    */
@@ -175,21 +184,37 @@ public class KeyValueBucketRefresher implements BucketRefresher {
    * <p>This method makes sure that individual errors are logged but swallowed so they do
    * not interrupt anything else in progress.</p>
    *
+   * <p>If the server pushes cluster map change notifications for the bucket, polling only serves as a
+   * fallback and happens at a much lower rate.</p>
+   *
    * @param name the name of the bucket.
    * @return a {@link Mono} either with a new config or nothing to ignore.
    */
   private Mono<ProposedBucketConfigContext> maybeUpdateBucket(final String name) {
-    Long last = registrations.get(name);
-    boolean overInterval = last != null && (System.nanoTime() - last) >= configPollIntervalNanos;
-    boolean allowed = tainted.contains(name) || overInterval;
-
-    return allowed
+    return pollAllowed(name, System.nanoTime())
       ? fetchConfigPerNode(name, filterEligibleNodes(name))
         .next()
         .doOnSuccess(ctx -> registrations.replace(name, System.nanoTime()))
       : Mono.empty();
   }
 
+  /**
+   * Checks if the config of the bucket should be polled at the given point in time.
+   *
+   * @param name the name of the bucket.
+   * @param now the current time in nanoseconds.
+   * @return true if a config should be fetched.
+   */
+  boolean pollAllowed(final String name, final long now) {
+    Long last = registrations.get(name);
+    boolean pushed = pushEnabled.containsKey(name);
+    long intervalNanos = pushed
+      ? Math.max(configPollIntervalNanos, PUSH_FALLBACK_POLL_INTERVAL.toNanos())
+      : configPollIntervalNanos;
+    boolean overInterval = last != null && (now - last) >= intervalNanos;
+    return (!pushed && tainted.contains(name)) || overInterval;
+  }
+
   /**
    * Helper method to generate a stream of KV nodes that can be used to fetch a config.
    *
@@ -263,7 +288,7 @@ public class KeyValueBucketRefresher implements BucketRefresher {
           return response.status().success();
         })
         .map(response ->
-          new ProposedBucketConfigContext(name, new String(response.content(), UTF_8), nodeInfo.hostname())
+          new ProposedBucketConfigContext(name, response.content(), nodeInfo.hostname())
         ).onErrorResume(t -> {
           eventBus.publish(new BucketConfigRefreshFailedEvent(
             core.context(),
@@ -315,6 +340,27 @@ public class KeyValueBucketRefresher implements BucketRefresher {
     tainted.remove(name);
   }
 
+  /**
+   * Marks that one more KV connection to the bucket receives pushed cluster map change notifications.
+   *
+   * <p>As long as at least one such connection is open, configs are only polled at the fallback interval
+   * and tainted configs do not trigger more frequent polling.</p>
+   *
+   * @param name the name of the bucket.
+   */
+  public void markPushEnabled(final String name) {
+    pushEnabled.merge(name, 1, Integer::sum);
+  }
+
+  /**
+   * Marks that a KV connection to the bucket which received pushed cluster map change notifications is gone.
+   *
+   * @param name the name of the bucket.
+   */
+  public void markPushDisabled(final String name) {
+    pushEnabled.computeIfPresent(name, (k, count) -> count > 1 ? count - 1 : null);
+  }
+
   @Override
   public Mono<Void> shutdown() {
     return Mono.defer(() -> {
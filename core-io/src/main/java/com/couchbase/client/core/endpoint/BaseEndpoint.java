@@ -18,6 +18,8 @@ package com.couchbase.client.core.endpoint;
 
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionAbortedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectionFailedEvent;
 import com.couchbase.client.core.cnc.events.endpoint.EndpointConnectedEvent;
@@ -72,8 +74,10 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -146,16 +150,36 @@ public abstract class BaseEndpoint implements Endpoint {
    */
   private final boolean pipelined;
 
+  /**
+   * If writes into the channel should be coalesced through a {@link WriteCoalescer}.
+   */
+  private final boolean writeCoalescing;
+
   /**
    * Once connected, contains the channel to work with.
    */
   private volatile Channel channel;
 
+  /**
+   * Once connected and if write coalescing is enabled, contains the coalescer for the channel.
+   */
+  private volatile WriteCoalescer writeCoalescer;
+
   /**
    * Holds the unix nanotime when the last response completed.
    */
   private volatile long lastResponseTimestamp;
 
+  /**
+   * Holds the exponentially weighted moving average of the response latency in nanoseconds.
+   */
+  private volatile long responseLatencyEwma;
+
+  /**
+   * If set, called every time this endpoint might have become free to write again.
+   */
+  private volatile Runnable freeToWriteCallback;
+
   /**
    * Holds the timestamp this endpoint was last successfully connected.
    */
@@ -197,6 +221,9 @@ public abstract class BaseEndpoint implements Endpoint {
     this.lastResponseTimestamp = 0;
     this.eventLoopGroup = eventLoopGroup;
     this.serviceType = serviceType;
+    this.writeCoalescing = pipelined
+      && serviceType == ServiceType.KV
+      && serviceContext.environment().ioConfig().kvWriteCoalescingEnabled();
   }
 
   @Override
@@ -364,6 +391,7 @@ public abstract class BaseEndpoint implements Endpoint {
             closeChannel(channel);
           } else {
             this.channel = channel;
+            this.writeCoalescer = writeCoalescing ? createWriteCoalescer(channel) : null;
 
             Optional<HostAndPort> localSocket = Optional.empty();
             if (channel.localAddress() instanceof InetSocketAddress) {
@@ -390,6 +418,7 @@ public abstract class BaseEndpoint implements Endpoint {
             this.circuitBreaker.reset();
             lastConnectedAt = now;
             state.transition(EndpointState.CONNECTED);
+            notifyFreeToWrite();
           }
         },
         error -> endpointContext.environment().eventBus().publish(
@@ -401,6 +430,21 @@ public abstract class BaseEndpoint implements Endpoint {
       );
   }
 
+  /**
+   * Creates the coalescer for writes into the given channel.
+   */
+  private WriteCoalescer createWriteCoalescer(final Channel channel) {
+    EndpointContext ctx = endpointContext.get();
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, serviceType.ident());
+    tags.put(Meter.TAG_NODE, ctx.remoteSocket().hostname() + ":" + ctx.remoteSocket().port());
+    return new WriteCoalescer(
+      channel,
+      ctx.environment().ioConfig().kvWriteCoalescingFlushThreshold(),
+      ctx.environment().meter().valueRecorder(Meter.METRIC_ENDPOINT_WRITE_BATCH_SIZE, tags)
+    );
+  }
+
   /**
    * The exceptions originating from inside the event loop have a deep netty stack which is not useful
    * in debugging and make the logs very verbose.
@@ -519,16 +563,24 @@ public abstract class BaseEndpoint implements Endpoint {
         });
       }
 
-      channel
-        .writeAndFlush(request)
-        .addListener(f -> {
-          if (!f.isSuccess()) {
-            EndpointContext context = endpointContext.get();
-            Event.Severity severity = disconnect.get() ? Event.Severity.DEBUG : Event.Severity.WARN;
-            context.environment().eventBus().publish(new EndpointWriteFailedEvent(severity, context, f.cause()));
-            RetryOrchestrator.maybeRetry(context, request, RetryReason.ENDPOINT_NOT_WRITABLE);
+      ChannelFutureListener writeListener = f -> {
+        if (!f.isSuccess()) {
+          EndpointContext context = endpointContext.get();
+          Event.Severity severity = disconnect.get() ? Event.Severity.DEBUG : Event.Severity.WARN;
+          EventBus eventBus = context.environment().eventBus();
+          if (eventBus.isEnabled(severity, Event.Category.ENDPOINT)) {
+            eventBus.publish(new EndpointWriteFailedEvent(severity, context, f.cause()));
           }
-        });
+          RetryOrchestrator.maybeRetry(context, request, RetryReason.ENDPOINT_NOT_WRITABLE);
+        }
+      };
+
+      WriteCoalescer coalescer = writeCoalescer;
+      if (coalescer != null) {
+        coalescer.write(request, writeListener);
+      } else {
+        channel.writeAndFlush(request).addListener(writeListener);
+      }
     } else {
       RetryReason retryReason = circuitBreaker.allowsRequest()
         ? RetryReason.ENDPOINT_NOT_WRITABLE
@@ -552,6 +604,26 @@ public abstract class BaseEndpoint implements Endpoint {
     return lastResponseTimestamp;
   }
 
+  @Override
+  public long responseLatencyEwma() {
+    return responseLatencyEwma;
+  }
+
+  /**
+   * Called from the event loop handlers to record the latency of a response into the moving average.
+   *
+   * <p>Every new sample is weighted with 1/4, so that the average follows a slowing (or recovering) node
+   * quickly. Since the handlers of one channel always run on the same event loop the update is not atomic
+   * on purpose, a lost sample in the rare case of a reconnect onto a different event loop does not matter.</p>
+   *
+   * @param latency the latency of the response in nanoseconds.
+   */
+  @Stability.Internal
+  public void recordResponseLatency(final long latency) {
+    long current = responseLatencyEwma;
+    responseLatencyEwma = current == 0 ? latency : current + ((latency - current) >> 2);
+  }
+
   /**
    * Called from the event loop handlers to mark a request as being completed.
    *
@@ -571,6 +643,22 @@ public abstract class BaseEndpoint implements Endpoint {
   public void decrementOutstandingRequests() {
     if (!pipelined) {
       outstandingRequests.decrementAndGet();
+      notifyFreeToWrite();
+    }
+  }
+
+  @Override
+  public void onFreeToWrite(final Runnable callback) {
+    this.freeToWriteCallback = callback;
+  }
+
+  /**
+   * Invokes the free to write callback, if one is registered.
+   */
+  private void notifyFreeToWrite() {
+    Runnable callback = freeToWriteCallback;
+    if (callback != null) {
+      callback.run();
     }
   }
 
@@ -81,6 +81,21 @@ public interface Endpoint extends Stateful<EndpointState> {
    */
   long lastResponseReceived();
 
+  /**
+   * Returns the exponentially weighted moving average of the response latency on this endpoint.
+   *
+   * @return the average response latency in nanoseconds, or 0 if no response has been received yet.
+   */
+  long responseLatencyEwma();
+
+  /**
+   * Registers a callback which is invoked every time this endpoint might have become free to write again,
+   * that is when it connected or when it completed an outstanding request.
+   *
+   * @param callback the callback to invoke, replacing any previously registered one.
+   */
+  void onFreeToWrite(Runnable callback);
+
   /**
    * Returns the timestamp when the endpoint was last connected successfully (nanoseconds).
    *
@@ -71,7 +71,8 @@ public class KeyValueEndpoint extends BaseEndpoint {
 
     @Override
     public void init(BaseEndpoint endpoint, ChannelPipeline pipeline) {
-      if (FLUSH_CONSOLIDATION_LIMIT > 0) {
+      // coalesced writes are already flushed in batches
+      if (FLUSH_CONSOLIDATION_LIMIT > 0 && !ctx.environment().ioConfig().kvWriteCoalescingEnabled()) {
         pipeline.addLast(new FlushConsolidationHandler(FLUSH_CONSOLIDATION_LIMIT, true));
       }
 
@@ -92,7 +93,7 @@ public class KeyValueEndpoint extends BaseEndpoint {
      *
      * @return the server features to negotiate.
      */
-    private Set<ServerFeature> serverFeatures() {
+    Set<ServerFeature> serverFeatures() {
       Set<ServerFeature> features = new HashSet<>(Arrays.asList(
         ServerFeature.SELECT_BUCKET,
         ServerFeature.XATTR,
@@ -132,6 +133,14 @@ public class KeyValueEndpoint extends BaseEndpoint {
         features.add(ServerFeature.CREATE_AS_DELETED);
       }
 
+      boolean clustermapNotificationsEnabled = Boolean.parseBoolean(
+              System.getProperty("com.couchbase.clustermapNotificationsEnabled", "true")
+      );
+      if (clustermapNotificationsEnabled) {
+        features.add(ServerFeature.DUPLEX);
+        features.add(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION);
+      }
+
       return features;
     }
   }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.endpoint;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelFutureListener;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundBuffer;
+import com.couchbase.client.core.deps.org.jctools.queues.MpscUnboundedArrayQueue;
+
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces the writes into a pipelined channel, so that requests submitted in a burst are written with a
+ * single flush instead of one flush (and syscall) per request.
+ *
+ * <p>Writes from any thread are queued and drained by the event loop of the channel. A drain is only
+ * scheduled if none is pending already, so the batch size adapts to the load: with a single request in flight
+ * it is written right away, while under load all requests which queued up until the event loop got to the drain
+ * are written together. The channel is flushed at the end of every drain, or earlier once the pending bytes in
+ * the outbound buffer exceed the flush threshold.</p>
+ *
+ * @since 2.1.0
+ */
+class WriteCoalescer {
+
+  /**
+   * The chunk size of the underlying unbounded queue.
+   */
+  private static final int QUEUE_CHUNK_SIZE = 128;
+
+  /**
+   * The maximum number of writes per drain, so that a continuous stream of writes does not starve reads.
+   */
+  static final int MAX_WRITES_PER_DRAIN = 1024;
+
+  private final Channel channel;
+  private final int flushThreshold;
+  private final ValueRecorder batchSizes;
+  private final Queue<PendingWrite> queue = new MpscUnboundedArrayQueue<>(QUEUE_CHUNK_SIZE);
+  private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+  private final Runnable drainTask = this::drain;
+
+  /**
+   * Creates a new coalescer for the given channel.
+   *
+   * @param channel the channel to write into.
+   * @param flushThreshold the pending bytes in the outbound buffer after which a flush is forced.
+   * @param batchSizes records the number of writes per drain.
+   */
+  WriteCoalescer(final Channel channel, final int flushThreshold, final ValueRecorder batchSizes) {
+    this.channel = channel;
+    this.flushThreshold = flushThreshold;
+    this.batchSizes = batchSizes;
+  }
+
+  /**
+   * Queues the message for writing and makes sure a drain of the queue is scheduled.
+   *
+   * @param msg the message to write.
+   * @param listener notified once the write completes.
+   */
+  void write(final Object msg, final ChannelFutureListener listener) {
+    queue.offer(new PendingWrite(msg, listener));
+    scheduleDrain();
+  }
+
+  private void scheduleDrain() {
+    if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+      try {
+        channel.eventLoop().execute(drainTask);
+      } catch (RejectedExecutionException ex) {
+        // the event loop is shutting down, the writes will fail and complete their listeners
+        drain();
+      }
+    }
+  }
+
+  /**
+   * Writes all queued messages (up to {@link #MAX_WRITES_PER_DRAIN}) into the channel and flushes it.
+   */
+  void drain() {
+    // reset before polling, so a write queued after the last poll always schedules another drain
+    drainScheduled.set(false);
+
+    int written = 0;
+    boolean unflushed = false;
+    PendingWrite pending;
+    while (written < MAX_WRITES_PER_DRAIN && (pending = queue.poll()) != null) {
+      channel.write(pending.msg).addListener(pending.listener);
+      written++;
+      unflushed = true;
+      if (pendingBytes() >= flushThreshold) {
+        channel.flush();
+        unflushed = false;
+      }
+    }
+
+    if (unflushed) {
+      channel.flush();
+    }
+    if (written > 0) {
+      batchSizes.recordValue(written);
+    }
+    if (!queue.isEmpty()) {
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * Returns the number of bytes written into the channel but not flushed yet.
+   */
+  private long pendingBytes() {
+    ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+    return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+  }
+
+  private static class PendingWrite {
+    private final Object msg;
+    private final ChannelFutureListener listener;
+
+    PendingWrite(final Object msg, final ChannelFutureListener listener) {
+      this.msg = msg;
+      this.listener = listener;
+    }
+  }
+
+}
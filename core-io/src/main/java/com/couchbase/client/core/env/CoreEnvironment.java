@@ -22,9 +22,13 @@ import com.couchbase.client.core.cnc.Context;
 import com.couchbase.client.core.cnc.DefaultEventBus;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.LoggingEventConsumer;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.OrphanReporter;
 import com.couchbase.client.core.cnc.RequestTracer;
 import com.couchbase.client.core.cnc.events.config.HighIdleHttpConnectionTimeoutConfiguredEvent;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.cnc.metrics.RequestCounters;
 import com.couchbase.client.core.cnc.tracing.ThresholdRequestTracer;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.CancellationReason;
@@ -64,6 +68,16 @@ public class CoreEnvironment {
    * Default maximum requests being queued in retry before performing backpressure cancellations.
    */
   public static final long DEFAULT_MAX_NUM_REQUESTS_IN_RETRY = 32768;
+
+  /**
+   * By default every request registers its own timeout with the timer.
+   */
+  public static final TimeoutTracking DEFAULT_TIMEOUT_TRACKING = TimeoutTracking.TIMER_WHEEL;
+
+  /**
+   * Default maximum number of prepared statements kept in the query cache.
+   */
+  public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 5000;
   private static final Map<String, Attributes> MANIFEST_INFOS = new ConcurrentHashMap<>();
 
   static {
@@ -105,11 +119,16 @@ public class CoreEnvironment {
   private final OrphanReporterConfig orphanReporterConfig;
   private final ThresholdRequestTracerConfig thresholdRequestTracerConfig;
   private final Supplier<RequestTracer> requestTracer;
+  private final AggregatingMeterConfig aggregatingMeterConfig;
+  private final Supplier<Meter> meter;
+  private final RequestCounters requestCounters;
   private final LoggerConfig loggerConfig;
   private final RetryStrategy retryStrategy;
   private final Supplier<Scheduler> scheduler;
   private final OrphanReporter orphanReporter;
   private final long maxNumRequestsInRetry;
+  private final TimeoutTracking timeoutTracking;
+  private final int preparedStatementCacheSize;
 
   public static CoreEnvironment create() {
     return builder().build();
@@ -125,6 +144,8 @@ public class CoreEnvironment {
 
     this.userAgent = defaultUserAgent();
     this.maxNumRequestsInRetry = builder.maxNumRequestsInRetry;
+    this.timeoutTracking = builder.timeoutTracking;
+    this.preparedStatementCacheSize = builder.preparedStatementCacheSize;
     this.scheduler = Optional
       .ofNullable(builder.scheduler)
       .orElse(new OwnedSupplier<>(
@@ -133,7 +154,7 @@ public class CoreEnvironment {
     this.eventBus = Optional
       .ofNullable(builder.eventBus)
       .orElse(new OwnedSupplier<>(DefaultEventBus.create(scheduler.get())));
-    this.timer = Timer.createAndStart(maxNumRequestsInRetry);
+    this.timer = Timer.createAndStart(maxNumRequestsInRetry, timeoutTracking);
 
 
     this.securityConfig = builder.securityConfig.build();
@@ -146,11 +167,18 @@ public class CoreEnvironment {
     this.loggerConfig = builder.loggerConfig.build();
     this.orphanReporterConfig = builder.orphanReporterConfig.build();
     this.thresholdRequestTracerConfig = builder.thresholdRequestTracerConfig.build();
+    this.aggregatingMeterConfig = builder.aggregatingMeterConfig.build();
 
     if (eventBus instanceof OwnedSupplier) {
       eventBus.get().start().block();
     }
-    eventBus.get().subscribe(LoggingEventConsumer.create(loggerConfig()));
+    LoggingEventConsumer loggingEventConsumer = LoggingEventConsumer.create(loggerConfig());
+    if (eventBus.get() instanceof DefaultEventBus) {
+      // only the default event bus evaluates the logger levels again, others would keep them forever
+      eventBus.get().subscribe(loggingEventConsumer, loggingEventConsumer::minimumSeverity);
+    } else {
+      eventBus.get().subscribe(loggingEventConsumer);
+    }
 
     this.requestTracer = Optional.ofNullable(builder.requestTracer).orElse(new OwnedSupplier<RequestTracer>(
       ThresholdRequestTracer.create(eventBus.get(), thresholdRequestTracerConfig)
@@ -160,7 +188,21 @@ public class CoreEnvironment {
       requestTracer.get().start().block();
     }
 
-    orphanReporter = new OrphanReporter(eventBus.get(), orphanReporterConfig);
+    this.meter = Optional.ofNullable(builder.meter).orElse(new OwnedSupplier<Meter>(
+      aggregatingMeterConfig.enabled()
+        ? AggregatingMeter.create(eventBus.get(), aggregatingMeterConfig)
+        : NoopMeter.INSTANCE
+    ));
+    this.requestCounters = new RequestCounters(meter.get());
+
+    if (meter instanceof OwnedSupplier) {
+      meter.get().start().block();
+    }
+    if (eventBus.get() instanceof DefaultEventBus) {
+      ((DefaultEventBus) eventBus.get()).meter(meter.get());
+    }
+
+    orphanReporter = new OrphanReporter(eventBus.get(), orphanReporterConfig, meter.get());
     orphanReporter.start().block();
 
     if (ioConfig.idleHttpConnectionTimeout().getSeconds() > Duration.ofMinutes(1).getSeconds()) {
@@ -316,6 +358,22 @@ public class CoreEnvironment {
     return requestTracer.get();
   }
 
+  /**
+   * Returns the meter used to record metrics.
+   */
+  @Stability.Volatile
+  public Meter meter() {
+    return meter.get();
+  }
+
+  /**
+   * Returns the counters of the request metrics, cached per tag set.
+   */
+  @Stability.Internal
+  public RequestCounters requestCounters() {
+    return requestCounters;
+  }
+
   /**
    * Returns the timer used to schedule timeouts and retries amongst other tasks.
    */
@@ -323,6 +381,22 @@ public class CoreEnvironment {
     return timer;
   }
 
+  /**
+   * Returns how the timeouts of in-flight requests are tracked.
+   */
+  @Stability.Volatile
+  public TimeoutTracking timeoutTracking() {
+    return timeoutTracking;
+  }
+
+  /**
+   * Returns the maximum number of prepared statements kept in the query cache.
+   */
+  @Stability.Volatile
+  public int preparedStatementCacheSize() {
+    return preparedStatementCacheSize;
+  }
+
   /**
    * Returns the retry strategy on this environment.
    */
@@ -390,6 +464,12 @@ public class CoreEnvironment {
         }
         return Mono.empty();
       }))
+      .then(Mono.defer(() -> {
+        if (meter instanceof OwnedSupplier) {
+          return meter.get().stop(timeout);
+        }
+        return Mono.empty();
+      }))
       .then(Mono.defer(() -> orphanReporter.stop(timeout)))
       .then(Mono.defer(() -> {
         if (scheduler instanceof OwnedSupplier) {
@@ -439,6 +519,8 @@ public class CoreEnvironment {
 
     input.put("userAgent", userAgent.formattedLong());
     input.put("maxNumRequestsInRetry", maxNumRequestsInRetry);
+    input.put("timeoutTracking", timeoutTracking);
+    input.put("preparedStatementCacheSize", preparedStatementCacheSize);
 
     input.put("ioEnvironment", ioEnvironment.exportAsMap());
     input.put("ioConfig", ioConfig.exportAsMap());
@@ -448,9 +530,11 @@ public class CoreEnvironment {
     input.put("loggerConfig", loggerConfig.exportAsMap());
     input.put("orphanReporterConfig", orphanReporterConfig.exportAsMap());
     input.put("thresholdRequestTracerConfig", thresholdRequestTracerConfig.exportAsMap());
+    input.put("aggregatingMeterConfig", aggregatingMeterConfig.exportAsMap());
 
     input.put("retryStrategy", retryStrategy.getClass().getSimpleName());
     input.put("requestTracer", requestTracer.get().getClass().getSimpleName());
+    input.put("meter", meter.get().getClass().getSimpleName());
 
     return format.apply(input);
   }
@@ -473,8 +557,12 @@ public class CoreEnvironment {
     private Supplier<EventBus> eventBus = null;
     private Supplier<Scheduler> scheduler = null;
     private Supplier<RequestTracer> requestTracer = null;
+    private AggregatingMeterConfig.Builder aggregatingMeterConfig = AggregatingMeterConfig.builder();
+    private Supplier<Meter> meter = null;
     private RetryStrategy retryStrategy = null;
     private long maxNumRequestsInRetry = DEFAULT_MAX_NUM_REQUESTS_IN_RETRY;
+    private TimeoutTracking timeoutTracking = DEFAULT_TIMEOUT_TRACKING;
+    private int preparedStatementCacheSize = DEFAULT_PREPARED_STATEMENT_CACHE_SIZE;
 
     protected Builder() { }
 
@@ -501,6 +589,41 @@ public class CoreEnvironment {
       return self();
     }
 
+    /**
+     * Allows to customize how the timeouts of in-flight requests are tracked.
+     * <p>
+     * With {@link TimeoutTracking#DEADLINE_SWEEP} key-value requests are only registered with the {@link Timer}
+     * while they wait for a retry or a free endpoint, and are otherwise cancelled by their channel once their
+     * deadline has passed, which avoids the timer entries and completion callbacks for the (usually very short
+     * lived) KV operations.
+     *
+     * @param timeoutTracking how timeouts should be tracked.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF timeoutTracking(final TimeoutTracking timeoutTracking) {
+      this.timeoutTracking = notNull(timeoutTracking, "TimeoutTracking");
+      return self();
+    }
+
+    /**
+     * Allows to customize the maximum number of prepared statements kept in the query cache.
+     * <p>
+     * Once the limit is reached, the least recently used statements are evicted and need to be prepared again
+     * the next time they are executed.
+     *
+     * @param preparedStatementCacheSize the maximum number of cached prepared statements.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF preparedStatementCacheSize(final int preparedStatementCacheSize) {
+      if (preparedStatementCacheSize < 1) {
+        throw InvalidArgumentException.fromMessage("preparedStatementCacheSize must be greater than 0");
+      }
+      this.preparedStatementCacheSize = preparedStatementCacheSize;
+      return self();
+    }
+
     /**
      * Immediately loads the properties from the given loader into the environment.
      *
@@ -738,6 +861,36 @@ public class CoreEnvironment {
       return self();
     }
 
+    /**
+     * Allows to configure a custom meter implementation.
+     * <p>
+     * <strong>IMPORTANT:</strong> this is a volatile, likely to change API!
+     *
+     * @param meter the custom meter to use.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF meter(final Meter meter) {
+      this.meter = new ExternalSupplier<>(notNull(meter, "Meter"));
+      return self();
+    }
+
+    /**
+     * Allows to customize the configuration of the default {@link AggregatingMeter}.
+     * <p>
+     * The aggregating meter is disabled by default, so unless it is enabled through
+     * {@link AggregatingMeterConfig.Builder#enable(boolean)} (or a custom {@link #meter(Meter)} is set) no metrics
+     * are recorded.
+     *
+     * @param aggregatingMeterConfig the configuration which should be used.
+     * @return this {@link Builder} for chaining purposes.
+     */
+    @Stability.Volatile
+    public SELF aggregatingMeterConfig(final AggregatingMeterConfig.Builder aggregatingMeterConfig) {
+      this.aggregatingMeterConfig = notNull(aggregatingMeterConfig, "AggregatingMeterConfig");
+      return self();
+    }
+
     /**
      * Turns this builder into a real {@link CoreEnvironment}.
      *
@@ -19,6 +19,7 @@ package com.couchbase.client.core.env;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.endpoint.CircuitBreaker;
 import com.couchbase.client.core.endpoint.CircuitBreakerConfig;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.service.AbstractPooledEndpointServiceConfig;
 import com.couchbase.client.core.service.ServiceType;
 
@@ -42,7 +43,11 @@ public class IoConfig {
   public static final int DEFAULT_NUM_KV_CONNECTIONS = 1;
   public static final int DEFAULT_MAX_HTTP_CONNECTIONS = AbstractPooledEndpointServiceConfig.DEFAULT_MAX_ENDPOINTS;
   public static final Duration DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT = AbstractPooledEndpointServiceConfig.DEFAULT_IDLE_TIME;
+  public static final int DEFAULT_MAX_QUEUED_HTTP_REQUESTS = 1024;
+  public static final int DEFAULT_MAX_HTTP_RESPONSE_SIZE = 128 * 1024 * 1024;
   public static final Duration DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT = Duration.ofMinutes(5);
+  public static final boolean DEFAULT_KV_WRITE_COALESCING_ENABLED = false;
+  public static final int DEFAULT_KV_WRITE_COALESCING_FLUSH_THRESHOLD = 64 * 1024;
 
   private final boolean mutationTokensEnabled;
   private final Duration configPollInterval;
@@ -61,6 +66,11 @@ public class IoConfig {
   private final int maxHttpConnections;
   private final Duration idleHttpConnectionTimeout;
   private final Duration configIdleRedialTimeout;
+  private final boolean kvWriteCoalescingEnabled;
+  private final int kvWriteCoalescingFlushThreshold;
+  private final Set<ServiceType> latencyAwareSelection;
+  private final int maxQueuedHttpRequests;
+  private final int maxHttpResponseSize;
 
   private IoConfig(Builder builder) {
     mutationTokensEnabled = builder.mutationTokensEnabled;
@@ -84,6 +94,13 @@ public class IoConfig {
     maxHttpConnections = builder.maxHttpConnections;
     idleHttpConnectionTimeout = builder.idleHttpConnectionTimeout;
     configIdleRedialTimeout = builder.configIdleRedialTimeout;
+    kvWriteCoalescingEnabled = builder.kvWriteCoalescingEnabled;
+    kvWriteCoalescingFlushThreshold = builder.kvWriteCoalescingFlushThreshold;
+    latencyAwareSelection = Optional
+      .ofNullable(builder.latencyAwareSelection)
+      .orElse(Collections.emptySet());
+    maxQueuedHttpRequests = builder.maxQueuedHttpRequests;
+    maxHttpResponseSize = builder.maxHttpResponseSize;
   }
 
   public static IoConfig create() {
@@ -162,6 +179,26 @@ public class IoConfig {
     return builder().configIdleRedialTimeout(configIdleRedialTimeout);
   }
 
+  public static Builder enableKvWriteCoalescing(boolean kvWriteCoalescingEnabled) {
+    return builder().enableKvWriteCoalescing(kvWriteCoalescingEnabled);
+  }
+
+  public static Builder kvWriteCoalescingFlushThreshold(int kvWriteCoalescingFlushThreshold) {
+    return builder().kvWriteCoalescingFlushThreshold(kvWriteCoalescingFlushThreshold);
+  }
+
+  public static Builder latencyAwareSelection(final ServiceType... serviceTypes) {
+    return builder().latencyAwareSelection(serviceTypes);
+  }
+
+  public static Builder maxQueuedHttpRequests(int maxQueuedHttpRequests) {
+    return builder().maxQueuedHttpRequests(maxQueuedHttpRequests);
+  }
+
+  public static Builder maxHttpResponseSize(int maxHttpResponseSize) {
+    return builder().maxHttpResponseSize(maxHttpResponseSize);
+  }
+
   public CircuitBreakerConfig kvCircuitBreakerConfig() {
     return kvCircuitBreakerConfig;
   }
@@ -230,6 +267,26 @@ public class IoConfig {
     return configIdleRedialTimeout;
   }
 
+  public boolean kvWriteCoalescingEnabled() {
+    return kvWriteCoalescingEnabled;
+  }
+
+  public int kvWriteCoalescingFlushThreshold() {
+    return kvWriteCoalescingFlushThreshold;
+  }
+
+  public Set<ServiceType> latencyAwareSelection() {
+    return latencyAwareSelection;
+  }
+
+  public int maxQueuedHttpRequests() {
+    return maxQueuedHttpRequests;
+  }
+
+  public int maxHttpResponseSize() {
+    return maxHttpResponseSize;
+  }
+
   /**
    * Returns this config as a map so it can be exported into i.e. JSON for display.
    */
@@ -253,6 +310,11 @@ public class IoConfig {
     export.put("maxHttpConnections", maxHttpConnections);
     export.put("idleHttpConnectionTimeoutMs", idleHttpConnectionTimeout.toMillis());
     export.put("configIdleRedialTimeoutMs", configIdleRedialTimeout.toMillis());
+    export.put("kvWriteCoalescingEnabled", kvWriteCoalescingEnabled);
+    export.put("kvWriteCoalescingFlushThreshold", kvWriteCoalescingFlushThreshold);
+    export.put("latencyAwareSelection", latencyAwareSelection);
+    export.put("maxQueuedHttpRequests", maxQueuedHttpRequests);
+    export.put("maxHttpResponseSize", maxHttpResponseSize);
     return export;
   }
 
@@ -275,6 +337,11 @@ public class IoConfig {
     private int maxHttpConnections = DEFAULT_MAX_HTTP_CONNECTIONS;
     private Duration idleHttpConnectionTimeout = DEFAULT_IDLE_HTTP_CONNECTION_TIMEOUT;
     private Duration configIdleRedialTimeout = DEFAULT_CONFIG_IDLE_REDIAL_TIMEOUT;
+    private boolean kvWriteCoalescingEnabled = DEFAULT_KV_WRITE_COALESCING_ENABLED;
+    private int kvWriteCoalescingFlushThreshold = DEFAULT_KV_WRITE_COALESCING_FLUSH_THRESHOLD;
+    private Set<ServiceType> latencyAwareSelection;
+    private int maxQueuedHttpRequests = DEFAULT_MAX_QUEUED_HTTP_REQUESTS;
+    private int maxHttpResponseSize = DEFAULT_MAX_HTTP_RESPONSE_SIZE;
 
     public IoConfig build() {
       return new IoConfig(this);
@@ -435,5 +502,89 @@ public class IoConfig {
       this.configIdleRedialTimeout = configIdleRedialTimeout;
       return this;
     }
+
+    /**
+     * Configures whether writes into key-value connections are coalesced into batches.
+     * <p>
+     * If enabled, requests are queued per connection and written by its event loop in batches with a single
+     * flush, instead of flushing every request on its own. This reduces the number of syscalls under bursty load
+     * at the cost of an additional hop onto the event loop for every request.
+     *
+     * @param kvWriteCoalescingEnabled true if write coalescing should be enabled.
+     * @return this builder for chaining purposes.
+     */
+    public Builder enableKvWriteCoalescing(final boolean kvWriteCoalescingEnabled) {
+      this.kvWriteCoalescingEnabled = kvWriteCoalescingEnabled;
+      return this;
+    }
+
+    /**
+     * Configures the number of written but not yet flushed bytes after which a coalesced batch is flushed
+     * before its end.
+     *
+     * @param kvWriteCoalescingFlushThreshold the threshold in bytes.
+     * @return this builder for chaining purposes.
+     */
+    public Builder kvWriteCoalescingFlushThreshold(final int kvWriteCoalescingFlushThreshold) {
+      this.kvWriteCoalescingFlushThreshold = kvWriteCoalescingFlushThreshold;
+      return this;
+    }
+
+    /**
+     * Configures the services for which nodes and endpoints are selected based on their load instead of
+     * round-robin.
+     * <p>
+     * For these services, two nodes (and then two endpoints of the chosen node) are picked at random and the one
+     * with the lower moving average of the response latency and fewer outstanding requests is used. This steers
+     * traffic away from nodes which are slow to respond, for example because of a garbage collection pause.
+     * Key-value requests are always routed by partition, so {@link ServiceType#KV} is ignored. If no service
+     * types are passed, it is enabled for all http services.
+     *
+     * @param serviceTypes the services which should use latency aware selection.
+     * @return this builder for chaining purposes.
+     */
+    public Builder latencyAwareSelection(final ServiceType... serviceTypes) {
+      this.latencyAwareSelection = serviceTypes.length == 0
+        ? EnumSet.complementOf(EnumSet.of(ServiceType.KV))
+        : EnumSet.copyOf(Arrays.asList(serviceTypes));
+      return this;
+    }
+
+    /**
+     * Configures how many query, search and analytics requests per node wait for a free connection if all
+     * connections to the service are busy.
+     * <p>
+     * Queued requests are handed to the next connection which completes its request, and while requests are
+     * waiting the pool opens new connections up to {@link #maxHttpConnections(int)}. Once the queue is full,
+     * requests are sent into retry instead. Setting it to 0 disables the queue.
+     *
+     * @param maxQueuedHttpRequests the maximum number of waiting requests per node and service.
+     * @return this builder for chaining purposes.
+     */
+    public Builder maxQueuedHttpRequests(final int maxQueuedHttpRequests) {
+      if (maxQueuedHttpRequests < 0) {
+        throw InvalidArgumentException.fromMessage("maxQueuedHttpRequests must be >= 0");
+      }
+      this.maxQueuedHttpRequests = maxQueuedHttpRequests;
+      return this;
+    }
+
+    /**
+     * Configures the maximum size of an HTTP response body which is aggregated in memory before it is decoded.
+     * <p>
+     * This applies to the non-streaming HTTP responses, like the ones from management requests. If a response
+     * body exceeds the limit, the request is failed with a {@link com.couchbase.client.core.error.DecodingFailureException}
+     * and the connection is closed. Responses which are streamed (like query rows) are not affected.
+     *
+     * @param maxHttpResponseSize the maximum size of the response body in bytes.
+     * @return this builder for chaining purposes.
+     */
+    public Builder maxHttpResponseSize(final int maxHttpResponseSize) {
+      if (maxHttpResponseSize <= 0) {
+        throw InvalidArgumentException.fromMessage("maxHttpResponseSize must be > 0");
+      }
+      this.maxHttpResponseSize = maxHttpResponseSize;
+      return this;
+    }
   }
 }
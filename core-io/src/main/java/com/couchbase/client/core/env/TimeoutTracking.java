@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.env;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how the timeouts of in-flight requests are tracked.
+ *
+ * @since 2.1.0
+ */
+@Stability.Volatile
+public enum TimeoutTracking {
+
+  /**
+   * Every request registers a timeout with the hashed wheel timer, which is cancelled once it completes.
+   */
+  TIMER_WHEEL,
+
+  /**
+   * Key-value requests are not registered with the timer when they are sent. Once written, the KV channel
+   * periodically sweeps its in-flight requests and cancels those whose absolute deadline has passed. Only
+   * while they wait for a retry or a free endpoint they are bound by the timer, and all other services keep
+   * the per-request registration.
+   */
+  DEADLINE_SWEEP
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the metrics recorded by the message handler of a single channel.
+ *
+ * <p>Since the service and the remote node are fixed for a channel, the meters only need to be looked up once
+ * per operation and are then cached locally. Latencies are aggregated per node, while the in-flight counter is
+ * also tagged with the channel so that every endpoint to the same node reports its own value. This class is not thread safe and is expected to be only used
+ * from the event loop of its channel.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class EndpointMetrics {
+
+  /**
+   * The lowercase names of all known KV opcodes, indexed by their unsigned opcode.
+   */
+  private static final String[] OPCODE_NAMES = new String[256];
+
+  static {
+    for (MemcacheProtocol.Opcode opcode : MemcacheProtocol.Opcode.values()) {
+      OPCODE_NAMES[opcode.opcode() & 0xFF] = opcode.name().toLowerCase();
+    }
+  }
+
+  private final Meter meter;
+  private final String service;
+  private final String node;
+  private final ValueRecorder[] opcodeLatencies = new ValueRecorder[256];
+  private final Map<Class<?>, ValueRecorder> requestLatencies = new HashMap<>();
+  private final Counter inFlight;
+
+  /**
+   * Creates the metrics for a single channel.
+   *
+   * @param meter the meter to record into.
+   * @param serviceType the service of the channel, if any.
+   * @param remote the remote node of the channel.
+   * @param endpoint identifies the channel among all endpoints to the same node (i.e. its channel id).
+   */
+  public EndpointMetrics(final Meter meter, final ServiceType serviceType, final HostAndPort remote,
+                         final String endpoint) {
+    this.meter = meter;
+    this.service = serviceType == null ? null : serviceType.ident();
+    this.node = remote.hostname() + ":" + remote.port();
+    Map<String, String> inFlightTags = tags(null);
+    inFlightTags.put(Meter.TAG_ENDPOINT, endpoint);
+    this.inFlight = meter.counter(Meter.METRIC_ENDPOINT_IN_FLIGHT, inFlightTags);
+  }
+
+  /**
+   * Records the latency of a KV operation, identified by its opcode.
+   *
+   * @param opcode the opcode of the operation.
+   * @param latencyNanos the latency in nanoseconds.
+   */
+  public void recordLatency(final byte opcode, final long latencyNanos) {
+    int index = opcode & 0xFF;
+    ValueRecorder recorder = opcodeLatencies[index];
+    if (recorder == null) {
+      String operation = OPCODE_NAMES[index] == null ? "0x" + Integer.toHexString(index) : OPCODE_NAMES[index];
+      recorder = meter.valueRecorder(Meter.METRIC_REQUEST_LATENCY, tags(operation));
+      opcodeLatencies[index] = recorder;
+    }
+    recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+  }
+
+  /**
+   * Records the latency of an operation, identified by the type of its request.
+   *
+   * @param requestType the type of the request.
+   * @param latencyNanos the latency in nanoseconds.
+   */
+  public void recordLatency(final Class<?> requestType, final long latencyNanos) {
+    ValueRecorder recorder = requestLatencies.get(requestType);
+    if (recorder == null) {
+      recorder = meter.valueRecorder(Meter.METRIC_REQUEST_LATENCY, tags(requestType.getSimpleName()));
+      requestLatencies.put(requestType, recorder);
+    }
+    recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+  }
+
+  /**
+   * Returns the counter tracking the requests in-flight on this endpoint.
+   */
+  public Counter inFlight() {
+    return inFlight;
+  }
+
+  private Map<String, String> tags(final String operation) {
+    Map<String, String> tags = new HashMap<>();
+    if (service != null) {
+      tags.put(Meter.TAG_SERVICE, service);
+    }
+    tags.put(Meter.TAG_NODE, node);
+    if (operation != null) {
+      tags.put(Meter.TAG_OPERATION, operation);
+    }
+    return tags;
+  }
+
+}
@@ -20,24 +20,33 @@ import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.ChannelClosedProactivelyEvent;
 import com.couchbase.client.core.cnc.events.io.InvalidRequestDetectedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultFullHttpResponse;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpRequest;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpResponse;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpContent;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpHeaderNames;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpMessage;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpObjectAggregator;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponseStatus;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.LastHttpContent;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
+import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.io.IoContext;
 import com.couchbase.client.core.io.netty.chunk.ChunkedMessageHandler;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
 import com.couchbase.client.core.msg.NonChunkedHttpRequest;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.StreamedBodyRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
@@ -57,6 +66,10 @@ import static com.couchbase.client.core.io.netty.HttpProtocol.remoteHttpHost;
  * their encoder and decoder implementations are considerably simpler than having to deal with chunking and a
  * streaming parser.</p>
  *
+ * <p>The aggregated body is capped at {@link com.couchbase.client.core.env.IoConfig#maxHttpResponseSize()}. Requests
+ * which only need parts of the body can implement {@link StreamedBodyRequest}, in which case successful response
+ * bodies bypass the aggregator and are fed into a {@link JsonStreamParser} as they arrive.</p>
+ *
  * @since 2.0.0
  */
 @ChannelHandler.Sharable
@@ -78,6 +91,11 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
    */
   private String remoteHost;
 
+  /**
+   * Once connected/active, holds the metrics recorded for this channel.
+   */
+  private EndpointMetrics metrics;
+
   /**
    * Stores the current IO context.
    */
@@ -103,11 +121,32 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
    */
   private HttpChannelContext channelContext;
 
+  /**
+   * The maximum size of an aggregated response body.
+   */
+  private final int maxResponseSize;
+
+  /**
+   * If the body of the current response is streamed, holds the parser it is fed into.
+   */
+  private JsonStreamParser bodyParser;
+
+  /**
+   * If the body of the current response is streamed, holds its header.
+   */
+  private HttpResponse streamedResponse;
+
+  /**
+   * Set if the streamed body could not be parsed, in which case the rest of it is discarded.
+   */
+  private boolean discardStreamedBody;
+
   protected NonChunkedHttpMessageHandler(final BaseEndpoint endpoint, final ServiceType serviceType) {
     this.endpoint = endpoint;
     this.endpointContext = endpoint.context();
     this.eventBus = endpointContext.environment().eventBus();
     this.serviceType = serviceType;
+    this.maxResponseSize = endpointContext.environment().ioConfig().maxHttpResponseSize();
   }
 
   /**
@@ -184,6 +223,8 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
     channelContext = new HttpChannelContext(ctx.channel().id());
 
     remoteHost = remoteHttpHost(ctx.channel().remoteAddress());
+    metrics = new EndpointMetrics(endpointContext.environment().meter(), serviceType, endpointContext.remoteSocket(),
+      ctx.channel().id().asShortText());
     ctx.pipeline().get(HttpObjectAggregator.class).channelActive(ctx);
     ctx.fireChannelActive();
   }
@@ -192,17 +233,14 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
    * Parses the full http response and sends it to decode into the request.
    *
    * @param ctx the channel handler context.
-   * @param msg the FullHttpResponse from the server.
+   * @param msg the FullHttpResponse from the server, or its parts if the body is streamed.
    */
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
     try {
       if (msg instanceof FullHttpResponse) {
         try {
-          currentRequest.context().dispatchLatency(System.nanoTime() - dispatchTimingStart);
-          if (currentRequest.internalSpan() != null) {
-            currentRequest.internalSpan().stopDispatch();
-          }
+          recordDispatchLatency();
             FullHttpResponse httpResponse = (FullHttpResponse) msg;
             ResponseStatus responseStatus = HttpProtocol.decodeStatus(httpResponse.status());
             if (!currentRequest.completed()) {
@@ -222,6 +260,8 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
           currentRequest = null;
           endpoint.markRequestCompletion();
         }
+      } else if (bodyParser != null && (msg instanceof HttpResponse || msg instanceof HttpContent)) {
+        handleStreamedResponse(msg);
       } else {
         ioContext.environment().eventBus().publish(
           new UnsupportedResponseTypeReceivedEvent(ioContext, msg)
@@ -233,6 +273,113 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
     }
   }
 
+  /**
+   * Records the dispatch latency of the current request once its response (or the header of it) arrived.
+   */
+  private void recordDispatchLatency() {
+    long latency = System.nanoTime() - dispatchTimingStart;
+    currentRequest.context().dispatchLatency(latency);
+    if (endpoint != null) {
+      endpoint.recordResponseLatency(latency);
+    }
+    metrics.recordLatency(currentRequest.getClass(), latency);
+    if (currentRequest.internalSpan() != null) {
+      currentRequest.internalSpan().stopDispatch();
+    }
+  }
+
+  /**
+   * Called by the aggregator for every response header, decides if the body should be streamed.
+   *
+   * @param response the response header.
+   * @return true if the body is streamed into a parser and must not be aggregated.
+   */
+  private boolean maybeStreamBody(final HttpResponse response) {
+    if (currentRequest instanceof StreamedBodyRequest
+      && !currentRequest.completed()
+      && HttpProtocol.decodeStatus(response.status()) == ResponseStatus.SUCCESS) {
+      bodyParser = ((StreamedBodyRequest) currentRequest).bodyParser();
+    }
+    return bodyParser != null;
+  }
+
+  /**
+   * Feeds the parts of a successful response into the body parser and completes the request after the last one.
+   *
+   * @param msg the response header or a part of the body.
+   */
+  private void handleStreamedResponse(final Object msg) {
+    if (msg instanceof HttpResponse) {
+      streamedResponse = (HttpResponse) msg;
+      recordDispatchLatency();
+    }
+
+    if (msg instanceof HttpContent) {
+      if (!discardStreamedBody) {
+        try {
+          // The parser takes ownership of the buffer it is fed, while the message is released once it has been read.
+          bodyParser.feed(((HttpContent) msg).content().retain());
+        } catch (Throwable ex) {
+          discardStreamedBody = true;
+          currentRequest.fail(ex);
+        }
+      }
+
+      if (msg instanceof LastHttpContent) {
+        try {
+          if (currentRequest.completed()) {
+            if (!discardStreamedBody) {
+              ioContext.environment().orphanReporter().report(currentRequest);
+            }
+          } else {
+            bodyParser.endOfInput();
+            FullHttpResponse httpResponse = new DefaultFullHttpResponse(
+              streamedResponse.protocolVersion(),
+              streamedResponse.status(),
+              Unpooled.EMPTY_BUFFER,
+              streamedResponse.headers(),
+              ((LastHttpContent) msg).trailingHeaders()
+            );
+            currentRequest.succeed(currentRequest.decode(httpResponse, channelContext));
+          }
+        } catch (Throwable ex) {
+          currentRequest.fail(ex);
+        } finally {
+          closeBodyParser();
+          currentRequest = null;
+          endpoint.markRequestCompletion();
+        }
+      }
+    }
+  }
+
+  /**
+   * Fails the current request once the aggregator detected that its response is larger than allowed.
+   * <p>
+   * The aggregator closes the channel afterwards, so the request must not be retried once it goes inactive.
+   */
+  private void failOversizedResponse() {
+    if (currentRequest == null) {
+      return;
+    }
+    try {
+      currentRequest.fail(new DecodingFailureException("HTTP response body exceeds the maximum size of "
+        + maxResponseSize + " bytes (configurable via IoConfig.maxHttpResponseSize)"));
+    } finally {
+      currentRequest = null;
+      endpoint.markRequestCompletion();
+    }
+  }
+
+  private void closeBodyParser() {
+    if (bodyParser != null) {
+      bodyParser.close();
+      bodyParser = null;
+    }
+    streamedResponse = null;
+    discardStreamedBody = false;
+  }
+
   /**
    * When the non-chunked handler is added, it also needs to add the http aggregator.
    *
@@ -240,11 +387,12 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
    */
   @Override
   public void handlerAdded(final ChannelHandlerContext ctx) {
-    ctx.pipeline().addBefore(IDENTIFIER, AGG_IDENTIFIER, new HttpObjectAggregator(Integer.MAX_VALUE));
+    ctx.pipeline().addBefore(IDENTIFIER, AGG_IDENTIFIER, new BoundedHttpObjectAggregator(maxResponseSize));
   }
 
   @Override
   public void channelInactive(ChannelHandlerContext ctx) {
+    closeBodyParser();
     if (currentRequest != null) {
       RetryOrchestrator.maybeRetry(ioContext, currentRequest, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT);
     }
@@ -261,4 +409,30 @@ public abstract class NonChunkedHttpMessageHandler extends ChannelDuplexHandler
     ctx.pipeline().remove(HttpObjectAggregator.class);
   }
 
+  /**
+   * Aggregates responses up to a maximum size, but lets the parts of responses which are streamed pass through.
+   */
+  private class BoundedHttpObjectAggregator extends HttpObjectAggregator {
+
+    BoundedHttpObjectAggregator(final int maxContentLength) {
+      super(maxContentLength);
+    }
+
+    @Override
+    public boolean acceptInboundMessage(final Object msg) throws Exception {
+      if (msg instanceof HttpResponse && !(msg instanceof FullHttpResponse) && maybeStreamBody((HttpResponse) msg)) {
+        return false;
+      }
+      return super.acceptInboundMessage(msg);
+    }
+
+    @Override
+    protected void handleOversizedMessage(final ChannelHandlerContext ctx, final HttpMessage oversized)
+      throws Exception {
+      failOversizedResponse();
+      super.handleOversizedMessage(ctx, oversized);
+    }
+
+  }
+
 }
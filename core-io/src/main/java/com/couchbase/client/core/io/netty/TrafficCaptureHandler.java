@@ -16,6 +16,7 @@
 
 package com.couchbase.client.core.io.netty;
 
+import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.ReadTrafficCapturedEvent;
 import com.couchbase.client.core.cnc.events.io.WriteTrafficCapturedEvent;
@@ -58,7 +59,7 @@ public class TrafficCaptureHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
-    if (msg instanceof ByteBuf) {
+    if (msg instanceof ByteBuf && eventBus.isEnabled(Event.Severity.VERBOSE, Event.Category.IO)) {
       eventBus.publish(new ReadTrafficCapturedEvent(ioContext, ByteBufUtil.prettyHexDump((ByteBuf) msg)));
     }
     ctx.fireChannelRead(msg);
@@ -66,7 +67,7 @@ public class TrafficCaptureHandler extends ChannelDuplexHandler {
 
   @Override
   public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
-    if (msg instanceof ByteBuf) {
+    if (msg instanceof ByteBuf && eventBus.isEnabled(Event.Severity.VERBOSE, Event.Category.IO)) {
       eventBus.publish(new WriteTrafficCapturedEvent(ioContext, ByteBufUtil.prettyHexDump((ByteBuf) msg)));
     }
     ctx.write(msg, promise);
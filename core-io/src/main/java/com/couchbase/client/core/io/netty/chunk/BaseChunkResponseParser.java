@@ -18,25 +18,21 @@ package com.couchbase.client.core.io.netty.chunk;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
-import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.DecodingFailureException;
-import com.couchbase.client.core.json.stream.CopyingStreamWindow;
 import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.json.stream.RetainingStreamWindow;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.chunk.ChunkHeader;
 import com.couchbase.client.core.msg.chunk.ChunkRow;
 import com.couchbase.client.core.msg.chunk.ChunkTrailer;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxProcessor;
-import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
 
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Provides a common, abstract implementation of the {@link ChunkResponseParser} interface.
@@ -64,33 +60,23 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
    */
   private boolean headerComplete;
 
-  /**
-   * Holds the current channel config.
-   */
-  private ChannelConfig channelConfig;
-
   /**
    * Holds the current associated trailer.
    */
   private MonoProcessor<T> trailer;
 
   /**
-   * Holds the current associated rows.
-   */
-  private FluxProcessor<ROW, ROW> rows;
-
-  /**
-   * Holds the current associated row sink.
+   * Holds the current associated rows, which also drive reading from the channel based on demand.
    */
-  private FluxSink<ROW> rowSink;
-
-  /**
-   * Holds the currently user-requested rows for backpressure handling.
-   */
-  private final AtomicLong requested = new AtomicLong(0);
+  private ChunkRowPublisher<ROW> rows;
 
   /**
    * Subclass implements this to return the "meat" of the decoding, the chunk parser.
+   * <p>
+   * The parser retains the input buffers instead of accumulating them, but rows are still copied out with
+   * {@link com.couchbase.client.core.json.stream.MatchedValue#readBytes()}: they are buffered until requested
+   * and handed to consumers as byte arrays, so a retained slice would have no owner to release it. Headers and
+   * trailers are small and copied as well.
    */
   protected abstract JsonStreamParser.Builder parserBuilder();
 
@@ -156,31 +142,23 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
       decodingFailure = e;
       failRows(e);
       failTrailer(e);
+      return;
     }
+
+    rows.readMoreIfNeeded();
   }
 
   /**
    * Initializes the parser to a fresh state.
    *
-   * @param channelConfig the channel config used for backpressure auto-read.
+   * @param channel the channel which is read from based on the demand for rows.
    */
   @Override
-  public void initialize(final ChannelConfig channelConfig) {
+  public void initialize(final Channel channel) {
     cleanup();
-    parser = parserBuilder().build(scratchBuffer, new CopyingStreamWindow(channelConfig.getAllocator()));
-    this.channelConfig = channelConfig;
+    parser = parserBuilder().build(scratchBuffer, new RetainingStreamWindow(channel.alloc()));
     this.trailer = MonoProcessor.create();
-    this.requested.set(0);
-    this.rows = EmitterProcessor.create();
-    this.rowSink = this.rows
-      .sink(FluxSink.OverflowStrategy.BUFFER)
-      .onRequest(v -> {
-        requested.addAndGet(v);
-        if (!channelConfig.isAutoRead()) {
-          channelConfig.setAutoRead(true);
-        }
-      })
-      .onDispose(() -> channelConfig.setAutoRead(true));
+    this.rows = new ChunkRowPublisher<>(channel);
   }
 
   @Override
@@ -225,18 +203,14 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
   /**
    * Emits a single row into the rows flux.
    *
-   * <p>Note that this method also handles the backpressure stalling side. If we find that someone
-   * is subscribed to this flux but has not requested any further rows, the channel auto-read
-   * is going to be paused until further rows are requested or the subscriber unsubscribes.</p>
+   * <p>Note that this method also handles the backpressure stalling side. Rows are buffered until they
+   * are requested, and once a subscriber is present and too many rows are buffered the channel is only
+   * read again when the subscriber caught up (see {@link ChunkRowPublisher}).</p>
    *
    * @param row the row to emit.
    */
   protected void emitRow(final ROW row) {
-    rowSink.next(row);
-    requested.decrementAndGet();
-    if (requested.get() <= 0 && channelConfig.isAutoRead() && rows.downstreamCount() > 0) {
-      channelConfig.setAutoRead(false);
-    }
+    rows.emit(row);
   }
 
   /**
@@ -245,14 +219,14 @@ public abstract class BaseChunkResponseParser<H extends ChunkHeader, ROW extends
    * @param t the throwable with which to fail the rows.
    */
   protected void failRows(Throwable t) {
-    rowSink.error(t);
+    rows.fail(t);
   }
 
   /**
    * Completes the row flux.
    */
   protected void completeRows() {
-    rowSink.complete();
+    rows.complete();
   }
 
   /**
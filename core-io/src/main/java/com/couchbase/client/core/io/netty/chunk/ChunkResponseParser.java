@@ -17,7 +17,7 @@
 package com.couchbase.client.core.io.netty.chunk;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
-import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.msg.RequestContext;
@@ -57,9 +57,9 @@ public interface ChunkResponseParser<H extends ChunkHeader, ROW extends ChunkRow
   /**
    * Begins a new parsing session.
    *
-   * @param channelConfig the channel config used for backpressure auto-read.
+   * @param channel the channel which is read from based on the demand for rows.
    */
-  void initialize(ChannelConfig channelConfig);
+  void initialize(Channel channel);
 
   /**
    * Releases resources managed by the parser and prepares it for reuse.
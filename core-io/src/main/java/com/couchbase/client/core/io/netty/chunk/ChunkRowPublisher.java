@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.chunk;
+
+import com.couchbase.client.core.deps.io.netty.channel.Channel;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelConfig;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the rows of a chunked response to a single subscriber, reading from the channel based on its demand.
+ *
+ * <p>Rows are buffered until they are requested. As long as the buffer stays below the high watermark the channel
+ * keeps reading on its own. Once a subscriber is present and the buffer reaches the high watermark, auto-read is
+ * switched off and from then on the channel is only read explicitly whenever the buffer drained below the low
+ * watermark. Auto-read is switched back on once the response is complete or the subscriber cancels.</p>
+ *
+ * <p>Rows are emitted from the event loop of the channel, while requests and cancellation can happen on any
+ * thread.</p>
+ *
+ * @since 2.1.0
+ */
+final class ChunkRowPublisher<ROW> extends Flux<ROW> implements Subscription {
+
+  /**
+   * The number of buffered rows at which the channel stops reading on its own.
+   */
+  static final int DEFAULT_HIGH_WATERMARK = 128;
+
+  /**
+   * The number of buffered rows below which more data is read from the channel.
+   */
+  static final int DEFAULT_LOW_WATERMARK = 32;
+
+  private final Channel channel;
+  private final int highWatermark;
+  private final int lowWatermark;
+
+  private final Queue<ROW> queue = Queues.<ROW>unbounded().get();
+  private final AtomicInteger buffered = new AtomicInteger();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+  private final AtomicBoolean paused = new AtomicBoolean();
+
+  private volatile CoreSubscriber<? super ROW> actual;
+  private volatile boolean done;
+  private volatile boolean cancelled;
+  private Throwable error;
+
+  ChunkRowPublisher(final Channel channel) {
+    this(channel, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+  }
+
+  ChunkRowPublisher(final Channel channel, final int lowWatermark, final int highWatermark) {
+    this.channel = channel;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+  }
+
+  @Override
+  public void subscribe(final CoreSubscriber<? super ROW> actual) {
+    if (!subscribed.compareAndSet(false, true)) {
+      Operators.error(actual, new IllegalStateException("The rows of a response can only be subscribed to once"));
+      return;
+    }
+    this.actual = actual;
+    actual.onSubscribe(this);
+    drain();
+  }
+
+  /**
+   * Buffers the row and delivers it if it has been requested, called from the event loop.
+   *
+   * @param row the row to emit.
+   */
+  void emit(final ROW row) {
+    if (done || cancelled) {
+      return;
+    }
+
+    queue.offer(row);
+    if (buffered.incrementAndGet() >= highWatermark && actual != null && paused.compareAndSet(false, true)) {
+      channel.config().setAutoRead(false);
+      if (cancelled) {
+        resume();
+      }
+    }
+    drain();
+  }
+
+  /**
+   * Completes the rows once all buffered ones have been delivered.
+   */
+  void complete() {
+    done = true;
+    resume();
+    drain();
+  }
+
+  /**
+   * Fails the rows once all buffered ones have been delivered.
+   *
+   * @param t the cause of the failure.
+   */
+  void fail(final Throwable t) {
+    if (done) {
+      return;
+    }
+    error = t;
+    done = true;
+    resume();
+    drain();
+  }
+
+  /**
+   * Reads more data from the channel if reading is paused and the buffer drained below the low watermark.
+   * <p>
+   * Called after every chunk of input has been fed and every time rows have been delivered.
+   */
+  void readMoreIfNeeded() {
+    if (paused.get() && !done && buffered.get() < lowWatermark) {
+      channel.read();
+    }
+  }
+
+  /**
+   * Returns the number of rows which are currently buffered.
+   */
+  int buffered() {
+    return buffered.get();
+  }
+
+  private void resume() {
+    if (paused.compareAndSet(true, false)) {
+      ChannelConfig config = channel.config();
+      if (!config.isAutoRead()) {
+        config.setAutoRead(true);
+      }
+    }
+  }
+
+  @Override
+  public void request(final long n) {
+    if (Operators.validate(n)) {
+      requested.accumulateAndGet(n, Operators::addCap);
+      drain();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    resume();
+    if (wip.getAndIncrement() == 0) {
+      clear();
+    }
+  }
+
+  private void clear() {
+    queue.clear();
+    buffered.set(0);
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+
+    int missed = 1;
+    for (;;) {
+      final CoreSubscriber<? super ROW> a = actual;
+      if (a != null) {
+        final long r = requested.get();
+        long e = 0;
+
+        while (e != r) {
+          if (cancelled) {
+            clear();
+            return;
+          }
+          final boolean d = done;
+          final ROW row = queue.poll();
+          if (row == null) {
+            if (d) {
+              terminate(a);
+              return;
+            }
+            break;
+          }
+          buffered.decrementAndGet();
+          a.onNext(row);
+          e++;
+        }
+
+        if (e == r) {
+          if (cancelled) {
+            clear();
+            return;
+          }
+          if (done && queue.isEmpty()) {
+            terminate(a);
+            return;
+          }
+        }
+
+        if (e != 0) {
+          if (r != Long.MAX_VALUE) {
+            requested.addAndGet(-e);
+          }
+          readMoreIfNeeded();
+        }
+      } else if (cancelled) {
+        clear();
+        return;
+      }
+
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        break;
+      }
+    }
+  }
+
+  private void terminate(final CoreSubscriber<? super ROW> a) {
+    Throwable t = error;
+    if (t != null) {
+      a.onError(t);
+    } else {
+      a.onComplete();
+    }
+  }
+
+}
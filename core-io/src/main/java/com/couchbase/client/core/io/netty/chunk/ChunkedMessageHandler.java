@@ -32,6 +32,7 @@ import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.io.IoContext;
+import com.couchbase.client.core.io.netty.EndpointMetrics;
 import com.couchbase.client.core.io.netty.HttpProtocol;
 import com.couchbase.client.core.msg.HttpRequest;
 import com.couchbase.client.core.msg.ResponseStatus;
@@ -88,6 +89,11 @@ public abstract class ChunkedMessageHandler
    */
   private String remoteHost;
 
+  /**
+   * Once connected/active, holds the metrics recorded for this channel.
+   */
+  private EndpointMetrics metrics;
+
   /**
    * Holds the current outstanding request sent to the server.
    */
@@ -168,6 +174,8 @@ public abstract class ChunkedMessageHandler
   @Override
   public void channelActive(final ChannelHandlerContext ctx) {
     remoteHost = remoteHttpHost(ctx.channel().remoteAddress());
+    metrics = new EndpointMetrics(endpointContext.environment().meter(), endpointContext.serviceType(),
+      endpointContext.remoteSocket(), ctx.channel().id().asShortText());
     ioContext = new IoContext(
       endpointContext,
       ctx.channel().localAddress(),
@@ -220,14 +228,19 @@ public abstract class ChunkedMessageHandler
   }
 
   private void handleHttpResponse(final ChannelHandlerContext ctx, final HttpResponse msg) {
-    currentRequest.context().dispatchLatency(System.nanoTime() - dispatchTimingStart);
+    long latency = System.nanoTime() - dispatchTimingStart;
+    currentRequest.context().dispatchLatency(latency);
+    if (endpoint != null) {
+      endpoint.recordResponseLatency(latency);
+    }
+    metrics.recordLatency(currentRequest.getClass(), latency);
     if (currentRequest.internalSpan() != null) {
       currentRequest.internalSpan().stopDispatch();
     }
     currentResponseStatus = msg;
     chunkResponseParser.updateResponseHeader(msg);
     convertedResponseStatus = HttpProtocol.decodeStatus(msg.status());
-    chunkResponseParser.initialize(ctx.channel().config());
+    chunkResponseParser.initialize(ctx.channel());
   }
 
   private void handleHttpContent(final HttpContent msg) {
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+
+import java.util.function.Consumer;
+
+/**
+ * Tracks the in-flight requests of a single KV channel, keyed by their opaque.
+ *
+ * <p>Next to each request the primitive dispatch timestamp is stored in a parallel array, so that neither
+ * the timestamp needs to be boxed nor a second map has to be maintained. Since opaques are assigned in a
+ * monotonically increasing fashion, the opaque masked by the table size is used directly as the slot index.
+ * Consecutive requests land in consecutive slots (like in a ring buffer) and collisions are resolved through
+ * linear probing. Removals use backward shift deletion so no tombstones are needed.</p>
+ *
+ * <p>Once the table has grown to the maximum number of concurrently outstanding requests, inserting and
+ * removing entries does not allocate.</p>
+ *
+ * <p>This class is not thread safe and is expected to be only used from the event loop of its channel.</p>
+ *
+ * @since 2.1.0
+ */
+final class InFlightRequestTable {
+
+  /**
+   * The default initial capacity, needs to be a power of two.
+   */
+  static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+  private int[] opaques;
+  private KeyValueRequest<Response>[] requests;
+  private long[] dispatchTimes;
+  private int mask;
+  private int size;
+
+  InFlightRequestTable() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  InFlightRequestTable(final int initialCapacity) {
+    allocate(Integer.highestOneBit(Math.max(2, initialCapacity - 1) << 1));
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private void allocate(final int capacity) {
+    opaques = new int[capacity];
+    requests = (KeyValueRequest<Response>[]) new KeyValueRequest<?>[capacity];
+    dispatchTimes = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Stores the request under the given opaque, replacing a request with the same opaque if present.
+   *
+   * @param opaque the opaque of the request.
+   * @param request the request to store.
+   * @return the slot at which the request has been stored, valid until the table is modified again.
+   */
+  int put(final int opaque, final KeyValueRequest<Response> request) {
+    if ((size + 1) * 2 > requests.length) {
+      grow();
+    }
+
+    int slot = opaque & mask;
+    while (requests[slot] != null) {
+      if (opaques[slot] == opaque) {
+        requests[slot] = request;
+        dispatchTimes[slot] = 0;
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    opaques[slot] = opaque;
+    requests[slot] = request;
+    dispatchTimes[slot] = 0;
+    size++;
+    return slot;
+  }
+
+  /**
+   * Returns the slot of the request with the given opaque, or -1 if not present.
+   *
+   * @param opaque the opaque to look up.
+   * @return the slot if found, -1 otherwise.
+   */
+  int slotOf(final int opaque) {
+    int slot = opaque & mask;
+    while (requests[slot] != null) {
+      if (opaques[slot] == opaque) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the request stored at the given slot.
+   */
+  KeyValueRequest<Response> requestAt(final int slot) {
+    return requests[slot];
+  }
+
+  /**
+   * Returns the dispatch timestamp (in nanoseconds) stored at the given slot.
+   */
+  long dispatchTimeAt(final int slot) {
+    return dispatchTimes[slot];
+  }
+
+  /**
+   * Records the dispatch timestamp (in nanoseconds) for the request at the given slot.
+   */
+  void dispatchTimeAt(final int slot, final long dispatchTime) {
+    dispatchTimes[slot] = dispatchTime;
+  }
+
+  /**
+   * Removes the request with the given opaque if present.
+   *
+   * @param opaque the opaque of the request to remove.
+   * @return the removed request or null if not found.
+   */
+  KeyValueRequest<Response> remove(final int opaque) {
+    int slot = slotOf(opaque);
+    if (slot < 0) {
+      return null;
+    }
+    KeyValueRequest<Response> request = requests[slot];
+    removeAt(slot);
+    return request;
+  }
+
+  /**
+   * Removes the entry at the given slot and shifts back all following entries of the same probe chain.
+   *
+   * @param slot the slot to clear.
+   */
+  void removeAt(int slot) {
+    requests[slot] = null;
+    size--;
+
+    int next = (slot + 1) & mask;
+    while (requests[next] != null) {
+      int home = opaques[next] & mask;
+      boolean movable = slot <= next
+        ? (home <= slot || home > next)
+        : (home <= slot && home > next);
+      if (movable) {
+        opaques[slot] = opaques[next];
+        requests[slot] = requests[next];
+        dispatchTimes[slot] = dispatchTimes[next];
+        requests[next] = null;
+        slot = next;
+      }
+      next = (next + 1) & mask;
+    }
+  }
+
+  /**
+   * Calls the consumer for each in-flight request.
+   */
+  void forEach(final Consumer<KeyValueRequest<Response>> consumer) {
+    for (KeyValueRequest<Response> request : requests) {
+      if (request != null) {
+        consumer.accept(request);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of in-flight requests.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the current number of slots.
+   */
+  int capacity() {
+    return requests.length;
+  }
+
+  /**
+   * Doubles the capacity and re-inserts all present entries.
+   */
+  private void grow() {
+    int[] oldOpaques = opaques;
+    KeyValueRequest<Response>[] oldRequests = requests;
+    long[] oldDispatchTimes = dispatchTimes;
+
+    allocate(oldRequests.length << 1);
+    for (int i = 0; i < oldRequests.length; i++) {
+      if (oldRequests[i] != null) {
+        int slot = oldOpaques[i] & mask;
+        while (requests[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        opaques[slot] = oldOpaques[i];
+        requests[slot] = oldRequests[i];
+        dispatchTimes[slot] = oldDispatchTimes[i];
+      }
+    }
+  }
+
+}
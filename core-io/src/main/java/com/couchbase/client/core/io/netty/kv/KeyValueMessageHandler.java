@@ -17,6 +17,7 @@
 package com.couchbase.client.core.io.netty.kv;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.ChannelClosedProactivelyEvent;
 import com.couchbase.client.core.cnc.events.io.InvalidRequestDetectedEvent;
@@ -24,20 +25,25 @@ import com.couchbase.client.core.cnc.events.io.KeyValueErrorMapCodeHandledEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnknownResponseStatusReceivedEvent;
 import com.couchbase.client.core.cnc.events.io.UnsupportedResponseTypeReceivedEvent;
+import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.config.ProposedBucketConfigContext;
+import com.couchbase.client.core.config.ProposedGlobalConfigContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelDuplexHandler;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
 import com.couchbase.client.core.deps.io.netty.channel.ChannelPromise;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectHashMap;
-import com.couchbase.client.core.deps.io.netty.util.collection.IntObjectMap;
+import com.couchbase.client.core.deps.io.netty.util.concurrent.ScheduledFuture;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CompressionConfig;
+import com.couchbase.client.core.env.TimeoutTracking;
 import com.couchbase.client.core.error.CollectionNotFoundException;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.io.IoContext;
+import com.couchbase.client.core.io.netty.EndpointMetrics;
+import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.ResponseStatus;
@@ -47,8 +53,10 @@ import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static com.couchbase.client.core.io.netty.HandlerUtils.closeChannelWithReason;
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.AUTH;
@@ -58,6 +66,7 @@ import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.RETR
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.RETRY_NOW;
 import static com.couchbase.client.core.io.netty.kv.ErrorMap.ErrorAttribute.TEMP;
 import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.body;
+import static com.couchbase.client.core.io.netty.kv.MemcacheProtocol.key;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -69,19 +78,19 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   /**
-   * Stores the {@link CoreContext} for use.
+   * The interval at which in-flight requests are checked against their deadline, if enabled.
    */
-  private final EndpointContext endpointContext;
+  static final Duration DEADLINE_SWEEP_INTERVAL = Duration.ofMillis(10);
 
   /**
-   * Holds all outstanding requests based on their opaque.
+   * Stores the {@link CoreContext} for use.
    */
-  private final IntObjectMap<KeyValueRequest<Response>> writtenRequests;
+  private final EndpointContext endpointContext;
 
   /**
-   * Holds the start timestamps for the outstanding dispatched requests.
+   * Holds all outstanding requests and their dispatch timestamps based on their opaque.
    */
-  private final IntObjectMap<Long> writtenRequestDispatchTimings;
+  private final InFlightRequestTable writtenRequests;
 
   /**
    * The compression config used for this handler.
@@ -118,6 +127,21 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private ErrorMap errorMap;
 
+  /**
+   * Once connected/active, holds the metrics recorded for this channel.
+   */
+  private EndpointMetrics metrics;
+
+  /**
+   * If timeouts are tracked by deadline, holds the periodic sweep task while the channel is active.
+   */
+  private ScheduledFuture<?> deadlineSweep;
+
+  /**
+   * True if the server pushes cluster map change notifications for the bucket on this channel.
+   */
+  private boolean clustermapPushEnabled;
+
   /**
    * Creates a new {@link KeyValueMessageHandler}.
    *
@@ -127,8 +151,7 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
                                 final Optional<String> bucketName) {
     this.endpoint = endpoint;
     this.endpointContext = endpointContext;
-    this.writtenRequests = new IntObjectHashMap<>();
-    this.writtenRequestDispatchTimings = new IntObjectHashMap<>();
+    this.writtenRequests = new InFlightRequestTable();
     this.compressionConfig = endpointContext.environment().compressionConfig();
     this.eventBus = endpointContext.environment().eventBus();
     this.bucketName = bucketName;
@@ -153,6 +176,8 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     );
 
     errorMap = ctx.channel().attr(ChannelAttributes.ERROR_MAP_KEY).get();
+    metrics = new EndpointMetrics(endpointContext.environment().meter(), ServiceType.KV,
+      endpointContext.remoteSocket(), ctx.channel().id().asShortText());
 
     List<ServerFeature> features = ctx.channel().attr(ChannelAttributes.SERVER_FEATURE_KEY).get();
     boolean compression = features != null && features.contains(ServerFeature.SNAPPY);
@@ -162,6 +187,8 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     boolean altRequest = features != null && features.contains(ServerFeature.ALT_REQUEST);
     boolean vattrEnabled = features != null && features.contains(ServerFeature.VATTR);
     boolean createAsDeleted = features != null && features.contains(ServerFeature.CREATE_AS_DELETED);
+    boolean clustermapNotifications = features != null
+      && features.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION);
 
     if (syncReplication && !altRequest) {
       throw new IllegalStateException("If Synchronous Replication is enabled, the server also " +
@@ -181,6 +208,21 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       createAsDeleted
     );
 
+    if (clustermapNotifications && bucketName.isPresent()) {
+      clustermapPushEnabled = true;
+      ioContext.core().configurationProvider().clustermapPushEnabled(bucketName.get());
+    }
+
+    if (endpointContext.environment().timeoutTracking() == TimeoutTracking.DEADLINE_SWEEP) {
+      long interval = DEADLINE_SWEEP_INTERVAL.toNanos();
+      deadlineSweep = ctx.executor().scheduleAtFixedRate(
+        () -> cancelTimedOutRequests(System.nanoTime()),
+        interval,
+        interval,
+        TimeUnit.NANOSECONDS
+      );
+    }
+
     ctx.fireChannelActive();
   }
 
@@ -191,10 +233,12 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
       KeyValueRequest<Response> request = (KeyValueRequest<Response>) msg;
 
       int opaque = request.opaque();
-      writtenRequests.put(opaque, request);
+      int slot = writtenRequests.put(opaque, request);
+      request.cancelPendingTimeout();
       try {
         ctx.write(request.encode(ctx.alloc(), opaque, channelContext), promise);
-        writtenRequestDispatchTimings.put(opaque, (Long) System.nanoTime());
+        writtenRequests.dispatchTimeAt(slot, System.nanoTime());
+        metrics.inFlight().incrementBy(1);
         if (request.internalSpan() != null) {
           request.internalSpan().startDispatch();
         }
@@ -223,6 +267,15 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+    if (msg instanceof ByteBuf && MemcacheProtocol.serverRequest((ByteBuf) msg)) {
+      try {
+        handleServerRequest((ByteBuf) msg);
+      } finally {
+        ReferenceCountUtil.release(msg);
+      }
+      return;
+    }
+
     try {
       if (msg instanceof ByteBuf) {
         decode(ctx, (ByteBuf) msg);
@@ -242,12 +295,39 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
-    for (KeyValueRequest<Response> request : writtenRequests.values()) {
-      RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT);
+    if (metrics != null) {
+      metrics.inFlight().incrementBy(-writtenRequests.size());
+    }
+    if (deadlineSweep != null) {
+      deadlineSweep.cancel(false);
+      deadlineSweep = null;
     }
+    if (clustermapPushEnabled) {
+      clustermapPushEnabled = false;
+      ioContext.core().configurationProvider().clustermapPushDisabled(bucketName.get());
+    }
+    writtenRequests.forEach(request ->
+      RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.CHANNEL_CLOSED_WHILE_IN_FLIGHT)
+    );
     ctx.fireChannelInactive();
   }
 
+  /**
+   * Cancels all in-flight requests whose absolute timeout has been reached.
+   *
+   * <p>The requests are kept in the in-flight table so that a late response can still be matched
+   * and reported as an orphan.</p>
+   *
+   * @param now the current timestamp in nanoseconds.
+   */
+  void cancelTimedOutRequests(final long now) {
+    writtenRequests.forEach(request -> {
+      if (!request.completed() && now - request.absoluteTimeout() >= 0) {
+        request.cancel(CancellationReason.TIMEOUT);
+      }
+    });
+  }
+
   /**
    * Main method to start dispatching the decode.
    *
@@ -256,18 +336,24 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
    */
   private void decode(final ChannelHandlerContext ctx, final ByteBuf response) {
     int opaque = MemcacheProtocol.opaque(response);
-    KeyValueRequest<Response> request = writtenRequests.remove(opaque);
+    int slot = writtenRequests.slotOf(opaque);
 
-    if (request == null) {
+    if (slot < 0) {
       handleUnknownResponseReceived(ctx, response);
       return;
     }
 
+    KeyValueRequest<Response> request = writtenRequests.requestAt(slot);
+    long start = writtenRequests.dispatchTimeAt(slot);
+    writtenRequests.removeAt(slot);
+
     long serverTime = MemcacheProtocol.parseServerDurationFromResponse(response);
     request.context().serverLatency(serverTime);
 
-    long start = writtenRequestDispatchTimings.remove(opaque);
-    request.context().dispatchLatency(System.nanoTime() - start);
+    long latency = System.nanoTime() - start;
+    request.context().dispatchLatency(latency);
+    metrics.inFlight().incrementBy(-1);
+    metrics.recordLatency(MemcacheProtocol.opcode(response), latency);
 
     if (request.internalSpan() != null) {
       request.internalSpan().stopDispatch();
@@ -278,12 +364,14 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     ErrorMap.ErrorCode errorCode = status == ResponseStatus.UNKNOWN ? decodeErrorCode(statusCode) : null;
 
     if (errorCode != null) {
-      ioContext.environment().eventBus().publish(new KeyValueErrorMapCodeHandledEvent(ioContext, errorCode));
+      if (eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.IO)) {
+        eventBus.publish(new KeyValueErrorMapCodeHandledEvent(ioContext, errorCode));
+      }
       status = handleErrorCode(ctx, errorCode);
     }
 
-    if (status == ResponseStatus.UNKNOWN) {
-      ioContext.environment().eventBus().publish(new UnknownResponseStatusReceivedEvent(ioContext, statusCode));
+    if (status == ResponseStatus.UNKNOWN && eventBus.isEnabled(Event.Severity.INFO, Event.Category.IO)) {
+      eventBus.publish(new UnknownResponseStatusReceivedEvent(ioContext, statusCode));
     }
 
     if (status == ResponseStatus.NOT_MY_VBUCKET) {
@@ -440,13 +528,62 @@ public class KeyValueMessageHandler extends ChannelDuplexHandler {
     RetryOrchestrator.maybeRetry(ioContext, request, RetryReason.KV_NOT_MY_VBUCKET);
 
     body(response)
-      .map(b -> b.toString(UTF_8).trim())
-      .filter(c -> c.startsWith("{"))
+      .map(ByteBufUtil::getBytes)
+      .filter(KeyValueMessageHandler::startsWithObject)
       .ifPresent(c -> ioContext.core().configurationProvider().proposeBucketConfig(
         new ProposedBucketConfigContext(request.bucket(), c, origin)
       ));
   }
 
+  /**
+   * Handles a request which has been pushed by the server.
+   *
+   * <p>Only cluster map change notifications are negotiated. Their config is proposed to the configuration
+   * provider just like a config fetched by the refresher, but without any delay. The server does not expect a
+   * response.</p>
+   *
+   * @param request the server request to handle.
+   */
+  private void handleServerRequest(final ByteBuf request) {
+    if (MemcacheProtocol.opcode(request) != MemcacheProtocol.ServerOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode()) {
+      return;
+    }
+
+    final Optional<byte[]> config = body(request)
+      .map(ByteBufUtil::getBytes)
+      .filter(KeyValueMessageHandler::startsWithObject);
+    if (!config.isPresent()) {
+      return;
+    }
+
+    final String origin = endpointContext.remoteSocket().hostname();
+    final String bucket = key(request).map(k -> k.toString(UTF_8)).orElse("");
+    final ConfigurationProvider provider = ioContext.core().configurationProvider();
+    if (bucket.isEmpty()) {
+      provider.proposeGlobalConfig(new ProposedGlobalConfigContext(new String(config.get(), UTF_8), origin));
+    } else {
+      provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config.get(), origin));
+    }
+  }
+
+  /**
+   * Checks if the content starts with a JSON object, ignoring leading whitespace.
+   *
+   * @param content the encoded content to check.
+   * @return true if the first non-whitespace character opens an object.
+   */
+  private static boolean startsWithObject(final byte[] content) {
+    for (byte b : content) {
+      if (b == '{') {
+        return true;
+      }
+      if (b > ' ') {
+        return false;
+      }
+    }
+    return false;
+  }
+
   /**
    * Helper method to redispatch a request and signal that we need to refresh the collection map.
    *
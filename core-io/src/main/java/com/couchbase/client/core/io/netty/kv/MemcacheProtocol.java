@@ -30,6 +30,8 @@ import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.PooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.org.iq80.snappy.Snappy;
 
@@ -90,6 +92,16 @@ public enum MemcacheProtocol {
    */
   static final int CAS_OFFSET = 16;
 
+  /**
+   * The size of the prefix which is compressed first to check if a large document compresses well enough.
+   */
+  static final int COMPRESSION_SAMPLE_SIZE = 4096;
+
+  /**
+   * Documents of at least this size are sampled before they are compressed as a whole.
+   */
+  static final int COMPRESSION_SAMPLE_THRESHOLD = 16 * COMPRESSION_SAMPLE_SIZE;
+
   /**
    * Flag which indicates that this flexible extra frame is for syc replication.
    */
@@ -106,6 +118,14 @@ public enum MemcacheProtocol {
    */
   public static final byte FRAMING_EXTRAS_TRACING = 0x00;
 
+  /**
+   * The minimum body size (in bytes) from which on the composite request encoders attach the body
+   * as its own component instead of copying it into the request buffer.
+   *
+   * <p>Below this size copying is cheaper than the bookkeeping needed for the composite buffer.</p>
+   */
+  public static final int COMPOSITE_BODY_THRESHOLD = 1024;
+
   /**
    * Create a flexible memcached protocol request with all fields necessary.
    */
@@ -160,6 +180,100 @@ public enum MemcacheProtocol {
       .writeBytes(body);
   }
 
+  /**
+   * Create a flexible memcached protocol request where the body is not copied but rather
+   * attached as a separate component of a {@link CompositeByteBuf}.
+   *
+   * <p>Only the header, the framing extras, the extras and the key are written into a (small) buffer
+   * allocated from the given allocator. The body is retained, so the caller stays responsible for
+   * releasing its own reference. If the body is smaller than {@link #COMPOSITE_BODY_THRESHOLD}, this
+   * method falls back to {@link #flexibleRequest(ByteBufAllocator, Opcode, byte, short, int, long, ByteBuf,
+   * ByteBuf, ByteBuf, ByteBuf)}.</p>
+   */
+  public static ByteBuf flexibleCompositeRequest(final ByteBufAllocator alloc, final Opcode opcode,
+                                                 final byte datatype, final short partition, final int opaque,
+                                                 final long cas, final ByteBuf framingExtras, final ByteBuf extras,
+                                                 final ByteBuf key, final ByteBuf body) {
+    int bodySize = body.readableBytes();
+    if (bodySize < COMPOSITE_BODY_THRESHOLD) {
+      return flexibleRequest(alloc, opcode, datatype, partition, opaque, cas, framingExtras, extras, key, body);
+    }
+
+    int keySize = key.readableBytes();
+    int extrasSize = extras.readableBytes();
+    int framingExtrasSize = framingExtras.readableBytes();
+    int headerAndKeySize = HEADER_SIZE + framingExtrasSize + extrasSize + keySize;
+    ByteBuf header = alloc
+      .buffer(headerAndKeySize)
+      .writeByte(Magic.FLEXIBLE_REQUEST.magic())
+      .writeByte(opcode.opcode())
+      .writeByte(framingExtrasSize)
+      .writeByte(keySize)
+      .writeByte(extrasSize)
+      .writeByte(datatype)
+      .writeShort(partition)
+      .writeInt(framingExtrasSize + extrasSize + keySize + bodySize)
+      .writeInt(opaque)
+      .writeLong(cas)
+      .writeBytes(framingExtras)
+      .writeBytes(extras)
+      .writeBytes(key);
+    return composite(alloc, header, body);
+  }
+
+  /**
+   * Create a regular, non-flexible memcached protocol request where the body is not copied but rather
+   * attached as a separate component of a {@link CompositeByteBuf}.
+   *
+   * <p>Only the header, the extras and the key are written into a (small) buffer allocated from the
+   * given allocator. The body is retained, so the caller stays responsible for releasing its own
+   * reference. If the body is smaller than {@link #COMPOSITE_BODY_THRESHOLD}, this method falls back to
+   * {@link #request(ByteBufAllocator, Opcode, byte, short, int, long, ByteBuf, ByteBuf, ByteBuf)}.</p>
+   */
+  public static ByteBuf compositeRequest(final ByteBufAllocator alloc, final Opcode opcode, final byte datatype,
+                                         final short partition, final int opaque, final long cas,
+                                         final ByteBuf extras, final ByteBuf key, final ByteBuf body) {
+    int bodySize = body.readableBytes();
+    if (bodySize < COMPOSITE_BODY_THRESHOLD) {
+      return request(alloc, opcode, datatype, partition, opaque, cas, extras, key, body);
+    }
+
+    int keySize = key.readableBytes();
+    int extrasSize = extras.readableBytes();
+    ByteBuf header = alloc
+      .buffer(HEADER_SIZE + extrasSize + keySize)
+      .writeByte(Magic.REQUEST.magic())
+      .writeByte(opcode.opcode())
+      .writeShort(keySize)
+      .writeByte(extrasSize)
+      .writeByte(datatype)
+      .writeShort(partition)
+      .writeInt(extrasSize + keySize + bodySize)
+      .writeInt(opaque)
+      .writeLong(cas)
+      .writeBytes(extras)
+      .writeBytes(key);
+    return composite(alloc, header, body);
+  }
+
+  /**
+   * Helper method to combine the already encoded header with a retained body.
+   *
+   * @param alloc the allocator for the composite buffer.
+   * @param header the header (and key) buffer, ownership is transferred to the returned buffer.
+   * @param body the body, which will be retained.
+   * @return the composite buffer holding both components.
+   */
+  private static ByteBuf composite(final ByteBufAllocator alloc, final ByteBuf header, final ByteBuf body) {
+    CompositeByteBuf composite = alloc.compositeBuffer(2);
+    try {
+      return composite.addComponents(true, header, body.retain());
+    } catch (Exception ex) {
+      composite.release();
+      throw ex;
+    }
+  }
+
   /**
    * Create a regular, non-flexible memcached protocol response with all fields necessary.
    *
@@ -217,6 +331,16 @@ public enum MemcacheProtocol {
     return message.getByte(OPCODE_OFFSET);
   }
 
+  /**
+   * Checks if the message is a request pushed by the server over a duplex connection.
+   *
+   * @param message the message to check.
+   * @return true if it is a server request, false otherwise.
+   */
+  static boolean serverRequest(final ByteBuf message) {
+    return message.getByte(MAGIC_OFFSET) == Magic.SERVER_REQUEST.magic();
+  }
+
   /**
    * Helper method to return the datatype from a request or response.
    *
@@ -275,6 +399,29 @@ public enum MemcacheProtocol {
     }
   }
 
+  /**
+   * Returns the key of the message if available.
+   *
+   * @param message the message to extract the key from.
+   * @return an optional either containing the key of the message or none.
+   */
+  public static Optional<ByteBuf> key(final ByteBuf message) {
+    if (message == null) {
+      return Optional.empty();
+    }
+    boolean flexible = message.getByte(0) == Magic.FLEXIBLE_RESPONSE.magic();
+
+    int keyLength = flexible ? message.getByte(3) : message.getShort(2);
+    int flexibleExtrasLength = flexible ? message.getByte(2) : 0;
+    byte extrasLength = message.getByte(4);
+
+    if (keyLength > 0) {
+      return Optional.of(message.slice(MemcacheProtocol.HEADER_SIZE + flexibleExtrasLength + extrasLength, keyLength));
+    } else {
+      return Optional.empty();
+    }
+  }
+
   public static byte[] bodyAsBytes(final ByteBuf message) {
     if (message == null) {
       return null;
@@ -376,7 +523,8 @@ public enum MemcacheProtocol {
    * Performs simple sanity checking of a key/value response.
    *
    * It checks the magic byte and if the total readable bytes match
-   * up with the total length of the packet.
+   * up with the total length of the packet. Requests pushed by the server
+   * over a duplex connection are accepted as well.
    *
    * @param response the response to check.
    * @return true if verified, false otherwise.
@@ -390,7 +538,8 @@ public enum MemcacheProtocol {
     int bodyPlusHeader = response.getInt(TOTAL_LENGTH_OFFSET) + MemcacheProtocol.HEADER_SIZE;
 
     return
-      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic())
+      (magic == Magic.RESPONSE.magic() || magic == Magic.FLEXIBLE_RESPONSE.magic()
+        || magic == Magic.SERVER_REQUEST.magic())
       && readableBytes == bodyPlusHeader;
   }
 
@@ -708,16 +857,134 @@ public enum MemcacheProtocol {
   /**
    * Try to compress the input, but if it is below the min ratio then it will return null.
    *
-   * @param input the input array.
+   * <p>The input is compressed straight from its backing array into a pooled heap buffer, so no intermediate
+   * arrays are allocated. Large inputs are sampled first: if their prefix does not compress below the min ratio
+   * the whole document is not compressed either, which avoids a full compression pass on incompressible content.</p>
+   *
+   * @param alloc the allocator for the compressed buffer.
+   * @param input the readable bytes to compress, which are not consumed.
    * @param minRatio the minimum ratio to accept and return the buffer.
-   * @return a {@link ByteBuf} if compressed, or null if below the min ratio.
+   * @return a {@link ByteBuf} (which needs to be released by the caller) if compressed, or null if below the min ratio.
+   */
+  public static ByteBuf tryCompression(final ByteBufAllocator alloc, final ByteBuf input, final double minRatio) {
+    int length = input.readableBytes();
+    ByteBuf source = input.hasArray() ? input : alloc.heapBuffer(length).writeBytes(input, input.readerIndex(), length);
+    ByteBuf compressed = alloc.heapBuffer(Snappy.maxCompressedLength(length));
+    boolean success = false;
+    try {
+      byte[] in = source.array();
+      int inOffset = source.arrayOffset() + source.readerIndex();
+      byte[] out = compressed.array();
+      int outOffset = compressed.arrayOffset();
+
+      if (length >= COMPRESSION_SAMPLE_THRESHOLD) {
+        int sampleLength = Snappy.compress(in, inOffset, COMPRESSION_SAMPLE_SIZE, out, outOffset);
+        if (((double) sampleLength / COMPRESSION_SAMPLE_SIZE) > minRatio) {
+          return null;
+        }
+      }
+
+      int compressedLength = Snappy.compress(in, inOffset, length, out, outOffset);
+      if (((double) compressedLength / length) > minRatio) {
+        return null;
+      }
+      compressed.writerIndex(compressedLength);
+      success = true;
+      return compressed;
+    } finally {
+      if (!success) {
+        compressed.release();
+      }
+      if (source != input) {
+        source.release();
+      }
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the snappy compressed input into a heap buffer of the allocator.
+   *
+   * @param alloc the allocator for the decompressed buffer.
+   * @param input the compressed input, which is not consumed.
+   * @return the decompressed {@link ByteBuf}, which needs to be released by the caller.
+   */
+  private static ByteBuf decompress(final ByteBufAllocator alloc, final ByteBuf input) {
+    int length = input.readableBytes();
+    ByteBuf source = input.hasArray() ? input : alloc.heapBuffer(length).writeBytes(input, input.readerIndex(), length);
+    try {
+      byte[] in = source.array();
+      int inOffset = source.arrayOffset() + source.readerIndex();
+      int uncompressedLength = Snappy.getUncompressedLength(in, inOffset);
+      ByteBuf decompressed = alloc.heapBuffer(uncompressedLength);
+      try {
+        Snappy.uncompress(in, inOffset, length, decompressed.array(), decompressed.arrayOffset());
+        return decompressed.writerIndex(uncompressedLength);
+      } catch (RuntimeException ex) {
+        decompressed.release();
+        throw ex;
+      }
+    } finally {
+      if (source != input) {
+        source.release();
+      }
+    }
+  }
+
+  /**
+   * Returns the body of the message as a byte array, decompressing it if the datatype has the snappy flag enabled.
+   *
+   * <p>Unlike combining {@link #bodyAsBytes(ByteBuf)} with {@link #tryDecompression(byte[], byte)}, the
+   * compressed body is decompressed straight from the message into the returned array.</p>
+   *
+   * @param message the message to extract from.
+   * @return the (decompressed) body or null if not present.
    */
-  public static ByteBuf tryCompression(byte[] input, double minRatio) {
-    byte[] compressed = Snappy.compress(input);
-    if (((double) compressed.length / input.length) > minRatio) {
+  public static byte[] decompressedBodyAsBytes(final ByteBuf message) {
+    if (message == null || (datatype(message) & Datatype.SNAPPY.datatype()) == 0) {
+      return bodyAsBytes(message);
+    }
+
+    Optional<ByteBuf> body = body(message);
+    if (!body.isPresent()) {
       return null;
     }
-    return Unpooled.wrappedBuffer(compressed);
+    ByteBuf compressed = body.get();
+    ByteBuf source = compressed.hasArray()
+      ? compressed
+      : PooledByteBufAllocator.DEFAULT.heapBuffer(compressed.readableBytes()).writeBytes(compressed);
+    try {
+      byte[] in = source.array();
+      int inOffset = source.arrayOffset() + source.readerIndex();
+      byte[] uncompressed = new byte[Snappy.getUncompressedLength(in, inOffset)];
+      Snappy.uncompress(in, inOffset, source.readableBytes(), uncompressed, 0);
+      return uncompressed;
+    } finally {
+      if (source != compressed) {
+        source.release();
+      }
+    }
+  }
+
+  /**
+   * Returns the body of the message like {@link #body(ByteBuf)}, but decompressed if the datatype has the snappy
+   * flag enabled.
+   *
+   * <p>A compressed body is decompressed straight from the message into a (usually pooled) buffer of the allocator
+   * of the message, so it is meant for decoders which only read through the body. In both cases the returned buffer
+   * is owned by the caller and needs to be released once the body has been read, independent of the message.</p>
+   *
+   * @param message the message to extract from.
+   * @return the (decompressed) body if present, which needs to be released by the caller.
+   */
+  public static Optional<ByteBuf> retainedDecompressedBody(final ByteBuf message) {
+    Optional<ByteBuf> body = body(message);
+    if (!body.isPresent()) {
+      return body;
+    }
+    if ((datatype(message) & Datatype.SNAPPY.datatype()) == 0) {
+      return Optional.of(body.get().retain());
+    }
+    return Optional.of(decompress(message.alloc(), body.get()));
   }
 
   /**
@@ -796,6 +1063,8 @@ public enum MemcacheProtocol {
   public enum Magic {
     REQUEST((byte) 0x80),
     RESPONSE((byte) 0x81),
+    SERVER_REQUEST((byte) 0x82),
+    SERVER_RESPONSE((byte) 0x83),
     FLEXIBLE_REQUEST((byte) 0x08),
     FLEXIBLE_RESPONSE((byte) 0x18);
 
@@ -820,6 +1089,10 @@ public enum MemcacheProtocol {
           return Magic.REQUEST;
         case (byte) 0x81:
           return Magic.RESPONSE;
+        case (byte) 0x82:
+          return Magic.SERVER_REQUEST;
+        case (byte) 0x83:
+          return Magic.SERVER_RESPONSE;
         case 0x08:
           return Magic.FLEXIBLE_REQUEST;
         case 0x18:
@@ -1196,6 +1469,31 @@ public enum MemcacheProtocol {
 
   }
 
+  /**
+   * Contains the opcodes of the requests which are pushed by the server over a duplex connection.
+   */
+  public enum ServerOpcode {
+    /**
+     * Notifies the client that the cluster map changed, carrying the new config.
+     */
+    CLUSTERMAP_CHANGE_NOTIFICATION((byte) 0x01);
+
+    private final byte opcode;
+
+    ServerOpcode(byte opcode) {
+      this.opcode = opcode;
+    }
+
+    /**
+     * Returns the opcode for the given command.
+     *
+     * @return the opcode for the command.
+     */
+    public byte opcode() {
+      return opcode;
+    }
+  }
+
   public enum Datatype {
     /**
      * Snappy datatype used to signal compression.
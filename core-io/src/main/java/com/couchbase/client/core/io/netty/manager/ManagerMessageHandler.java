@@ -35,8 +35,13 @@ import com.couchbase.client.core.deps.io.netty.handler.timeout.IdleStateEvent;
 import com.couchbase.client.core.deps.io.netty.handler.timeout.IdleStateHandler;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
+import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.io.IoContext;
+import com.couchbase.client.core.io.netty.HttpProtocol;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.StreamedBodyRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigStreamingRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigStreamingResponse;
 import com.couchbase.client.core.msg.manager.ManagerRequest;
@@ -58,6 +63,10 @@ import static com.couchbase.client.core.io.netty.HttpProtocol.remoteHttpHost;
  * layers (service pooling) need to be responsible for opening another handler if all the
  * current ones are occupied.</p>
  *
+ * <p>Regular responses are aggregated into a pooled buffer which is released as soon as the response has been
+ * decoded, and which is capped at {@link com.couchbase.client.core.env.IoConfig#maxHttpResponseSize()}. Successful
+ * responses to a {@link StreamedBodyRequest} are fed into its parser instead.</p>
+ *
  * @since 1.0.0
  */
 public class ManagerMessageHandler extends ChannelDuplexHandler {
@@ -77,15 +86,31 @@ public class ManagerMessageHandler extends ChannelDuplexHandler {
    */
   private String remoteHost;
 
+  /**
+   * Holds the body of the current response while it is aggregated, null if there is none.
+   */
   private ByteBuf currentContent;
+
+  /**
+   * If the body of the current response is streamed, holds the parser it is fed into.
+   */
+  private JsonStreamParser bodyParser;
+
+  /**
+   * Set if the body of the current response is not needed anymore and can be skipped.
+   */
+  private boolean discardContent;
+
   private HttpResponse currentResponse;
   private final EventBus eventBus;
   private final BaseEndpoint endpoint;
+  private final int maxResponseSize;
 
   public ManagerMessageHandler(final BaseEndpoint endpoint, final CoreContext coreContext) {
     this.endpoint = endpoint;
     this.coreContext = coreContext;
     this.eventBus = coreContext.environment().eventBus();
+    this.maxResponseSize = coreContext.environment().ioConfig().maxHttpResponseSize();
   }
 
   @Override
@@ -98,7 +123,6 @@ public class ManagerMessageHandler extends ChannelDuplexHandler {
     );
 
     remoteHost = remoteHttpHost(ctx.channel().remoteAddress());
-    currentContent = ctx.alloc().buffer();
     ctx.fireChannelActive();
   }
 
@@ -126,7 +150,6 @@ public class ManagerMessageHandler extends ChannelDuplexHandler {
           endpoint.decrementOutstandingRequests();
         }
       }
-      currentContent.clear();
     } else {
       if (endpoint != null) {
         endpoint.decrementOutstandingRequests();
@@ -141,72 +164,151 @@ public class ManagerMessageHandler extends ChannelDuplexHandler {
 
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) {
-    if (msg instanceof HttpResponse) {
-      currentResponse = ((HttpResponse) msg);
-
-      if (isStreamingConfigRequest()) {
-        streamingResponse = (BucketConfigStreamingResponse) currentRequest.decode(currentResponse, null);
-        currentRequest.succeed(streamingResponse);
-        ctx.pipeline().addFirst(new IdleStateHandler(
-          coreContext.environment().ioConfig().configIdleRedialTimeout().toMillis(),
-          0,
-          0,
-          TimeUnit.MILLISECONDS
-        ));
-      }
-    } else if (msg instanceof HttpContent) {
-      currentContent.writeBytes(((HttpContent) msg).content());
-
-      if (isStreamingConfigRequest()) {
-        // there might be more than one config in the full batch, so keep iterating until all are pushed
-        while (true) {
-          String encodedConfig = currentContent.toString(StandardCharsets.UTF_8);
-          int separatorIndex = encodedConfig.indexOf("\n\n\n\n");
-          // if -1 is returned it means that no full config has been located yet, need to wait for more chunks
-          if (separatorIndex >= 0) {
-            String content = encodedConfig.substring(0, separatorIndex);
-            streamingResponse.pushConfig(content.trim());
-            currentContent.clear();
-            currentContent.writeBytes(encodedConfig.substring(separatorIndex + 4).getBytes(StandardCharsets.UTF_8));
-          } else {
-            break;
-          }
+    try {
+      if (msg instanceof HttpResponse) {
+        currentResponse = ((HttpResponse) msg);
+        releaseContent();
+
+        if (isStreamingConfigRequest()) {
+          streamingResponse = (BucketConfigStreamingResponse) currentRequest.decode(currentResponse, null);
+          currentRequest.succeed(streamingResponse);
+          ctx.pipeline().addFirst(new IdleStateHandler(
+            coreContext.environment().ioConfig().configIdleRedialTimeout().toMillis(),
+            0,
+            0,
+            TimeUnit.MILLISECONDS
+          ));
+        } else if (currentRequest instanceof StreamedBodyRequest
+          && HttpProtocol.decodeStatus(currentResponse.status()) == ResponseStatus.SUCCESS) {
+          bodyParser = ((StreamedBodyRequest) currentRequest).bodyParser();
+        }
+
+        if (bodyParser == null) {
+          currentContent = ctx.alloc().buffer();
         }
+      } else if (msg instanceof HttpContent) {
+        handleContent(ctx, (HttpContent) msg);
+      } else {
+        ioContext.environment().eventBus().publish(
+          new UnsupportedResponseTypeReceivedEvent(ioContext, msg)
+        );
       }
+    } finally {
+      ReferenceCountUtil.release(msg);
+    }
+  }
 
+  /**
+   * Handles a chunk of the response body and completes the request once the last one arrived.
+   *
+   * @param ctx the channel handler context.
+   * @param msg the chunk of the body.
+   */
+  private void handleContent(final ChannelHandlerContext ctx, final HttpContent msg) {
+    if (currentRequest == null) {
+      // The request has been completed already because its response was too large, so skip the rest of it.
       if (msg instanceof LastHttpContent) {
+        releaseContent();
+      }
+      return;
+    }
+
+    if (!discardContent) {
+      if (bodyParser != null) {
+        try {
+          // The parser takes ownership of the buffer it is fed, while the message is released once it has been read.
+          bodyParser.feed(msg.content().retain());
+        } catch (Throwable t) {
+          discardContent = true;
+          currentRequest.fail(t);
+        }
+      } else if (!isStreamingConfigRequest()
+        && currentContent.readableBytes() + msg.content().readableBytes() > maxResponseSize) {
+        releaseContent();
+        discardContent = true;
+        currentRequest.fail(new DecodingFailureException("HTTP response body exceeds the maximum size of "
+          + maxResponseSize + " bytes (configurable via IoConfig.maxHttpResponseSize)"));
+        // The rest of the body is still on its way, so the connection cannot be reused.
+        currentRequest = null;
+        if (endpoint != null) {
+          endpoint.markRequestCompletion();
+        }
+        ctx.channel().close();
+        return;
+      } else {
+        currentContent.writeBytes(msg.content());
+      }
+    }
+
+    if (isStreamingConfigRequest()) {
+      // there might be more than one config in the full batch, so keep iterating until all are pushed
+      while (true) {
+        String encodedConfig = currentContent.toString(StandardCharsets.UTF_8);
+        int separatorIndex = encodedConfig.indexOf("\n\n\n\n");
+        // if -1 is returned it means that no full config has been located yet, need to wait for more chunks
+        if (separatorIndex >= 0) {
+          String content = encodedConfig.substring(0, separatorIndex);
+          streamingResponse.pushConfig(content.trim());
+          currentContent.clear();
+          currentContent.writeBytes(encodedConfig.substring(separatorIndex + 4).getBytes(StandardCharsets.UTF_8));
+        } else {
+          break;
+        }
+      }
+    }
+
+    if (msg instanceof LastHttpContent) {
+      try {
         if (isStreamingConfigRequest()) {
           streamingResponse.completeStream();
           streamingResponse = null;
           ctx.pipeline().remove(IdleStateHandler.class);
-        } else {
-          byte[] copy = new byte[currentContent.readableBytes()];
-          currentContent.readBytes(copy);
+        } else if (!discardContent) {
+          byte[] copy;
+          if (bodyParser != null) {
+            bodyParser.endOfInput();
+            copy = new byte[0];
+          } else {
+            copy = new byte[currentContent.readableBytes()];
+            currentContent.readBytes(copy);
+          }
           Response response = currentRequest.decode(currentResponse, copy);
           currentRequest.succeed(response);
         }
-
+      } catch (Throwable t) {
+        currentRequest.fail(t);
+      } finally {
+        releaseContent();
         currentRequest = null;
         if (endpoint != null) {
           endpoint.markRequestCompletion();
         }
       }
-    } else {
-      ioContext.environment().eventBus().publish(
-        new UnsupportedResponseTypeReceivedEvent(ioContext, msg)
-      );
     }
+  }
 
-    ReferenceCountUtil.release(msg);
+  /**
+   * Releases the aggregated content and the body parser of the current response, if any.
+   */
+  private void releaseContent() {
+    if (currentContent != null) {
+      ReferenceCountUtil.release(currentContent);
+      currentContent = null;
+    }
+    if (bodyParser != null) {
+      bodyParser.close();
+      bodyParser = null;
+    }
+    discardContent = false;
   }
 
   private boolean isStreamingConfigRequest() {
-    return BucketConfigStreamingRequest.class.isAssignableFrom(currentRequest.getClass());
+    return currentRequest != null && BucketConfigStreamingRequest.class.isAssignableFrom(currentRequest.getClass());
   }
 
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
-    ReferenceCountUtil.release(currentContent);
+    releaseContent();
     if (streamingResponse != null) {
       streamingResponse.completeStream();
     }
@@ -52,9 +52,9 @@ public class JsonStreamParser implements Closeable {
   private final ByteArrayFeeder feeder;
 
   /**
-   * KLUDGE: An unpooled heap buffer used for feeding Jackson. As of Jackson 2.9.8,
-   * the non-blocking parser can only be fed from offset zero of a byte array.
-   * Input is copied to this buffer's backing array before being fed to Jackson.
+   * An unpooled heap buffer used for feeding Jackson from input that has no backing array.
+   * Until a ByteBufferFeeder implementation arrives in Jackson, direct and composite input
+   * is copied to this buffer's backing array before being fed to Jackson.
    */
   private final ByteBuf scratchBuffer;
 
@@ -100,9 +100,8 @@ public class JsonStreamParser implements Closeable {
 
   private static ByteBuf checkScratchBuffer(ByteBuf buf) {
     // Must have backing array because Jackson 2.x can only be fed from array.
-    // Must have offset 0 due to https://github.com/FasterXML/jackson-core/issues/531
     // Must have unlimited capacity because we don't know how big the feeding buffers will be.
-    if (buf.hasArray() && buf.arrayOffset() == 0 && buf.maxCapacity() == Integer.MAX_VALUE) {
+    if (buf.hasArray() && buf.maxCapacity() == Integer.MAX_VALUE) {
       return buf;
     }
     throw InvalidArgumentException.fromMessage("Expected uncapped unpooled heap buffer but got " + buf);
@@ -118,13 +117,18 @@ public class JsonStreamParser implements Closeable {
    *                                 or if a value consumer throws an exception.
    */
   public void feed(ByteBuf input) throws DecodingFailureException {
+    ByteBuf fedDirectly = null;
     try {
-      feedJackson(input);
+      fedDirectly = feedJackson(input);
       processTokens();
       collectGarbage();
 
     } catch (Throwable t) {
       throw new DecodingFailureException(t);
+    } finally {
+      if (fedDirectly != null) {
+        fedDirectly.release();
+      }
     }
   }
 
@@ -145,8 +149,27 @@ public class JsonStreamParser implements Closeable {
     }
   }
 
-  private void feedJackson(ByteBuf input) throws IOException {
-    // Until a ByteBufferFeeder implementation arrives in Jackson 3, must copy input
+  /**
+   * Feeds the input to Jackson, either straight from its backing array or through the scratch buffer.
+   *
+   * @return the input buffer retained if it was fed straight from its backing array, since Jackson reads
+   * from that array until all tokens have been processed. Otherwise null.
+   */
+  private ByteBuf feedJackson(ByteBuf input) throws IOException {
+    if (input.hasArray()) {
+      final int start = input.arrayOffset() + input.readerIndex();
+      final int end = start + input.readableBytes();
+      final ByteBuf retained = input.retain();
+
+      // Do this before calling feedInput because that may throw an exception and we need
+      // to make sure the input buffer is released when parser is closed.
+      window.add(input);
+
+      feeder.feedInput(retained.array(), start, end);
+      return retained;
+    }
+
+    // Until a ByteBufferFeeder implementation arrives in Jackson, must copy input
     // to a heap buffer and feed from the backing array.
     input.markReaderIndex();
     scratchBuffer.clear();
@@ -155,11 +178,11 @@ public class JsonStreamParser implements Closeable {
 
     // Do this after copying into the feeder buffer because the input buffer is
     // not guaranteed to be accessible after it's added to the history window.
-    // Do this before calling feedInput because that may throw an exception and we need
-    // to make sure the input buffer is released when parser is closed.
     window.add(input);
 
-    feeder.feedInput(scratchBuffer.array(), scratchBuffer.arrayOffset(), scratchBuffer.writerIndex());
+    final int start = scratchBuffer.arrayOffset();
+    feeder.feedInput(scratchBuffer.array(), start, start + scratchBuffer.writerIndex());
+    return null;
   }
 
   private void processTokens() throws IOException {
@@ -201,7 +224,10 @@ public class JsonStreamParser implements Closeable {
 
   private long tokenStartOffset() {
     // Jackson treats this offset as one-based. We want zero-based, so subtract 1.
-    return parser.getTokenLocation().getByteOffset() - 1;
+    // When fed from a non-zero array offset, Jackson 2.11 adds that offset to the start of tokens
+    // which close a container (the start of values and field names is correct). Those tokens never
+    // start a capture, so clamping to the current location is all that is needed.
+    return Math.min(parser.getTokenLocation().getByteOffset() - 1, tokenEndOffset());
   }
 
   private long tokenEndOffset() {
@@ -209,8 +235,7 @@ public class JsonStreamParser implements Closeable {
   }
 
   void emitCapturedValue(String jsonPointer, Consumer<MatchedValue> consumer) {
-    final byte[] capturedValue = window.getBytes(captureStartOffset, tokenEndOffset());
-    consumer.accept(new MatchedValue(jsonPointer, capturedValue));
+    consumer.accept(new MatchedValue(jsonPointer, window, captureStartOffset, tokenEndOffset()));
   }
 
   /**
@@ -247,6 +272,10 @@ public class JsonStreamParser implements Closeable {
      * <p>
      * The JSON pointer path component "-" (which normally refers to the non-existent
      * array element after the end) is interpreted as a wildcard that matches every element.
+     * A numeric path component matches only the array element at that index; if both are
+     * registered for the same array, the specific index takes precedence for that element.
+     * <p>
+     * The {@link MatchedValue} passed to the callback is only valid until the callback returns.
      */
     public Builder doOnValue(String jsonPointer, Consumer<MatchedValue> callback) {
       checkNotFrozen();
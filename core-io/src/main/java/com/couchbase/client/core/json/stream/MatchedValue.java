@@ -17,32 +17,75 @@
 package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.json.Mapper;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A value matched by a {@link JsonStreamParser}.
+ * <p>
+ * A matched value is only valid inside the callback it was passed to. It is backed by the stream
+ * window of the parser, which may be advanced (and its buffers released) as soon as the callback
+ * returns, so the value itself must not be kept. Use {@link #readBytes()} to copy the value, or
+ * {@link #readRetainedSlice()} to keep the underlying bytes beyond the callback.
+ */
 public class MatchedValue {
   private final String jsonPointer;
-  private final byte[] json;
+  private final StreamWindow window;
+  private final long startOffset;
+  private final long endOffset;
+  private byte[] json;
 
   MatchedValue(String jsonPointer, byte[] json) {
     this.jsonPointer = jsonPointer;
     this.json = requireNonNull(json);
+    this.window = null;
+    this.startOffset = 0;
+    this.endOffset = json.length;
+  }
+
+  MatchedValue(String jsonPointer, StreamWindow window, long startOffset, long endOffset) {
+    this.jsonPointer = jsonPointer;
+    this.window = requireNonNull(window);
+    this.startOffset = startOffset;
+    this.endOffset = endOffset;
   }
 
   public boolean isNull() {
-    return json[0] == 'n';
+    return readBytes()[0] == 'n';
   }
 
+  /**
+   * Returns the value as a byte array, copying it out of the stream window on first access.
+   */
   public byte[] readBytes() {
+    if (json == null) {
+      json = window.getBytes(startOffset, endOffset);
+    }
     return json;
   }
 
+  /**
+   * Returns the value as a buffer which the caller must release.
+   * <p>
+   * Depending on the stream window the parser was built with, this is a slice of the input buffers
+   * and no bytes are copied. Note that the slice keeps the whole input buffer it points into alive
+   * until it is released.
+   */
+  public ByteBuf readRetainedSlice() {
+    if (json != null) {
+      return Unpooled.wrappedBuffer(json);
+    }
+    return window.getRetainedSlice(startOffset, endOffset);
+  }
+
   public JsonNode readTree() {
     try {
-      return requireNonNull(Mapper.decodeIntoTree(json));
+      return requireNonNull(Mapper.decodeIntoTree(readBytes()));
     } catch (Exception shouldNeverHappen) {
       throw new AssertionError("Value at " + jsonPointer + " is not JSON.", shouldNeverHappen);
     }
@@ -66,7 +109,7 @@ public class MatchedValue {
 
   private <T> T read(Class<T> type) {
     try {
-      return requireNonNull(Mapper.decodeInto(json, type));
+      return requireNonNull(Mapper.decodeInto(readBytes(), type));
     } catch (Exception e) {
       throw new DecodingFailureException("Value at " + jsonPointer + " is not a " + type.getSimpleName(), e);
     }
@@ -76,7 +119,7 @@ public class MatchedValue {
   public String toString() {
     return "JsonValue{" +
       "jsonPointer='" + jsonPointer + '\'' +
-      ", json=" + new String(json, UTF_8) +
+      ", json=" + new String(readBytes(), UTF_8) +
       '}';
   }
 }
@@ -36,6 +36,7 @@ class PathTree {
   private Optional<Consumer<MatchedValue>> callback = Optional.empty();
 
   private final Map<String, PathTree> children = new HashMap<>();
+  private boolean hasIndexedChildren;
   private final String name;
   private final PathTree parent;
 
@@ -64,10 +65,37 @@ class PathTree {
     return Optional.ofNullable(children.get(name));
   }
 
+  /**
+   * Returns true if any child is named like an array index, so that array elements only need to be matched
+   * by index (which costs a string conversion per element) if some path actually asks for an index.
+   */
+  boolean hasIndexedChildren() {
+    return hasIndexedChildren;
+  }
+
+  boolean hasSubtree(String name) {
+    return children.containsKey(name);
+  }
+
   private PathTree getOrCreateSubtree(String name) {
+    if (isIndex(name)) {
+      hasIndexedChildren = true;
+    }
     return children.computeIfAbsent(name, ignoreKey -> new PathTree(this, name));
   }
 
+  private static boolean isIndex(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (!Character.isDigit(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   static List<String> parseJsonPointer(String jsonPointer) {
     if (!jsonPointer.startsWith("/") && !jsonPointer.isEmpty()) {
       throw InvalidArgumentException.fromMessage("JSON pointer must be empty or start with forward slash (/) but got \"" + jsonPointer + "\"");
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.json.stream;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A stream window implementation that holds on to the input buffers instead of copying them.
+ * <p>
+ * Regions of the stream can be retrieved as retained slices of the input buffers, so matched values
+ * can be handed out without copying. A buffer is released once the window moves past its last byte.
+ *
+ * @since 2.1.0
+ */
+public class RetainingStreamWindow implements StreamWindow {
+  private final ByteBufAllocator allocator;
+
+  /**
+   * The input buffers, oldest first. Only the readable bytes of each buffer are part of the window.
+   */
+  private final Deque<ByteBuf> buffers = new ArrayDeque<>();
+
+  /**
+   * Offset from the beginning of the stream to the start of the window.
+   */
+  private long startOffset;
+
+  /**
+   * Offset from the beginning of the stream to the end of the window.
+   */
+  private long endOffset;
+
+  /**
+   * @param allocator for allocating the composite buffer of a region that spans more than one input buffer.
+   */
+  public RetainingStreamWindow(ByteBufAllocator allocator) {
+    this.allocator = requireNonNull(allocator);
+  }
+
+  @Override
+  public void add(ByteBuf buf) {
+    if (!buf.isReadable()) {
+      buf.release();
+      return;
+    }
+    buffers.addLast(buf);
+    endOffset += buf.readableBytes();
+  }
+
+  @Override
+  public void releaseBefore(long releaseStreamOffset) {
+    if (releaseStreamOffset <= startOffset) {
+      return;
+    }
+    if (releaseStreamOffset > endOffset) {
+      throw new IndexOutOfBoundsException("Offset " + releaseStreamOffset + " is outside of " + this);
+    }
+
+    while (startOffset < releaseStreamOffset) {
+      final ByteBuf first = buffers.getFirst();
+      final int toSkip = (int) Math.min(first.readableBytes(), releaseStreamOffset - startOffset);
+      startOffset += toSkip;
+      if (toSkip == first.readableBytes()) {
+        buffers.removeFirst().release();
+      } else {
+        first.skipBytes(toSkip);
+      }
+    }
+  }
+
+  @Override
+  public byte[] getBytes(long startStreamOffset, long endStreamOffset) {
+    final byte[] result = new byte[checkRegion(startStreamOffset, endStreamOffset)];
+    final int[] written = new int[1];
+    forEachPart(startStreamOffset, endStreamOffset, (buf, index, length) -> {
+      buf.getBytes(index, result, written[0], length);
+      written[0] += length;
+    });
+    return result;
+  }
+
+  /**
+   * Returns a region of the stream without copying it.
+   * <p>
+   * If the region lies within a single input buffer a retained slice of it is returned, otherwise a composite
+   * of retained slices of all the input buffers it spans.
+   */
+  @Override
+  public ByteBuf getRetainedSlice(long startStreamOffset, long endStreamOffset) {
+    checkRegion(startStreamOffset, endStreamOffset);
+    final CompositeByteBuf[] composite = new CompositeByteBuf[1];
+    final ByteBuf[] single = new ByteBuf[1];
+    forEachPart(startStreamOffset, endStreamOffset, (buf, index, length) -> {
+      final ByteBuf slice = buf.retainedSlice(index, length);
+      if (single[0] == null && composite[0] == null) {
+        single[0] = slice;
+        return;
+      }
+      if (composite[0] == null) {
+        composite[0] = allocator.compositeBuffer(buffers.size());
+        composite[0].addComponent(true, single[0]);
+      }
+      composite[0].addComponent(true, slice);
+    });
+
+    if (composite[0] != null) {
+      return composite[0];
+    }
+    return single[0] == null ? allocator.buffer(0, 0) : single[0];
+  }
+
+  /**
+   * Makes sure the window contains all of the requested region and returns its length.
+   */
+  private int checkRegion(long startStreamOffset, long endStreamOffset) {
+    if (startStreamOffset < startOffset || endStreamOffset > endOffset || startStreamOffset > endStreamOffset) {
+      throw new IndexOutOfBoundsException(
+        "Region [" + startStreamOffset + "," + endStreamOffset + ") is outside of " + this
+      );
+    }
+    return (int) (endStreamOffset - startStreamOffset);
+  }
+
+  /**
+   * Invokes the consumer with the part of each input buffer that overlaps the given region, in stream order.
+   */
+  private void forEachPart(long startStreamOffset, long endStreamOffset, PartConsumer consumer) {
+    long bufferStartOffset = startOffset;
+    for (ByteBuf buf : buffers) {
+      if (bufferStartOffset >= endStreamOffset) {
+        return;
+      }
+      final long bufferEndOffset = bufferStartOffset + buf.readableBytes();
+      if (bufferEndOffset > startStreamOffset) {
+        final long partStart = Math.max(startStreamOffset, bufferStartOffset);
+        final long partEnd = Math.min(endStreamOffset, bufferEndOffset);
+        consumer.accept(buf, buf.readerIndex() + (int) (partStart - bufferStartOffset), (int) (partEnd - partStart));
+      }
+      bufferStartOffset = bufferEndOffset;
+    }
+  }
+
+  @Override
+  public void close() {
+    ByteBuf buf;
+    while ((buf = buffers.pollFirst()) != null) {
+      if (buf.refCnt() > 0) {
+        buf.release();
+      }
+    }
+    startOffset = endOffset;
+  }
+
+  @Override
+  public String toString() {
+    return "RetainingStreamWindow{" +
+      "startOffset=" + startOffset +
+      ", endOffset=" + endOffset +
+      ", buffers=" + buffers.size() +
+      '}';
+  }
+
+  @FunctionalInterface
+  private interface PartConsumer {
+    void accept(ByteBuf buf, int index, int length);
+  }
+}
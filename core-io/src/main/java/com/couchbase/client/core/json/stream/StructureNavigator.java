@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -47,7 +48,6 @@ class StructureNavigator {
   }
 
   private final Scope objectScope = new ObjectScope();
-  private final Scope arrayScope = new ArrayScope();
 
   private final State readingValue = new ReadingValue();
   private final State fastForwardObject = new FastForwarding(JsonToken.START_OBJECT, JsonToken.END_OBJECT);
@@ -200,12 +200,22 @@ class StructureNavigator {
     }
   }
 
+  /**
+   * Array scopes are mutable since they track the index of the current element,
+   * so (unlike object scopes) a new one is created for each array that is scanned.
+   */
   private class ArrayScope implements Scope {
+    private int index = -1;
+
     @Override
     public String getCurrentName() {
-      // To support matching specific element we could make array scopes mutable
-      // and track the current element index. For now just support matching each element.
-      return "-";
+      if (!pathTree.hasIndexedChildren()) {
+        // the common case, i.e. streaming rows via "/results/-"
+        return "-";
+      }
+      // A match on this specific element wins over the wildcard matching each element.
+      final String name = Integer.toString(index);
+      return pathTree.hasSubtree(name) ? name : "-";
     }
 
     @Override
@@ -217,6 +227,7 @@ class StructureNavigator {
           return;
 
         default:
+          index++;
           transitionTo(readingValue).accept(token);
       }
     }
@@ -229,11 +240,11 @@ class StructureNavigator {
 
       switch (token) {
         case START_ARRAY:
-          readContainer(token, arrayScope, fastForwardArray);
+          readContainer(token, ArrayScope::new, fastForwardArray);
           break;
 
         case START_OBJECT:
-          readContainer(token, objectScope, fastForwardObject);
+          readContainer(token, () -> objectScope, fastForwardObject);
           return;
 
         default:
@@ -241,11 +252,11 @@ class StructureNavigator {
       }
     }
 
-    private void readContainer(JsonToken startToken, Scope scope, State fastForward) {
+    private void readContainer(JsonToken startToken, Supplier<Scope> scope, State fastForward) {
       if (mode == Mode.CAPTURE || mode == Mode.SKIP) {
         transitionTo(fastForward).accept(startToken);
       } else {
-        pushScope(scope);
+        pushScope(scope.get());
       }
     }
   }
@@ -18,6 +18,7 @@ package com.couchbase.client.core.msg;
 
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.error.AmbiguousTimeoutException;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.error.RequestCanceledException;
@@ -161,6 +162,7 @@ public abstract class BaseRequest<R extends Response> implements Request<R> {
       final CancellationErrorContext ctx = new CancellationErrorContext(context());
       if (reason == CancellationReason.TIMEOUT) {
         exception = idempotent() ? new UnambiguousTimeoutException(msg, ctx) : new AmbiguousTimeoutException(msg, ctx);
+        recordTimeout();
       } else {
         exception = new RequestCanceledException(msg, reason, ctx);
       }
@@ -169,6 +171,16 @@ public abstract class BaseRequest<R extends Response> implements Request<R> {
     }
   }
 
+  /**
+   * Counts the timeout of this request with the meter of the environment, if present.
+   */
+  private void recordTimeout() {
+    CoreEnvironment env = ctx.environment();
+    if (env != null) {
+      env.requestCounters().timeouts(serviceType()).incrementBy(1);
+    }
+  }
+
   @Override
   public boolean completed() {
     return state != State.INCOMPLETE;
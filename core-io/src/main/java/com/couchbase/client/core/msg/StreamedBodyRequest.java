@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.msg;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
+
+/**
+ * Implemented by HTTP requests which only need parts of a successful response body.
+ * <p>
+ * Instead of aggregating the full body in memory, the body is fed into the returned {@link JsonStreamParser}
+ * as it arrives and the request is decoded with an empty body afterwards. Responses which are not successful
+ * are still aggregated, so that their body can be included in the error.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public interface StreamedBodyRequest {
+
+  /**
+   * Returns a new parser for the body of a successful response, or null if the body should be aggregated.
+   * <p>
+   * This method is called once per response, so if the request is retried state collected by the parser
+   * callbacks should be reset when it is called.
+   *
+   * @return the parser to feed the body into, or null.
+   */
+  JsonStreamParser bodyParser();
+
+}
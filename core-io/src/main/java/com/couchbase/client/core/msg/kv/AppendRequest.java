@@ -62,31 +62,29 @@ public class AppendRequest extends BaseKeyValueRequest<AppendResponse> implement
       key = encodedKeyWithCollection(alloc, ctx);
 
       byte datatype = 0;
+      content = Unpooled.wrappedBuffer(this.content);
       CompressionConfig config = ctx.compressionConfig();
       if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(alloc, content, config.minRatio());
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
+          content.release();
           content = maybeCompressed;
-        } else {
-          content = Unpooled.wrappedBuffer(this.content);
         }
-      } else {
-        content = Unpooled.wrappedBuffer(this.content);
       }
 
       ByteBuf request;
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
+          request = MemcacheProtocol.flexibleCompositeRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
             opaque, cas, flexibleExtras, noExtras(), key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
+        request = MemcacheProtocol.compositeRequest(alloc, MemcacheProtocol.Opcode.APPEND, datatype, partition(),
           opaque, cas, noExtras(), key, content);
       }
 
@@ -20,6 +20,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.cnc.InternalSpan;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
 import com.couchbase.client.core.error.CollectionNotFoundException;
 import com.couchbase.client.core.error.FeatureNotAvailableException;
 import com.couchbase.client.core.error.InvalidArgumentException;
@@ -83,6 +84,11 @@ public abstract class BaseKeyValueRequest<R extends Response>
    */
   private volatile short partition;
 
+  /**
+   * The timer registration which bounds this request until it is written, if tracked by its deadline.
+   */
+  private volatile Timeout pendingTimeout;
+
   protected BaseKeyValueRequest(final Duration timeout, final CoreContext ctx, final RetryStrategy retryStrategy,
                                 final String key, final CollectionIdentifier collectionIdentifier) {
     this(timeout, ctx, retryStrategy, key, collectionIdentifier, null);
@@ -110,6 +116,24 @@ public abstract class BaseKeyValueRequest<R extends Response>
     this.partition = partition;
   }
 
+  @Override
+  public void pendingTimeout(final Timeout timeout) {
+    Timeout previous = pendingTimeout;
+    pendingTimeout = timeout;
+    if (previous != null) {
+      previous.cancel();
+    }
+  }
+
+  @Override
+  public void cancelPendingTimeout() {
+    Timeout timeout = pendingTimeout;
+    if (timeout != null) {
+      pendingTimeout = null;
+      timeout.cancel();
+    }
+  }
+
   /**
    * Returns the encoded version of the key in UTF-8.
    *
@@ -75,8 +75,8 @@ public class GetAndLockRequest extends BaseKeyValueRequest<GetAndLockResponse> {
     long cas = cas(response);
 
     if (status.success()) {
-      byte[] bytes = bodyAsBytes(response);
-      byte[] content = bytes != null ? tryDecompression(bytes, datatype(response)) : Bytes.EMPTY_BYTE_ARRAY;
+      byte[] bytes = decompressedBodyAsBytes(response);
+      byte[] content = bytes != null ? bytes : Bytes.EMPTY_BYTE_ARRAY;
       int flags = extrasAsInt(response, 0, 0);
       return new GetAndLockResponse(status, content, cas, flags);
     } else {
@@ -45,7 +45,7 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
 
   public static final String OPERATION_NAME = "insert";
 
-  private final byte[] content;
+  private final ByteBuf content;
   private final long expiration;
   private final int flags;
   private final Optional<DurabilityLevel> syncReplicationType;
@@ -56,6 +56,21 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
                        final CoreContext ctx, CollectionIdentifier collectionIdentifier,
                        final RetryStrategy retryStrategy,
                        final Optional<DurabilityLevel> syncReplicationType, final InternalSpan span) {
+    this(key, Unpooled.wrappedBuffer(content), expiration, flags, timeout, ctx,
+      collectionIdentifier, retryStrategy, syncReplicationType, span);
+  }
+
+  /**
+   * Creates a new request with content which is already held in a buffer.
+   *
+   * <p>The buffer is never released by the request, so it needs to be backed by unpooled memory. Every encode
+   * (including retries) writes a duplicate of it, so it must not be modified after the request is created.</p>
+   */
+  public InsertRequest(final String key, final ByteBuf content, final long expiration,
+                       final int flags, final Duration timeout,
+                       final CoreContext ctx, CollectionIdentifier collectionIdentifier,
+                       final RetryStrategy retryStrategy,
+                       final Optional<DurabilityLevel> syncReplicationType, final InternalSpan span) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
     this.content = content;
     this.expiration = expiration;
@@ -74,17 +89,15 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
       key = encodedKeyWithCollection(alloc, ctx);
 
       byte datatype = 0;
+      content = this.content.retainedDuplicate();
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+      if (config != null && config.enabled() && this.content.readableBytes() >= config.minSize()) {
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(alloc, content, config.minRatio());
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
+          content.release();
           content = maybeCompressed;
-        } else {
-          content = Unpooled.wrappedBuffer(this.content);
         }
-      } else {
-        content = Unpooled.wrappedBuffer(this.content);
       }
 
       extras = alloc.buffer(Integer.BYTES * 2);
@@ -95,14 +108,14 @@ public class InsertRequest extends BaseKeyValueRequest<InsertResponse> implement
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype,
+          request = MemcacheProtocol.flexibleCompositeRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype,
             partition(), opaque, noCas(), flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.ADD, datatype, partition(),
+        request = MemcacheProtocol.compositeRequest(alloc, MemcacheProtocol.Opcode.ADD, datatype, partition(),
           opaque, noCas(), extras, key, content);
       }
 
@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.msg.kv;
 
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.env.TimeoutTracking;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.io.netty.kv.KeyValueChannelContext;
 import com.couchbase.client.core.msg.Request;
@@ -23,6 +25,7 @@ import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.msg.ScopedRequest;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
 
 /**
  * Main parent interface for all Key/Value requests.
@@ -73,4 +76,21 @@ public interface KeyValueRequest<R extends Response> extends Request<R>, ScopedR
 
   int opaque();
 
+  /**
+   * Attaches the timer registration which bounds this request until it is written to a channel.
+   * <p>
+   * This is only used with {@link TimeoutTracking#DEADLINE_SWEEP}, where the channel takes over the timeout
+   * tracking once the request is in-flight. A registration which is still attached is cancelled.
+   *
+   * @param timeout the timer registration to attach.
+   */
+  @Stability.Internal
+  void pendingTimeout(Timeout timeout);
+
+  /**
+   * Cancels the timer registration attached through {@link #pendingTimeout(Timeout)}, if any.
+   */
+  @Stability.Internal
+  void cancelPendingTimeout();
+
 }
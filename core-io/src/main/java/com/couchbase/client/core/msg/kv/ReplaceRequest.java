@@ -48,7 +48,7 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
   public static final String OPERATION_NAME = "replace";
 
 
-  private final byte[] content;
+  private final ByteBuf content;
   private final long expiration;
   private final int flags;
   private final long cas;
@@ -59,6 +59,21 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
                         final long cas, final CoreContext ctx, CollectionIdentifier collectionIdentifier,
                         final RetryStrategy retryStrategy,
                         final Optional<DurabilityLevel> syncReplicationType, final InternalSpan span) {
+    this(key, Unpooled.wrappedBuffer(content), expiration, flags, timeout, cas, ctx,
+      collectionIdentifier, retryStrategy, syncReplicationType, span);
+  }
+
+  /**
+   * Creates a new request with content which is already held in a buffer.
+   *
+   * <p>The buffer is never released by the request, so it needs to be backed by unpooled memory. Every encode
+   * (including retries) writes a duplicate of it, so it must not be modified after the request is created.</p>
+   */
+  public ReplaceRequest(final String key, final ByteBuf content, final long expiration,
+                        final int flags, final Duration timeout,
+                        final long cas, final CoreContext ctx, CollectionIdentifier collectionIdentifier,
+                        final RetryStrategy retryStrategy,
+                        final Optional<DurabilityLevel> syncReplicationType, final InternalSpan span) {
     super(timeout, ctx, retryStrategy, key, collectionIdentifier, span);
     this.content = content;
     this.expiration = expiration;
@@ -77,17 +92,15 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
     try {
       key = encodedKeyWithCollection(alloc, ctx);
       byte datatype = 0;
+      content = this.content.retainedDuplicate();
       CompressionConfig config = ctx.compressionConfig();
-      if (config != null && config.enabled() && this.content.length >= config.minSize()) {
-        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(this.content, config.minRatio());
+      if (config != null && config.enabled() && this.content.readableBytes() >= config.minSize()) {
+        ByteBuf maybeCompressed = MemcacheProtocol.tryCompression(alloc, content, config.minRatio());
         if (maybeCompressed != null) {
           datatype |= MemcacheProtocol.Datatype.SNAPPY.datatype();
+          content.release();
           content = maybeCompressed;
-        } else {
-          content = Unpooled.wrappedBuffer(this.content);
         }
-      } else {
-        content = Unpooled.wrappedBuffer(this.content);
       }
 
       extras = alloc.buffer(Integer.BYTES * 2);
@@ -98,14 +111,14 @@ public class ReplaceRequest extends BaseKeyValueRequest<ReplaceResponse> impleme
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = MemcacheProtocol.flexibleRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
+          request = MemcacheProtocol.flexibleCompositeRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
             opaque, cas, flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = MemcacheProtocol.request(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
+        request = MemcacheProtocol.compositeRequest(alloc, MemcacheProtocol.Opcode.REPLACE, datatype, partition(),
           opaque, cas, extras, key, content);
       }
       return request;
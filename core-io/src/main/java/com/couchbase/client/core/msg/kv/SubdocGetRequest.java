@@ -127,27 +127,31 @@ public class SubdocGetRequest extends BaseKeyValueRequest<SubdocGetResponse> {
 
   @Override
   public SubdocGetResponse decode(final ByteBuf response, KeyValueChannelContext ctx) {
-    Optional<ByteBuf> maybeBody = body(response);
+    Optional<ByteBuf> maybeBody = retainedDecompressedBody(response);
     SubDocumentField[] values;
     List<CouchbaseException> errors = null;
     if (maybeBody.isPresent()) {
       ByteBuf body = maybeBody.get();
-      values = new SubDocumentField[commands.size()];
-      for (Command command : commands) {
-        short statusRaw = body.readShort();
-        SubDocumentOpResponseStatus status = decodeSubDocumentStatus(statusRaw);
-        Optional<CouchbaseException> error = Optional.empty();
-        if (status != SubDocumentOpResponseStatus.SUCCESS) {
-          if (errors == null) errors = new ArrayList<>();
-          CouchbaseException err = mapSubDocumentError(this, status, command.path, command.originalIndex());
-          errors.add(err);
-          error = Optional.of(err);
+      try {
+        values = new SubDocumentField[commands.size()];
+        for (Command command : commands) {
+          short statusRaw = body.readShort();
+          SubDocumentOpResponseStatus status = decodeSubDocumentStatus(statusRaw);
+          Optional<CouchbaseException> error = Optional.empty();
+          if (status != SubDocumentOpResponseStatus.SUCCESS) {
+            if (errors == null) errors = new ArrayList<>();
+            CouchbaseException err = mapSubDocumentError(this, status, command.path, command.originalIndex());
+            errors.add(err);
+            error = Optional.of(err);
+          }
+          int valueLength = body.readInt();
+          byte[] value = new byte[valueLength];
+          body.readBytes(value, 0, valueLength);
+          SubDocumentField op = new SubDocumentField(status, error, value, command.path, command.type);
+          values[command.originalIndex] = op;
         }
-        int valueLength = body.readInt();
-        byte[] value = new byte[valueLength];
-        body.readBytes(value, 0, valueLength);
-        SubDocumentField op = new SubDocumentField(status, error, value, command.path, command.type);
-        values[command.originalIndex] = op;
+      } finally {
+        body.release();
       }
     } else {
       values = new SubDocumentField[0];
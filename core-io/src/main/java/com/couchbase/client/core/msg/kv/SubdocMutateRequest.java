@@ -159,14 +159,14 @@ public class SubdocMutateRequest extends BaseKeyValueRequest<SubdocMutateRespons
       if (syncReplicationType.isPresent()) {
         if (ctx.syncReplicationEnabled()) {
           flexibleExtras = flexibleSyncReplication(alloc, syncReplicationType.get(), timeout(), context());
-          request = flexibleRequest(alloc, Opcode.SUBDOC_MULTI_MUTATE, noDatatype(), partition(), opaque,
+          request = flexibleCompositeRequest(alloc, Opcode.SUBDOC_MULTI_MUTATE, noDatatype(), partition(), opaque,
             cas, flexibleExtras, extras, key, content);
         }
         else {
           throw new DurabilityLevelNotAvailableException(KeyValueErrorContext.incompleteRequest(this));
         }
       } else {
-        request = request(alloc, Opcode.SUBDOC_MULTI_MUTATE, noDatatype(), partition(), opaque,
+        request = compositeRequest(alloc, Opcode.SUBDOC_MULTI_MUTATE, noDatatype(), partition(), opaque,
           cas, extras, key, content);
       }
       return request;
@@ -180,7 +180,7 @@ public class SubdocMutateRequest extends BaseKeyValueRequest<SubdocMutateRespons
 
   @Override
   public SubdocMutateResponse decode(final ByteBuf response, KeyValueChannelContext ctx) {
-    Optional<ByteBuf> maybeBody = body(response);
+    Optional<ByteBuf> maybeBody = retainedDecompressedBody(response);
     short rawOverallStatus = status(response);
     ResponseStatus overallStatus = decodeStatus(response);
     Optional<CouchbaseException> error = Optional.empty();
@@ -189,44 +189,47 @@ public class SubdocMutateRequest extends BaseKeyValueRequest<SubdocMutateRespons
 
     if (maybeBody.isPresent()) {
       ByteBuf body = maybeBody.get();
-
-      // If there's a multi-mutation failure we only get the first failure back
-      if (rawOverallStatus == Status.SUBDOC_MULTI_PATH_FAILURE.status()
-        || rawOverallStatus == Status.SUBDOC_MULTI_PATH_FAILURE_DELETED.status()) {
-        byte index = body.readByte();
-        short opStatusRaw = body.readShort();
-        SubDocumentOpResponseStatus opStatus = decodeSubDocumentStatus(opStatusRaw);
-        Command c = commands.get(index);
-        error = Optional.of(mapSubDocumentError(this, opStatus, c.path, c.originalIndex));
-        values = new SubDocumentField[0];
-      } else if (overallStatus.success()) {
-        // "For successful multi mutations, there will be zero or more results; each of the results containing a value."
-        values = new SubDocumentField[commands.size()];
-
-        // Check we can read index (1 byte) and status (2 bytes), else we're done
-        int INDEX_PLUS_STATUS_FIELDS_BYTES = 3;
-        while (body.isReadable(INDEX_PLUS_STATUS_FIELDS_BYTES)) {
+      try {
+        // If there's a multi-mutation failure we only get the first failure back
+        if (rawOverallStatus == Status.SUBDOC_MULTI_PATH_FAILURE.status()
+          || rawOverallStatus == Status.SUBDOC_MULTI_PATH_FAILURE_DELETED.status()) {
           byte index = body.readByte();
-          Command command = commands.get(index);
-
-          // "Status of the mutation. If the status indicates success, the next two fields are applicable. If it is an
-          // error then the result has been fully read"
-          short statusRaw = body.readShort();
-          SubDocumentOpResponseStatus status = decodeSubDocumentStatus(statusRaw);
-
-          if (status != SubDocumentOpResponseStatus.SUCCESS) {
-            CouchbaseException err = mapSubDocumentError(this, status, command.path, command.originalIndex);
-
-            SubDocumentField op = new SubDocumentField(status, Optional.of(err), Bytes.EMPTY_BYTE_ARRAY, command.path, command.type);
-            values[command.originalIndex] = op;
-          } else {
-            int valueLength = body.readInt();
-            byte[] value = new byte[valueLength];
-            body.readBytes(value, 0, valueLength);
-            SubDocumentField op = new SubDocumentField(status, Optional.empty(), value, command.path, command.type);
-            values[command.originalIndex] = op;
+          short opStatusRaw = body.readShort();
+          SubDocumentOpResponseStatus opStatus = decodeSubDocumentStatus(opStatusRaw);
+          Command c = commands.get(index);
+          error = Optional.of(mapSubDocumentError(this, opStatus, c.path, c.originalIndex));
+          values = new SubDocumentField[0];
+        } else if (overallStatus.success()) {
+          // "For successful multi mutations, there will be zero or more results; each of the results containing a value."
+          values = new SubDocumentField[commands.size()];
+
+          // Check we can read index (1 byte) and status (2 bytes), else we're done
+          int INDEX_PLUS_STATUS_FIELDS_BYTES = 3;
+          while (body.isReadable(INDEX_PLUS_STATUS_FIELDS_BYTES)) {
+            byte index = body.readByte();
+            Command command = commands.get(index);
+
+            // "Status of the mutation. If the status indicates success, the next two fields are applicable. If it is an
+            // error then the result has been fully read"
+            short statusRaw = body.readShort();
+            SubDocumentOpResponseStatus status = decodeSubDocumentStatus(statusRaw);
+
+            if (status != SubDocumentOpResponseStatus.SUCCESS) {
+              CouchbaseException err = mapSubDocumentError(this, status, command.path, command.originalIndex);
+
+              SubDocumentField op = new SubDocumentField(status, Optional.of(err), Bytes.EMPTY_BYTE_ARRAY, command.path, command.type);
+              values[command.originalIndex] = op;
+            } else {
+              int valueLength = body.readInt();
+              byte[] value = new byte[valueLength];
+              body.readBytes(value, 0, valueLength);
+              SubDocumentField op = new SubDocumentField(status, Optional.empty(), value, command.path, command.type);
+              values[command.originalIndex] = op;
+            }
           }
         }
+      } finally {
+        body.release();
       }
     }
 
@@ -19,6 +19,8 @@ package com.couchbase.client.core.msg.manager;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpRequest;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpResponse;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.msg.StreamedBodyRequest;
 import com.couchbase.client.core.retry.RetryStrategy;
 
 import java.time.Duration;
@@ -27,10 +29,11 @@ import java.util.function.Supplier;
 import static com.couchbase.client.core.io.netty.HttpProtocol.decodeStatus;
 import static java.util.Objects.requireNonNull;
 
-public class GenericManagerRequest extends BaseManagerRequest<GenericManagerResponse> {
+public class GenericManagerRequest extends BaseManagerRequest<GenericManagerResponse> implements StreamedBodyRequest {
 
   private final Supplier<FullHttpRequest> requestSupplier;
   private final boolean idempotent;
+  private final Supplier<JsonStreamParser> bodyParser;
 
   public GenericManagerRequest(CoreContext ctx, Supplier<FullHttpRequest> requestSupplier, boolean idempotent) {
     this(ctx.environment().timeoutConfig().managementTimeout(), ctx, ctx.environment().retryStrategy(), requestSupplier,
@@ -39,9 +42,24 @@ public class GenericManagerRequest extends BaseManagerRequest<GenericManagerResp
 
   public GenericManagerRequest(Duration timeout, CoreContext ctx, RetryStrategy retryStrategy,
                                Supplier<FullHttpRequest> requestSupplier, boolean idempotent) {
+    this(timeout, ctx, retryStrategy, requestSupplier, idempotent, null);
+  }
+
+  /**
+   * Creates a request whose successful response body is fed into a parser instead of being aggregated.
+   * <p>
+   * The content of a successful {@link GenericManagerResponse} is empty in this case, the values of interest
+   * are delivered to the callbacks of the parser.
+   *
+   * @param bodyParser creates a new parser for every response, or null to aggregate the body.
+   */
+  public GenericManagerRequest(Duration timeout, CoreContext ctx, RetryStrategy retryStrategy,
+                               Supplier<FullHttpRequest> requestSupplier, boolean idempotent,
+                               Supplier<JsonStreamParser> bodyParser) {
     super(timeout, ctx, retryStrategy);
     this.requestSupplier = requireNonNull(requestSupplier);
     this.idempotent = idempotent;
+    this.bodyParser = bodyParser;
   }
 
   @Override
@@ -56,6 +74,11 @@ public class GenericManagerRequest extends BaseManagerRequest<GenericManagerResp
     return request;
   }
 
+  @Override
+  public JsonStreamParser bodyParser() {
+    return bodyParser == null ? null : bodyParser.get();
+  }
+
   @Override
   public boolean idempotent() {
     return idempotent;
@@ -17,6 +17,9 @@
 package com.couchbase.client.core.node;
 
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.node.NodePartitionLengthNotEqualEvent;
 import com.couchbase.client.core.config.BucketCapabilities;
 import com.couchbase.client.core.config.BucketConfig;
@@ -37,7 +40,12 @@ import com.couchbase.client.core.msg.kv.SyncDurabilityRequest;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.zip.CRC32;
 
@@ -52,6 +60,91 @@ import java.util.zip.CRC32;
  */
 public class KeyValueLocator implements Locator {
 
+  /**
+   * The checksum is calculated for every routed request, so reuse one instance per thread.
+   */
+  private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
+  /**
+   * Holds the precomputed partition routing tables for all couchbase buckets, by bucket name.
+   */
+  private volatile Map<String, PartitionRoutingTable> routingTables = Collections.emptyMap();
+
+  /**
+   * Rebuilds the partition routing tables for all couchbase buckets in the given config.
+   *
+   * <p>This method is called once the core has applied a new configuration and aligned its nodes with it. Until
+   * a table has been built for the current bucket config instance, requests are dispatched through the regular
+   * lookup path.</p>
+   *
+   * @param config the cluster config which has been applied.
+   * @param nodes the nodes which are currently present.
+   */
+  @Stability.Internal
+  public void updateRoutingTables(final ClusterConfig config, final List<Node> nodes) {
+    Map<String, PartitionRoutingTable> tables = new HashMap<>();
+    for (BucketConfig bucketConfig : config.bucketConfigs().values()) {
+      if (bucketConfig instanceof CouchbaseBucketConfig) {
+        PartitionRoutingTable existing = routingTables.get(bucketConfig.name());
+        tables.put(bucketConfig.name(), existing != null && existing.config() == bucketConfig
+          ? existing
+          : PartitionRoutingTable.create((CouchbaseBucketConfig) bucketConfig, nodes));
+      }
+    }
+    routingTables = tables;
+  }
+
+  /**
+   * Orders a batch of requests so that key-value requests which go to the same node and partition are
+   * dispatched back-to-back.
+   *
+   * <p>Only requests against couchbase buckets with a known config are grouped (by the node index of their
+   * active partition and the partition itself), all others keep their relative order and are dispatched
+   * afterwards. The grouping is only a best effort since the target is resolved again on dispatch.</p>
+   *
+   * @param requests the requests to order.
+   * @param config the current cluster config.
+   * @return the requests in the order they should be dispatched.
+   */
+  @Stability.Internal
+  public static <R extends Request<? extends Response>> List<R> dispatchOrder(final List<R> requests,
+                                                                              final ClusterConfig config) {
+    if (requests.size() < 2 || config == null) {
+      return requests;
+    }
+
+    // node index in the upper, partition in the middle and position in the lower bits so a plain sort
+    // groups the requests while staying stable.
+    long[] keys = new long[requests.size()];
+    for (int i = 0; i < keys.length; i++) {
+      long group = 0xFFFFFFL;
+      R request = requests.get(i);
+      if (request instanceof KeyValueRequest && !(request instanceof TargetedRequest)) {
+        KeyValueRequest<?> kv = (KeyValueRequest<?>) request;
+        BucketConfig bucketConfig = config.bucketConfig(kv.bucket());
+        if (bucketConfig instanceof CouchbaseBucketConfig) {
+          CouchbaseBucketConfig cbc = (CouchbaseBucketConfig) bucketConfig;
+          int numPartitions = cbc.numberOfPartitions();
+          if (numPartitions > 0) {
+            int partition = partitionForKey(kv.key(), numPartitions);
+            int nodeIndex = cbc.nodeIndexForActive(partition, false);
+            if (nodeIndex >= 0) {
+              group = ((long) (nodeIndex & 0xFF) << 16) | (partition & 0xFFFF);
+            }
+          }
+        }
+      }
+      keys[i] = (group << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    List<R> ordered = new ArrayList<>(keys.length);
+    for (long key : keys) {
+      ordered.add(requests.get((int) key));
+    }
+    return ordered;
+  }
+
   @Override
   public void dispatch(final Request<? extends Response> request, final List<Node> nodes,
                        final ClusterConfig config, final CoreContext ctx) {
@@ -72,7 +165,7 @@ public class KeyValueLocator implements Locator {
       }
 
       if (bucketConfig instanceof CouchbaseBucketConfig) {
-        couchbaseBucket(r, nodes, (CouchbaseBucketConfig) bucketConfig, ctx);
+        couchbaseBucket(r, nodes, (CouchbaseBucketConfig) bucketConfig, routingTables.get(bucket), ctx);
       } else if (bucketConfig instanceof MemcachedBucketConfig) {
         memcacheBucket(r, nodes, (MemcachedBucketConfig) bucketConfig, ctx);
       } else {
@@ -123,7 +216,8 @@ public class KeyValueLocator implements Locator {
   }
 
   private static void couchbaseBucket(final KeyValueRequest<?> request, final List<Node> nodes,
-                                      final CouchbaseBucketConfig config, CoreContext ctx) {
+                                      final CouchbaseBucketConfig config, final PartitionRoutingTable routingTable,
+                                      final CoreContext ctx) {
     if(!precheckCouchbaseBucket(request, config)) {
       return;
     }
@@ -131,7 +225,17 @@ public class KeyValueLocator implements Locator {
     int partitionId = partitionForKey(request.key(), config.numberOfPartitions());
     request.partition((short) partitionId);
 
-    int nodeId = calculateNodeId(partitionId, request, config);
+    boolean useFastForward = useFastForward(request, config);
+    if (routingTable != null && routingTable.config() == config && !useFastForward) {
+      int replica = replicaIndex(request);
+      Node node = replica < 0 ? routingTable.active(partitionId) : routingTable.replica(partitionId, replica);
+      if (node != null) {
+        node.send(request);
+        return;
+      }
+    }
+
+    int nodeId = calculateNodeId(partitionId, request, config, useFastForward);
     if (nodeId < 0) {
       RetryOrchestrator.maybeRetry(ctx, request, RetryReason.NODE_NOT_AVAILABLE);
       return;
@@ -176,23 +280,39 @@ public class KeyValueLocator implements Locator {
    * @param partitionId the partition id.
    * @param request the request used.
    * @param config the current bucket configuration.
+   * @param useFastForward if the fast forward map should be used.
    * @return the calculated node id.
    */
   private static int calculateNodeId(int partitionId, final KeyValueRequest<?> request,
-                                     final CouchbaseBucketConfig config) {
+                                     final CouchbaseBucketConfig config, final boolean useFastForward) {
+    int replica = replicaIndex(request);
+    return replica < 0
+      ? config.nodeIndexForActive(partitionId, useFastForward)
+      : config.nodeIndexForReplica(partitionId, replica, useFastForward);
+  }
 
-    // Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
-    // attempts have been made always goes tot he active first. And then since it might or might not have
-    // been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
-    // and non-fast-forward maps to give it the greatest chance of eventually completing.
-    boolean useFastForward = config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
+  /**
+   * Checks if the fast forward map should be used for this request.
+   *
+   * <p>Note that number of retry attempts module 2 has been chosen so that the "fast path" if no retry
+   * attempts have been made always goes tot he active first. And then since it might or might not have
+   * been switched over yet on the server the modulo will make sure that it "alternates" between fast-forward
+   * and non-fast-forward maps to give it the greatest chance of eventually completing.</p>
+   */
+  private static boolean useFastForward(final KeyValueRequest<?> request, final CouchbaseBucketConfig config) {
+    return config.hasFastForwardMap() && request.context().retryAttempts() % 2 == 1;
+  }
 
+  /**
+   * Returns the (zero based) replica index the request needs to go to, or -1 if it targets the active.
+   */
+  private static int replicaIndex(final KeyValueRequest<?> request) {
     if (request instanceof ReplicaGetRequest) {
-      return config.nodeIndexForReplica(partitionId, ((ReplicaGetRequest) request).replica() - 1, useFastForward);
+      return ((ReplicaGetRequest) request).replica() - 1;
     } else if (request instanceof ObserveViaSeqnoRequest && ((ObserveViaSeqnoRequest) request).replica() > 0) {
-      return config.nodeIndexForReplica(partitionId, ((ObserveViaSeqnoRequest) request).replica() - 1, useFastForward);
+      return ((ObserveViaSeqnoRequest) request).replica() - 1;
     } else {
-      return config.nodeIndexForActive(partitionId, useFastForward);
+      return -1;
     }
   }
 
@@ -250,9 +370,10 @@ public class KeyValueLocator implements Locator {
   private static boolean handleNotEqualNodeSizes(final int configNodeSize, final int actualNodeSize,
                                                  final CoreContext ctx) {
     if (configNodeSize != actualNodeSize) {
-      ctx.environment().eventBus().publish(
-        new NodePartitionLengthNotEqualEvent(ctx, actualNodeSize, configNodeSize)
-      );
+      EventBus eventBus = ctx.environment().eventBus();
+      if (eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.NODE)) {
+        eventBus.publish(new NodePartitionLengthNotEqualEvent(ctx, actualNodeSize, configNodeSize));
+      }
       return true;
     }
     return false;
@@ -265,8 +386,9 @@ public class KeyValueLocator implements Locator {
    * @param numPartitions the number of partitions in the bucket.
    * @return the calculated partition.
    */
-  private static int partitionForKey(final byte[] id, final int numPartitions) {
-    CRC32 crc32 = new CRC32();
+  static int partitionForKey(final byte[] id, final int numPartitions) {
+    CRC32 crc32 = CRC.get();
+    crc32.reset();
     crc32.update(id, 0, id.length);
     long rv = (crc32.getValue() >> 16) & 0x7fff;
     return (int) rv &numPartitions - 1;
@@ -37,6 +37,7 @@ import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.AnalyticsService;
 import com.couchbase.client.core.service.AnalyticsServiceConfig;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
 import com.couchbase.client.core.service.KeyValueService;
 import com.couchbase.client.core.service.KeyValueServiceConfig;
 import com.couchbase.client.core.service.ManagerService;
@@ -50,6 +51,8 @@ import com.couchbase.client.core.service.ServiceState;
 import com.couchbase.client.core.service.ServiceType;
 import com.couchbase.client.core.service.ViewService;
 import com.couchbase.client.core.service.ViewServiceConfig;
+import com.couchbase.client.core.service.strategy.LatencyAwareSelectionStrategy;
+import com.couchbase.client.core.service.strategy.RoundRobinSelectionStrategy;
 import com.couchbase.client.core.util.CompositeStateful;
 import com.couchbase.client.core.util.Stateful;
 import reactor.core.publisher.Flux;
@@ -378,6 +381,24 @@ public class Node implements Stateful<NodeState> {
     return (enabledServices.get() & (1 << type.ordinal())) != 0;
   }
 
+  /**
+   * Returns the combined load score of all services with the given type on this node.
+   *
+   * @param type the service type to check.
+   * @return the load score, lower is better.
+   * @see Service#loadScore()
+   */
+  public long loadScore(final ServiceType type) {
+    long score = 0;
+    for (Map<ServiceType, Service> scope : services.values()) {
+      Service service = scope.get(type);
+      if (service != null) {
+        score += service.loadScore();
+      }
+    }
+    return score;
+  }
+
   public boolean hasServicesEnabled() {
     return enabledServices.get() != 0;
   }
@@ -405,6 +426,8 @@ public class Node implements Stateful<NodeState> {
         return new QueryService(QueryServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .selectionStrategy(selectionStrategy(env, ServiceType.QUERY))
+          .maxQueuedRequests(env.ioConfig().maxQueuedHttpRequests())
           .build(),
           ctx, address, port
         );
@@ -412,18 +435,23 @@ public class Node implements Stateful<NodeState> {
         return new ViewService(ViewServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .selectionStrategy(selectionStrategy(env, ServiceType.VIEWS))
           .build(),
           ctx, address, port);
       case SEARCH:
         return new SearchService(SearchServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .selectionStrategy(selectionStrategy(env, ServiceType.SEARCH))
+          .maxQueuedRequests(env.ioConfig().maxQueuedHttpRequests())
           .build(),
           ctx, address, port);
       case ANALYTICS:
         return new AnalyticsService(AnalyticsServiceConfig
           .maxEndpoints(env.ioConfig().maxHttpConnections())
           .idleTime(env.ioConfig().idleHttpConnectionTimeout())
+          .selectionStrategy(selectionStrategy(env, ServiceType.ANALYTICS))
+          .maxQueuedRequests(env.ioConfig().maxQueuedHttpRequests())
           .build(),
           ctx, address, port);
       default:
@@ -431,6 +459,19 @@ public class Node implements Stateful<NodeState> {
     }
   }
 
+  /**
+   * Creates the endpoint selection strategy for a pooled http service, based on the environment.
+   *
+   * @param env the environment to check the configuration against.
+   * @param serviceType the type of the service.
+   * @return a new selection strategy for the service.
+   */
+  private static EndpointSelectionStrategy selectionStrategy(final CoreEnvironment env, final ServiceType serviceType) {
+    return env.ioConfig().latencyAwareSelection().contains(serviceType)
+      ? new LatencyAwareSelectionStrategy()
+      : new RoundRobinSelectionStrategy();
+  }
+
   public Stream<EndpointDiagnostics> diagnostics() {
     return services.values()
             .stream()
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.node;
+
+import com.couchbase.client.core.config.CouchbaseBucketConfig;
+import com.couchbase.client.core.config.NodeInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot which maps each partition of a {@link CouchbaseBucketConfig} directly to the
+ * {@link Node} hosting its active and replica copies.
+ *
+ * <p>The snapshot is built once per applied bucket config and is only valid for exactly the config
+ * instance it has been built from. If a node for a partition could not be resolved at build time, the
+ * slot is left empty and the caller is expected to fall back to the regular lookup.</p>
+ *
+ * @since 2.1.0
+ */
+class PartitionRoutingTable {
+
+  /**
+   * The config this table has been built from.
+   */
+  private final CouchbaseBucketConfig config;
+
+  /**
+   * The nodes hosting the active partitions, indexed by partition.
+   */
+  private final Node[] active;
+
+  /**
+   * The nodes hosting the replica partitions, indexed by replica and then by partition.
+   */
+  private final Node[][] replicas;
+
+  private PartitionRoutingTable(final CouchbaseBucketConfig config, final Node[] active, final Node[][] replicas) {
+    this.config = config;
+    this.active = active;
+    this.replicas = replicas;
+  }
+
+  /**
+   * Builds a new routing table for the given config and the currently present nodes.
+   *
+   * @param config the bucket config to build the table for.
+   * @param nodes the nodes currently managed by the core.
+   * @return the created routing table.
+   */
+  static PartitionRoutingTable create(final CouchbaseBucketConfig config, final List<Node> nodes) {
+    Map<Integer, Node> byNodeIndex = new HashMap<>();
+    int numPartitions = config.numberOfPartitions();
+    Node[] active = new Node[numPartitions];
+    Node[][] replicas = new Node[config.numberOfReplicas()][numPartitions];
+    for (int partition = 0; partition < numPartitions; partition++) {
+      active[partition] = resolve(config, nodes, byNodeIndex, config.nodeIndexForActive(partition, false));
+      for (int replica = 0; replica < replicas.length; replica++) {
+        replicas[replica][partition] = resolve(config, nodes, byNodeIndex,
+          config.nodeIndexForReplica(partition, replica, false));
+      }
+    }
+    return new PartitionRoutingTable(config, active, replicas);
+  }
+
+  /**
+   * Resolves the node for the given node index in the config, caching the result for subsequent partitions.
+   */
+  private static Node resolve(final CouchbaseBucketConfig config, final List<Node> nodes,
+                              final Map<Integer, Node> byNodeIndex, final int nodeIndex) {
+    if (nodeIndex < 0) {
+      return null;
+    }
+    return byNodeIndex.computeIfAbsent(nodeIndex, idx -> {
+      NodeInfo nodeInfo = config.nodeAtIndex(idx);
+      if (nodeInfo != null) {
+        for (Node node : nodes) {
+          if (node.identifier().equals(nodeInfo.identifier())) {
+            return node;
+          }
+        }
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Returns the config this table has been built from.
+   */
+  CouchbaseBucketConfig config() {
+    return config;
+  }
+
+  /**
+   * Returns the node which hosts the active copy of the partition, or null if unknown.
+   */
+  Node active(final int partition) {
+    return partition < active.length ? active[partition] : null;
+  }
+
+  /**
+   * Returns the node which hosts the given replica (starting at 0) of the partition, or null if unknown.
+   */
+  Node replica(final int partition, final int replica) {
+    return replica < replicas.length && partition < replicas[replica].length
+      ? replicas[replica][partition]
+      : null;
+  }
+
+}
@@ -36,6 +36,7 @@ import com.couchbase.client.core.service.ServiceType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -45,6 +46,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * nodes provided. The list of nodes is filtered to make sure that only nodes with the specific
  * service are taken into account.</p>
  *
+ * <p>If latency aware selection is enabled, two of the filtered nodes are picked at random instead and
+ * the one with the lower {@link Node#loadScore(ServiceType)} is used, so that slow nodes receive less
+ * traffic.</p>
+ *
  * @since 1.0.0
  */
 public class RoundRobinLocator implements Locator {
@@ -59,13 +64,27 @@ public class RoundRobinLocator implements Locator {
    */
   private final ServiceType serviceType;
 
+  /**
+   * If nodes should be selected based on their load instead of round-robin.
+   */
+  private final boolean latencyAware;
+
   public RoundRobinLocator(final ServiceType serviceType) {
-    this(serviceType, new Random().nextInt(1024));
+    this(serviceType, false);
+  }
+
+  public RoundRobinLocator(final ServiceType serviceType, final boolean latencyAware) {
+    this(serviceType, new Random().nextInt(1024), latencyAware);
   }
 
   RoundRobinLocator(final ServiceType serviceType, final long initialValue) {
+    this(serviceType, initialValue, false);
+  }
+
+  RoundRobinLocator(final ServiceType serviceType, final long initialValue, final boolean latencyAware) {
     counter = new AtomicLong(initialValue);
     this.serviceType = serviceType;
+    this.latencyAware = latencyAware;
   }
 
   @Override
@@ -198,9 +217,7 @@ public class RoundRobinLocator implements Locator {
 
   private void dispatchUntargeted(final Request<? extends Response> request, final List<Node> nodes,
                                   final CoreContext ctx) {
-    int nodeSize = nodes.size();
-    int offset = (int) Math.floorMod(counter.getAndIncrement(), (long) nodeSize);
-    Node node = nodes.get(offset);
+    Node node = latencyAware ? selectByLoad(nodes) : selectRoundRobin(nodes);
     if (node != null) {
       node.send(request);
     } else {
@@ -209,6 +226,31 @@ public class RoundRobinLocator implements Locator {
     }
   }
 
+  private Node selectRoundRobin(final List<Node> nodes) {
+    int offset = (int) Math.floorMod(counter.getAndIncrement(), (long) nodes.size());
+    return nodes.get(offset);
+  }
+
+  /**
+   * Picks two nodes at random and selects the one with the lower load ("power of two choices").
+   *
+   * @param nodes the filtered nodes to select from.
+   * @return the selected node.
+   */
+  private Node selectByLoad(final List<Node> nodes) {
+    int nodeSize = nodes.size();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int firstIndex = random.nextInt(nodeSize);
+    if (nodeSize == 1) {
+      return nodes.get(firstIndex);
+    }
+
+    int secondIndex = (firstIndex + 1 + random.nextInt(nodeSize - 1)) % nodeSize;
+    Node first = nodes.get(firstIndex);
+    Node second = nodes.get(secondIndex);
+    return first.loadScore(serviceType) <= second.loadScore(serviceType) ? first : second;
+  }
+
   /**
    * Filters the list of nodes by the {@link ServiceType}.
    *
@@ -32,7 +32,11 @@ import com.couchbase.client.core.service.ServiceType;
 public class ViewLocator extends RoundRobinLocator {
 
   public ViewLocator() {
-    super(ServiceType.VIEWS);
+    this(false);
+  }
+
+  public ViewLocator(final boolean latencyAware) {
+    super(ServiceType.VIEWS, latencyAware);
   }
 
   @Override
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.projections;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.couchbase.client.core.deps.com.fasterxml.jackson.databind.JsonNode;
+import com.couchbase.client.core.json.Mapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles a projected JSON document from the raw values of its projected paths.
+ *
+ * <p>Only the structure implied by the paths is kept in memory, the values themselves are copied verbatim into the
+ * output once {@link #toBytes()} is called. So the projected document is written in a single pass into an array of
+ * exactly the right size, without decoding or re-encoding any of the values.</p>
+ *
+ * <p>Paths are merged the same way as the tree based projection does: objects along the paths are shared (including
+ * objects which have been projected as a whole before), while a path which ends in or goes through an array creates
+ * a new array in its place.</p>
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ProjectionWriter {
+
+  private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+
+  private final ObjectNode root = new ObjectNode();
+
+  /**
+   * Adds the raw JSON value found at the given path.
+   *
+   * @param path the projected path, i.e. "foo.bar[2]".
+   * @param content the raw JSON value at the path.
+   * @return this writer for chaining purposes.
+   */
+  public ProjectionWriter add(final String path, final byte[] content) {
+    return add(JsonPathParser.parse(path), content);
+  }
+
+  /**
+   * Adds the raw JSON value found at the already parsed path.
+   *
+   * @param path the projected path elements.
+   * @param content the raw JSON value at the path.
+   * @return this writer for chaining purposes.
+   */
+  public ProjectionWriter add(final List<PathElement> path, final byte[] content) {
+    if (!path.isEmpty()) {
+      insert(root, path, 0, new RawNode(content));
+    }
+    return this;
+  }
+
+  /**
+   * Writes the projected document.
+   *
+   * @return the encoded JSON document.
+   */
+  public byte[] toBytes() {
+    byte[] out = new byte[root.size()];
+    root.write(out, 0);
+    return out;
+  }
+
+  private static void insert(final Node out, final List<PathElement> path, final int index, final RawNode content) {
+    PathElement element = path.get(index);
+    boolean leaf = index == path.size() - 1;
+
+    if (element instanceof PathArray) {
+      ArrayNode array = new ArrayNode();
+      if (leaf) {
+        array.add(content);
+      }
+
+      if (out instanceof ObjectNode) {
+        ((ObjectNode) out).put(((PathArray) element).str(), array);
+        if (!leaf) {
+          insert(array, path, index + 1, content);
+        }
+      } else {
+        ((ArrayNode) out).add(array);
+        if (!leaf) {
+          insert(out, path, index + 1, content);
+        }
+      }
+    } else {
+      String name = ((PathObjectOrField) element).str();
+
+      if (leaf) {
+        if (out instanceof ObjectNode) {
+          ((ObjectNode) out).put(name, content);
+        } else {
+          ((ArrayNode) out).add(new ObjectNode().put(name, content));
+        }
+      } else {
+        ObjectNode next;
+        if (out instanceof ObjectNode) {
+          next = mergeTarget(((ObjectNode) out).get(name));
+          ((ObjectNode) out).put(name, next);
+        } else {
+          next = new ObjectNode();
+          ((ArrayNode) out).add(new ObjectNode().put(name, next));
+        }
+        insert(next, path, index + 1, content);
+      }
+    }
+  }
+
+  /**
+   * Returns the object a path going through the given existing node is merged into.
+   *
+   * <p>If a whole object has already been projected as a raw value (i.e. "address" before "address.city"), it is
+   * parsed so that its fields are kept, like the tree based projection does. Its field values are re-encoded, which
+   * only happens for such overlapping paths.</p>
+   *
+   * @param existing the node already present under the name, may be null.
+   * @return the object node to merge into.
+   */
+  private static ObjectNode mergeTarget(final Node existing) {
+    if (existing instanceof ObjectNode) {
+      return (ObjectNode) existing;
+    }
+
+    ObjectNode next = new ObjectNode();
+    if (existing instanceof RawNode) {
+      JsonNode parsed = Mapper.decodeIntoTree(((RawNode) existing).content);
+      if (parsed.isObject()) {
+        parsed.fields().forEachRemaining(field ->
+          next.put(field.getKey(), new RawNode(Mapper.encodeAsBytes(field.getValue())))
+        );
+      }
+    }
+    return next;
+  }
+
+  /**
+   * A node of the projected document.
+   */
+  private abstract static class Node {
+
+    /**
+     * Returns the number of bytes this node takes up once written.
+     */
+    abstract int size();
+
+    /**
+     * Writes the node into the output at the given offset and returns the offset after it.
+     */
+    abstract int write(byte[] out, int offset);
+
+  }
+
+  private static class ObjectNode extends Node {
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+
+    Node get(final String name) {
+      Field field = fields.get(name);
+      return field == null ? null : field.value;
+    }
+
+    ObjectNode put(final String name, final Node value) {
+      Field field = fields.get(name);
+      if (field == null) {
+        fields.put(name, new Field(encodeName(name), value));
+      } else {
+        field.value = value;
+      }
+      return this;
+    }
+
+    @Override
+    int size() {
+      int size = 2 + Math.max(0, fields.size() - 1);
+      for (Field field : fields.values()) {
+        // the quoted name, the quotes around it and the colon
+        size += field.name.length + 3 + field.value.size();
+      }
+      return size;
+    }
+
+    @Override
+    int write(final byte[] out, int offset) {
+      out[offset++] = '{';
+      boolean first = true;
+      for (Field field : fields.values()) {
+        if (!first) {
+          out[offset++] = ',';
+        }
+        first = false;
+        out[offset++] = '"';
+        System.arraycopy(field.name, 0, out, offset, field.name.length);
+        offset += field.name.length;
+        out[offset++] = '"';
+        out[offset++] = ':';
+        offset = field.value.write(out, offset);
+      }
+      out[offset++] = '}';
+      return offset;
+    }
+
+  }
+
+  /**
+   * Encodes a field name, only names which actually need escaping go through the (allocation heavy) encoder.
+   */
+  private static byte[] encodeName(final String name) {
+    int length = name.length();
+    byte[] encoded = new byte[length];
+    for (int i = 0; i < length; i++) {
+      char c = name.charAt(i);
+      if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(name);
+      }
+      encoded[i] = (byte) c;
+    }
+    return encoded;
+  }
+
+  private static class Field {
+
+    final byte[] name;
+    Node value;
+
+    Field(final byte[] name, final Node value) {
+      this.name = name;
+      this.value = value;
+    }
+
+  }
+
+  private static class ArrayNode extends Node {
+
+    private final List<Node> values = new ArrayList<>();
+
+    void add(final Node value) {
+      values.add(value);
+    }
+
+    @Override
+    int size() {
+      int size = 2 + Math.max(0, values.size() - 1);
+      for (Node value : values) {
+        size += value.size();
+      }
+      return size;
+    }
+
+    @Override
+    int write(final byte[] out, int offset) {
+      out[offset++] = '[';
+      for (int i = 0; i < values.size(); i++) {
+        if (i > 0) {
+          out[offset++] = ',';
+        }
+        offset = values.get(i).write(out, offset);
+      }
+      out[offset++] = ']';
+      return offset;
+    }
+
+  }
+
+  private static class RawNode extends Node {
+
+    private final byte[] content;
+
+    RawNode(final byte[] content) {
+      this.content = content == null || content.length == 0 ? NULL : content;
+    }
+
+    @Override
+    int size() {
+      return content.length;
+    }
+
+    @Override
+    int write(final byte[] out, final int offset) {
+      System.arraycopy(content, 0, out, offset, content.length);
+      return offset + content.length;
+    }
+
+  }
+
+}
@@ -19,6 +19,7 @@ package com.couchbase.client.core.retry;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.Event;
+import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.request.RequestNotRetriedEvent;
 import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
 import com.couchbase.client.core.msg.CancellationReason;
@@ -60,8 +61,9 @@ public class RetryOrchestrator {
     }
 
     request.retryStrategy().shouldRetry(request, reason).whenComplete((retryAction, throwable) -> {
-      if (throwable != null) {
-        ctx.environment().eventBus().publish(
+      EventBus eventBus = ctx.environment().eventBus();
+      if (throwable != null && eventBus.isEnabled(Event.Severity.INFO, Event.Category.REQUEST)) {
+        eventBus.publish(
           new RequestNotRetriedEvent(Event.Severity.INFO, request.getClass(), request.context(), reason, throwable)
         );
       }
@@ -73,9 +75,9 @@ public class RetryOrchestrator {
       } else {
         // unmonitored request's severity is downgraded to debug to not spam the info-level logs
         Event.Severity severity = request instanceof UnmonitoredRequest ? Event.Severity.DEBUG : Event.Severity.INFO;
-        ctx.environment().eventBus().publish(
-          new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null)
-        );
+        if (eventBus.isEnabled(severity, Event.Category.REQUEST)) {
+          eventBus.publish(new RequestNotRetriedEvent(severity, request.getClass(), request.context(), reason, null));
+        }
         request.cancel(CancellationReason.noMoreRetries(reason));
       }
     });
@@ -139,10 +141,13 @@ public class RetryOrchestrator {
    */
   private static void retryWithDuration(final CoreContext ctx, final Request<? extends Response> request,
                                         final Duration duration, final RetryReason reason) {
-    ctx.environment().eventBus().publish(
-      new RequestRetryScheduledEvent(duration, request.context(), request.getClass(), reason)
-    );
+    EventBus eventBus = ctx.environment().eventBus();
+    if (eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.REQUEST)) {
+      eventBus.publish(new RequestRetryScheduledEvent(duration, request.context(), request.getClass(), reason));
+    }
     request.context().incrementRetryAttempts(duration, reason);
+
+    ctx.environment().requestCounters().retries(request.serviceType(), reason).incrementBy(1);
     ctx.environment().timer().scheduleForRetry(ctx.core(), request, duration);
   }
 
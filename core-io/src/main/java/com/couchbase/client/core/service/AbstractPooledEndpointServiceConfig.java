@@ -17,6 +17,7 @@
 package com.couchbase.client.core.service;
 
 import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.service.strategy.RoundRobinSelectionStrategy;
 
 import java.time.Duration;
 
@@ -43,11 +44,17 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
   private final int minEndpoints;
   private final int maxEndpoints;
   private final Duration idleTime;
+  private final EndpointSelectionStrategy selectionStrategy;
+  private final int maxQueuedRequests;
 
   AbstractPooledEndpointServiceConfig(Builder<?> builder) {
     this.minEndpoints = builder.minEndpoints;
     this.maxEndpoints = builder.maxEndpoints;
     this.idleTime = requireNonNull(builder.idleTime);
+    this.selectionStrategy = builder.selectionStrategy == null
+      ? new RoundRobinSelectionStrategy()
+      : builder.selectionStrategy;
+    this.maxQueuedRequests = builder.maxQueuedRequests;
   }
 
   @Override
@@ -70,12 +77,28 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
     return false;
   }
 
+  @Override
+  public int maxQueuedRequests() {
+    return maxQueuedRequests;
+  }
+
+  /**
+   * Returns the strategy which selects the endpoint a request is sent to.
+   * <p>
+   * Unless configured otherwise, every config gets its own {@link RoundRobinSelectionStrategy}.
+   */
+  public EndpointSelectionStrategy selectionStrategy() {
+    return selectionStrategy;
+  }
+
   // public so methods can be invoked via reflection without requiring Method.setAccessible(true)
   public abstract static class Builder<SELF extends Builder<?>> {
 
     private int minEndpoints;
     private int maxEndpoints;
     private Duration idleTime;
+    private EndpointSelectionStrategy selectionStrategy;
+    private int maxQueuedRequests;
 
     public SELF minEndpoints(int minEndpoints) {
       if (minEndpoints < 0) {
@@ -103,6 +126,19 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       return self();
     }
 
+    public SELF maxQueuedRequests(int maxQueuedRequests) {
+      if (maxQueuedRequests < 0) {
+        throw InvalidArgumentException.fromMessage("maxQueuedRequests must be >= 0 but got " + maxQueuedRequests);
+      }
+      this.maxQueuedRequests = maxQueuedRequests;
+      return self();
+    }
+
+    public SELF selectionStrategy(EndpointSelectionStrategy selectionStrategy) {
+      this.selectionStrategy = requireNonNull(selectionStrategy);
+      return self();
+    }
+
     @SuppressWarnings("unchecked")
     private SELF self() {
       return (SELF) this;
@@ -115,6 +151,8 @@ public abstract class AbstractPooledEndpointServiceConfig implements ServiceConf
       "minEndpoints=" + minEndpoints +
       ", maxEndpoints=" + maxEndpoints +
       ", idleTime=" + idleTime +
+      ", maxQueuedRequests=" + maxQueuedRequests +
+      ", selectionStrategy=" + selectionStrategy.getClass().getSimpleName() +
       '}';
   }
 }
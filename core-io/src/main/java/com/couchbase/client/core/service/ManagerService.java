@@ -28,6 +28,7 @@ public class ManagerService extends PooledService {
 
   private final String hostname;
   private final int port;
+  private final EndpointSelectionStrategy selectionStrategy = new RoundRobinSelectionStrategy();
 
   public ManagerService(CoreContext coreContext, final String hostname, final int port) {
     super(new ManagerServiceConfig(), new ServiceContext(coreContext, hostname, port, ServiceType.MANAGER, Optional.empty()));
@@ -42,7 +43,7 @@ public class ManagerService extends PooledService {
 
   @Override
   protected EndpointSelectionStrategy selectionStrategy() {
-    return new RoundRobinSelectionStrategy();
+    return selectionStrategy;
   }
 
   static class ManagerServiceConfig implements ServiceConfig {
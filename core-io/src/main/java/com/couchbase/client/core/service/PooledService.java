@@ -16,6 +16,8 @@
 
 package com.couchbase.client.core.service;
 
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.ValueRecorder;
 import com.couchbase.client.core.cnc.events.service.IdleEndpointRemovedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceConnectInitiatedEvent;
 import com.couchbase.client.core.cnc.events.service.ServiceDisconnectInitiatedEvent;
@@ -28,18 +30,22 @@ import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
 import com.couchbase.client.core.retry.RetryOrchestrator;
 import com.couchbase.client.core.retry.RetryReason;
+import com.couchbase.client.core.service.strategy.LatencyAwareSelectionStrategy;
 import com.couchbase.client.core.util.CompositeStateful;
 import reactor.core.publisher.Flux;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -51,6 +57,10 @@ import java.util.stream.Stream;
  * now has more authority on the lifetime of the endpoint since it also has more knowledge of
  * the related ones.</p>
  *
+ * <p>If the config allows for queued requests, requests which find all endpoints busy wait in a queue
+ * and are handed to the next endpoint which becomes free to write, instead of going through the retry
+ * orchestrator. While requests are waiting, the pool grows up to its maximum size.</p>
+ *
  * @since 2.0.0
  */
 abstract class PooledService implements Service {
@@ -90,6 +100,26 @@ abstract class PooledService implements Service {
    */
   private final AtomicBoolean disconnected;
 
+  /**
+   * The maximum number of requests waiting for a free endpoint, 0 if queueing is disabled.
+   */
+  private final int maxQueuedRequests;
+
+  /**
+   * Holds the requests which wait for a free endpoint.
+   */
+  private final Deque<QueuedRequest> waitQueue;
+
+  /**
+   * The number of requests in the wait queue, tracked separately since the deque size is not constant time.
+   */
+  private final AtomicInteger queuedRequests;
+
+  /**
+   * Records the time requests spent in the wait queue, null if queueing is disabled.
+   */
+  private final ValueRecorder queueLatency;
+
   /**
    * Creates a new {@link PooledService}.
    *
@@ -147,6 +177,18 @@ abstract class PooledService implements Service {
     this.disconnected = new AtomicBoolean(false);
     this.serviceContext = serviceContext;
     this.fixedPool = serviceConfig.minEndpoints() == serviceConfig.maxEndpoints();
+    this.maxQueuedRequests = serviceConfig.maxQueuedRequests();
+    this.waitQueue = new ConcurrentLinkedDeque<>();
+    this.queuedRequests = new AtomicInteger(0);
+
+    if (maxQueuedRequests > 0) {
+      Map<String, String> tags = new HashMap<>();
+      tags.put(Meter.TAG_SERVICE, serviceContext.serviceType().ident());
+      tags.put(Meter.TAG_NODE, serviceContext.remoteHostname() + ":" + serviceContext.remotePort());
+      this.queueLatency = serviceContext.environment().meter().valueRecorder(Meter.METRIC_SERVICE_QUEUE_LATENCY, tags);
+    } else {
+      this.queueLatency = null;
+    }
 
     scheduleCleanIdleConnections();
   }
@@ -272,16 +314,24 @@ abstract class PooledService implements Service {
 
     if (found != null) {
       found.send(request);
+      if (maxQueuedRequests > 0 && !anyEndpointFree()) {
+        // All endpoints are busy now, so open one ahead of the next request instead of letting it wait.
+        maybeGrowPool(1);
+      }
+      return;
+    }
+
+    if (maxQueuedRequests > 0 && enqueue(request)) {
+      maybeGrowPool(queuedRequests.get());
+      // An endpoint might have become free in the meantime and already drained an empty queue.
+      drainWaitQueue();
       return;
     }
 
     if (!fixedPool && endpoints.size() < serviceConfig.maxEndpoints()) {
       synchronized (this) {
         if (!disconnected.get()) {
-          Endpoint endpoint = createEndpoint();
-          endpointStates.register(endpoint, endpoint);
-          endpoint.connect();
-          endpoints.add(endpoint);
+          openEndpoint();
         }
       }
       RetryOrchestrator.maybeRetry(serviceContext, request, RetryReason.ENDPOINT_TEMPORARILY_NOT_AVAILABLE);
@@ -290,6 +340,141 @@ abstract class PooledService implements Service {
     }
   }
 
+  /**
+   * Adds the request to the wait queue if it is not full.
+   *
+   * @param request the request to enqueue.
+   * @return true if it has been enqueued, false if the queue is full.
+   */
+  private boolean enqueue(final Request<? extends Response> request) {
+    if (disconnected.get()) {
+      return false;
+    }
+
+    if (queuedRequests.get() >= maxQueuedRequests) {
+      // Requests which timed out while waiting still occupy a slot until they are drained, so clean them up first.
+      waitQueue.removeIf(queued -> {
+        if (queued.request.completed()) {
+          queuedRequests.decrementAndGet();
+          return true;
+        }
+        return false;
+      });
+    }
+
+    if (queuedRequests.incrementAndGet() > maxQueuedRequests) {
+      queuedRequests.decrementAndGet();
+      return false;
+    }
+    // Requests tracked by their deadline are only swept once written, so they need a timer while they wait.
+    serviceContext.environment().timer().registerUntilWritten(request);
+    waitQueue.offerLast(new QueuedRequest(request, System.nanoTime()));
+    return true;
+  }
+
+  /**
+   * Hands waiting requests to free endpoints until either the queue is empty or no endpoint is free anymore.
+   * <p>
+   * This method is called every time an endpoint becomes free to write.
+   */
+  private void drainWaitQueue() {
+    QueuedRequest queued;
+    while ((queued = waitQueue.pollFirst()) != null) {
+      queuedRequests.decrementAndGet();
+      final Request<? extends Response> request = queued.request;
+      if (request.completed()) {
+        continue;
+      }
+
+      Endpoint found = endpoints.isEmpty() ? null : selectionStrategy().select(request, endpoints);
+      if (found == null) {
+        queuedRequests.incrementAndGet();
+        waitQueue.offerFirst(queued);
+        if (disconnected.get()) {
+          // Disconnect might have failed the queue already, so make sure this one does not get stuck.
+          failWaitQueue();
+          return;
+        }
+        if (!anyEndpointFree()) {
+          return;
+        }
+        // An endpoint became free while the request was out of the queue, so its drain might have missed it.
+        continue;
+      }
+
+      queueLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - queued.enqueuedAt));
+      found.send(request);
+    }
+  }
+
+  /**
+   * Sends all waiting requests into retry, since no endpoint of this service will pick them up anymore.
+   */
+  private void failWaitQueue() {
+    QueuedRequest queued;
+    while ((queued = waitQueue.pollFirst()) != null) {
+      queuedRequests.decrementAndGet();
+      if (!queued.request.completed()) {
+        RetryOrchestrator.maybeRetry(serviceContext, queued.request, RetryReason.ENDPOINT_NOT_AVAILABLE);
+      }
+    }
+  }
+
+  /**
+   * Checks if at least one endpoint is able to take a request right away.
+   */
+  private boolean anyEndpointFree() {
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.state() == EndpointState.CONNECTED && endpoint.freeToWrite()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Opens a new endpoint if the pool is allowed to grow and the endpoints which are still connecting
+   * are not enough to serve the given demand.
+   *
+   * @param demand the number of requests which wait for an endpoint.
+   */
+  private void maybeGrowPool(final int demand) {
+    if (fixedPool || endpoints.size() >= serviceConfig.maxEndpoints()) {
+      return;
+    }
+
+    synchronized (this) {
+      if (disconnected.get() || endpoints.size() >= serviceConfig.maxEndpoints()) {
+        return;
+      }
+
+      int pending = 0;
+      for (Endpoint endpoint : endpoints) {
+        if (endpoint.state() != EndpointState.CONNECTED) {
+          pending++;
+        }
+      }
+      if (pending < demand) {
+        openEndpoint();
+      }
+    }
+  }
+
+  /**
+   * Creates, registers and connects a new endpoint.
+   * <p>
+   * Must be called while holding the lock on this service.
+   */
+  private void openEndpoint() {
+    Endpoint endpoint = createEndpoint();
+    endpointStates.register(endpoint, endpoint);
+    if (maxQueuedRequests > 0) {
+      endpoint.onFreeToWrite(this::drainWaitQueue);
+    }
+    endpoint.connect();
+    endpoints.add(endpoint);
+  }
+
   @Override
   public synchronized void connect() {
     if (state() == ServiceState.DISCONNECTED && !disconnected.get()) {
@@ -299,10 +484,7 @@ abstract class PooledService implements Service {
       ));
 
       for (int i = 0; i < serviceConfig.minEndpoints(); i++) {
-        Endpoint endpoint = createEndpoint();
-        endpointStates.register(endpoint, endpoint);
-        endpoint.connect();
-        endpoints.add(endpoint);
+        openEndpoint();
       }
     }
   }
@@ -320,6 +502,7 @@ abstract class PooledService implements Service {
         endpointStates.deregister(endpoint);
       }
       endpoints.clear();
+      failWaitQueue();
     }
   }
 
@@ -343,4 +526,35 @@ abstract class PooledService implements Service {
     return endpoints.stream().map(Endpoint::diagnostics);
   }
 
+  @Override
+  public long loadScore() {
+    long outstanding = 0;
+    long latencySum = 0;
+    int measured = 0;
+    for (Endpoint endpoint : endpoints) {
+      outstanding += endpoint.outstandingRequests();
+      long latency = endpoint.responseLatencyEwma();
+      if (latency > 0) {
+        latencySum += latency;
+        measured++;
+      }
+    }
+    return LatencyAwareSelectionStrategy.score(measured == 0 ? 0 : latencySum / measured, outstanding);
+  }
+
+  /**
+   * A request waiting for a free endpoint, together with the time it has been enqueued.
+   */
+  private static class QueuedRequest {
+
+    private final Request<? extends Response> request;
+    private final long enqueuedAt;
+
+    QueuedRequest(final Request<? extends Response> request, final long enqueuedAt) {
+      this.request = request;
+      this.enqueuedAt = enqueuedAt;
+    }
+
+  }
+
 }
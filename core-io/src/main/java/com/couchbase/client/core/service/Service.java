@@ -67,6 +67,17 @@ public interface Service extends Stateful<ServiceState> {
    */
   ServiceContext context();
 
+  /**
+   * Returns how loaded this service is, based on the response latency and outstanding requests of its endpoints.
+   * <p>
+   * The score is only meaningful in comparison with other services of the same type, lower is better.
+   *
+   * @return the load score, 0 if the service does not track its load.
+   */
+  default long loadScore() {
+    return 0;
+  }
+
   /**
    * Represents the service type for this service.
    */
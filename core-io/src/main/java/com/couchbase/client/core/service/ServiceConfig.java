@@ -30,11 +30,21 @@ public interface ServiceConfig {
 
   boolean pipelined();
 
+  /**
+   * Returns the maximum number of requests which wait for a free endpoint if all endpoints are busy.
+   * <p>
+   * If 0, requests which cannot be written right away are sent into retry instead.
+   */
+  default int maxQueuedRequests() {
+    return 0;
+  }
+
   default public Map<String, Object> exportAsMap() {
     Map<String, Object> exported = new LinkedHashMap<>();
     exported.put("min", minEndpoints());
     exported.put("max", maxEndpoints());
     exported.put("idleTimeMs", idleTime().toMillis());
+    exported.put("maxQueuedRequests", maxQueuedRequests());
     return exported;
   }
 
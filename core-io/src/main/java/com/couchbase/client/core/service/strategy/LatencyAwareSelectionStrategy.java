@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.service.EndpointSelectionStrategy;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects endpoints with the "power of two choices": two endpoints are picked at random and the one with the
+ * lower load is used.
+ * <p>
+ * The load of an endpoint is derived from the moving average of its response latency and the number of
+ * requests which are currently outstanding on it. Picking the better of two random candidates avoids the herd
+ * behavior of always picking the least loaded endpoint, while still steering traffic away from slow endpoints.
+ *
+ * @since 2.1.0
+ */
+public class LatencyAwareSelectionStrategy implements EndpointSelectionStrategy {
+
+  @Override
+  public <R extends Request<? extends Response>> Endpoint select(final R request, final List<Endpoint> endpoints) {
+    int endpointSize = endpoints.size();
+    if (endpointSize == 0) {
+      return null;
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int firstIndex = random.nextInt(endpointSize);
+    Endpoint first = endpoints.get(firstIndex);
+    if (endpointSize > 1) {
+      int secondIndex = (firstIndex + 1 + random.nextInt(endpointSize - 1)) % endpointSize;
+      Endpoint second = endpoints.get(secondIndex);
+      boolean firstUsable = usable(first);
+      boolean secondUsable = usable(second);
+      if (firstUsable && secondUsable) {
+        long firstLatency = first.responseLatencyEwma();
+        long secondLatency = second.responseLatencyEwma();
+        // An endpoint which has not been measured yet is assumed to be as fast as its peer, otherwise it
+        // would win every comparison until its first response arrives.
+        if (firstLatency == 0) {
+          firstLatency = secondLatency;
+        } else if (secondLatency == 0) {
+          secondLatency = firstLatency;
+        }
+        return score(firstLatency, first.outstandingRequests()) <= score(secondLatency, second.outstandingRequests())
+          ? first
+          : second;
+      } else if (firstUsable) {
+        return first;
+      } else if (secondUsable) {
+        return second;
+      }
+    } else if (usable(first)) {
+      return first;
+    }
+
+    // Both candidates cannot be used right now, so fall back to the first usable one after them.
+    for (int i = 1; i < endpointSize; i++) {
+      Endpoint endpoint = endpoints.get((firstIndex + i) % endpointSize);
+      if (usable(endpoint)) {
+        return endpoint;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Calculates the load score out of an average latency and the number of outstanding requests, lower is better.
+   * <p>
+   * If no latency is known the score is only based on the outstanding requests, so callers comparing against
+   * measured peers should pass an estimate (like the latency of the peer) instead.
+   *
+   * @param latencyEwma the moving average of the latency in nanoseconds, 0 if not known.
+   * @param outstandingRequests the number of outstanding requests.
+   * @return the load score.
+   */
+  public static long score(final long latencyEwma, final long outstandingRequests) {
+    return Math.max(latencyEwma, 1) * (outstandingRequests + 1);
+  }
+
+  private static boolean usable(final Endpoint endpoint) {
+    return endpoint.state() == EndpointState.CONNECTED && endpoint.freeToWrite();
+  }
+
+}
@@ -33,9 +33,8 @@ public class RoundRobinSelectionStrategy implements EndpointSelectionStrategy {
   public <R extends Request<? extends Response>> Endpoint select(final R request,
                                                                  final List<Endpoint> endpoints) {
     int endpointSize = endpoints.size();
-    //increments skip and prevents it to overflow to a negative value
-    skip.set(Math.max(0, skip.get()+1));
-    int offset = skip.get() % endpointSize;
+    //increments skip atomically and prevents it to overflow to a negative value
+    int offset = skip.updateAndGet(current -> Math.max(0, current + 1)) % endpointSize;
 
     //attempt to find a CONNECTED endpoint at the offset, or try following ones
     for (int i = offset; i < endpointSize; i++) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.error.InvalidArgumentException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent cache which evicts the approximately least recently used entries once its capacity is exceeded.
+ * <p>
+ * In contrast to the {@link LRUCache}, reads do not need to take a lock: every entry remembers the tick of its
+ * last access and once the cache grows past its capacity (plus a little slack, so that eviction work is amortized
+ * over many writes) a single writer sorts the entries by their last access and evicts the oldest ones. Since
+ * concurrent writers are not blocked during the eviction, the size can temporarily exceed the capacity.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ConcurrentLRUCache<K, V> {
+
+  /**
+   * The map which holds the actual entries.
+   */
+  private final ConcurrentHashMap<K, Entry<V>> entries;
+
+  /**
+   * Provides the access ticks which determine the eviction order.
+   */
+  private final AtomicLong clock = new AtomicLong();
+
+  /**
+   * Makes sure only one thread performs the eviction at the same time.
+   */
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter evictionCounter;
+
+  private final int maxCapacity;
+  private final int evictionThreshold;
+
+  /**
+   * Creates a new cache with the given capacity.
+   *
+   * @param maxCapacity the maximum number of entries the cache should retain.
+   */
+  public ConcurrentLRUCache(final int maxCapacity) {
+    this(maxCapacity, NoopMeter.INSTANCE, Collections.emptyMap());
+  }
+
+  /**
+   * Creates a new cache with the given capacity, which also publishes its hits, misses and evictions through
+   * the given {@link Meter}.
+   *
+   * @param maxCapacity the maximum number of entries the cache should retain.
+   * @param meter the meter to publish the metrics through.
+   * @param tags the tags which identify this cache in the metrics.
+   */
+  public ConcurrentLRUCache(final int maxCapacity, final Meter meter, final Map<String, String> tags) {
+    if (maxCapacity < 1) {
+      throw InvalidArgumentException.fromMessage("The maximum capacity must be greater than 0");
+    }
+    this.maxCapacity = maxCapacity;
+    this.evictionThreshold = maxCapacity + Math.max(1, maxCapacity / 16);
+    this.entries = new ConcurrentHashMap<>(Math.min(evictionThreshold, 1 << 16));
+    this.hitCounter = meter.counter(Meter.METRIC_CACHE_HITS, tags);
+    this.missCounter = meter.counter(Meter.METRIC_CACHE_MISSES, tags);
+    this.evictionCounter = meter.counter(Meter.METRIC_CACHE_EVICTIONS, tags);
+  }
+
+  /**
+   * Returns the value for the given key and marks it as recently used.
+   *
+   * @param key the key to look up.
+   * @return the value if found, null otherwise.
+   */
+  public V get(final K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      missCounter.incrementBy(1);
+      return null;
+    }
+    entry.lastAccess = clock.incrementAndGet();
+    hits.increment();
+    hitCounter.incrementBy(1);
+    return entry.value;
+  }
+
+  /**
+   * Stores the value under the given key, evicting the least recently used entries if needed.
+   *
+   * @param key the key to store the value under.
+   * @param value the value to store.
+   */
+  public void put(final K key, final V value) {
+    entries.put(key, new Entry<>(value, clock.incrementAndGet()));
+    if (entries.size() > evictionThreshold) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the entry for the given key, if present.
+   *
+   * @param key the key to remove.
+   * @return the removed value, or null if it was not present.
+   */
+  public V remove(final K key) {
+    Entry<V> removed = entries.remove(key);
+    return removed == null ? null : removed.value;
+  }
+
+  /**
+   * Returns the current number of entries in the cache.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes all entries from the cache.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of lookups which found an entry.
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups which did not find an entry.
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of entries which have been evicted because the capacity was exceeded.
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Evicts the least recently used entries until the cache is back at its capacity.
+   * <p>
+   * If another thread is already evicting, this method returns immediately.
+   */
+  private void evict() {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      int toEvict = entries.size() - maxCapacity;
+      if (toEvict <= 0) {
+        return;
+      }
+
+      // The access ticks are snapshotted so that concurrent reads cannot change the order while sorting.
+      List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+      for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+        candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+      }
+      candidates.sort((a, b) -> Long.compare(a.lastAccess, b.lastAccess));
+      for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+        Candidate<K, V> candidate = candidates.get(i);
+        if (entries.remove(candidate.key, candidate.entry)) {
+          evictions.increment();
+          evictionCounter.incrementBy(1);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConcurrentLRUCache{" +
+      "size=" + entries.size() +
+      ", maxCapacity=" + maxCapacity +
+      ", hits=" + hits.sum() +
+      ", misses=" + misses.sum() +
+      ", evictions=" + evictions.sum() +
+      '}';
+  }
+
+  /**
+   * Holds the cached value together with the tick of its last access.
+   */
+  private static class Entry<V> {
+
+    private final V value;
+    private volatile long lastAccess;
+
+    Entry(final V value, final long lastAccess) {
+      this.value = value;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  /**
+   * An entry considered for eviction, with its access tick at the time the eviction started.
+   */
+  private static class Candidate<K, V> {
+
+    private final K key;
+    private final Entry<V> entry;
+    private final long lastAccess;
+
+    Candidate(final K key, final Entry<V> entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+
+}
@@ -16,18 +16,30 @@
 
 package com.couchbase.client.core;
 
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
+import com.couchbase.client.core.env.TimeoutTracking;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class TimerTest {
 
@@ -67,4 +79,96 @@ class TimerTest {
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  @SuppressWarnings("unchecked")
+  void cancelsOutstandingRequestsOfBatchOnTimeout() throws Exception {
+    Timer timer = Timer.createAndStart(2);
+    try {
+      Request<Response> completed = mock(Request.class);
+      when(completed.timeout()).thenReturn(Duration.ofMillis(100));
+      when(completed.response()).thenReturn(CompletableFuture.completedFuture(mock(Response.class)));
+      when(completed.completed()).thenReturn(true);
+
+      Request<Response> outstanding = mock(Request.class);
+      when(outstanding.timeout()).thenReturn(Duration.ofMillis(100));
+      when(outstanding.response()).thenReturn(new CompletableFuture<>());
+
+      timer.registerBatch(Arrays.asList(completed, outstanding));
+
+      verify(outstanding, timeout(2000)).cancel(CancellationReason.TIMEOUT);
+      verify(completed, never()).cancel(any(CancellationReason.class));
+    } finally {
+      timer.stop();
+    }
+  }
+
+  /**
+   * On their first send, requests tracked by their deadline go straight to the channel which sweeps them, so
+   * they must not cost a timer registration.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void skipsKeyValueRequestsTrackedByDeadlineOnFirstSend() {
+    Timer timer = Timer.createAndStart(2, TimeoutTracking.DEADLINE_SWEEP);
+    try {
+      KeyValueRequest<Response> keyValue = mock(KeyValueRequest.class);
+      when(keyValue.absoluteTimeout()).thenReturn(System.nanoTime() + Duration.ofMillis(10).toNanos());
+      Request<Response> other = mock(Request.class);
+      when(other.timeout()).thenReturn(Duration.ofMillis(10));
+      when(other.response()).thenReturn(new CompletableFuture<>());
+
+      timer.register(keyValue);
+      timer.registerBatch(Collections.singletonList(keyValue));
+      timer.register(other);
+
+      assertTrue(timer.tracksDeadline(keyValue));
+      assertFalse(timer.tracksDeadline(other));
+      verify(other, timeout(2000)).cancel(CancellationReason.TIMEOUT);
+      verify(keyValue, never()).response();
+      verify(keyValue, never()).pendingTimeout(any(Timeout.class));
+      verify(keyValue, never()).cancel(any(CancellationReason.class));
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void boundsKeyValueRequestsUntilWrittenWhileWaiting() {
+    Timer timer = Timer.createAndStart(2, TimeoutTracking.DEADLINE_SWEEP);
+    try {
+      KeyValueRequest<Response> keyValue = mock(KeyValueRequest.class);
+      when(keyValue.absoluteTimeout()).thenReturn(System.nanoTime() + Duration.ofMillis(10).toNanos());
+      Request<Response> other = mock(Request.class);
+
+      timer.registerUntilWritten(keyValue);
+      timer.registerUntilWritten(other);
+
+      verify(keyValue).pendingTimeout(any(Timeout.class));
+      verify(keyValue, timeout(2000)).cancel(CancellationReason.TIMEOUT);
+      verifyNoInteractions(other);
+    } finally {
+      timer.stop();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void boundsKeyValueRequestsAgainWhenSentForRetry() {
+    Timer timer = Timer.createAndStart(2, TimeoutTracking.DEADLINE_SWEEP);
+    try {
+      Core core = mock(Core.class);
+      KeyValueRequest<Response> request = mock(KeyValueRequest.class);
+      when(request.absoluteTimeout()).thenReturn(System.nanoTime() + Duration.ofSeconds(10).toNanos());
+
+      timer.scheduleForRetry(core, request, Duration.ofMillis(10));
+
+      verify(core, timeout(2000)).send(request, false);
+      verify(request).pendingTimeout(any(Timeout.class));
+      verify(request, never()).cancel(any(CancellationReason.class));
+    } finally {
+      timer.stop();
+    }
+  }
+
+}
@@ -20,8 +20,12 @@ import org.junit.jupiter.api.Test;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.couchbase.client.test.Util.threadRunning;
 import static com.couchbase.client.test.Util.waitUntilCondition;
@@ -30,7 +34,13 @@ import static com.couchbase.client.util.Assertions.assertThreadRunning;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Verifies the functionality of the {@link DefaultEventBus}.
@@ -106,4 +116,219 @@ class DefaultEventBusTest {
     assertEquals(eventsReceived.get(), eventsSent);
   }
 
+  @Test
+  void wakesUpParkedConsumerOnPublish() throws Exception {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .idleSleepDuration(Duration.ofMinutes(1))
+      .build();
+
+    CountDownLatch received = new CountDownLatch(1);
+    eventBus.subscribe(event -> received.countDown());
+    eventBus.start().block();
+
+    // give the consumer enough time to spin and park
+    Thread.sleep(100);
+
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(mock(Event.class)));
+    assertTrue(received.await(5, TimeUnit.SECONDS));
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(1, eventBus.dispatchedEvents());
+  }
+
+  @Test
+  void discardsEventsBelowSubscribedSeverity() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+
+    AtomicInteger warnReceived = new AtomicInteger();
+    AtomicInteger infoReceived = new AtomicInteger();
+    EventSubscription warnSubscription = eventBus.subscribe(event -> warnReceived.incrementAndGet(), Event.Severity.WARN);
+    eventBus.start().block();
+
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.DEBUG)));
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.ERROR)));
+    waitUntilCondition(() -> warnReceived.get() == 1);
+
+    eventBus.subscribe(event -> infoReceived.incrementAndGet(), Event.Severity.INFO);
+    warnSubscription.unsubscribe();
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.DEBUG)));
+    assertEquals(EventBus.PublishResult.SUCCESS, eventBus.publish(eventWithSeverity(Event.Severity.INFO)));
+    waitUntilCondition(() -> infoReceived.get() == 1);
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(1, warnReceived.get());
+    assertEquals(1, infoReceived.get());
+    assertEquals(2, eventBus.dispatchedEvents());
+  }
+
+  @Test
+  void countsDroppedEvents() throws Exception {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .queueCapacity(8)
+      .errorLogging(Optional.empty())
+      .build();
+
+    CountDownLatch consuming = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    eventBus.subscribe(event -> {
+      consuming.countDown();
+      try {
+        proceed.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    eventBus.start().block();
+
+    eventBus.publish(mock(Event.class));
+    assertTrue(consuming.await(5, TimeUnit.SECONDS));
+
+    int overloaded = 0;
+    for (int i = 0; i < 64; i++) {
+      if (eventBus.publish(mock(Event.class)) == EventBus.PublishResult.OVERLOADED) {
+        overloaded++;
+      }
+    }
+    proceed.countDown();
+    eventBus.stop(Duration.ofSeconds(5)).block();
+
+    assertTrue(overloaded > 0);
+    assertEquals(overloaded, eventBus.droppedEvents());
+    assertEquals(65 - overloaded, eventBus.dispatchedEvents());
+  }
+
+  @Test
+  void publishesMetricsThroughMeter() throws Exception {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .queueCapacity(8)
+      .errorLogging(Optional.empty())
+      .build();
+
+    Meter meter = mock(Meter.class);
+    Counter dropped = mock(Counter.class);
+    ValueRecorder dispatchLatency = mock(ValueRecorder.class);
+    when(meter.counter(eq(Meter.METRIC_EVENTS_DROPPED), anyMap())).thenReturn(dropped);
+    when(meter.valueRecorder(eq(Meter.METRIC_EVENTS_DISPATCH_LATENCY), anyMap())).thenReturn(dispatchLatency);
+    eventBus.meter(meter);
+
+    CountDownLatch consuming = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    eventBus.subscribe(event -> {
+      consuming.countDown();
+      try {
+        proceed.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    eventBus.start().block();
+
+    eventBus.publish(eventWithSeverity(Event.Severity.INFO));
+    assertTrue(consuming.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 16; i++) {
+      eventBus.publish(eventWithSeverity(Event.Severity.INFO));
+    }
+    proceed.countDown();
+    eventBus.stop(Duration.ofSeconds(5)).block();
+
+    assertTrue(eventBus.droppedEvents() > 0);
+    verify(dropped, times((int) eventBus.droppedEvents())).incrementBy(1);
+    verify(dispatchLatency, times((int) eventBus.dispatchedEvents())).recordValue(anyLong());
+  }
+
+  @Test
+  void precomputesEnabledSeveritiesPerCategory() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+    assertFalse(eventBus.isEnabled(Event.Severity.ERROR, Event.Category.IO));
+
+    EventSubscription warnSubscription = eventBus.subscribe(event -> { }, Event.Severity.WARN);
+    assertTrue(eventBus.isEnabled(Event.Severity.WARN, Event.Category.IO));
+    assertFalse(eventBus.isEnabled(Event.Severity.INFO, Event.Category.IO));
+    assertFalse(eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.REQUEST));
+
+    EventSubscription requestSubscription = eventBus.subscribe(
+      event -> { },
+      category -> category == Event.Category.REQUEST ? Event.Severity.DEBUG : Event.Severity.ERROR
+    );
+    assertTrue(eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.REQUEST));
+    assertFalse(eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.IO));
+    assertTrue(eventBus.isEnabled(Event.Severity.WARN, Event.Category.IO));
+
+    warnSubscription.unsubscribe();
+    assertFalse(eventBus.isEnabled(Event.Severity.WARN, Event.Category.IO));
+    assertTrue(eventBus.isEnabled(Event.Severity.ERROR, Event.Category.IO));
+
+    requestSubscription.unsubscribe();
+    assertFalse(eventBus.isEnabled(Event.Severity.ERROR, Event.Category.REQUEST));
+  }
+
+  @Test
+  void deliversEventsBasedOnCategorySeverity() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe(
+      event -> eventsReceived.incrementAndGet(),
+      category -> category == Event.Category.REQUEST ? Event.Severity.DEBUG : Event.Severity.WARN
+    );
+    eventBus.start().block();
+
+    eventBus.publish(eventWithSeverity(Event.Severity.DEBUG, Event.Category.REQUEST));
+    eventBus.publish(eventWithSeverity(Event.Severity.DEBUG, Event.Category.IO));
+    eventBus.publish(eventWithSeverity(Event.Severity.WARN, Event.Category.IO));
+
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(2, eventsReceived.get());
+  }
+
+  @Test
+  void refreshesSubscribedSeverities() {
+    DefaultEventBus eventBus = DefaultEventBus
+      .builder(Schedulers.parallel())
+      .severityRefreshInterval(Duration.ofMillis(10))
+      .build();
+
+    AtomicReference<Event.Severity> severity = new AtomicReference<>(Event.Severity.WARN);
+    AtomicInteger eventsReceived = new AtomicInteger();
+    eventBus.subscribe(event -> eventsReceived.incrementAndGet(), category -> severity.get());
+    assertFalse(eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.IO));
+
+    eventBus.start().block();
+    severity.set(Event.Severity.DEBUG);
+    waitUntilCondition(() -> eventBus.isEnabled(Event.Severity.DEBUG, Event.Category.IO));
+
+    eventBus.publish(eventWithSeverity(Event.Severity.DEBUG, Event.Category.IO));
+    eventBus.stop(Duration.ofSeconds(5)).block();
+    assertEquals(1, eventsReceived.get());
+  }
+
+  @Test
+  void refreshesSubscribedSeveritiesOnDemand() {
+    DefaultEventBus eventBus = DefaultEventBus.create(Schedulers.parallel());
+
+    AtomicReference<Event.Severity> severity = new AtomicReference<>(Event.Severity.WARN);
+    eventBus.subscribe(event -> { }, category -> severity.get());
+    assertFalse(eventBus.isEnabled(Event.Severity.INFO, Event.Category.IO));
+
+    severity.set(Event.Severity.INFO);
+    eventBus.refreshSubscriptions();
+    assertTrue(eventBus.isEnabled(Event.Severity.INFO, Event.Category.IO));
+  }
+
+  private static Event eventWithSeverity(final Event.Severity severity, final Event.Category category) {
+    Event event = eventWithSeverity(severity);
+    when(event.category()).thenReturn(category.path());
+    return event;
+  }
+
+  private static Event eventWithSeverity(final Event.Severity severity) {
+    Event event = mock(Event.class);
+    when(event.severity()).thenReturn(severity);
+    when(event.createdAt()).thenReturn(System.nanoTime());
+    return event;
+  }
+
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.cnc.events.metrics.MetricsAggregatedEvent;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import com.couchbase.client.core.env.CoreEnvironment;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link AggregatingMeter}.
+ */
+class AggregatingMeterTest {
+
+  private static Map<String, String> tags(final String node) {
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, "kv");
+    tags.put(Meter.TAG_NODE, node);
+    return tags;
+  }
+
+  @Test
+  void returnsSameMetricForSameNameAndTags() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+
+    assertSame(meter.counter("counter", tags("a")), meter.counter("counter", tags("a")));
+    assertSame(meter.valueRecorder("latency", tags("a")), meter.valueRecorder("latency", tags("a")));
+    assertEquals(1, meter.valueRecorders().size());
+
+    meter.valueRecorder("latency", tags("b"));
+    assertEquals(2, meter.valueRecorders().size());
+  }
+
+  @Test
+  void aggregatesValuesAndCounters() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+
+    ValueRecorder recorder = meter.valueRecorder(Meter.METRIC_REQUEST_LATENCY, tags("a"));
+    for (int i = 1; i <= 100; i++) {
+      recorder.recordValue(i);
+    }
+    Counter counter = meter.counter(Meter.METRIC_REQUEST_RETRIES, tags("a"));
+    counter.incrementBy(3);
+    counter.incrementBy(-1);
+
+    MetricIdentifier id = new MetricIdentifier(Meter.METRIC_REQUEST_LATENCY, tags("a"));
+    AggregatingValueRecorder aggregated = meter.valueRecorders().get(id);
+    assertEquals(100, aggregated.count());
+    assertEquals(99, aggregated.valueAtPercentile(99.0));
+    assertEquals(100, aggregated.maxValue());
+    assertEquals(2, meter.counters().get(new MetricIdentifier(Meter.METRIC_REQUEST_RETRIES, tags("a"))).value());
+  }
+
+  @Test
+  void exportsOnlyValuesOfTheLastInterval() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+    ValueRecorder recorder = meter.valueRecorder(Meter.METRIC_REQUEST_LATENCY, tags("a"));
+    Counter counter = meter.counter(Meter.METRIC_REQUEST_ORPHANS, tags("a"));
+
+    recorder.recordValue(10);
+    counter.incrementBy(1);
+    MetricsAggregatedEvent event = meter.exportAndReset();
+    assertNotNull(event);
+    assertEquals(1, event.counters().size());
+    assertEquals(1, event.valueRecorders().size());
+    assertTrue(event.description().contains(Meter.METRIC_REQUEST_LATENCY));
+
+    assertNull(meter.exportAndReset());
+
+    recorder.recordValue(20);
+    event = meter.exportAndReset();
+    assertNotNull(event);
+    assertTrue(event.counters().isEmpty());
+    @SuppressWarnings("unchecked")
+    Map<String, Object> exported = (Map<String, Object>) event.valueRecorders().values().iterator().next();
+    assertEquals(1L, exported.get("count"));
+
+    // the queryable view still covers all values
+    assertEquals(2, meter.valueRecorders().values().iterator().next().count());
+  }
+
+  @Test
+  void isOnlyUsedByEnvironmentIfEnabled() {
+    CoreEnvironment env = CoreEnvironment.create();
+    try {
+      assertSame(NoopMeter.INSTANCE, env.meter());
+    } finally {
+      env.shutdown();
+    }
+
+    env = CoreEnvironment.builder().aggregatingMeterConfig(AggregatingMeterConfig.enable(true)).build();
+    try {
+      assertTrue(env.meter() instanceof AggregatingMeter);
+    } finally {
+      env.shutdown();
+    }
+  }
+
+}
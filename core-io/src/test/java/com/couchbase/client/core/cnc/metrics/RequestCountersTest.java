@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.cnc.metrics;
+
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import com.couchbase.client.core.retry.RetryReason;
+import com.couchbase.client.core.service.ServiceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link RequestCounters}.
+ */
+class RequestCountersTest {
+
+  @Test
+  void looksUpCountersOncePerTagSet() {
+    Meter meter = mock(Meter.class);
+    when(meter.counter(eq(Meter.METRIC_REQUEST_TIMEOUTS), anyMap())).thenAnswer(i -> mock(Counter.class));
+    RequestCounters counters = new RequestCounters(meter);
+
+    Counter kv = counters.timeouts(ServiceType.KV);
+    assertSame(kv, counters.timeouts(ServiceType.KV));
+    assertNotSame(kv, counters.timeouts(ServiceType.QUERY));
+    verify(meter, times(2)).counter(eq(Meter.METRIC_REQUEST_TIMEOUTS), anyMap());
+  }
+
+  @Test
+  void tagsRetriesWithServiceAndReason() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+    RequestCounters counters = new RequestCounters(meter);
+
+    counters.retries(ServiceType.KV, RetryReason.KV_LOCKED).incrementBy(1);
+    counters.retries(ServiceType.KV, RetryReason.KV_LOCKED).incrementBy(1);
+    counters.retries(ServiceType.KV, RetryReason.KV_TEMPORARY_FAILURE).incrementBy(1);
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, ServiceType.KV.ident());
+    tags.put(Meter.TAG_REASON, RetryReason.KV_LOCKED.name());
+    assertSame(
+      meter.counter(Meter.METRIC_REQUEST_RETRIES, tags),
+      counters.retries(ServiceType.KV, RetryReason.KV_LOCKED)
+    );
+    assertEquals(2, meter.counters().get(new MetricIdentifier(Meter.METRIC_REQUEST_RETRIES, tags)).value());
+  }
+
+}
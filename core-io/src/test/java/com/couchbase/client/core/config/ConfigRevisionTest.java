@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ConfigRevision}.
+ */
+class ConfigRevisionTest {
+
+  @Test
+  void extractsTopLevelRevAndEpoch() {
+    ConfigRevision revision = ConfigRevision
+      .parse("{\"nodes\":[{\"rev\":5}],\"rev\":1234,\"name\":\"default\",\"revEpoch\":2}".getBytes(UTF_8))
+      .get();
+    assertEquals(2, revision.epoch());
+    assertEquals(1234, revision.rev());
+  }
+
+  @Test
+  void epochDefaultsToZero() {
+    ConfigRevision revision = ConfigRevision.parse("{\"rev\":10,\"vBucketServerMap\":{}}").get();
+    assertEquals(0, revision.epoch());
+    assertEquals(10, revision.rev());
+  }
+
+  @Test
+  void emptyIfNoRevOrMalformed() {
+    assertFalse(ConfigRevision.parse("{\"name\":\"default\"}").isPresent());
+    assertFalse(ConfigRevision.parse("[1,2]").isPresent());
+    assertFalse(ConfigRevision.parse("{\"name\":".getBytes(UTF_8)).isPresent());
+  }
+
+  @Test
+  void higherEpochWins() {
+    assertTrue(new ConfigRevision(1, 1).newerThan(new ConfigRevision(0, 100)));
+    assertFalse(new ConfigRevision(0, 100).newerThan(new ConfigRevision(1, 1)));
+    assertTrue(new ConfigRevision(1, 2).newerThan(new ConfigRevision(1, 1)));
+    assertFalse(new ConfigRevision(1, 1).newerThan(new ConfigRevision(1, 1)));
+  }
+
+}
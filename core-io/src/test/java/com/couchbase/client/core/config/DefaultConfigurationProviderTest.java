@@ -36,6 +36,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.couchbase.client.test.Util.readResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -131,6 +132,7 @@ class DefaultConfigurationProviderTest {
 
     provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config, ORIGIN));
     assertEquals(1, configsPushed.get());
+    assertEquals(1, provider.skippedBucketConfigs());
 
     assertFalse(provider.config().bucketConfigs().isEmpty());
     assertEquals(1073, provider.config().bucketConfig("default").rev());
@@ -171,6 +173,66 @@ class DefaultConfigurationProviderTest {
     assertEquals(1888, provider.config().bucketConfig("default").rev());
   }
 
+  @Test
+  void skipsEncodedConfigWithSameRevWithoutParsing() {
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, ENVIRONMENT, mock(Authenticator.class)));
+
+    DefaultConfigurationProvider provider = new DefaultConfigurationProvider(core, SeedNode.LOCALHOST);
+
+    final AtomicInteger configsPushed = new AtomicInteger(0);
+    provider.configs()
+        .skip(1) // ignore initial empty config
+        .subscribe((c) -> configsPushed.incrementAndGet());
+
+    String bucket = "default";
+    byte[] config = readResource(
+      "config_with_external.json",
+      DefaultConfigurationProviderTest.class
+    ).getBytes(UTF_8);
+
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config, ORIGIN));
+    assertEquals(1, configsPushed.get());
+    assertEquals(0, provider.skippedBucketConfigs());
+
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config, ORIGIN));
+    assertEquals(1, configsPushed.get());
+    assertEquals(1, provider.skippedBucketConfigs());
+    assertEquals(1073, provider.config().bucketConfig("default").rev());
+  }
+
+  @Test
+  void appliesConfigWithHigherRevEpochAndLowerRev() {
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(new CoreContext(core, 1, ENVIRONMENT, mock(Authenticator.class)));
+
+    DefaultConfigurationProvider provider = new DefaultConfigurationProvider(core, SeedNode.LOCALHOST);
+
+    final AtomicInteger configsPushed = new AtomicInteger(0);
+    provider.configs()
+        .skip(1) // ignore initial empty config
+        .subscribe((c) -> configsPushed.incrementAndGet());
+
+    String bucket = "default";
+    String config = readResource(
+      "config_with_external.json",
+      DefaultConfigurationProviderTest.class
+    );
+
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, config, ORIGIN));
+    assertEquals(1, configsPushed.get());
+
+    String newEpoch = config.replace("\"rev\":1073", "\"rev\":12,\"revEpoch\":1");
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, newEpoch.getBytes(UTF_8), ORIGIN));
+    assertEquals(2, configsPushed.get());
+    assertEquals(12, provider.config().bucketConfig("default").rev());
+
+    String oldEpoch = config.replace("\"rev\":1073", "\"rev\":2000");
+    provider.proposeBucketConfig(new ProposedBucketConfigContext(bucket, oldEpoch.getBytes(UTF_8), ORIGIN));
+    assertEquals(2, configsPushed.get());
+    assertEquals(1, provider.skippedBucketConfigs());
+  }
+
   @Test
   void ignoreProposedConfigOnceShutdown() {
     Core core = mock(Core.class);
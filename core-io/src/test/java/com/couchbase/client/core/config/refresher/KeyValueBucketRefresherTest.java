@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.config.refresher;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.config.ConfigurationProvider;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link KeyValueBucketRefresher}.
+ */
+class KeyValueBucketRefresherTest {
+
+  private static final long POLL_INTERVAL = IoConfig.DEFAULT_CONFIG_POLL_INTERVAL.toNanos();
+  private static final long PUSH_FALLBACK_INTERVAL =
+    KeyValueBucketRefresher.PUSH_FALLBACK_POLL_INTERVAL.toNanos();
+
+  private CoreEnvironment env;
+  private KeyValueBucketRefresher refresher;
+
+  @BeforeEach
+  void beforeEach() {
+    SimpleEventBus eventBus = new SimpleEventBus(true);
+    env = CoreEnvironment.builder().eventBus(eventBus).build();
+
+    CoreContext coreContext = mock(CoreContext.class);
+    Core core = mock(Core.class);
+    when(core.context()).thenReturn(coreContext);
+    when(coreContext.environment()).thenReturn(env);
+    ConfigurationProvider provider = mock(ConfigurationProvider.class);
+    refresher = new KeyValueBucketRefresher(provider, core) {
+      @Override
+      protected Duration pollerInterval() {
+        // the poll decisions are verified directly, so keep the background poller quiet
+        return Duration.ofDays(1);
+      }
+    };
+    refresher.register("bucket").block();
+  }
+
+  @AfterEach
+  void afterEach() {
+    refresher.shutdown().block();
+    env.shutdown();
+  }
+
+  @Test
+  void pollsAtConfigPollInterval() {
+    assertFalse(refresher.pollAllowed("bucket", POLL_INTERVAL - 1));
+    assertTrue(refresher.pollAllowed("bucket", POLL_INTERVAL));
+    assertFalse(refresher.pollAllowed("unregistered", POLL_INTERVAL));
+  }
+
+  @Test
+  void pollsTaintedBucketRightAway() {
+    refresher.markTainted("bucket");
+    assertTrue(refresher.pollAllowed("bucket", 0));
+
+    refresher.markUntainted("bucket");
+    assertFalse(refresher.pollAllowed("bucket", 0));
+  }
+
+  /**
+   * Once the server pushes cluster map change notifications, polling only happens at the fallback
+   * interval - even if the bucket config is tainted.
+   */
+  @Test
+  void pollsAtFallbackIntervalWhenPushEnabled() {
+    refresher.markPushEnabled("bucket");
+    refresher.markTainted("bucket");
+
+    assertFalse(refresher.pollAllowed("bucket", 0));
+    assertFalse(refresher.pollAllowed("bucket", POLL_INTERVAL));
+    assertFalse(refresher.pollAllowed("bucket", PUSH_FALLBACK_INTERVAL - 1));
+    assertTrue(refresher.pollAllowed("bucket", PUSH_FALLBACK_INTERVAL));
+
+    refresher.markPushDisabled("bucket");
+    assertTrue(refresher.pollAllowed("bucket", 0));
+  }
+
+  /**
+   * Push is tracked per connection, so polling falls back to the regular interval only once all
+   * connections which receive notifications are gone.
+   */
+  @Test
+  void keepsFallbackIntervalUntilAllPushConnectionsAreGone() {
+    refresher.markPushEnabled("bucket");
+    refresher.markPushEnabled("bucket");
+
+    refresher.markPushDisabled("bucket");
+    assertFalse(refresher.pollAllowed("bucket", POLL_INTERVAL));
+
+    refresher.markPushDisabled("bucket");
+    assertTrue(refresher.pollAllowed("bucket", POLL_INTERVAL));
+
+    refresher.markPushDisabled("bucket");
+    assertTrue(refresher.pollAllowed("bucket", POLL_INTERVAL));
+  }
+
+}
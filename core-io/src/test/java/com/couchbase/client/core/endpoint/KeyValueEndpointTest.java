@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.endpoint;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.cnc.events.io.FeaturesNegotiatedEvent;
+import com.couchbase.client.core.config.ConfigurationProvider;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelFuture;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
+import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
+import com.couchbase.client.core.env.Authenticator;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.io.CollectionMap;
+import com.couchbase.client.core.io.netty.kv.FeatureNegotiatingHandler;
+import com.couchbase.client.core.io.netty.kv.KeyValueMessageHandler;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.io.netty.kv.SelectBucketHandler;
+import com.couchbase.client.core.io.netty.kv.ServerFeature;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link KeyValueEndpoint}.
+ */
+class KeyValueEndpointTest {
+
+  static {
+    ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+  }
+
+  private static final String BUCKET = "bucket";
+
+  private CoreEnvironment env;
+  private SimpleEventBus eventBus;
+  private ConfigurationProvider provider;
+  private EndpointContext ctx;
+
+  @BeforeEach
+  void beforeEach() {
+    eventBus = new SimpleEventBus(true);
+    env = CoreEnvironment.builder().eventBus(eventBus).build();
+    Core core = mock(Core.class);
+    provider = mock(ConfigurationProvider.class);
+    when(provider.collectionMap()).thenReturn(new CollectionMap());
+    when(core.configurationProvider()).thenReturn(provider);
+    CoreContext coreContext = new CoreContext(core, 1, env, mock(Authenticator.class));
+    ctx = new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
+      null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.of(BUCKET));
+  }
+
+  @AfterEach
+  void afterEach() {
+    env.shutdown();
+  }
+
+  @Test
+  void negotiatesClustermapNotificationsByDefault() {
+    Set<ServerFeature> features = initializer().serverFeatures();
+    assertTrue(features.contains(ServerFeature.DUPLEX));
+    assertTrue(features.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION));
+  }
+
+  @Test
+  void skipsClustermapNotificationsIfDisabled() {
+    System.setProperty("com.couchbase.clustermapNotificationsEnabled", "false");
+    try {
+      Set<ServerFeature> features = initializer().serverFeatures();
+      assertFalse(features.contains(ServerFeature.DUPLEX));
+      assertFalse(features.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION));
+    } finally {
+      System.clearProperty("com.couchbase.clustermapNotificationsEnabled");
+    }
+  }
+
+  /**
+   * Plays the server side of the bootstrap sequence: the HELLO sent by the endpoint must ask for
+   * cluster map change notifications and once the server agrees, the connection switches the bucket
+   * to pushed configs and hands notifications to the config provider.
+   */
+  @Test
+  void negotiatesAndReceivesClustermapNotifications() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    channel.pipeline()
+      .addLast(new FeatureNegotiatingHandler(ctx, initializer().serverFeatures()))
+      .addLast(new SelectBucketHandler(ctx, BUCKET))
+      .addLast(new KeyValueMessageHandler(null, ctx, Optional.of(BUCKET)));
+
+    try {
+      ChannelFuture connect = channel.connect(new InetSocketAddress("127.0.0.1", 1234));
+      channel.pipeline().fireChannelActive();
+
+      ByteBuf hello = channel.readOutbound();
+      assertEquals(MemcacheProtocol.Opcode.HELLO.opcode(), hello.getByte(1));
+      List<Short> requested = new ArrayList<>();
+      ByteBuf helloBody = MemcacheProtocol.body(hello).get();
+      while (helloBody.isReadable()) {
+        requested.add(helloBody.readShort());
+      }
+      assertTrue(requested.contains(ServerFeature.DUPLEX.value()));
+      assertTrue(requested.contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION.value()));
+
+      ByteBuf agreed = Unpooled.buffer()
+        .writeShort(ServerFeature.DUPLEX.value())
+        .writeShort(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION.value());
+      channel.writeInbound(reply(channel, MemcacheProtocol.Opcode.HELLO, hello, agreed));
+      ReferenceCountUtil.release(hello);
+      agreed.release();
+
+      FeaturesNegotiatedEvent negotiated = (FeaturesNegotiatedEvent) eventBus.publishedEvents().stream()
+        .filter(e -> e instanceof FeaturesNegotiatedEvent)
+        .findFirst()
+        .get();
+      assertTrue(negotiated.negotiated().contains(ServerFeature.DUPLEX));
+      assertTrue(negotiated.negotiated().contains(ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION));
+      verify(provider, never()).clustermapPushEnabled(BUCKET);
+
+      ByteBuf selectBucket = channel.readOutbound();
+      assertEquals(MemcacheProtocol.Opcode.SELECT_BUCKET.opcode(), selectBucket.getByte(1));
+      channel.writeInbound(reply(channel, MemcacheProtocol.Opcode.SELECT_BUCKET, selectBucket, Unpooled.EMPTY_BUFFER));
+      ReferenceCountUtil.release(selectBucket);
+
+      assertTrue(connect.isSuccess());
+      verify(provider).clustermapPushEnabled(BUCKET);
+
+      String config = "{\"rev\":1234,\"name\":\"bucket\"}";
+      ByteBuf extras = Unpooled.buffer().writeInt(1234);
+      ByteBuf key = Unpooled.copiedBuffer(BUCKET, UTF_8);
+      ByteBuf body = Unpooled.copiedBuffer(config, UTF_8);
+      ByteBuf notification = MemcacheProtocol.request(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+        (short) 0, 0, 0, extras, key, body);
+      notification.setByte(0, MemcacheProtocol.Magic.SERVER_REQUEST.magic());
+      notification.setByte(1, MemcacheProtocol.ServerOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode());
+      extras.release();
+      key.release();
+      body.release();
+      channel.writeInbound(notification);
+
+      assertNull(channel.readOutbound());
+      verify(provider).proposeBucketConfig(argThat(c -> c.bucketName().equals(BUCKET) && c.config().equals(config)));
+
+      channel.close();
+      verify(provider).clustermapPushDisabled(BUCKET);
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  private KeyValueEndpoint.KeyValuePipelineInitializer initializer() {
+    return new KeyValueEndpoint.KeyValuePipelineInitializer(ctx, Optional.of(BUCKET), mock(Authenticator.class));
+  }
+
+  /**
+   * Builds a successful server response to the given request.
+   */
+  private static ByteBuf reply(final EmbeddedChannel channel, final MemcacheProtocol.Opcode opcode,
+                               final ByteBuf request, final ByteBuf body) {
+    return MemcacheProtocol.response(channel.alloc(), opcode, (byte) 0,
+      MemcacheProtocol.Status.SUCCESS.status(), request.getInt(12), 0, Unpooled.EMPTY_BUFFER,
+      Unpooled.EMPTY_BUFFER, body);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.endpoint;
+
+import com.couchbase.client.core.cnc.ValueRecorder;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelFutureListener;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundHandlerAdapter;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the functionality of the {@link WriteCoalescer}.
+ */
+class WriteCoalescerTest {
+
+  @Test
+  void writesQueuedMessagesWithSingleFlush() {
+    FlushCounter flushes = new FlushCounter();
+    EmbeddedChannel channel = new EmbeddedChannel(flushes);
+    ValueRecorder batchSizes = mock(ValueRecorder.class);
+    WriteCoalescer coalescer = new WriteCoalescer(channel, Integer.MAX_VALUE, batchSizes);
+
+    AtomicInteger succeeded = new AtomicInteger();
+    ChannelFutureListener listener = f -> {
+      if (f.isSuccess()) {
+        succeeded.incrementAndGet();
+      }
+    };
+    for (int i = 0; i < 3; i++) {
+      coalescer.write(Unpooled.buffer().writeInt(i), listener);
+    }
+
+    // nothing is written until the event loop drains the queue
+    assertNull(channel.readOutbound());
+    channel.runPendingTasks();
+
+    for (int i = 0; i < 3; i++) {
+      ByteBuf written = channel.readOutbound();
+      assertEquals(i, written.readInt());
+      written.release();
+    }
+    assertEquals(1, flushes.count.get());
+    assertEquals(3, succeeded.get());
+    verify(batchSizes).recordValue(3);
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void flushesEarlyOnceThresholdIsExceeded() {
+    FlushCounter flushes = new FlushCounter();
+    EmbeddedChannel channel = new EmbeddedChannel(flushes);
+    WriteCoalescer coalescer = new WriteCoalescer(channel, 1500, mock(ValueRecorder.class));
+
+    for (int i = 0; i < 4; i++) {
+      coalescer.write(Unpooled.wrappedBuffer(new byte[1000]), f -> { });
+    }
+    channel.runPendingTasks();
+
+    // every second message exceeds the threshold of 1500 pending bytes
+    assertEquals(2, flushes.count.get());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void limitsWritesPerDrain() {
+    FlushCounter flushes = new FlushCounter();
+    EmbeddedChannel channel = new EmbeddedChannel(flushes);
+    ValueRecorder batchSizes = mock(ValueRecorder.class);
+    WriteCoalescer coalescer = new WriteCoalescer(channel, Integer.MAX_VALUE, batchSizes);
+
+    for (int i = 0; i < WriteCoalescer.MAX_WRITES_PER_DRAIN + 1; i++) {
+      coalescer.write(Unpooled.EMPTY_BUFFER, f -> { });
+    }
+    channel.runPendingTasks();
+
+    assertEquals(2, flushes.count.get());
+    verify(batchSizes).recordValue(WriteCoalescer.MAX_WRITES_PER_DRAIN);
+    verify(batchSizes).recordValue(1);
+    channel.finishAndReleaseAll();
+  }
+
+  private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public void flush(final ChannelHandlerContext ctx) throws Exception {
+      count.incrementAndGet();
+      super.flush(ctx);
+    }
+  }
+
+}
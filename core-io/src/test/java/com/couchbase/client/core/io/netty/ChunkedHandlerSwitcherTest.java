@@ -34,6 +34,7 @@ import com.couchbase.client.core.msg.search.GenericSearchRequest;
 import com.couchbase.client.core.msg.search.SearchRequest;
 import com.couchbase.client.core.retry.FailFastRetryStrategy;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -72,6 +73,8 @@ class ChunkedHandlerSwitcherTest {
   void setup() {
     endpointContext = mock(EndpointContext.class);
     when(endpointContext.environment()).thenReturn(env);
+    when(endpointContext.serviceType()).thenReturn(ServiceType.SEARCH);
+    when(endpointContext.remoteSocket()).thenReturn(new HostAndPort("127.0.0.1", 8094));
     endpoint = mock(BaseEndpoint.class);
     when(endpoint.context()).thenReturn(endpointContext);
     when(endpoint.pipelined()).thenReturn(false);
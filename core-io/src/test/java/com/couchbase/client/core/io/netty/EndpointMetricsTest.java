@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty;
+
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.cnc.metrics.AggregatingMeter;
+import com.couchbase.client.core.cnc.metrics.MetricIdentifier;
+import com.couchbase.client.core.env.AggregatingMeterConfig;
+import com.couchbase.client.core.io.netty.kv.MemcacheProtocol;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * Verifies the functionality of the {@link EndpointMetrics}.
+ */
+class EndpointMetricsTest {
+
+  private static final HostAndPort NODE = new HostAndPort("127.0.0.1", 11210);
+
+  @Test
+  void tracksInFlightPerEndpoint() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+    EndpointMetrics first = new EndpointMetrics(meter, ServiceType.KV, NODE, "a1");
+    EndpointMetrics second = new EndpointMetrics(meter, ServiceType.KV, NODE, "b2");
+    assertNotSame(first.inFlight(), second.inFlight());
+
+    first.inFlight().incrementBy(2);
+    second.inFlight().incrementBy(1);
+
+    assertEquals(2, meter.counters().get(new MetricIdentifier(Meter.METRIC_ENDPOINT_IN_FLIGHT, tags("a1"))).value());
+    assertEquals(1, meter.counters().get(new MetricIdentifier(Meter.METRIC_ENDPOINT_IN_FLIGHT, tags("b2"))).value());
+  }
+
+  @Test
+  void aggregatesLatenciesPerNode() {
+    AggregatingMeter meter = AggregatingMeter.create(new SimpleEventBus(true), AggregatingMeterConfig.create());
+    new EndpointMetrics(meter, ServiceType.KV, NODE, "a1").recordLatency(MemcacheProtocol.Opcode.GET.opcode(), 1000);
+    new EndpointMetrics(meter, ServiceType.KV, NODE, "b2").recordLatency(MemcacheProtocol.Opcode.GET.opcode(), 1000);
+
+    Map<String, String> tags = tags(null);
+    tags.put(Meter.TAG_OPERATION, "get");
+    assertEquals(1, meter.valueRecorders().size());
+    assertEquals(tags, meter.valueRecorders().keySet().iterator().next().tags());
+  }
+
+  private static Map<String, String> tags(final String endpoint) {
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Meter.TAG_SERVICE, ServiceType.KV.ident());
+    tags.put(Meter.TAG_NODE, "127.0.0.1:11210");
+    if (endpoint != null) {
+      tags.put(Meter.TAG_ENDPOINT, endpoint);
+    }
+    return tags;
+  }
+
+}
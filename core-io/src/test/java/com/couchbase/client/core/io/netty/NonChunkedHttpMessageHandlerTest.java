@@ -18,7 +18,12 @@ package com.couchbase.client.core.io.netty;
 
 import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultFullHttpRequest;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.handler.codec.TooLongFrameException;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultFullHttpResponse;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpContent;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpResponse;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultLastHttpContent;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpRequest;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.FullHttpResponse;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpMethod;
@@ -28,22 +33,29 @@ import com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpVersion;
 import com.couchbase.client.core.endpoint.BaseEndpoint;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.env.IoConfig;
 import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.error.DecodingFailureException;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.msg.view.GenericViewRequest;
 import com.couchbase.client.core.retry.BestEffortRetryStrategy;
 import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.core.util.HostAndPort;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -75,6 +87,7 @@ class NonChunkedHttpMessageHandlerTest {
     EndpointContext endpointContext = mock(EndpointContext.class);
     when(endpointContext.environment()).thenReturn(env);
     when(endpointContext.authenticator()).thenReturn(PasswordAuthenticator.create("user", "pass"));
+    when(endpointContext.remoteSocket()).thenReturn(new HostAndPort("127.0.0.1", 8091));
     when(endpoint.context()).thenReturn(endpointContext);
     channel = new EmbeddedChannel();
   }
@@ -142,6 +155,42 @@ class NonChunkedHttpMessageHandlerTest {
     verify(endpoint, times(1)).markRequestCompletion();
   }
 
+  @Test
+  void failsRequestIfResponseTooLarge() {
+    CoreEnvironment env = CoreEnvironment.builder().ioConfig(IoConfig.maxHttpResponseSize(8)).build();
+    try {
+      when(endpoint.context().environment()).thenReturn(env);
+      channel.pipeline().addFirst(
+        NonChunkedHttpMessageHandler.IDENTIFIER,
+        new TestNonChunkedHttpMessageHandler(endpoint)
+      );
+      channel.pipeline().fireChannelActive();
+
+      GenericViewRequest request = new GenericViewRequest(
+        Duration.ofSeconds(1),
+        endpoint.context(),
+        BestEffortRetryStrategy.INSTANCE,
+        () -> new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"),
+        true,
+        "bucket"
+      );
+      channel.writeAndFlush(request);
+      ((FullHttpRequest) channel.readOutbound()).release();
+
+      assertThrows(TooLongFrameException.class, () -> channel.writeInbound(
+        new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK),
+        new DefaultHttpContent(Unpooled.copiedBuffer("{\"rows\":", StandardCharsets.UTF_8)),
+        new DefaultLastHttpContent(Unpooled.copiedBuffer("[1,2,3]}", StandardCharsets.UTF_8))
+      ));
+
+      ExecutionException ex = assertThrows(ExecutionException.class, () -> request.response().get());
+      assertTrue(ex.getCause() instanceof DecodingFailureException);
+      verify(endpoint, times(1)).markRequestCompletion();
+    } finally {
+      env.shutdown();
+    }
+  }
+
   static class TestNonChunkedHttpMessageHandler extends NonChunkedHttpMessageHandler {
 
     TestNonChunkedHttpMessageHandler(BaseEndpoint endpoint) {
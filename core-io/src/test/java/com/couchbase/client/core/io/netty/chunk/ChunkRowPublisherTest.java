@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.chunk;
+
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundHandlerAdapter;
+import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link ChunkRowPublisher}.
+ */
+class ChunkRowPublisherTest {
+
+  private EmbeddedChannel channel;
+  private AtomicInteger reads;
+
+  @BeforeEach
+  void setup() {
+    reads = new AtomicInteger();
+    channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+      @Override
+      public void read(final ChannelHandlerContext ctx) throws Exception {
+        reads.incrementAndGet();
+        super.read(ctx);
+      }
+    });
+  }
+
+  @AfterEach
+  void teardown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void emitsRowsOnDemand() {
+    ChunkRowPublisher<Integer> publisher = new ChunkRowPublisher<>(channel, 2, 4);
+    publisher.emit(1);
+    publisher.emit(2);
+    publisher.emit(3);
+
+    StepVerifier.create(publisher, 0)
+      .thenRequest(1)
+      .expectNext(1)
+      .thenRequest(1)
+      .expectNext(2)
+      .then(() -> {
+        publisher.emit(4);
+        publisher.complete();
+      })
+      .thenRequest(2)
+      .expectNext(3, 4)
+      .verifyComplete();
+  }
+
+  @Test
+  void pausesReadingAtHighWatermarkAndReadsBelowLowWatermark() {
+    ChunkRowPublisher<Integer> publisher = new ChunkRowPublisher<>(channel, 2, 4);
+    RequestingSubscriber subscriber = new RequestingSubscriber();
+    publisher.subscribe(subscriber);
+
+    for (int i = 0; i < 4; i++) {
+      publisher.emit(i);
+    }
+    assertFalse(channel.config().isAutoRead());
+
+    int readsBefore = reads.get();
+    subscriber.request(2);
+    assertEquals(readsBefore, reads.get());
+    subscriber.request(1);
+    assertEquals(readsBefore + 1, reads.get());
+
+    publisher.complete();
+    assertTrue(channel.config().isAutoRead());
+  }
+
+  @Test
+  void resumesReadingOnCancel() {
+    ChunkRowPublisher<Integer> publisher = new ChunkRowPublisher<>(channel, 2, 4);
+    RequestingSubscriber subscriber = new RequestingSubscriber();
+    publisher.subscribe(subscriber);
+
+    for (int i = 0; i < 4; i++) {
+      publisher.emit(i);
+    }
+    assertFalse(channel.config().isAutoRead());
+
+    subscriber.cancel();
+    assertTrue(channel.config().isAutoRead());
+    assertEquals(0, publisher.buffered());
+  }
+
+  @Test
+  void rejectsSecondSubscriber() {
+    ChunkRowPublisher<Integer> publisher = new ChunkRowPublisher<>(channel);
+    publisher.subscribe(new RequestingSubscriber());
+
+    StepVerifier.create(publisher).verifyError(IllegalStateException.class);
+  }
+
+  /**
+   * Simulates a server which keeps sending rows as long as the channel is reading, against a consumer which is
+   * slower than the server, and makes sure that the number of buffered rows stays bounded.
+   */
+  @Test
+  void streamsTenMillionRowsInConstantMemory() {
+    final long totalRows = 10_000_000;
+    final int rowsPerRead = 100;
+    final int consumedPerStep = 64;
+
+    ChunkRowPublisher<Long> publisher = new ChunkRowPublisher<>(channel);
+    RequestingSubscriber subscriber = new RequestingSubscriber();
+    publisher.subscribe(subscriber);
+
+    long emitted = 0;
+    int maxBuffered = 0;
+    int lastReads = reads.get();
+    while (subscriber.received.get() < totalRows) {
+      boolean readRequested = reads.get() != lastReads;
+      lastReads = reads.get();
+      if (emitted < totalRows && (channel.config().isAutoRead() || readRequested)) {
+        for (int i = 0; i < rowsPerRead && emitted < totalRows; i++) {
+          publisher.emit(emitted++);
+        }
+        if (emitted == totalRows) {
+          publisher.complete();
+        }
+        publisher.readMoreIfNeeded();
+        maxBuffered = Math.max(maxBuffered, publisher.buffered());
+      }
+      subscriber.request(consumedPerStep);
+    }
+
+    assertEquals(totalRows, subscriber.received.get());
+    assertTrue(subscriber.completed);
+    assertTrue(
+      maxBuffered <= ChunkRowPublisher.DEFAULT_HIGH_WATERMARK + rowsPerRead,
+      "Buffered " + maxBuffered + " rows"
+    );
+    assertTrue(channel.config().isAutoRead());
+  }
+
+  static class RequestingSubscriber extends BaseSubscriber<Object> {
+
+    final AtomicLong received = new AtomicLong();
+    volatile boolean completed;
+
+    @Override
+    protected void hookOnSubscribe(final Subscription subscription) {
+      // rows are requested explicitly by the tests
+    }
+
+    @Override
+    protected void hookOnNext(final Object value) {
+      received.incrementAndGet();
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      completed = true;
+    }
+
+  }
+
+}
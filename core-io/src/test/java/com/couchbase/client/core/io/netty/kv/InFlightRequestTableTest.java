@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.io.netty.kv;
+
+import com.couchbase.client.core.msg.Response;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Verifies the functionality of the {@link InFlightRequestTable}.
+ */
+class InFlightRequestTableTest {
+
+  @Test
+  void storesAndRemovesRequestsWithDispatchTime() {
+    InFlightRequestTable table = new InFlightRequestTable();
+    KeyValueRequest<Response> request = mockRequest();
+
+    int slot = table.put(5, request);
+    table.dispatchTimeAt(slot, 1234L);
+
+    assertEquals(1, table.size());
+    int found = table.slotOf(5);
+    assertSame(request, table.requestAt(found));
+    assertEquals(1234L, table.dispatchTimeAt(found));
+    assertEquals(-1, table.slotOf(6));
+
+    assertSame(request, table.remove(5));
+    assertNull(table.remove(5));
+    assertEquals(0, table.size());
+  }
+
+  @Test
+  void resolvesCollisionsAcrossWrapAround() {
+    InFlightRequestTable table = new InFlightRequestTable(8);
+    int capacity = table.capacity();
+    KeyValueRequest<Response> first = mockRequest();
+    KeyValueRequest<Response> second = mockRequest();
+    KeyValueRequest<Response> third = mockRequest();
+
+    // all three map to the last slot, so the chain wraps around to the start of the table
+    table.put(capacity - 1, first);
+    table.put(2 * capacity - 1, second);
+    table.put(3 * capacity - 1, third);
+
+    assertSame(first, table.remove(capacity - 1));
+    assertSame(second, table.requestAt(table.slotOf(2 * capacity - 1)));
+    assertSame(third, table.requestAt(table.slotOf(3 * capacity - 1)));
+    assertSame(third, table.remove(3 * capacity - 1));
+    assertSame(second, table.remove(2 * capacity - 1));
+    assertEquals(0, table.size());
+  }
+
+  @Test
+  void behavesLikeAMapUnderRandomOperations() {
+    InFlightRequestTable table = new InFlightRequestTable(4);
+    Map<Integer, KeyValueRequest<Response>> reference = new HashMap<>();
+    List<Integer> outstanding = new ArrayList<>();
+    Random random = new Random(42);
+    KeyValueRequest<Response> request = mockRequest();
+
+    int opaque = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (outstanding.isEmpty() || random.nextInt(3) != 0) {
+        // opaques are increasing but not contiguous per channel
+        opaque += 1 + random.nextInt(5);
+        table.put(opaque, request);
+        reference.put(opaque, request);
+        outstanding.add(opaque);
+      } else {
+        int removed = outstanding.remove(random.nextInt(outstanding.size()));
+        assertSame(reference.remove(removed), table.remove(removed));
+      }
+      assertEquals(reference.size(), table.size());
+    }
+
+    for (int remaining : outstanding) {
+      assertSame(request, table.requestAt(table.slotOf(remaining)));
+    }
+  }
+
+  /**
+   * Once sized for the concurrently outstanding requests, the write and read path of the
+   * {@link KeyValueMessageHandler} must not produce garbage through the in-flight tracking.
+   */
+  @Test
+  void doesNotAllocateOnceWarmedUp() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+    InFlightRequestTable table = new InFlightRequestTable();
+    KeyValueRequest<Response> request = mockRequest();
+    int inFlight = 512;
+
+    // warm up both the table capacity and the JIT
+    cycle(table, request, 0, inFlight, 100);
+
+    int rounds = 1000;
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    long sum = cycle(table, request, 100 * inFlight, inFlight, rounds);
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+    assertEquals(0, table.size());
+    // The measurement itself can show up with a few bytes, but any per-request allocation (i.e. boxing the
+    // dispatch time) would amount to several megabytes for the 512k requests tracked here.
+    assertTrue(allocated < 1024, "Allocated " + allocated + " bytes for " + (rounds * inFlight)
+      + " requests (dispatch time checksum " + sum + ")");
+  }
+
+  /**
+   * Simulates the handler: put on write, record the dispatch time, and lookup plus remove on read.
+   */
+  private static long cycle(final InFlightRequestTable table, final KeyValueRequest<Response> request,
+                            final int startOpaque, final int inFlight, final int rounds) {
+    long sum = 0;
+    int opaque = startOpaque;
+    for (int r = 0; r < rounds; r++) {
+      for (int i = 0; i < inFlight; i++) {
+        int slot = table.put(opaque + i, request);
+        table.dispatchTimeAt(slot, System.nanoTime());
+      }
+      for (int i = 0; i < inFlight; i++) {
+        int slot = table.slotOf(opaque + i);
+        sum += System.nanoTime() - table.dispatchTimeAt(slot);
+        table.removeAt(slot);
+      }
+      opaque += inFlight;
+    }
+    return sum;
+  }
+
+  @SuppressWarnings({"unchecked"})
+  private static KeyValueRequest<Response> mockRequest() {
+    return mock(KeyValueRequest.class);
+  }
+
+}
@@ -22,6 +22,7 @@ import com.couchbase.client.core.config.ConfigurationProvider;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
 import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.PasswordAuthenticator;
@@ -52,11 +53,15 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -72,15 +77,16 @@ class KeyValueMessageHandlerTest {
   private static EndpointContext CTX;
   private static String BUCKET = "bucket";
   private static CollectionIdentifier CID = CollectionIdentifier.fromDefault(BUCKET);
+  private static ConfigurationProvider PROVIDER;
 
   @BeforeAll
   static void setup() {
     ENV = CoreEnvironment.builder().eventBus(new SimpleEventBus(true)).build();
     Core core = mock(Core.class);
     CoreContext coreContext = new CoreContext(core, 1, ENV, PasswordAuthenticator.create("foo", "bar"));
-    ConfigurationProvider configurationProvider = mock(ConfigurationProvider.class);
-    when(configurationProvider.collectionMap()).thenReturn(new CollectionMap());
-    when(core.configurationProvider()).thenReturn(configurationProvider);
+    PROVIDER = mock(ConfigurationProvider.class);
+    when(PROVIDER.collectionMap()).thenReturn(new CollectionMap());
+    when(core.configurationProvider()).thenReturn(PROVIDER);
     CTX = new EndpointContext(coreContext, new HostAndPort("127.0.0.1", 1234),
       null, ServiceType.KV, Optional.empty(), Optional.empty(), Optional.empty());
   }
@@ -263,4 +269,94 @@ class KeyValueMessageHandlerTest {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * When timeouts are tracked by deadline, the handler needs to cancel in-flight requests once their
+   * absolute timeout has been reached.
+   */
+  @Test
+  void cancelsInFlightRequestsPastTheirDeadline() {
+    KeyValueMessageHandler handler = new KeyValueMessageHandler(null, CTX, Optional.of(BUCKET));
+    EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+    try {
+      GetRequest request = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, null, null);
+      channel.writeOutbound(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      handler.cancelTimedOutRequests(request.absoluteTimeout() - 1);
+      assertFalse(request.completed());
+
+      handler.cancelTimedOutRequests(request.absoluteTimeout());
+      assertTrue(request.completed());
+      assertEquals(CancellationReason.TIMEOUT, request.cancellationReason());
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Once a request is written the channel takes over its timeout, so the timer registration which bounded it
+   * while it was queued needs to be cancelled.
+   */
+  @Test
+  void cancelsPendingTimeoutOnceWritten() {
+    EmbeddedChannel channel = new EmbeddedChannel(new KeyValueMessageHandler(null, CTX, Optional.of(BUCKET)));
+
+    try {
+      Timeout pendingTimeout = mock(Timeout.class);
+      GetRequest request = new GetRequest("key", Duration.ofSeconds(1), CTX, CID, null, null);
+      request.pendingTimeout(pendingTimeout);
+
+      channel.writeOutbound(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      verify(pendingTimeout).cancel();
+      assertFalse(request.completed());
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  /**
+   * Acts as a server which negotiated cluster map change notifications and pushes a new config to the client,
+   * which must be proposed without a response being written back.
+   */
+  @Test
+  void proposesConfigPushedByServer() throws Exception {
+    String bucket = "pushed";
+    EmbeddedChannel channel = new EmbeddedChannel(false, false,
+      new KeyValueMessageHandler(null, CTX, Optional.of(bucket)));
+    channel.attr(ChannelAttributes.SERVER_FEATURE_KEY).set(Arrays.asList(
+      ServerFeature.DUPLEX,
+      ServerFeature.CLUSTERMAP_CHANGE_NOTIFICATION
+    ));
+
+    try {
+      channel.register();
+      verify(PROVIDER).clustermapPushEnabled(bucket);
+
+      String config = "{\"rev\":1234,\"name\":\"pushed\"}";
+      ByteBuf extras = Unpooled.buffer().writeInt(1234);
+      ByteBuf notification = MemcacheProtocol.request(channel.alloc(), MemcacheProtocol.Opcode.GET, (byte) 0,
+        (short) 0, 0, 0, extras, Unpooled.copiedBuffer(bucket, UTF_8), Unpooled.copiedBuffer(config, UTF_8));
+      notification.setByte(0, MemcacheProtocol.Magic.SERVER_REQUEST.magic());
+      notification.setByte(1, MemcacheProtocol.ServerOpcode.CLUSTERMAP_CHANGE_NOTIFICATION.opcode());
+      extras.release();
+
+      channel.writeInbound(notification);
+
+      assertEquals(0, notification.refCnt());
+      assertTrue(channel.isActive());
+      assertNull(channel.readOutbound());
+      verify(PROVIDER).proposeBucketConfig(argThat(ctx ->
+        ctx.bucketName().equals(bucket) && ctx.config().equals(config) && ctx.origin().equals("127.0.0.1")
+      ));
+
+      channel.close();
+      verify(PROVIDER).clustermapPushDisabled(bucket);
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+}
@@ -22,6 +22,9 @@ import com.couchbase.client.core.cnc.EventBus;
 import com.couchbase.client.core.cnc.events.io.DurabilityTimeoutCoercedEvent;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufAllocator;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ReferenceCountUtil;
 import com.couchbase.client.core.env.Authenticator;
@@ -31,8 +34,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Random;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -123,5 +132,139 @@ class MemcacheProtocolTest {
     ReferenceCountUtil.release(result);
   }
 
+  @Test
+  void compositeRequestFallsBackToCopyForSmallBodies() {
+    ByteBuf body = Unpooled.wrappedBuffer(new byte[MemcacheProtocol.COMPOSITE_BODY_THRESHOLD - 1]);
+    ByteBuf key = Unpooled.wrappedBuffer("key".getBytes());
+
+    ByteBuf result = MemcacheProtocol.compositeRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 1, 0, MemcacheProtocol.noExtras(), key, body);
+
+    assertFalse(result instanceof CompositeByteBuf);
+    assertEquals(1, body.refCnt());
+    ReferenceCountUtil.release(result);
+    ReferenceCountUtil.release(body);
+  }
+
+  @Test
+  void compositeRequestEncodesSameBytesAsCopiedRequest() {
+    byte[] content = new byte[MemcacheProtocol.COMPOSITE_BODY_THRESHOLD * 4];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    ByteBuf body = Unpooled.wrappedBuffer(content);
+    ByteBuf key = Unpooled.wrappedBuffer("key".getBytes());
+    ByteBuf extras = ALLOC.buffer().writeInt(1).writeInt(2);
+
+    ByteBuf copied = MemcacheProtocol.request(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 1, 0, extras, key.duplicate(), body.duplicate());
+    extras.readerIndex(0);
+    ByteBuf composite = MemcacheProtocol.compositeRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 1, 0, extras, key, body);
+
+    assertTrue(composite instanceof CompositeByteBuf);
+    assertEquals(2, body.refCnt());
+    assertTrue(ByteBufUtil.equals(copied, composite));
+    assertTrue(MemcacheProtocol.verifyRequest(composite));
+
+    ReferenceCountUtil.release(body);
+    ReferenceCountUtil.release(extras);
+    ReferenceCountUtil.release(copied);
+    ReferenceCountUtil.release(composite);
+    assertEquals(0, body.refCnt());
+  }
+
+  @Test
+  void flexibleCompositeRequestEncodesSameBytesAsCopiedRequest() {
+    ByteBuf body = Unpooled.wrappedBuffer(new byte[MemcacheProtocol.COMPOSITE_BODY_THRESHOLD]);
+    ByteBuf key = Unpooled.wrappedBuffer("key".getBytes());
+    ByteBuf framingExtras = MemcacheProtocol.flexibleSyncReplication(
+      ALLOC,
+      DurabilityLevel.MAJORITY,
+      Duration.ofSeconds(3),
+      context
+    );
+
+    ByteBuf copied = MemcacheProtocol.flexibleRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 1, 0, framingExtras.duplicate(), MemcacheProtocol.noExtras(), key.duplicate(), body.duplicate());
+    ByteBuf composite = MemcacheProtocol.flexibleCompositeRequest(ALLOC, MemcacheProtocol.Opcode.SET, (byte) 0,
+      (short) 1, 1, 0, framingExtras, MemcacheProtocol.noExtras(), key, body);
+
+    assertTrue(composite instanceof CompositeByteBuf);
+    assertTrue(ByteBufUtil.equals(copied, composite));
+    assertTrue(MemcacheProtocol.verifyRequest(composite));
+
+    ReferenceCountUtil.release(body);
+    ReferenceCountUtil.release(framingExtras);
+    ReferenceCountUtil.release(copied);
+    ReferenceCountUtil.release(composite);
+    assertEquals(0, body.refCnt());
+  }
+
+  @Test
+  void compressesAndDecompressesHeapAndDirectBuffers() {
+    byte[] content = new byte[MemcacheProtocol.COMPRESSION_SAMPLE_THRESHOLD * 2];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) ('a' + (i % 7));
+    }
+
+    ByteBuf heap = Unpooled.wrappedBuffer(content);
+    ByteBuf direct = ALLOC.directBuffer(content.length).writeBytes(content);
+    for (ByteBuf input : new ByteBuf[] { heap, direct }) {
+      ByteBuf compressed = MemcacheProtocol.tryCompression(ALLOC, input, 0.83);
+      assertTrue(compressed.readableBytes() < content.length);
+      assertEquals(content.length, input.readableBytes());
+
+      ByteBuf response = MemcacheProtocol.response(ALLOC, MemcacheProtocol.Opcode.GET,
+        MemcacheProtocol.Datatype.SNAPPY.datatype(), (short) 0, 1, 0, MemcacheProtocol.noExtras(),
+        MemcacheProtocol.noKey(), compressed);
+      ByteBuf decompressed = MemcacheProtocol.retainedDecompressedBody(response).get();
+      assertTrue(ByteBufUtil.equals(Unpooled.wrappedBuffer(content), decompressed));
+
+      ReferenceCountUtil.release(compressed);
+      ReferenceCountUtil.release(response);
+      assertEquals(1, decompressed.refCnt());
+      ReferenceCountUtil.release(decompressed);
+    }
+    ReferenceCountUtil.release(direct);
+  }
+
+  @Test
+  void skipsCompressionIfRatioIsNotMet() {
+    byte[] content = new byte[MemcacheProtocol.COMPRESSION_SAMPLE_THRESHOLD];
+    new Random(42).nextBytes(content);
+
+    assertNull(MemcacheProtocol.tryCompression(ALLOC, Unpooled.wrappedBuffer(content), 0.83));
+  }
+
+  @Test
+  void decompressesSnappyBodyIntoBytes() {
+    byte[] content = "{\"foo\":\"barbarbarbarbarbarbarbarbarbarbarbarbar\"}".getBytes(UTF_8);
+    ByteBuf compressed = MemcacheProtocol.tryCompression(ALLOC, Unpooled.wrappedBuffer(content), 1.0);
+    ByteBuf response = MemcacheProtocol.response(ALLOC, MemcacheProtocol.Opcode.GET,
+      MemcacheProtocol.Datatype.SNAPPY.datatype(), (short) 0, 1, 0, MemcacheProtocol.noExtras(),
+      MemcacheProtocol.noKey(), compressed);
+
+    assertArrayEquals(content, MemcacheProtocol.decompressedBodyAsBytes(response));
+
+    ReferenceCountUtil.release(compressed);
+    ReferenceCountUtil.release(response);
+  }
+
+  @Test
+  void retainsUncompressedBodyForTheCaller() {
+    byte[] content = "{\"foo\":\"bar\"}".getBytes(UTF_8);
+    ByteBuf response = MemcacheProtocol.response(ALLOC, MemcacheProtocol.Opcode.GET,
+      (byte) 0, (short) 0, 1, 0, MemcacheProtocol.noExtras(),
+      MemcacheProtocol.noKey(), Unpooled.wrappedBuffer(content));
+
+    ByteBuf body = MemcacheProtocol.retainedDecompressedBody(response).get();
+    assertTrue(ByteBufUtil.equals(Unpooled.wrappedBuffer(content), body));
+    assertEquals(2, response.refCnt());
+
+    ReferenceCountUtil.release(body);
+    ReferenceCountUtil.release(response);
+    assertEquals(0, response.refCnt());
+  }
 
 }
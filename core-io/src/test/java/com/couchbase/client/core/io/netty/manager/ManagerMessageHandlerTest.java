@@ -21,6 +21,7 @@ import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
+import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultFullHttpRequest;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpContent;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpResponse;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultLastHttpContent;
@@ -37,8 +38,13 @@ import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.IoConfig;
 import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.error.DecodingFailureException;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.msg.manager.BucketConfigStreamingRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigStreamingResponse;
+import com.couchbase.client.core.msg.manager.GenericManagerRequest;
+import com.couchbase.client.core.msg.manager.GenericManagerResponse;
 import com.couchbase.client.core.retry.BestEffortRetryStrategy;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -53,12 +59,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.couchbase.client.test.Util.readResource;
 import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -242,4 +250,81 @@ class ManagerMessageHandlerTest {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * If the request only needs parts of the body, it should be fed into its parser instead of being aggregated.
+   */
+  @Test
+  void streamsBodyIntoParser() throws Exception {
+    CoreContext ctx = new CoreContext(mock(Core.class), 1, ENV, PasswordAuthenticator.create(USER, PASS));
+    BaseEndpoint endpoint = mock(BaseEndpoint.class);
+    EndpointContext endpointContext = mock(EndpointContext.class);
+    when(endpointContext.environment()).thenReturn(ENV);
+    when(endpoint.context()).thenReturn(endpointContext);
+    EmbeddedChannel channel = new EmbeddedChannel(new ManagerMessageHandler(endpoint, ctx));
+
+    List<String> rows = new ArrayList<>();
+    JsonStreamParser.Builder parser = JsonStreamParser.builder()
+      .doOnValue("/rows/-", v -> rows.add(new String(v.readBytes(), StandardCharsets.UTF_8)));
+    GenericManagerRequest request = new GenericManagerRequest(Duration.ofSeconds(1), ctx,
+      BestEffortRetryStrategy.INSTANCE, () -> new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"),
+      true, () -> {
+        rows.clear();
+        return parser.build();
+      });
+    channel.write(request);
+    ReferenceCountUtil.release(channel.readOutbound());
+
+    channel.writeInbound(
+      new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK),
+      new DefaultHttpContent(Unpooled.copiedBuffer("{\"rows\":[{\"a\":1},", StandardCharsets.UTF_8)),
+      new DefaultLastHttpContent(Unpooled.copiedBuffer("{\"b\":2}]}", StandardCharsets.UTF_8))
+    );
+
+    GenericManagerResponse response = request.response().get();
+    assertEquals(ResponseStatus.SUCCESS, response.status());
+    assertEquals(0, response.content().length);
+    assertEquals(2, rows.size());
+    assertEquals("{\"a\":1}", rows.get(0));
+    assertEquals("{\"b\":2}", rows.get(1));
+
+    channel.finish();
+  }
+
+  /**
+   * Aggregated responses which are larger than the configured maximum fail the request and close the channel.
+   */
+  @Test
+  void failsRequestIfResponseTooLarge() throws Exception {
+    CoreEnvironment env = CoreEnvironment.builder().ioConfig(IoConfig.maxHttpResponseSize(8)).build();
+
+    try {
+      CoreContext ctx = new CoreContext(mock(Core.class), 1, env, PasswordAuthenticator.create(USER, PASS));
+      BaseEndpoint endpoint = mock(BaseEndpoint.class);
+      EndpointContext endpointContext = mock(EndpointContext.class);
+      when(endpointContext.environment()).thenReturn(env);
+      when(endpoint.context()).thenReturn(endpointContext);
+      EmbeddedChannel channel = new EmbeddedChannel(new ManagerMessageHandler(endpoint, ctx));
+
+      GenericManagerRequest request = new GenericManagerRequest(Duration.ofSeconds(1), ctx,
+        BestEffortRetryStrategy.INSTANCE, () -> new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"),
+        true);
+      channel.write(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      channel.writeInbound(
+        new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK),
+        new DefaultHttpContent(Unpooled.copiedBuffer("{\"rows\":", StandardCharsets.UTF_8)),
+        new DefaultLastHttpContent(Unpooled.copiedBuffer("[1,2,3]}", StandardCharsets.UTF_8))
+      );
+
+      ExecutionException ex = assertThrows(ExecutionException.class, () -> request.response().get());
+      assertTrue(ex.getCause() instanceof DecodingFailureException);
+      assertFalse(channel.isActive());
+
+      channel.finish();
+    } finally {
+      env.shutdown();
+    }
+  }
+
+}
@@ -19,6 +19,8 @@ import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelHandlerContext;
+import com.couchbase.client.core.deps.io.netty.channel.ChannelOutboundHandlerAdapter;
 import com.couchbase.client.core.deps.io.netty.channel.embedded.EmbeddedChannel;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpContent;
 import com.couchbase.client.core.deps.io.netty.handler.codec.http.DefaultHttpResponse;
@@ -37,6 +39,7 @@ import com.couchbase.client.core.endpoint.EndpointContext;
 import com.couchbase.client.core.endpoint.NoopCircuitBreaker;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.env.PasswordAuthenticator;
+import com.couchbase.client.core.msg.query.QueryChunkRow;
 import com.couchbase.client.core.msg.query.QueryRequest;
 import com.couchbase.client.core.retry.FailFastRetryStrategy;
 import com.couchbase.client.core.service.ServiceType;
@@ -44,9 +47,15 @@ import com.couchbase.client.core.util.HostAndPort;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static com.couchbase.client.test.Util.readResource;
 import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -164,4 +173,97 @@ class QueryMessageHandlerTest {
     channel.finishAndReleaseAll();
   }
 
+  /**
+   * Streams a large result through the handler and the query chunk parser against a consumer which requests
+   * fewer rows than the server sends, and makes sure that the rows not yet delivered stay bounded.
+   *
+   * <p>The server side only sends more data while the channel reads on its own or after a read has been
+   * requested explicitly, just like a socket would.</p>
+   */
+  @Test
+  void boundsBufferedRowsUnderSlowDemand() {
+    final int totalRows = 1_000_000;
+    final int rowsPerChunk = 100;
+    final int consumedPerStep = 64;
+
+    AtomicInteger reads = new AtomicInteger();
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+      @Override
+      public void read(final ChannelHandlerContext ctx) throws Exception {
+        reads.incrementAndGet();
+        super.read(ctx);
+      }
+    }, new QueryMessageHandler(mock(BaseEndpoint.class), ENDPOINT_CTX));
+
+    try {
+      byte[] query = "doesn'tmatter".getBytes(CharsetUtil.UTF_8);
+      QueryRequest request = new QueryRequest(
+        ENV.timeoutConfig().queryTimeout(), CORE_CTX, FailFastRetryStrategy.INSTANCE, CORE_CTX.authenticator(),
+        "statement", query, false, null, null
+      );
+      channel.writeAndFlush(request);
+      ReferenceCountUtil.release(channel.readOutbound());
+
+      channel.writeInbound(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+      channel.writeInbound(new DefaultHttpContent(
+        Unpooled.copiedBuffer("{\"requestID\":\"1234\",\"signature\":{\"*\":\"*\"},\"results\":[", UTF_8)
+      ));
+
+      AtomicLong received = new AtomicLong();
+      AtomicBoolean completed = new AtomicBoolean();
+      BaseSubscriber<QueryChunkRow> subscriber = new BaseSubscriber<QueryChunkRow>() {
+        @Override
+        protected void hookOnSubscribe(final Subscription subscription) {
+          // rows are requested explicitly below
+        }
+
+        @Override
+        protected void hookOnNext(final QueryChunkRow value) {
+          received.incrementAndGet();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+          completed.set(true);
+        }
+      };
+
+      int sent = 0;
+      long maxUndelivered = 0;
+      boolean paused = false;
+      boolean subscribed = false;
+      int lastReads = reads.get();
+      while (!completed.get()) {
+        boolean readRequested = reads.get() != lastReads;
+        lastReads = reads.get();
+        if (sent < totalRows && (channel.config().isAutoRead() || readRequested)) {
+          StringBuilder chunk = new StringBuilder();
+          for (int i = 0; i < rowsPerChunk && sent < totalRows; i++, sent++) {
+            chunk.append(sent == 0 ? "" : ",").append("{\"id\":").append(sent).append('}');
+          }
+          if (sent == totalRows) {
+            chunk.append("],\"status\":\"success\"}");
+            channel.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer(chunk, UTF_8)));
+          } else {
+            channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer(chunk, UTF_8)));
+          }
+          maxUndelivered = Math.max(maxUndelivered, sent - received.get());
+          paused |= !channel.config().isAutoRead();
+        }
+        if (!subscribed && request.response().isDone()) {
+          request.response().join().rows().subscribe(subscriber);
+          subscribed = true;
+        }
+        subscriber.request(consumedPerStep);
+      }
+
+      assertEquals(totalRows, received.get());
+      assertTrue(paused);
+      assertTrue(channel.config().isAutoRead());
+      assertTrue(maxUndelivered <= 2L * rowsPerChunk + 128, "Buffered " + maxUndelivered + " rows");
+    } finally {
+      channel.finishAndReleaseAll();
+    }
+  }
+
 }
@@ -18,6 +18,7 @@ package com.couchbase.client.core.json.stream;
 
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
 import com.couchbase.client.core.deps.io.netty.util.ResourceLeakDetector;
 import org.junit.jupiter.api.Test;
 
@@ -214,6 +215,25 @@ class JsonStreamParserTest {
       .check();
   }
 
+  @Test
+  void canMatchArrayElementByIndex() throws Exception {
+    String json = "{'foo':['bar','baz'],'colors':[{'r':255,'g':0},{'r':0,'g':255}],'grid':[[1,2],[3,4]]}";
+    new ResultChecker(json)
+      .expect("/foo/1", "'baz'")
+      .expect("/colors/0/g", "0")
+      .expect("/grid/1/0", "3")
+      .check();
+  }
+
+  @Test
+  void arrayIndexTakesPrecedenceOverWildcard() throws Exception {
+    String json = "{'colors':[{'r':255,'g':0},{'r':0,'g':255},{'r':0,'g':0}]}";
+    new ResultChecker(json)
+      .expect("/colors/1", "{'r':0,'g':255}")
+      .expect("/colors/-/r", "255", "0")
+      .check();
+  }
+
   @Test
   void cannotReconfigureAfterBuilding() throws Exception {
     JsonStreamParser.Builder builder = JsonStreamParser.builder()
@@ -263,7 +283,16 @@ class JsonStreamParserTest {
         .collect(toList());
 
       ResultChecker.ListenerCheck check = new ResultChecker.ListenerCheck(jsonPointer, expected);
-      builder.doOnValue(jsonPointer, value -> check.addActual(new String(value.readBytes(), UTF_8)));
+      builder.doOnValue(jsonPointer, value -> {
+        ByteBuf slice = value.readRetainedSlice();
+        try {
+          String json = new String(value.readBytes(), UTF_8);
+          assertEquals(json, slice.toString(UTF_8), jsonPointer);
+          check.addActual(json);
+        } finally {
+          slice.release();
+        }
+      });
       checks.add(check);
       return this;
     }
@@ -273,26 +302,34 @@ class JsonStreamParserTest {
     }
 
     void check() throws IOException {
-      checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE);
+      for (ChunkType chunkType : ChunkType.values()) {
+        for (boolean retaining : new boolean[] {false, true}) {
+          checkWithChunkSizeAndStreamWindow(Integer.MAX_VALUE, chunkType, retaining);
 
-      for (int i = 1; i <= min(32, json.length); i++) {
-        checkWithChunkSizeAndStreamWindow(i);
+          for (int i = 1; i <= min(32, json.length); i++) {
+            checkWithChunkSizeAndStreamWindow(i, chunkType, retaining);
+          }
+        }
       }
     }
 
-    void checkWithChunkSizeAndStreamWindow(final int chunkSize) throws IOException {
+    void checkWithChunkSizeAndStreamWindow(final int chunkSize, final ChunkType chunkType, final boolean retaining)
+      throws IOException {
       //System.out.println("testing with chunk size " + chunkSize);
       checks.forEach(c -> c.actual.clear()); // reset
 
-      try (JsonStreamParser parser = builder.build()) {
+      StreamWindow window = retaining
+        ? new RetainingStreamWindow(UnpooledByteBufAllocator.DEFAULT)
+        : new CopyingStreamWindow(UnpooledByteBufAllocator.DEFAULT);
+
+      try (JsonStreamParser parser = builder.build(null, window)) {
         ByteBuf buf = Unpooled.wrappedBuffer(json);
 
         parser.feed(Unpooled.buffer()); // make sure empty chunk doesn't break anything
 
         int offset = 0;
         while (buf.isReadable()) {
-          ByteBuf chunk = Unpooled.buffer();
-          chunk.writeBytes(buf, min(chunkSize, buf.readableBytes()));
+          ByteBuf chunk = chunkType.create(buf, min(chunkSize, buf.readableBytes()));
 //          System.out.println("feeding (offset " + offset + ") : `" + chunk.toString(UTF_8) + "`");
           offset += chunkSize;
           parser.feed(chunk);
@@ -303,4 +340,35 @@ class JsonStreamParserTest {
       checks.forEach(ResultChecker.ListenerCheck::checkResult);
     }
   }
+
+  /**
+   * The different kinds of buffers the parser is fed with.
+   */
+  private enum ChunkType {
+    HEAP {
+      @Override
+      ByteBuf create(ByteBuf source, int length) {
+        return Unpooled.buffer().writeBytes(source, length);
+      }
+    },
+    /**
+     * Heap buffers whose content does not start at offset zero of the backing array.
+     */
+    HEAP_WITH_OFFSET {
+      @Override
+      ByteBuf create(ByteBuf source, int length) {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeBytes("garbage".getBytes(UTF_8)).writeBytes(source, length).writeBytes("garbage".getBytes(UTF_8));
+        return buf.slice(7, length);
+      }
+    },
+    DIRECT {
+      @Override
+      ByteBuf create(ByteBuf source, int length) {
+        return Unpooled.directBuffer().writeBytes(source, length);
+      }
+    };
+
+    abstract ByteBuf create(ByteBuf source, int length);
+  }
 }
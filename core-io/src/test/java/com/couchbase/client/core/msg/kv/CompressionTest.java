@@ -239,6 +239,41 @@ class CompressionTest {
     ReferenceCountUtil.release(encoded);
   }
 
+  @Test
+  void encodesBufferContentOnEveryAttemptWithoutReleasingIt() {
+    ByteBuf content = Unpooled.wrappedBuffer(
+      Unpooled.wrappedBuffer(longContent, 0, 100),
+      Unpooled.wrappedBuffer(longContent, 100, longContent.length - 100)
+    );
+    UpsertRequest request = new UpsertRequest(key, content, expiry, flags, timeout,
+      coreContext, cid, retryStrategy, Optional.empty(), null);
+
+    for (int i = 0; i < 2; i++) {
+      ByteBuf encoded = request.encode(allocator, 0, ctx(false));
+      assertEquals(0, datatype(encoded));
+      assertEquals(Unpooled.wrappedBuffer(longContent), body(encoded).get());
+      ReferenceCountUtil.release(encoded);
+    }
+    assertEquals(1, content.refCnt());
+    assertEquals(longContent.length, content.readableBytes());
+  }
+
+  @Test
+  void compressesLongBufferContent() {
+    ByteBuf content = Unpooled.wrappedBuffer(
+      Unpooled.wrappedBuffer(longContent, 0, 100),
+      Unpooled.wrappedBuffer(longContent, 100, longContent.length - 100)
+    );
+    ReplaceRequest request = new ReplaceRequest(key, content, expiry, flags, timeout, cas,
+      coreContext, cid, retryStrategy, Optional.empty(), null);
+
+    ByteBuf encoded = request.encode(allocator, 0, ctx(true));
+    assertEquals(MemcacheProtocol.Datatype.SNAPPY.datatype(), datatype(encoded));
+    assertTrue(body(encoded).get().readableBytes() < longContent.length);
+    ReferenceCountUtil.release(encoded);
+    assertEquals(1, content.refCnt());
+  }
+
   private KeyValueChannelContext ctx(boolean enabled) {
     return new KeyValueChannelContext(
       CompressionConfig.builder().enable(enabled).build(),
@@ -18,6 +18,7 @@ package com.couchbase.client.core.node;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.ClusterConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.config.NodeInfo;
@@ -29,6 +30,7 @@ import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.msg.TargetedRequest;
 import com.couchbase.client.core.msg.kv.CarrierBucketConfigRequest;
 import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
 import com.couchbase.client.core.msg.manager.BucketConfigRequest;
 import org.junit.jupiter.api.Test;
 
@@ -36,9 +38,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -207,6 +217,100 @@ class KeyValueLocatorTest {
     verify(node2Mock, never()).send(getRequest);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void dispatchesThroughPrecomputedRoutingTable() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    NodeInfo nodeInfo2 = new NodeInfo("http://foo:1234", "192.168.56.102:8091",
+      Collections.EMPTY_MAP, null);
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.102", 8091));
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    Map<String, BucketConfig> bucketConfigs = Collections.singletonMap("bucket", bucketMock);
+    when(configMock.bucketConfigs()).thenReturn(bucketConfigs);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.name()).thenReturn("bucket");
+    when(bucketMock.nodes()).thenReturn(Arrays.asList(nodeInfo1, nodeInfo2));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.numberOfReplicas()).thenReturn(1);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    when(bucketMock.nodeAtIndex(1)).thenReturn(nodeInfo2);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false))).thenReturn((short) 1);
+    when(bucketMock.nodeIndexForReplica(anyInt(), eq(0), eq(false))).thenReturn((short) 0);
+
+    locator.updateRoutingTables(configMock, nodes);
+    clearInvocations(bucketMock);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    RequestContext requestCtx = mock(RequestContext.class);
+    when(getRequest.context()).thenReturn(requestCtx);
+
+    locator.dispatch(getRequest, nodes, configMock, null);
+    verify(node2Mock, times(1)).send(getRequest);
+    verify(node1Mock, never()).send(getRequest);
+    verify(bucketMock, never()).nodeIndexForActive(anyInt(), anyBoolean());
+    verify(bucketMock, never()).nodeAtIndex(anyInt());
+
+    ReplicaGetRequest replicaRequest = mock(ReplicaGetRequest.class);
+    when(replicaRequest.bucket()).thenReturn("bucket");
+    when(replicaRequest.key()).thenReturn("key".getBytes(UTF_8));
+    when(replicaRequest.replica()).thenReturn((short) 1);
+    when(replicaRequest.context()).thenReturn(requestCtx);
+
+    locator.dispatch(replicaRequest, nodes, configMock, null);
+    verify(node1Mock, times(1)).send(replicaRequest);
+    verify(bucketMock, never()).nodeIndexForReplica(anyInt(), anyInt(), anyBoolean());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void ignoresRoutingTableOfOutdatedConfig() {
+    KeyValueLocator locator = new KeyValueLocator();
+
+    NodeInfo nodeInfo1 = new NodeInfo("http://foo:1234", "192.168.56.101:8091",
+      Collections.EMPTY_MAP, null);
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.identifier()).thenReturn(new NodeIdentifier("192.168.56.101", 8091));
+    List<Node> nodes = new ArrayList<>(Collections.singletonList(node1Mock));
+
+    ClusterConfig oldConfigMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig oldBucketMock = mock(CouchbaseBucketConfig.class);
+    Map<String, BucketConfig> bucketConfigs = Collections.singletonMap("bucket", oldBucketMock);
+    when(oldConfigMock.bucketConfigs()).thenReturn(bucketConfigs);
+    when(oldBucketMock.name()).thenReturn("bucket");
+    when(oldBucketMock.numberOfPartitions()).thenReturn(1024);
+    when(oldBucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+    locator.updateRoutingTables(oldConfigMock, nodes);
+
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.nodes()).thenReturn(Collections.singletonList(nodeInfo1));
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeIndexForActive(656, false)).thenReturn((short) 0);
+    when(bucketMock.nodeAtIndex(0)).thenReturn(nodeInfo1);
+
+    GetRequest getRequest = mock(GetRequest.class);
+    when(getRequest.bucket()).thenReturn("bucket");
+    when(getRequest.key()).thenReturn("key".getBytes(UTF_8));
+    RequestContext requestCtx = mock(RequestContext.class);
+    when(getRequest.context()).thenReturn(requestCtx);
+
+    locator.dispatch(getRequest, nodes, configMock, null);
+    verify(node1Mock, times(1)).send(getRequest);
+    verify(bucketMock, times(1)).nodeIndexForActive(656, false);
+  }
+
   @Test
   void cancelsTargetedRequestIfNodeListEmpty() {
     Locator locator = new KeyValueLocator();
@@ -233,4 +337,37 @@ class KeyValueLocatorTest {
     verify(request, times(1)).cancel(CancellationReason.TARGET_NODE_REMOVED);
   }
 
+  @Test
+  void ordersBatchByNodeAndPartition() {
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    CouchbaseBucketConfig bucketMock = mock(CouchbaseBucketConfig.class);
+    when(configMock.bucketConfig("bucket")).thenReturn(bucketMock);
+    when(bucketMock.numberOfPartitions()).thenReturn(1024);
+    when(bucketMock.nodeIndexForActive(anyInt(), eq(false)))
+      .thenAnswer(invocation -> (short) ((int) invocation.getArgument(0) < 512 ? 1 : 0));
+
+    List<Request<?>> requests = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      GetRequest request = mock(GetRequest.class);
+      when(request.bucket()).thenReturn("bucket");
+      when(request.key()).thenReturn(("key-" + i).getBytes(UTF_8));
+      requests.add(request);
+    }
+    Request<?> notKeyValue = mock(BucketConfigRequest.class);
+    requests.add(0, notKeyValue);
+
+    List<Request<?>> ordered = KeyValueLocator.dispatchOrder(requests, configMock);
+    assertEquals(requests.size(), ordered.size());
+    assertTrue(ordered.containsAll(requests));
+    assertSame(notKeyValue, ordered.get(ordered.size() - 1));
+
+    int lastGroup = -1;
+    for (Request<?> request : ordered.subList(0, ordered.size() - 1)) {
+      int partition = KeyValueLocator.partitionForKey(((GetRequest) request).key(), 1024);
+      int group = (partition < 512 ? 1 : 0) * 1024 + partition;
+      assertTrue(group >= lastGroup);
+      lastGroup = group;
+    }
+  }
+
 }
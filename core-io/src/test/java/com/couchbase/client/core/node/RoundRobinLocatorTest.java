@@ -70,6 +70,29 @@ class RoundRobinLocatorTest {
     verify(node2Mock, times(1)).send(request);
   }
 
+  @Test
+  void selectLessLoadedNodeIfLatencyAware() {
+    Locator locator = new RoundRobinLocator(ServiceType.QUERY, 0, true);
+
+    QueryRequest request = mock(QueryRequest.class);
+    ClusterConfig configMock = mock(ClusterConfig.class);
+    when(configMock.hasClusterOrBucketConfig()).thenReturn(true);
+
+    Node node1Mock = mock(Node.class);
+    when(node1Mock.serviceEnabled(ServiceType.QUERY)).thenReturn(true);
+    when(node1Mock.loadScore(ServiceType.QUERY)).thenReturn(500_000_000L);
+    Node node2Mock = mock(Node.class);
+    when(node2Mock.serviceEnabled(ServiceType.QUERY)).thenReturn(true);
+    when(node2Mock.loadScore(ServiceType.QUERY)).thenReturn(1_000_000L);
+    List<Node> nodes = new ArrayList<>(Arrays.asList(node1Mock, node2Mock));
+
+    for (int i = 0; i < 10; i++) {
+      locator.dispatch(request, nodes, configMock, null);
+    }
+    verify(node1Mock, never()).send(request);
+    verify(node2Mock, times(10)).send(request);
+  }
+
   @Test
   void skipNodeWithoutServiceEnabled() {
     Locator locator = new RoundRobinLocator(ServiceType.QUERY, 0);
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.projections;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies the functionality of the {@link ProjectionWriter}.
+ */
+class ProjectionWriterTest {
+
+  @Test
+  void writesEmptyObjectWithoutPaths() {
+    assertEquals("{}", write(new ProjectionWriter()));
+  }
+
+  @Test
+  void copiesValuesVerbatim() {
+    ProjectionWriter writer = new ProjectionWriter()
+      .add("name", bytes("\"Jo \\\"Q\\\"\""))
+      .add("age", bytes("-42"))
+      .add("ratio", bytes("1.5e3"))
+      .add("tags", bytes("[\"a\", 1]"))
+      .add("missing", new byte[0]);
+
+    assertEquals(
+      "{\"name\":\"Jo \\\"Q\\\"\",\"age\":-42,\"ratio\":1.5e3,\"tags\":[\"a\", 1],\"missing\":null}",
+      write(writer)
+    );
+  }
+
+  @Test
+  void mergesNestedObjects() {
+    ProjectionWriter writer = new ProjectionWriter()
+      .add("l1.l2.k1", bytes("\"v1\""))
+      .add("l1.k2", bytes("\"v2\""))
+      .add("k3", bytes("true"))
+      .add("l1.l2.k4", bytes("4"));
+
+    assertEquals("{\"l1\":{\"l2\":{\"k1\":\"v1\",\"k4\":4},\"k2\":\"v2\"},\"k3\":true}", write(writer));
+  }
+
+  @Test
+  void mergesIntoObjectProjectedBefore() {
+    ProjectionWriter writer = new ProjectionWriter()
+      .add("address", bytes("{\"street\": \"Main\", \"geo\": {\"lat\": 1}, \"city\": \"Old\"}"))
+      .add("address.city", bytes("\"Springfield\""))
+      .add("address.geo.lon", bytes("2"));
+
+    assertEquals(
+      "{\"address\":{\"street\":\"Main\",\"geo\":{\"lat\":1,\"lon\":2},\"city\":\"Springfield\"}}",
+      write(writer)
+    );
+  }
+
+  @Test
+  void replacesObjectProjectedAfter() {
+    ProjectionWriter writer = new ProjectionWriter()
+      .add("address.city", bytes("\"Springfield\""))
+      .add("address", bytes("{\"street\":\"Main\"}"));
+
+    assertEquals("{\"address\":{\"street\":\"Main\"}}", write(writer));
+  }
+
+  @Test
+  void writesArrays() {
+    ProjectionWriter writer = new ProjectionWriter()
+      .add("animals[0]", bytes("\"cat\""))
+      .add("owner.pets[1].name", bytes("\"rex\""));
+
+    assertEquals("{\"animals\":[\"cat\"],\"owner\":{\"pets\":[{\"name\":\"rex\"}]}}", write(writer));
+  }
+
+  @Test
+  void escapesFieldNames() {
+    ProjectionWriter writer = new ProjectionWriter().add("say \"hi\"", bytes("1"));
+    assertEquals("{\"say \\\"hi\\\"\":1}", write(writer));
+  }
+
+  private static byte[] bytes(final String value) {
+    return value.getBytes(UTF_8);
+  }
+
+  private static String write(final ProjectionWriter writer) {
+    return new String(writer.toBytes(), UTF_8);
+  }
+
+}
@@ -22,12 +22,15 @@ import com.couchbase.client.core.Timer;
 import com.couchbase.client.core.cnc.Event;
 import com.couchbase.client.core.cnc.events.request.RequestNotRetriedEvent;
 import com.couchbase.client.core.cnc.events.request.RequestRetryScheduledEvent;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.cnc.metrics.RequestCounters;
 import com.couchbase.client.core.env.Authenticator;
 import com.couchbase.client.core.env.CoreEnvironment;
 import com.couchbase.client.core.msg.CancellationReason;
 import com.couchbase.client.core.msg.Request;
 import com.couchbase.client.core.msg.RequestContext;
 import com.couchbase.client.core.cnc.SimpleEventBus;
+import com.couchbase.client.core.service.ServiceType;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -73,12 +76,15 @@ class RetryOrchestratorTest {
     Request<?> request = mock(Request.class);
     when(request.completed()).thenReturn(false);
     when(request.retryStrategy()).thenReturn(retryStrategy);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
     RequestContext requestContext = mock(RequestContext.class);
     when(request.context()).thenReturn(requestContext);
 
     CoreEnvironment env = mock(CoreEnvironment.class);
     SimpleEventBus eventBus = new SimpleEventBus(true);
     when(env.eventBus()).thenReturn(eventBus);
+    when(env.meter()).thenReturn(NoopMeter.INSTANCE);
+    when(env.requestCounters()).thenReturn(new RequestCounters(NoopMeter.INSTANCE));
     CoreContext context = new CoreContext(mock(Core.class), 1, env, mock(Authenticator.class));
     RetryOrchestrator.maybeRetry(context, request, RetryReason.UNKNOWN);
 
@@ -105,6 +111,7 @@ class RetryOrchestratorTest {
     when(request.completed()).thenReturn(false);
     when(request.context()).thenReturn(requestContext);
     when(request.retryStrategy()).thenReturn(retryStrategy);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
     when(request.absoluteTimeout()).thenReturn(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500));
 
     Core core = mock(Core.class);
@@ -112,6 +119,8 @@ class RetryOrchestratorTest {
     SimpleEventBus eventBus = new SimpleEventBus(true);
     when(env.timer()).thenReturn(timer);
     when(env.eventBus()).thenReturn(eventBus);
+    when(env.meter()).thenReturn(NoopMeter.INSTANCE);
+    when(env.requestCounters()).thenReturn(new RequestCounters(NoopMeter.INSTANCE));
 
     CoreContext ctx = new CoreContext(core, 1, env, mock(Authenticator.class));
 
@@ -152,6 +161,7 @@ class RetryOrchestratorTest {
     when(request.completed()).thenReturn(false);
     when(request.context()).thenReturn(requestContext);
     when(request.retryStrategy()).thenReturn(retryStrategy);
+    when(request.serviceType()).thenReturn(ServiceType.KV);
     when(request.absoluteTimeout()).thenAnswer(invocationOnMock -> System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10));
 
     Core core = mock(Core.class);
@@ -159,6 +169,8 @@ class RetryOrchestratorTest {
     SimpleEventBus eventBus = new SimpleEventBus(true);
     when(env.timer()).thenReturn(timer);
     when(env.eventBus()).thenReturn(eventBus);
+    when(env.meter()).thenReturn(NoopMeter.INSTANCE);
+    when(env.requestCounters()).thenReturn(new RequestCounters(NoopMeter.INSTANCE));
 
     CoreContext ctx = new CoreContext(core, 1, env, mock(Authenticator.class));
 
@@ -34,6 +34,7 @@ import com.couchbase.client.core.cnc.SimpleEventBus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.DirectProcessor;
 
 import java.time.Duration;
@@ -43,6 +44,7 @@ import java.util.function.Supplier;
 
 import static com.couchbase.client.test.Util.waitUntilCondition;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -570,6 +572,49 @@ class PooledServiceTest {
     waitUntilCondition(() -> service.state() == ServiceState.IDLE);
   }
 
+  @Test
+  void queuesRequestsUntilEndpointIsFree() {
+    Endpoint mock1 = mock(Endpoint.class);
+    when(mock1.state()).thenReturn(EndpointState.CONNECTED);
+    when(mock1.outstandingRequests()).thenReturn(1L);
+    when(mock1.states()).thenReturn(DirectProcessor.create());
+
+    MockedService service = new MockedService(
+      new MockedServiceConfig(1, 1, Duration.ofMillis(500), false, 1),
+      () -> mock1,
+      new FirstEndpointSelectionStrategy()
+    );
+    service.connect();
+
+    ArgumentCaptor<Runnable> onFreeToWrite = ArgumentCaptor.forClass(Runnable.class);
+    verify(mock1, times(1)).onFreeToWrite(onFreeToWrite.capture());
+
+    NoopRequest request1 = new NoopRequest(
+      Duration.ofSeconds(1),
+      serviceContext,
+      BestEffortRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("bucket")
+    );
+    NoopRequest request2 = new NoopRequest(
+      Duration.ofSeconds(1),
+      serviceContext,
+      BestEffortRetryStrategy.INSTANCE,
+      CollectionIdentifier.fromDefault("bucket")
+    );
+    service.send(request1);
+    service.send(request2);
+
+    assertEquals(0, request1.context().retryAttempts());
+    assertTrue(request2.context().retryAttempts() > 0);
+    verify(mock1, never()).send(any());
+
+    when(mock1.outstandingRequests()).thenReturn(0L);
+    onFreeToWrite.getValue().run();
+
+    verify(mock1, times(1)).send(request1);
+    verify(mock1, never()).send(request2);
+  }
+
   class MockedService extends PooledService {
 
     List<Endpoint> trackedEndpoints = new ArrayList<>();
@@ -621,16 +666,22 @@ class PooledServiceTest {
     private final int max;
     private final Duration idle;
     private final boolean pipelined;
+    private final int maxQueued;
 
     MockedServiceConfig(int min, int max) {
       this(min, max, Duration.ofSeconds(30), false);
     }
 
     MockedServiceConfig(int min, int max, Duration idle, boolean pipelined) {
+      this(min, max, idle, pipelined, 0);
+    }
+
+    MockedServiceConfig(int min, int max, Duration idle, boolean pipelined, int maxQueued) {
       this.max = max;
       this.min = min;
       this.idle = idle;
       this.pipelined = pipelined;
+      this.maxQueued = maxQueued;
     }
 
     @Override
@@ -653,6 +704,11 @@ class PooledServiceTest {
       return pipelined;
     }
 
+    @Override
+    public int maxQueuedRequests() {
+      return maxQueued;
+    }
+
   }
 
   static class FirstEndpointSelectionStrategy implements EndpointSelectionStrategy {
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.service.strategy;
+
+import com.couchbase.client.core.endpoint.Endpoint;
+import com.couchbase.client.core.endpoint.EndpointState;
+import com.couchbase.client.core.msg.Request;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+class LatencyAwareSelectionStrategyTest {
+
+  private final LatencyAwareSelectionStrategy strategy = new LatencyAwareSelectionStrategy();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void prefersEndpointWithLowerLatency() {
+    Endpoint fast = endpoint(EndpointState.CONNECTED, true, 1_000_000);
+    Endpoint slow = endpoint(EndpointState.CONNECTED, true, 500_000_000);
+    List<Endpoint> endpoints = Arrays.asList(fast, slow);
+    Request request = Mockito.mock(Request.class);
+
+    // With two endpoints both are always the candidates, so the faster one must always win.
+    for (int i = 0; i < 100; i++) {
+      assertEquals(fast, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void doesNotPreferUnmeasuredEndpoint() {
+    Endpoint measured = endpoint(EndpointState.CONNECTED, true, 1_000_000);
+    Endpoint unmeasured = endpoint(EndpointState.CONNECTED, true, 0);
+    when(unmeasured.outstandingRequests()).thenReturn(5L);
+    List<Endpoint> endpoints = Arrays.asList(measured, unmeasured);
+    Request request = Mockito.mock(Request.class);
+
+    // The unmeasured endpoint is assumed to be as fast as its peer, so its outstanding requests decide.
+    for (int i = 0; i < 100; i++) {
+      assertEquals(measured, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void skipsEndpointsWhichCannotBeUsed() {
+    Endpoint busy = endpoint(EndpointState.CONNECTED, false, 1);
+    Endpoint disconnected = endpoint(EndpointState.DISCONNECTED, true, 1);
+    Endpoint usable = endpoint(EndpointState.CONNECTED, true, 500_000_000);
+    List<Endpoint> endpoints = Arrays.asList(busy, disconnected, usable);
+    Request request = Mockito.mock(Request.class);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(usable, strategy.select(request, endpoints));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void returnsNullIfNoEndpointUsable() {
+    Request request = Mockito.mock(Request.class);
+    assertNull(strategy.select(request, Collections.emptyList()));
+    assertNull(strategy.select(request, Collections.singletonList(endpoint(EndpointState.CONNECTING, true, 0))));
+  }
+
+  @Test
+  void scoresOutstandingRequests() {
+    assertEquals(1, LatencyAwareSelectionStrategy.score(0, 0));
+    assertEquals(300, LatencyAwareSelectionStrategy.score(100, 2));
+  }
+
+  private static Endpoint endpoint(final EndpointState state, final boolean freeToWrite, final long latency) {
+    Endpoint endpoint = Mockito.mock(Endpoint.class);
+    when(endpoint.state()).thenReturn(state);
+    when(endpoint.freeToWrite()).thenReturn(freeToWrite);
+    when(endpoint.responseLatencyEwma()).thenReturn(latency);
+    return endpoint;
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.core.util;
+
+import com.couchbase.client.core.cnc.Counter;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the functionality of the {@link ConcurrentLRUCache}.
+ */
+class ConcurrentLRUCacheTest {
+
+  @Test
+  void storesAndLoadsValues() {
+    ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(10);
+    cache.put("foo", "bar");
+
+    assertEquals("bar", cache.get("foo"));
+    assertNull(cache.get("baz"));
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+
+    assertEquals("bar", cache.remove("foo"));
+    assertNull(cache.get("foo"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(16);
+    for (int i = 0; i < 16; i++) {
+      cache.put(i, i);
+    }
+
+    // Touch the first half so that the second half becomes the eviction candidate.
+    for (int i = 0; i < 8; i++) {
+      cache.get(i);
+    }
+
+    // Pushing over the threshold (capacity + 1 for this size) triggers the eviction.
+    cache.put(100, 100);
+    cache.put(101, 101);
+
+    assertEquals(16, cache.size());
+    assertEquals(2, cache.evictions());
+    for (int i = 0; i < 8; i++) {
+      assertEquals(i, cache.get(i));
+    }
+    assertEquals(100, cache.get(100));
+    assertEquals(101, cache.get(101));
+    assertNull(cache.get(8));
+    assertNull(cache.get(9));
+  }
+
+  @Test
+  void neverGrowsUnbounded() {
+    ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(100);
+    for (int i = 0; i < 10_000; i++) {
+      cache.put(i, i);
+    }
+    assertTrue(cache.size() <= 106);
+    assertEquals(10_000 - cache.size(), cache.evictions());
+  }
+
+  @Test
+  void publishesMetricsThroughMeter() {
+    Map<String, String> tags = Collections.singletonMap(Meter.TAG_CACHE, "test");
+    Meter meter = mock(Meter.class);
+    Counter hits = mock(Counter.class);
+    Counter misses = mock(Counter.class);
+    Counter evictions = mock(Counter.class);
+    when(meter.counter(Meter.METRIC_CACHE_HITS, tags)).thenReturn(hits);
+    when(meter.counter(Meter.METRIC_CACHE_MISSES, tags)).thenReturn(misses);
+    when(meter.counter(Meter.METRIC_CACHE_EVICTIONS, tags)).thenReturn(evictions);
+
+    ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>(1, meter, tags);
+    cache.put(1, 1);
+    cache.get(1);
+    cache.get(2);
+    cache.put(2, 2);
+    cache.put(3, 3);
+
+    verify(hits, times(1)).incrementBy(1);
+    verify(misses, times(1)).incrementBy(1);
+    verify(evictions, times((int) cache.evictions())).incrementBy(1);
+    assertTrue(cache.evictions() > 0);
+  }
+
+  @Test
+  void rejectsInvalidCapacity() {
+    assertThrows(InvalidArgumentException.class, () -> new ConcurrentLRUCache<>(0));
+  }
+
+}
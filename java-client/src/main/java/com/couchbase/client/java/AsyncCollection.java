@@ -25,9 +25,7 @@ import com.couchbase.client.core.config.BucketConfig;
 import com.couchbase.client.core.config.CouchbaseBucketConfig;
 import com.couchbase.client.core.env.TimeoutConfig;
 import com.couchbase.client.core.error.*;
-import com.couchbase.client.core.error.context.AggregateErrorContext;
 import com.couchbase.client.core.error.context.CancellationErrorContext;
-import com.couchbase.client.core.error.context.ErrorContext;
 import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
@@ -36,6 +34,7 @@ import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
 import com.couchbase.client.core.msg.kv.GetMetaRequest;
 import com.couchbase.client.core.msg.kv.GetRequest;
 import com.couchbase.client.core.msg.kv.InsertRequest;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
 import com.couchbase.client.core.msg.kv.RemoveRequest;
 import com.couchbase.client.core.msg.kv.ReplaceRequest;
 import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
@@ -50,7 +49,14 @@ import com.couchbase.client.core.retry.RetryStrategy;
 import com.couchbase.client.core.util.BucketConfigUtil;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.codec.TranscoderAdapter;
+import com.couchbase.client.java.datastructures.AsyncCouchbaseArrayList;
+import com.couchbase.client.java.datastructures.AsyncCouchbaseArraySet;
+import com.couchbase.client.java.datastructures.AsyncCouchbaseMap;
+import com.couchbase.client.java.datastructures.AsyncCouchbaseQueue;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import com.couchbase.client.java.kv.ArraySetOptions;
 import com.couchbase.client.java.kv.CommonDurabilityOptions;
 import com.couchbase.client.java.kv.ExistsAccessor;
 import com.couchbase.client.java.kv.ExistsOptions;
@@ -59,6 +65,7 @@ import com.couchbase.client.java.kv.GetAccessor;
 import com.couchbase.client.java.kv.GetAllReplicasOptions;
 import com.couchbase.client.java.kv.GetAndLockOptions;
 import com.couchbase.client.java.kv.GetAndTouchOptions;
+import com.couchbase.client.java.kv.GetAnyReplicaAccessor;
 import com.couchbase.client.java.kv.GetAnyReplicaOptions;
 import com.couchbase.client.java.kv.GetOptions;
 import com.couchbase.client.java.kv.GetReplicaResult;
@@ -69,16 +76,20 @@ import com.couchbase.client.java.kv.LookupInAccessor;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MapOptions;
 import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
 import com.couchbase.client.java.kv.MutationResult;
 import com.couchbase.client.java.kv.PersistTo;
+import com.couchbase.client.java.kv.ProjectionStrategy;
+import com.couchbase.client.java.kv.QueueOptions;
 import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceAccessor;
 import com.couchbase.client.java.kv.ReplaceOptions;
+import com.couchbase.client.java.kv.ReplicaLatencyTracker;
 import com.couchbase.client.java.kv.StoreSemantics;
 import com.couchbase.client.java.kv.TouchAccessor;
 import com.couchbase.client.java.kv.TouchOptions;
@@ -89,14 +100,13 @@ import com.couchbase.client.java.kv.UpsertOptions;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -116,7 +126,12 @@ import static com.couchbase.client.java.ReactiveCollection.DEFAULT_REPLACE_OPTIO
 import static com.couchbase.client.java.ReactiveCollection.DEFAULT_TOUCH_OPTIONS;
 import static com.couchbase.client.java.ReactiveCollection.DEFAULT_UNLOCK_OPTIONS;
 import static com.couchbase.client.java.ReactiveCollection.DEFAULT_UPSERT_OPTIONS;
+import static com.couchbase.client.java.kv.ArrayListOptions.arrayListOptions;
+import static com.couchbase.client.java.kv.ArraySetOptions.arraySetOptions;
 import static com.couchbase.client.java.kv.GetAccessor.EXPIRATION_MACRO;
+import static com.couchbase.client.java.kv.MapOptions.mapOptions;
+import static com.couchbase.client.java.kv.QueueOptions.queueOptions;
+import static java.util.Collections.emptyList;
 
 /**
  * The {@link AsyncCollection} provides basic asynchronous access to all collection APIs.
@@ -174,6 +189,11 @@ public class AsyncCollection {
    */
   private final CollectionIdentifier collectionIdentifier;
 
+  /**
+   * Tracks the latencies of the active reads for adaptive hedging of replica reads.
+   */
+  private final ReplicaLatencyTracker replicaLatencyTracker;
+
   /**
    * Creates a new {@link AsyncCollection}.
    *
@@ -192,6 +212,7 @@ public class AsyncCollection {
     this.bucket = bucket;
     this.collectionIdentifier = new CollectionIdentifier(bucket, Optional.of(scopeName), Optional.of(name));
     this.asyncBinaryCollection = new AsyncBinaryCollection(core, environment, collectionIdentifier);
+    this.replicaLatencyTracker = new ReplicaLatencyTracker();
   }
 
   /**
@@ -265,11 +286,123 @@ public class AsyncCollection {
     final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
     if (opts.projections().isEmpty() && !opts.withExpiry()) {
       return GetAccessor.get(core, fullGetRequest(id, opts), transcoder);
+    }
+
+    final List<KeyValueRequest<?>> requests = new ArrayList<>(1);
+    final CompletableFuture<GetResult> result = subdocGet(id, opts, transcoder, requests);
+    if (requests.size() == 1) {
+      core.send(requests.get(0));
     } else {
-      return GetAccessor.subdocGet(core, subdocGetRequest(id, opts), transcoder);
+      core.sendBatch(requests);
+    }
+    return result;
+  }
+
+  /**
+   * Fetches multiple full documents (or projections of them) from a collection with default options.
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @return a future for each distinct id, completing once loaded or failed.
+   */
+  public Map<String, CompletableFuture<GetResult>> getMulti(final Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches multiple full documents (or projections of them) from a collection with custom options.
+   *
+   * <p>All requests are dispatched as one batch: they share a single timeout registration and are written grouped
+   * by the node they are routed to. Each document still completes (or fails) individually, so that a missing
+   * document does not affect the results of the others.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @param options custom options to change the default behavior, applied to all ids.
+   * @return a future for each distinct id (in iteration order of the ids), completing once loaded or failed.
+   */
+  public Map<String, CompletableFuture<GetResult>> getMulti(final Collection<String> ids, final GetOptions options) {
+    notNull(ids, "Ids", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    notNull(options, "GetOptions", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    final GetOptions.Built opts = options.build();
+
+    final Transcoder transcoder = opts.transcoder() == null ? environment.transcoder() : opts.transcoder();
+    final boolean fullDoc = opts.projections().isEmpty() && !opts.withExpiry();
+    final Map<String, CompletableFuture<GetResult>> results = new LinkedHashMap<>();
+    final List<KeyValueRequest<?>> requests = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      if (results.containsKey(id)) {
+        continue;
+      }
+      if (fullDoc) {
+        GetRequest request = fullGetRequest(id, opts);
+        requests.add(request);
+        results.put(id, GetAccessor.getResult(request, transcoder));
+      } else {
+        results.put(id, subdocGet(id, opts, transcoder, requests));
+      }
+    }
+    core.sendBatch(requests);
+    return results;
+  }
+
+  /**
+   * Helper method to create the sub-document requests for a projected get (or one with expiry).
+   * <p>
+   * If more paths are projected than fit into a single lookup, the {@link ProjectionStrategy} picked for them
+   * decides if multiple lookups are created or if the full document is fetched and filtered.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts custom options to change the default behavior.
+   * @param transcoder the transcoder used to decode the result.
+   * @param requests the list to add the created requests to, which the caller needs to dispatch.
+   * @return a {@link CompletableFuture} completing once the dispatched requests are loaded or failed.
+   */
+  private CompletableFuture<GetResult> subdocGet(final String id, final GetOptions.Built opts,
+                                                 final Transcoder transcoder,
+                                                 final List<KeyValueRequest<?>> requests) {
+    final List<String> projections = opts.projections();
+    final ProjectionStrategy strategy =
+      GetAccessor.projectionStrategy(projections, opts.withExpiry(), opts.documentSizeHint());
+
+    switch (strategy) {
+      case SPLIT_LOOKUPS: {
+        final List<List<String>> lookups = GetAccessor.splitProjections(projections, opts.withExpiry());
+        final List<SubdocGetRequest> lookupRequests = splitSubdocGetRequests(id, opts, lookups);
+        requests.addAll(lookupRequests);
+        return GetAccessor.splitSubdocGetResult(
+          core,
+          lookupRequests,
+          () -> splitSubdocGetRequests(id, opts, lookups),
+          () -> subdocGetRequest(id, opts, emptyList(), opts.withExpiry()),
+          projections,
+          transcoder
+        );
+      }
+      case FULL_DOCUMENT: {
+        final SubdocGetRequest request = subdocGetRequest(id, opts, emptyList(), opts.withExpiry());
+        requests.add(request);
+        return GetAccessor.filteredSubdocGetResult(request, projections, transcoder);
+      }
+      default: {
+        final SubdocGetRequest request = subdocGetRequest(id, opts);
+        requests.add(request);
+        return GetAccessor.subdocGetResult(request, transcoder);
+      }
     }
   }
 
+  /**
+   * Helper method to create one sub-document request per chunk of projected paths, the first one also fetching the
+   * expiry if needed.
+   */
+  private List<SubdocGetRequest> splitSubdocGetRequests(final String id, final GetOptions.Built opts,
+                                                        final List<List<String>> lookups) {
+    final List<SubdocGetRequest> lookupRequests = new ArrayList<>(lookups.size());
+    for (int i = 0; i < lookups.size(); i++) {
+      lookupRequests.add(subdocGetRequest(id, opts, lookups.get(i), i == 0 && opts.withExpiry()));
+    }
+    return lookupRequests;
+  }
+
   /**
    * Helper method to create a get request for a full doc fetch.
    *
@@ -298,16 +431,30 @@ public class AsyncCollection {
    */
   @Stability.Internal
   SubdocGetRequest subdocGetRequest(final String id, final GetOptions.Built opts) {
+    return subdocGetRequest(id, opts, opts.projections(), opts.withExpiry());
+  }
+
+  /**
+   * Helper method to create a get request for a subdoc fetch of the given paths.
+   *
+   * @param id the document id which is used to uniquely identify it.
+   * @param opts custom options to change the default behavior.
+   * @param projections the paths to look up, the full document is fetched if empty.
+   * @param withExpiry if the expiry should be fetched as well.
+   * @return the subdoc get request.
+   */
+  private SubdocGetRequest subdocGetRequest(final String id, final GetOptions.Built opts,
+                                            final List<String> projections, final boolean withExpiry) {
     try {
       notNullOrEmpty(id, "Id");
 
-      if (opts.withExpiry()) {
-        if (opts.projections().size() > 15) {
+      if (withExpiry) {
+        if (projections.size() > GetAccessor.MAX_LOOKUP_PATHS - 1) {
           throw InvalidArgumentException.fromMessage("Only a maximum of 16 fields can be "
             + "projected per request due to a server limitation (includes the expiration macro as one field).");
         }
       } else {
-        if (opts.projections().size() > 16) {
+        if (projections.size() > GetAccessor.MAX_LOOKUP_PATHS) {
           throw InvalidArgumentException.fromMessage("Only a maximum of 16 fields can be "
             + "projected per request due to a server limitation.");
         }
@@ -323,15 +470,9 @@ public class AsyncCollection {
     Duration timeout = opts.timeout().orElse(environment.timeoutConfig().kvTimeout());
     RetryStrategy retryStrategy = opts.retryStrategy().orElse(environment.retryStrategy());
 
-    List<SubdocGetRequest.Command> commands = new ArrayList<>(16);
+    List<SubdocGetRequest.Command> commands = new ArrayList<>(GetAccessor.MAX_LOOKUP_PATHS);
 
-    if (!opts.projections().isEmpty()) {
-      if (opts.projections().size() > 16) {
-        throw new UnsupportedOperationException("Only a maximum of 16 fields can be "
-          + "projected per request.");
-      }
-
-      List<String> projections = opts.projections();
+    if (!projections.isEmpty()) {
       for (int i = 0; i < projections.size(); i ++) {
         commands.add(new SubdocGetRequest.Command(SubdocCommandType.GET, projections.get(i), false, commands.size()));
       }
@@ -344,7 +485,7 @@ public class AsyncCollection {
       ));
     }
 
-    if (opts.withExpiry()) {
+    if (withExpiry) {
       // xattrs must go first
       commands.add(0, new SubdocGetRequest.Command(
               SubdocCommandType.GET,
@@ -518,6 +659,9 @@ public class AsyncCollection {
 
   /**
    * Reads all available replicas, and returns the first found.
+   * <p>
+   * Once a result is found the reads which are still outstanding are cancelled. If the options ask for a hedged
+   * read, the replicas are only read if the active did not respond within the hedge delay.
    *
    * @param id the document id.
    * @param options the custom options.
@@ -541,35 +685,32 @@ public class AsyncCollection {
     opts.parentSpan(parent);
 
 
-    CompletableFuture<List<CompletableFuture<GetReplicaResult>>> listOfFutures = getAllReplicas(id, opts);
-
-    // Aggregating the futures here will discard the individual errors, which we don't need
-    CompletableFuture<GetReplicaResult> anyReplicaFuture = new CompletableFuture<>();
-    listOfFutures.whenComplete((futures, throwable) -> {
-      if (throwable != null) {
-        anyReplicaFuture.completeExceptionally(throwable);
-      }
+    GetAllReplicasOptions.Built allOpts = opts.build();
+    Transcoder transcoder = allOpts.transcoder() == null ? environment.transcoder() : allOpts.transcoder();
+    Duration timeout = allOpts.timeout().orElse(environment.timeoutConfig().kvTimeout());
+    Duration hedgeDelay = hedgeDelay(built);
 
-      final AtomicBoolean successCompleted = new AtomicBoolean(false);
-      final AtomicInteger totalCompleted = new AtomicInteger(0);
-      final List<ErrorContext> nestedContexts = Collections.synchronizedList(new ArrayList<>());
-      futures.forEach(individual -> individual.whenComplete((result, error) -> {
-        int completed = totalCompleted.incrementAndGet();
-        if (error != null) {
-          if (error instanceof CompletionException && error.getCause() instanceof CouchbaseException) {
-            nestedContexts.add(((CouchbaseException) error.getCause()).context());
-          }
-        }
-        if (result != null && successCompleted.compareAndSet(false, true)) {
-          anyReplicaFuture.complete(result);
-        }
-        if (!successCompleted.get() && completed == futures.size()) {
-          anyReplicaFuture.completeExceptionally(new DocumentUnretrievableException(new AggregateErrorContext(nestedContexts)));
-        }
-      }));
-    });
+    return getAllReplicasRequests(id, allOpts, timeout, parent)
+      .thenCompose(requests -> GetAnyReplicaAccessor.getAnyReplica(
+        core, requests.collect(Collectors.toList()), transcoder, hedgeDelay, replicaLatencyTracker
+      ))
+      .whenComplete((getReplicaResult, throwable) -> parent.finish());
+  }
 
-    return anyReplicaFuture.whenComplete((getReplicaResult, throwable) -> parent.finish());
+  /**
+   * Determines the delay after which the replicas should be read for a get any replica operation.
+   *
+   * @param opts the built options of the operation.
+   * @return the delay, or null if the active and the replicas should be read at the same time.
+   */
+  private Duration hedgeDelay(final GetAnyReplicaOptions.Built opts) {
+    if (opts.adaptiveHedgeDelay()) {
+      Optional<Duration> p95 = replicaLatencyTracker.p95();
+      if (p95.isPresent()) {
+        return p95.get();
+      }
+    }
+    return opts.hedgeDelay().orElse(null);
   }
 
   /**
@@ -692,6 +833,46 @@ public class AsyncCollection {
     return RemoveAccessor.remove(core, removeRequest(id, opts), id, opts.persistTo(), opts.replicateTo());
   }
 
+  /**
+   * Removes multiple Documents from a collection with default options.
+   *
+   * @param ids the ids of the documents to remove.
+   * @return a future for each distinct id, completing once removed or failed.
+   */
+  public Map<String, CompletableFuture<MutationResult>> removeMulti(final Collection<String> ids) {
+    return removeMulti(ids, DEFAULT_REMOVE_OPTIONS);
+  }
+
+  /**
+   * Removes multiple Documents from a collection with custom options.
+   *
+   * <p>All requests are dispatched as one batch, sharing a single timeout registration. Each document still
+   * completes (or fails) individually.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @param options custom options to change the default behavior, applied to all ids.
+   * @return a future for each distinct id (in iteration order of the ids), completing once removed or failed.
+   */
+  public Map<String, CompletableFuture<MutationResult>> removeMulti(final Collection<String> ids,
+                                                                    final RemoveOptions options) {
+    notNull(ids, "Ids", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    notNull(options, "RemoveOptions", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    RemoveOptions.Built opts = options.build();
+
+    final Map<String, CompletableFuture<MutationResult>> results = new LinkedHashMap<>();
+    final List<RemoveRequest> requests = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      if (results.containsKey(id)) {
+        continue;
+      }
+      RemoveRequest request = removeRequest(id, opts);
+      requests.add(request);
+      results.put(id, RemoveAccessor.removeResult(core, request, id, opts.persistTo(), opts.replicateTo()));
+    }
+    core.sendBatch(requests);
+    return results;
+  }
+
   /**
    * Helper method to create the remove request.
    *
@@ -758,10 +939,10 @@ public class AsyncCollection {
       .internalSpan(InsertRequest.OPERATION_NAME, opts.parentSpan().orElse(null));
 
     long start = System.nanoTime();
-    Transcoder.EncodedValue encoded;
+    TranscoderAdapter.EncodedBuffer encoded;
     try {
       span.startPayloadEncoding();
-      encoded = transcoder.encode(content);
+      encoded = TranscoderAdapter.encode(transcoder, content);
     } finally {
       span.stopPayloadEncoding();
     }
@@ -801,6 +982,44 @@ public class AsyncCollection {
     return UpsertAccessor.upsert(core, upsertRequest(id, content, opts), id, opts.persistTo(), opts.replicateTo());
   }
 
+  /**
+   * Upserts multiple full documents which might or might not exist yet with default options.
+   *
+   * @param documents the document contents to upsert, keyed by their document id.
+   * @return a future for each document id, completing once upserted or failed.
+   */
+  public Map<String, CompletableFuture<MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts multiple full documents which might or might not exist yet with custom options.
+   *
+   * <p>All requests are dispatched as one batch: they share a single timeout registration and are written grouped
+   * by the node they are routed to. Each document still completes (or fails) individually.</p>
+   *
+   * @param documents the document contents to upsert, keyed by their document id.
+   * @param options custom options to customize the upsert behavior, applied to all documents.
+   * @return a future for each document id (in iteration order of the documents), completing once upserted or failed.
+   */
+  public Map<String, CompletableFuture<MutationResult>> upsertMulti(final Map<String, ?> documents,
+                                                                    final UpsertOptions options) {
+    notNull(documents, "Documents", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    notNull(options, "UpsertOptions", () -> ReducedKeyValueErrorContext.create(null, collectionIdentifier));
+    UpsertOptions.Built opts = options.build();
+
+    final Map<String, CompletableFuture<MutationResult>> results = new LinkedHashMap<>();
+    final List<UpsertRequest> requests = new ArrayList<>(documents.size());
+    for (Map.Entry<String, ?> document : documents.entrySet()) {
+      String id = document.getKey();
+      UpsertRequest request = upsertRequest(id, document.getValue(), opts);
+      requests.add(request);
+      results.put(id, UpsertAccessor.upsertResult(core, request, id, opts.persistTo(), opts.replicateTo()));
+    }
+    core.sendBatch(requests);
+    return results;
+  }
+
   /**
    * Helper method to generate the upsert request.
    *
@@ -822,10 +1041,10 @@ public class AsyncCollection {
       .internalSpan(UpsertRequest.OPERATION_NAME, opts.parentSpan().orElse(null));
 
     long start = System.nanoTime();
-    Transcoder.EncodedValue encoded;
+    TranscoderAdapter.EncodedBuffer encoded;
     try {
       span.startPayloadEncoding();
-      encoded = transcoder.encode(content);
+      encoded = TranscoderAdapter.encode(transcoder, content);
     } finally {
       span.stopPayloadEncoding();
     }
@@ -886,10 +1105,10 @@ public class AsyncCollection {
       .internalSpan(ReplaceRequest.OPERATION_NAME, opts.parentSpan().orElse(null));
 
     long start = System.nanoTime();
-    Transcoder.EncodedValue encoded;
+    TranscoderAdapter.EncodedBuffer encoded;
     try {
       span.startPayloadEncoding();
-      encoded = transcoder.encode(content);
+      encoded = TranscoderAdapter.encode(transcoder, content);
     } finally {
       span.stopPayloadEncoding();
     }
@@ -1169,6 +1388,114 @@ public class AsyncCollection {
     });
   }
 
+  /**
+   * Returns a {@link AsyncCouchbaseArrayList<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the list's document id.
+   * @param entityType the class of the values contained in the list
+   * @return a {@link AsyncCouchbaseArrayList<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseArrayList<T> list(final String id, final Class<T> entityType) {
+    return list(id, entityType, arrayListOptions());
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseArrayList<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the list's document id.
+   * @param entityType the class of the values contained in the list
+   * @param options a {@link ArrayListOptions} to use for all operations on this instance of the list.
+   * @return a {@link AsyncCouchbaseArrayList<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseArrayList<T> list(final String id, final Class<T> entityType, final ArrayListOptions options) {
+    return new AsyncCouchbaseArrayList<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseArraySet<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the set's document id.
+   * @param entityType the class of the values contained in the set
+   * @return a {@link AsyncCouchbaseArraySet<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseArraySet<T> set(final String id, final Class<T> entityType) {
+    return set(id, entityType, arraySetOptions());
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseArraySet<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the set's document id.
+   * @param entityType the class of the values contained in the set
+   * @param options a {@link ArraySetOptions} to use for all operations on this instance of the set.
+   * @return a {@link AsyncCouchbaseArraySet<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseArraySet<T> set(final String id, final Class<T> entityType, final ArraySetOptions options) {
+    return new AsyncCouchbaseArraySet<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseMap<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the map's document id.
+   * @param entityType the class of the values contained the map, the keys are {@link String}s.
+   * @return a {@link AsyncCouchbaseMap<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseMap<T> map(final String id, final Class<T> entityType) {
+    return map(id, entityType, mapOptions());
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseMap<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the map's document id.
+   * @param entityType the class of the values contained the map, the keys are {@link String}s.
+   * @param options a {@link MapOptions} to use for all operations on this instance of the map.
+   * @return a {@link AsyncCouchbaseMap<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseMap<T> map(final String id, final Class<T> entityType, final MapOptions options) {
+    return new AsyncCouchbaseMap<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseQueue<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the queue's document id.
+   * @param entityType the class of the values contained in the queue.
+   * @return a {@link AsyncCouchbaseQueue<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseQueue<T> queue(final String id, final Class<T> entityType) {
+    return queue(id, entityType, queueOptions());
+  }
+
+  /**
+   * Returns a {@link AsyncCouchbaseQueue<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the queue's document id.
+   * @param entityType the class of the values contained in the queue.
+   * @param options a {@link QueueOptions} to use for all operations on this instance of the queue.
+   * @return a {@link AsyncCouchbaseQueue<T>}.
+   */
+  @Stability.Volatile
+  public <T> AsyncCouchbaseQueue<T> queue(final String id, final Class<T> entityType, final QueueOptions options) {
+    return new AsyncCouchbaseQueue<>(id, this, entityType, options);
+  }
+
   /**
    * Helper method to decide if the user timeout, the kv timeout or the durable kv timeout should be used.
    *
@@ -22,6 +22,7 @@ import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.RequestSpan;
 import com.couchbase.client.core.cnc.events.request.IndividualReplicaGetFailedEvent;
+import com.couchbase.client.core.error.DocumentNotFoundException;
 import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
 import com.couchbase.client.core.msg.kv.GetAndLockRequest;
 import com.couchbase.client.core.msg.kv.GetAndTouchRequest;
@@ -38,7 +39,13 @@ import com.couchbase.client.core.msg.kv.UnlockRequest;
 import com.couchbase.client.core.msg.kv.UpsertRequest;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.codec.Transcoder;
+import com.couchbase.client.java.datastructures.ReactiveCouchbaseArrayList;
+import com.couchbase.client.java.datastructures.ReactiveCouchbaseArraySet;
+import com.couchbase.client.java.datastructures.ReactiveCouchbaseMap;
+import com.couchbase.client.java.datastructures.ReactiveCouchbaseQueue;
 import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import com.couchbase.client.java.kv.ArraySetOptions;
 import com.couchbase.client.java.kv.ExistsAccessor;
 import com.couchbase.client.java.kv.ExistsOptions;
 import com.couchbase.client.java.kv.ExistsResult;
@@ -56,11 +63,14 @@ import com.couchbase.client.java.kv.LookupInAccessor;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MapOptions;
 import com.couchbase.client.java.kv.MutateInAccessor;
 import com.couchbase.client.java.kv.MutateInOptions;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.ProjectionStrategy;
+import com.couchbase.client.java.kv.QueueOptions;
 import com.couchbase.client.java.kv.RemoveAccessor;
 import com.couchbase.client.java.kv.RemoveOptions;
 import com.couchbase.client.java.kv.ReplaceAccessor;
@@ -74,12 +84,19 @@ import com.couchbase.client.java.kv.UpsertAccessor;
 import com.couchbase.client.java.kv.UpsertOptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
+import static com.couchbase.client.java.kv.ArrayListOptions.arrayListOptions;
+import static com.couchbase.client.java.kv.ArraySetOptions.arraySetOptions;
 import static com.couchbase.client.java.kv.ExistsOptions.existsOptions;
 import static com.couchbase.client.java.kv.GetAllReplicasOptions.getAllReplicasOptions;
 import static com.couchbase.client.java.kv.GetAndLockOptions.getAndLockOptions;
@@ -88,7 +105,9 @@ import static com.couchbase.client.java.kv.GetAnyReplicaOptions.getAnyReplicaOpt
 import static com.couchbase.client.java.kv.GetOptions.getOptions;
 import static com.couchbase.client.java.kv.InsertOptions.insertOptions;
 import static com.couchbase.client.java.kv.LookupInOptions.lookupInOptions;
+import static com.couchbase.client.java.kv.MapOptions.mapOptions;
 import static com.couchbase.client.java.kv.MutateInOptions.mutateInOptions;
+import static com.couchbase.client.java.kv.QueueOptions.queueOptions;
 import static com.couchbase.client.java.kv.RemoveOptions.removeOptions;
 import static com.couchbase.client.java.kv.ReplaceOptions.replaceOptions;
 import static com.couchbase.client.java.kv.TouchOptions.touchOptions;
@@ -228,13 +247,46 @@ public class ReactiveCollection {
       if (opts.projections().isEmpty() && !opts.withExpiry()) {
         GetRequest request = asyncCollection.fullGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.get(core, request, transcoder), true);
-      } else {
+      } else if (GetAccessor.projectionStrategy(opts.projections(), opts.withExpiry(), opts.documentSizeHint())
+        == ProjectionStrategy.SINGLE_LOOKUP) {
         SubdocGetRequest request = asyncCollection.subdocGetRequest(id, opts);
         return Reactor.wrap(request, GetAccessor.subdocGet(core, request, transcoder), true);
+      } else {
+        // more than one request might be involved, so there is no single request to cancel
+        return Reactor.toMono(() -> asyncCollection.get(id, options));
       }
     });
   }
 
+  /**
+   * Fetches multiple Documents from a collection with default options.
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @return a {@link Flux} emitting the id and result of every document found.
+   */
+  public Flux<Tuple2<String, GetResult>> getMulti(final Collection<String> ids) {
+    return getMulti(ids, DEFAULT_GET_OPTIONS);
+  }
+
+  /**
+   * Fetches multiple Documents from a collection with custom options.
+   *
+   * <p>All requests are dispatched as one batch once subscribed. Results are emitted in the order they arrive,
+   * documents which do not exist are skipped. Any other failure terminates the flux.</p>
+   *
+   * @param ids the document ids which are used to uniquely identify them.
+   * @param options custom options to change the default behavior, applied to all ids.
+   * @return a {@link Flux} emitting the id and result of every document found.
+   */
+  public Flux<Tuple2<String, GetResult>> getMulti(final Collection<String> ids, final GetOptions options) {
+    return Flux
+      .defer(() -> Flux.fromIterable(asyncCollection.getMulti(ids, options).entrySet()))
+      .flatMap(entry -> Reactor
+        .toMono(entry::getValue)
+        .map(result -> Tuples.of(entry.getKey(), result))
+        .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty()), Integer.MAX_VALUE);
+  }
+
   /**
    * Fetches a full document and write-locks it for the given duration with default options.
    *
@@ -358,7 +410,8 @@ public class ReactiveCollection {
     /**
      * Reads all available replicas, and returns the first found.
      * <p>
-     * Raises NoSuchElementException on the mono if no replica was available.
+     * Raises NoSuchElementException on the mono if no replica was available. If the read is hedged through
+     * {@link GetAnyReplicaOptions#hedgeDelay(Duration)}, a DocumentUnretrievableException is raised instead.
      *
      * @param id the document id.
      * @param options the custom options.
@@ -366,6 +419,13 @@ public class ReactiveCollection {
      */
   public Mono<GetReplicaResult> getAnyReplica(final String id, final GetAnyReplicaOptions options) {
     GetAnyReplicaOptions.Built built = options.build();
+    if (built.hedged()) {
+      // Hedged reads are driven by the async implementation, cancelling the future cancels all outstanding reads.
+      return Mono.defer(() -> {
+        CompletableFuture<GetReplicaResult> result = asyncCollection.getAnyReplica(id, options);
+        return Reactor.toMono(() -> result).doOnCancel(() -> result.cancel(false));
+      });
+    }
     GetAllReplicasOptions opts = GetAllReplicasOptions.getAllReplicasOptions().clientContext(built.clientContext());
     built.timeout().ifPresent(opts::timeout);
     built.retryStrategy().ifPresent(opts::retryStrategy);
@@ -435,6 +495,35 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Removes multiple Documents from a collection with default options.
+   *
+   * @param ids the ids of the documents to remove.
+   * @return a {@link Flux} emitting the id and result of every removed document.
+   */
+  public Flux<Tuple2<String, MutationResult>> removeMulti(final Collection<String> ids) {
+    return removeMulti(ids, DEFAULT_REMOVE_OPTIONS);
+  }
+
+  /**
+   * Removes multiple Documents from a collection with custom options.
+   *
+   * <p>All requests are dispatched as one batch once subscribed. Results are emitted in the order they arrive,
+   * the first failure terminates the flux.</p>
+   *
+   * @param ids the ids of the documents to remove.
+   * @param options custom options to change the default behavior, applied to all ids.
+   * @return a {@link Flux} emitting the id and result of every removed document.
+   */
+  public Flux<Tuple2<String, MutationResult>> removeMulti(final Collection<String> ids,
+                                                          final RemoveOptions options) {
+    return Flux
+      .defer(() -> Flux.fromIterable(asyncCollection.removeMulti(ids, options).entrySet()))
+      .flatMap(entry -> Reactor
+        .toMono(entry::getValue)
+        .map(result -> Tuples.of(entry.getKey(), result)), Integer.MAX_VALUE);
+  }
+
   /**
    * Inserts a full document which does not exist yet with default options.
    *
@@ -499,6 +588,35 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Upserts multiple full documents which might or might not exist yet with default options.
+   *
+   * @param documents the document contents to upsert, keyed by their document id.
+   * @return a {@link Flux} emitting the id and result of every upserted document.
+   */
+  public Flux<Tuple2<String, MutationResult>> upsertMulti(final Map<String, ?> documents) {
+    return upsertMulti(documents, DEFAULT_UPSERT_OPTIONS);
+  }
+
+  /**
+   * Upserts multiple full documents which might or might not exist yet with custom options.
+   *
+   * <p>All requests are dispatched as one batch once subscribed. Results are emitted in the order they arrive,
+   * the first failure terminates the flux.</p>
+   *
+   * @param documents the document contents to upsert, keyed by their document id.
+   * @param options custom options to customize the upsert behavior, applied to all documents.
+   * @return a {@link Flux} emitting the id and result of every upserted document.
+   */
+  public Flux<Tuple2<String, MutationResult>> upsertMulti(final Map<String, ?> documents,
+                                                          final UpsertOptions options) {
+    return Flux
+      .defer(() -> Flux.fromIterable(asyncCollection.upsertMulti(documents, options).entrySet()))
+      .flatMap(entry -> Reactor
+        .toMono(entry::getValue)
+        .map(result -> Tuples.of(entry.getKey(), result)), Integer.MAX_VALUE);
+  }
+
   /**
    * Replaces a full document which already exists with default options.
    *
@@ -649,4 +767,112 @@ public class ReactiveCollection {
     });
   }
 
+  /**
+   * Returns a {@link ReactiveCouchbaseArrayList<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the list's document id.
+   * @param entityType the class of the values contained in the list
+   * @return a {@link ReactiveCouchbaseArrayList<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseArrayList<T> list(final String id, final Class<T> entityType) {
+    return list(id, entityType, arrayListOptions());
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseArrayList<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the list's document id.
+   * @param entityType the class of the values contained in the list
+   * @param options a {@link ArrayListOptions} to use for all operations on this instance of the list.
+   * @return a {@link ReactiveCouchbaseArrayList<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseArrayList<T> list(final String id, final Class<T> entityType, final ArrayListOptions options) {
+    return new ReactiveCouchbaseArrayList<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseArraySet<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the set's document id.
+   * @param entityType the class of the values contained in the set
+   * @return a {@link ReactiveCouchbaseArraySet<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseArraySet<T> set(final String id, final Class<T> entityType) {
+    return set(id, entityType, arraySetOptions());
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseArraySet<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the set's document id.
+   * @param entityType the class of the values contained in the set
+   * @param options a {@link ArraySetOptions} to use for all operations on this instance of the set.
+   * @return a {@link ReactiveCouchbaseArraySet<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseArraySet<T> set(final String id, final Class<T> entityType, final ArraySetOptions options) {
+    return new ReactiveCouchbaseArraySet<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseMap<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the map's document id.
+   * @param entityType the class of the values contained the map, the keys are {@link String}s.
+   * @return a {@link ReactiveCouchbaseMap<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseMap<T> map(final String id, final Class<T> entityType) {
+    return map(id, entityType, mapOptions());
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseMap<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the map's document id.
+   * @param entityType the class of the values contained the map, the keys are {@link String}s.
+   * @param options a {@link MapOptions} to use for all operations on this instance of the map.
+   * @return a {@link ReactiveCouchbaseMap<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseMap<T> map(final String id, final Class<T> entityType, final MapOptions options) {
+    return new ReactiveCouchbaseMap<>(id, this, entityType, options);
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseQueue<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the queue's document id.
+   * @param entityType the class of the values contained in the queue.
+   * @return a {@link ReactiveCouchbaseQueue<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseQueue<T> queue(final String id, final Class<T> entityType) {
+    return queue(id, entityType, queueOptions());
+  }
+
+  /**
+   * Returns a {@link ReactiveCouchbaseQueue<T>} backed by this collection, which is created empty on the first
+   * write if it does not exist already.
+   *
+   * @param id the queue's document id.
+   * @param entityType the class of the values contained in the queue.
+   * @param options a {@link QueueOptions} to use for all operations on this instance of the queue.
+   * @return a {@link ReactiveCouchbaseQueue<T>}.
+   */
+  @Stability.Volatile
+  public <T> ReactiveCouchbaseQueue<T> queue(final String id, final Class<T> entityType, final QueueOptions options) {
+    return new ReactiveCouchbaseQueue<>(id, this, entityType, options);
+  }
+
 }
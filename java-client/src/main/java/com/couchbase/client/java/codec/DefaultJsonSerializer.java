@@ -24,6 +24,8 @@ import com.couchbase.client.java.json.RepackagedJsonValueModule;
 import com.couchbase.client.core.encryption.CryptoManager;
 import com.couchbase.client.java.encryption.databind.jackson.repackaged.RepackagedEncryptionModule;
 
+import java.io.OutputStream;
+
 import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -36,7 +38,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * Be aware that this serializer does not recognize standard Jackson annotations.
  * @see JacksonJsonSerializer
  */
-public class DefaultJsonSerializer implements JsonSerializer {
+public class DefaultJsonSerializer implements StreamingJsonSerializer {
 
   private final ObjectMapper mapper = new ObjectMapper();
 
@@ -77,6 +79,19 @@ public class DefaultJsonSerializer implements JsonSerializer {
     }
   }
 
+  @Override
+  public void serialize(final Object input, final OutputStream output) {
+    try {
+      if (input instanceof byte[]) {
+        output.write((byte[]) input);
+      } else {
+        mapper.writeValue(output, input);
+      }
+    } catch (Throwable t) {
+      throw new EncodingFailureException("Serializing of content + " + redactUser(input) + " to JSON failed.", t);
+    }
+  }
+
   @Override
   public <T> T deserialize(final Class<T> target, final byte[] input) {
     if (target.isAssignableFrom(byte[].class)) {
@@ -28,6 +28,8 @@ import com.couchbase.client.java.encryption.databind.jackson.EncryptionModule;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.OutputStream;
+
 import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
@@ -71,7 +73,7 @@ import static java.util.Objects.requireNonNull;
  * @see JsonValueModule
  * @see EncryptionModule
  */
-public class JacksonJsonSerializer implements JsonSerializer {
+public class JacksonJsonSerializer implements StreamingJsonSerializer {
   private final ObjectMapper mapper;
 
   /**
@@ -122,6 +124,19 @@ public class JacksonJsonSerializer implements JsonSerializer {
     }
   }
 
+  @Override
+  public void serialize(final Object input, final OutputStream output) {
+    try {
+      if (input instanceof byte[]) {
+        output.write((byte[]) input);
+      } else {
+        mapper.writeValue(output, input);
+      }
+    } catch (Throwable t) {
+      throw new EncodingFailureException("Serializing of content + " + redactUser(input) + " to JSON failed.", t);
+    }
+  }
+
   @Override
   public <T> T deserialize(final Class<T> target, final byte[] input) {
     if (target.isAssignableFrom(byte[].class)) {
@@ -16,13 +16,18 @@
 
 package com.couchbase.client.java.codec;
 
+import com.couchbase.client.core.error.EncodingFailureException;
 import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.core.msg.kv.CodecFlags;
 import com.couchbase.client.java.CommonOptions;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.couchbase.client.core.logging.RedactableArgument.redactUser;
 import static java.util.Objects.requireNonNull;
 
-public class JsonTranscoder implements Transcoder {
+public class JsonTranscoder implements StreamingTranscoder {
 
   private final JsonSerializer serializer;
 
@@ -36,6 +41,36 @@ public class JsonTranscoder implements Transcoder {
 
   @Override
   public EncodedValue encode(final Object input) {
+    checkEncodable(input);
+    return new EncodedValue(serializer.serialize(input), CodecFlags.JSON_COMPAT_FLAGS);
+  }
+
+  @Override
+  public int encode(final Object input, final OutputStream output) {
+    checkEncodable(input);
+    if (serializer instanceof StreamingJsonSerializer) {
+      ((StreamingJsonSerializer) serializer).serialize(input, output);
+    } else {
+      byte[] serialized = serializer.serialize(input);
+      try {
+        output.write(serialized);
+      } catch (IOException e) {
+        throw new EncodingFailureException("Writing serialized content " + redactUser(input) + " failed.", e);
+      }
+    }
+    return CodecFlags.JSON_COMPAT_FLAGS;
+  }
+
+  /**
+   * Only streams if the serializer is a {@link StreamingJsonSerializer}, any other serializer produces a byte
+   * array anyway which is cheaper to wrap.
+   */
+  @Override
+  public boolean streamingSupported() {
+    return serializer instanceof StreamingJsonSerializer;
+  }
+
+  private static void checkEncodable(final Object input) {
     if (input instanceof CommonOptions.BuiltCommonOptions || input instanceof CommonOptions) {
       throw InvalidArgumentException.fromMessage("No content provided, cannot " +
         "encode " + input.getClass().getSimpleName() + " as content!");
@@ -46,8 +81,6 @@ public class JsonTranscoder implements Transcoder {
         "If you want to store already encoded JSON, use the RawJsonTranscoder, otherwise store it " +
         "with the RawBinaryTranscoder!");
     }
-
-    return new EncodedValue(serializer.serialize(input), CodecFlags.JSON_COMPAT_FLAGS);
   }
 
   @Override
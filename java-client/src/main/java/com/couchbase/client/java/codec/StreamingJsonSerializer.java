@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.io.OutputStream;
+
+/**
+ * A {@link JsonSerializer} which is able to write the serialized output directly into an output stream.
+ *
+ * <p>The {@link JsonTranscoder} only streams documents into the buffer sent over the wire if its serializer
+ * implements this interface. The output of any other serializer is wrapped as-is, since streaming its byte
+ * array would only add a copy.</p>
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public interface StreamingJsonSerializer extends JsonSerializer {
+
+  /**
+   * Serializes the given input directly into the output stream.
+   *
+   * @param input the object as input.
+   * @param output the stream to write the serialized output into.
+   */
+  void serialize(Object input, OutputStream output);
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.io.OutputStream;
+
+/**
+ * A {@link Transcoder} which is able to write the encoded value directly into an output stream.
+ *
+ * <p>When a transcoder implements this interface, the SDK lets it write the document straight into the buffer
+ * which is sent over the wire instead of asking for an intermediate byte array. Transcoders which only implement
+ * {@link Transcoder} keep working unchanged, their encoded byte arrays are wrapped without copying.</p>
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public interface StreamingTranscoder extends Transcoder {
+
+  /**
+   * Encodes the given input into the output stream based on the data format.
+   *
+   * @param input the input object to encode.
+   * @param output the stream to write the wire representation of the payload into.
+   * @return the flags to be used on the wire.
+   */
+  int encode(Object input, OutputStream output);
+
+  /**
+   * Returns true if encoding into a stream avoids an intermediate byte array.
+   *
+   * <p>If false, the SDK wraps the result of {@link #encode(Object)} instead, since streaming an already encoded
+   * byte array would only add a copy.</p>
+   *
+   * @return true if {@link #encode(Object, OutputStream)} should be used.
+   */
+  default boolean streamingSupported() {
+    return true;
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBufOutputStream;
+import com.couchbase.client.core.deps.io.netty.buffer.CompositeByteBuf;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
+import com.couchbase.client.core.deps.io.netty.buffer.UnpooledByteBufAllocator;
+
+/**
+ * Encodes documents into buffers with any {@link Transcoder}.
+ *
+ * <p>A {@link StreamingTranscoder} which supports streaming writes into a composite heap buffer whose components
+ * are added as it grows, so the encoded document is never copied into a contiguous array. The byte array of any
+ * other transcoder is wrapped as-is. In both cases the buffer is garbage collected, so it can be held by a request for as long as
+ * it might be retried.</p>
+ */
+@Stability.Internal
+public class TranscoderAdapter {
+
+  /**
+   * The maximum number of components before the composite buffer consolidates them.
+   */
+  private static final int MAX_COMPONENTS = 32;
+
+  private TranscoderAdapter() { }
+
+  /**
+   * Encodes the input with the given transcoder.
+   *
+   * @param transcoder the transcoder to use.
+   * @param input the input object to encode.
+   * @return the encoded buffer together with its flags.
+   */
+  public static EncodedBuffer encode(final Transcoder transcoder, final Object input) {
+    if (transcoder instanceof StreamingTranscoder && ((StreamingTranscoder) transcoder).streamingSupported()) {
+      CompositeByteBuf buffer = new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, MAX_COMPONENTS);
+      int flags = ((StreamingTranscoder) transcoder).encode(input, new ByteBufOutputStream(buffer));
+      return new EncodedBuffer(buffer, flags);
+    }
+
+    Transcoder.EncodedValue encoded = transcoder.encode(input);
+    return new EncodedBuffer(Unpooled.wrappedBuffer(encoded.encoded()), encoded.flags());
+  }
+
+  /**
+   * Represents the tuple of the encoded buffer and flags to be used on the wire.
+   */
+  public static class EncodedBuffer {
+
+    private final ByteBuf encoded;
+    private final int flags;
+
+    EncodedBuffer(final ByteBuf encoded, final int flags) {
+      this.encoded = encoded;
+      this.flags = flags;
+    }
+
+    public ByteBuf encoded() {
+      return encoded;
+    }
+
+    public int flags() {
+      return flags;
+    }
+
+  }
+
+}
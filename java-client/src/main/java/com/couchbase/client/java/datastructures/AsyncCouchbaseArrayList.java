@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DocumentExistsException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
+import com.couchbase.client.core.error.subdoc.PathNotFoundException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.InsertOptions;
+import com.couchbase.client.java.kv.LookupInOptions;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.StoreSemantics;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.recover;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.retryOnCasMismatch;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.unwrap;
+
+/**
+ * A non-blocking counterpart of the {@link CouchbaseArrayList}, backed by a {@link AsyncCollection Couchbase}
+ * document (more specifically a {@link JsonArray JSON array}).
+ * <p>
+ * Values are restricted to the types that a {@link JsonArray JSON array} can contain. JSON objects and sub-arrays
+ * can be represented as {@link JsonObject} and {@link JsonArray} respectively. Operations which return the previous
+ * value are optimistic read-modify-writes on the document, retried (without blocking) if the document has been
+ * modified concurrently. Futures of operations on an index which does not exist fail with an
+ * {@link IndexOutOfBoundsException}.
+ * <p>
+ * Since every operation is already non-blocking, there is no local write-behind buffer: options with
+ * {@link ArrayListOptions#writeBehindBuffer(int)} enabled are rejected.
+ *
+ * @param <E> the type of values in the list.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class AsyncCouchbaseArrayList<E> {
+
+    private final String id;
+    private final AsyncCollection collection;
+    private final Class<E> entityTypeClass;
+    private final ArrayListOptions.Built arrayListOptions;
+    private final GetOptions getOptions;
+    private final LookupInOptions lookupInOptions;
+    private final InsertOptions insertOptions;
+
+    /**
+     * Create a new {@link AsyncCollection Couchbase-backed} List, backed by the document identified by
+     * <code>id</code> in <code>collection</code>. Note that if the document already exists, its content will be used
+     * as initial content for this list. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the list.
+     * @param collection the {@link AsyncCollection} through which to interact with the document.
+     * @param entityType a Class<E> describing the type of objects in this list.
+     * @param options a {@link ArrayListOptions} to use for all operations on this instance of the list.
+     * @throws InvalidArgumentException if the options enable the write-behind buffer, which is not supported.
+     */
+    public AsyncCouchbaseArrayList(String id, AsyncCollection collection, Class<E> entityType, ArrayListOptions options) {
+        notNull(collection, "Collection", () -> ReducedKeyValueErrorContext.create(id, null, null, null));
+        notNullOrEmpty(id, "Id", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(entityType, "EntityType", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(options, "ArrayListOptions", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        this.collection = collection;
+        this.id = id;
+        this.entityTypeClass = entityType;
+
+        // copy the options just in case they are reused later somewhere else
+        ArrayListOptions.Built optionsIn = options.build();
+        if (optionsIn.writeBehindBuffer() > 0) {
+            throw InvalidArgumentException.fromMessage("The write-behind buffer is only supported by the "
+                + "blocking CouchbaseArrayList");
+        }
+        ArrayListOptions opts = ArrayListOptions.arrayListOptions();
+        optionsIn.copyInto(opts);
+
+        this.arrayListOptions = opts.build();
+        this.getOptions = optionsIn.getOptions();
+        this.lookupInOptions = optionsIn.lookupInOptions();
+        this.insertOptions = optionsIn.insertOptions();
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index the index of the element.
+     * @return a {@link CompletableFuture} completing with the element.
+     */
+    public CompletableFuture<E> get(final int index) {
+        final String idx = checkIndex(index);
+        return outOfBounds(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.get(idx)), lookupInOptions)
+            .thenApply(result -> {
+                if (!result.exists(0)) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return result.contentAs(0, entityTypeClass);
+            }),
+          index
+        );
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return a {@link CompletableFuture} completing with the size of the list.
+     */
+    public CompletableFuture<Integer> size() {
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.count("")), lookupInOptions)
+            .thenApply(result -> result.contentAs(0, Integer.class)),
+          () -> 0,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Appends the element to the end of the list, creating the list if it does not exist yet.
+     *
+     * @param element the element to append.
+     * @return a {@link CompletableFuture} completing once the element is appended.
+     */
+    public CompletableFuture<Void> add(final E element) {
+        return addAll(Collections.singletonList(element));
+    }
+
+    /**
+     * Appends all elements (in iteration order) to the end of the list with a single mutation, creating the list if
+     * it does not exist yet.
+     *
+     * @param elements the elements to append.
+     * @return a {@link CompletableFuture} completing once the elements are appended.
+     */
+    public CompletableFuture<Void> addAll(final java.util.Collection<? extends E> elements) {
+        if (elements.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayAppend("", new ArrayList<>(elements))),
+          arrayListOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+        ).thenApply(result -> null);
+    }
+
+    /**
+     * Inserts the element at the given index, shifting the element currently at that position (if any) and all
+     * subsequent ones to the right.
+     *
+     * @param index the index to insert the element at.
+     * @param element the element to insert.
+     * @return a {@link CompletableFuture} completing once the element is inserted.
+     */
+    public CompletableFuture<Void> add(final int index, final E element) {
+        final String idx = checkIndex(index);
+        final Supplier<CompletableFuture<Void>> insert = () -> collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayInsert(idx, Collections.singletonList(element))),
+          arrayListOptions.mutateInOptions()
+        ).thenApply(result -> null);
+
+        return outOfBounds(insert.get().handle((result, error) -> {
+            if (error == null) {
+                return CompletableFuture.<Void>completedFuture(null);
+            } else if (unwrap(error) instanceof DocumentNotFoundException) {
+                // empty list, create empty one and try again
+                return createEmptyList().thenCompose(created -> insert.get());
+            }
+            throw new CompletionException(unwrap(error));
+        }).thenCompose(Function.identity()), index);
+    }
+
+    /**
+     * Replaces the element at the given index.
+     *
+     * @param index the index of the element to replace.
+     * @param element the element to store.
+     * @return a {@link CompletableFuture} completing with the replaced element.
+     */
+    public CompletableFuture<E> set(final int index, final E element) {
+        final String idx = checkIndex(index);
+        return outOfBounds(retryOnCasMismatch(() -> collection
+          .lookupIn(id, Collections.singletonList(LookupInSpec.get(idx)), lookupInOptions)
+          .thenCompose(current -> {
+              if (!current.exists(0)) {
+                  throw new IndexOutOfBoundsException("Index: " + index);
+              }
+              // the cas ensures we return exactly what we replaced
+              E previous = current.contentAs(0, entityTypeClass);
+              return collection.mutateIn(
+                id,
+                Collections.singletonList(MutateInSpec.replace(idx, element)),
+                arrayListOptions.mutateInOptions().cas(current.cas())
+              ).thenApply(result -> previous);
+          }), arrayListOptions.casMismatchRetries(), "AsyncCouchbaseArrayList set"), index);
+    }
+
+    /**
+     * Removes the element at the given index, shifting all subsequent elements to the left.
+     *
+     * @param index the index of the element to remove.
+     * @return a {@link CompletableFuture} completing with the removed element.
+     */
+    public CompletableFuture<E> remove(final int index) {
+        final String idx = checkIndex(index);
+        return outOfBounds(retryOnCasMismatch(() -> collection
+          .lookupIn(id, Collections.singletonList(LookupInSpec.get(idx)), lookupInOptions)
+          .thenCompose(current -> {
+              if (!current.exists(0)) {
+                  throw new IndexOutOfBoundsException("Index: " + index);
+              }
+              // the cas ensures we return exactly what we removed
+              E previous = current.contentAs(0, entityTypeClass);
+              return collection.mutateIn(
+                id,
+                Collections.singletonList(MutateInSpec.remove(idx)),
+                arrayListOptions.mutateInOptions().cas(current.cas())
+              ).thenApply(result -> previous);
+          }), arrayListOptions.casMismatchRetries(), "AsyncCouchbaseArrayList remove"), index);
+    }
+
+    /**
+     * Removes all elements which are contained in the given collection.
+     * <p>
+     * The matching elements are found with a single fetch of the document and removed with one mutation per 16
+     * elements, each checked against the cas of the one before. If the document has been modified concurrently, the
+     * removal is retried (without blocking) on the current content.
+     *
+     * @param c the elements to remove.
+     * @return a {@link CompletableFuture} completing with true if the list changed.
+     */
+    public CompletableFuture<Boolean> removeAll(final java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        return BulkMutations.removeFromArray(collection, id, getOptions, arrayListOptions::mutateInOptions,
+          arrayListOptions.casMismatchRetries(), c::contains, "AsyncCouchbaseArrayList removeAll");
+    }
+
+    /**
+     * Removes all elements which are not contained in the given collection.
+     * <p>
+     * The elements are removed like with {@link #removeAll(java.util.Collection)}.
+     *
+     * @param c the elements to retain.
+     * @return a {@link CompletableFuture} completing with true if the list changed.
+     */
+    public CompletableFuture<Boolean> retainAll(final java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        return BulkMutations.removeFromArray(collection, id, getOptions, arrayListOptions::mutateInOptions,
+          arrayListOptions.casMismatchRetries(), value -> !c.contains(value), "AsyncCouchbaseArrayList retainAll");
+    }
+
+    /**
+     * Loads a snapshot of all elements with a single fetch of the document.
+     *
+     * @return a {@link CompletableFuture} completing with the elements of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<E>> values() {
+        return recover(
+          collection.get(id, getOptions).thenApply(result -> {
+              JsonArray current = result.contentAsArray();
+              //Care not to use toList, as it will convert internal JsonObject/JsonArray to Map/List
+              List<E> list = new ArrayList<>(current.size());
+              for (E value : (Iterable<E>) current) {
+                  list.add(value);
+              }
+              return list;
+          }),
+          Collections::emptyList,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes all elements by removing the backing document.
+     *
+     * @return a {@link CompletableFuture} completing once the list is cleared.
+     */
+    public CompletableFuture<Void> clear() {
+        return recover(
+          collection.remove(id).thenApply(result -> (Void) null),
+          () -> null,
+          DocumentNotFoundException.class
+        );
+    }
+
+    private static String checkIndex(final int index) {
+        //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return "[" + index + "]";
+    }
+
+    /**
+     * Fails the future with an {@link IndexOutOfBoundsException} if the list or the index does not exist.
+     */
+    private static <T> CompletableFuture<T> outOfBounds(final CompletableFuture<T> future, final int index) {
+        return future.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof DocumentNotFoundException || cause instanceof PathNotFoundException) {
+                throw new CompletionException(new IndexOutOfBoundsException("Index: " + index));
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Helper method to create an empty list (an empty document with a toplevel array).
+     */
+    private CompletableFuture<Void> createEmptyList() {
+        return recover(
+          collection.insert(id, JsonArray.create(), insertOptions).thenApply(result -> (Void) null),
+          () -> null,
+          // Ignore concurrent creations, keep on moving.
+          DocumentExistsException.class
+        );
+    }
+
+}
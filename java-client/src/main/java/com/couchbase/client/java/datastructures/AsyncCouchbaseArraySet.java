@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
+import com.couchbase.client.core.error.subdoc.PathExistsException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.json.JsonValue;
+import com.couchbase.client.java.kv.ArraySetOptions;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.LookupInOptions;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.StoreSemantics;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.recover;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.retryOnCasMismatch;
+
+/**
+ * A non-blocking counterpart of the {@link CouchbaseArraySet}, backed by a {@link AsyncCollection Couchbase}
+ * document (more specifically a {@link JsonArray JSON array}).
+ *
+ * Note that the set is restricted to primitive types (the types that a {@link JsonArray JSON array}
+ * can contain, except {@link JsonObject} and {@link JsonArray}). null entries are supported.
+ *
+ * @param <T> the type of values in the set.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class AsyncCouchbaseArraySet<T> {
+
+    private final String id;
+    private final AsyncCollection collection;
+    private final ArraySetOptions.Built arraySetOptions;
+    private final GetOptions getOptions;
+    private final LookupInOptions lookupInOptions;
+
+    /**
+     * Create a new {@link AsyncCouchbaseArraySet}, backed by the document identified by <code>id</code>
+     * in the given Couchbase <code>collection</code>. Note that if the document already exists,
+     * its content will be used as initial content for this set. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the set.
+     * @param collection the {@link AsyncCollection} through which to interact with the document.
+     * @param entityType a Class<T> describing the type of objects in this Set.
+     * @param options a {@link ArraySetOptions} to use for all operations on this instance of the set.
+     */
+    public AsyncCouchbaseArraySet(String id, AsyncCollection collection, Class<T> entityType, ArraySetOptions options) {
+        notNull(collection, "Collection", () -> ReducedKeyValueErrorContext.create(id, null, null, null));
+        notNullOrEmpty(id, "Id", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(entityType, "EntityType", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(options, "ArraySetOptions", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        this.id = id;
+        this.collection = collection;
+
+        // copy the options just in case they are reused later
+        ArraySetOptions.Built optionsIn = options.build();
+
+        ArraySetOptions arrayOpts = ArraySetOptions.arraySetOptions();
+        optionsIn.copyInto(arrayOpts);
+        this.arraySetOptions = arrayOpts.build();
+        this.getOptions = optionsIn.getOptions();
+        this.lookupInOptions = optionsIn.lookupInOptions();
+    }
+
+    /**
+     * Adds the value to the set, creating the set if it does not exist yet.
+     *
+     * @param t the value to add.
+     * @return a {@link CompletableFuture} completing with true if the value was added, false if it was already present.
+     */
+    public CompletableFuture<Boolean> add(final T t) {
+        enforcePrimitive(t);
+        return recover(
+          collection.mutateIn(
+            id,
+            Collections.singletonList(MutateInSpec.arrayAddUnique("", t)),
+            arraySetOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+          ).thenApply(result -> true),
+          () -> false,
+          PathExistsException.class
+        );
+    }
+
+    /**
+     * Checks if the value is part of the set.
+     *
+     * @param t the value to look for.
+     * @return a {@link CompletableFuture} completing with true if the set contains the value.
+     */
+    public CompletableFuture<Boolean> contains(final T t) {
+        enforcePrimitive(t);
+        return recover(
+          collection.get(id, getOptions).thenApply(result -> indexOf(result.contentAsArray(), t) >= 0),
+          () -> false,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes the value from the set.
+     *
+     * @param t the value to remove.
+     * @return a {@link CompletableFuture} completing with true if the value was removed, false if it was not present.
+     */
+    public CompletableFuture<Boolean> remove(final T t) {
+        enforcePrimitive(t);
+        return recover(
+          retryOnCasMismatch(() -> collection.get(id, getOptions).thenCompose(current -> {
+              int index = indexOf(current.contentAsArray(), t);
+              if (index < 0) {
+                  return CompletableFuture.completedFuture(false);
+              }
+              return collection.mutateIn(
+                id,
+                Collections.singletonList(MutateInSpec.remove("[" + index + "]")),
+                arraySetOptions.mutateInOptions().cas(current.cas())
+              ).thenApply(result -> true);
+          }), arraySetOptions.casMismatchRetries(), "AsyncCouchbaseArraySet remove"),
+          () -> false,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return a {@link CompletableFuture} completing with the size of the set.
+     */
+    public CompletableFuture<Integer> size() {
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.count("")), lookupInOptions)
+            .thenApply(result -> result.contentAs(0, Integer.class)),
+          () -> 0,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Loads a snapshot of all values with a single fetch of the document.
+     *
+     * @return a {@link CompletableFuture} completing with the values of the set.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Set<T>> values() {
+        return recover(
+          collection.get(id, getOptions).thenApply(result -> {
+              Set<T> values = new LinkedHashSet<>();
+              for (Object value : result.contentAsArray()) {
+                  values.add((T) value);
+              }
+              return values;
+          }),
+          Collections::emptySet,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes all values by removing the backing document.
+     *
+     * @return a {@link CompletableFuture} completing once the set is cleared.
+     */
+    public CompletableFuture<Void> clear() {
+        return recover(
+          collection.remove(id).thenApply(result -> (Void) null),
+          () -> null,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Verify that the type of object t is compatible with set storage.
+     *
+     * @param t the object to check.
+     * @throws ClassCastException if the object is incompatible.
+     */
+    private void enforcePrimitive(Object t) throws ClassCastException {
+        if (!JsonValue.checkType(t)
+                || t instanceof JsonValue) {
+            throw new ClassCastException("Only primitive types are supported in AsyncCouchbaseArraySet, got a " + t.getClass().getName());
+        }
+    }
+
+    private static int indexOf(final JsonArray current, final Object t) {
+        int index = 0;
+        for (Object next : current) {
+            if (t == null ? next == null : t.equals(next)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+}
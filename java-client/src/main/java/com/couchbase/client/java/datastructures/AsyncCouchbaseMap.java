@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
+import com.couchbase.client.core.error.subdoc.PathNotFoundException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.LookupInOptions;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MapOptions;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.StoreSemantics;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.recover;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.retryOnCasMismatch;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.unwrap;
+
+/**
+ * A non-blocking counterpart of the {@link CouchbaseMap}, backed by a {@link AsyncCollection Couchbase} document
+ * (more specifically a {@link JsonObject JSON object}).
+ * <p>
+ * Null keys are NOT permitted, and keys are restricted to {@link String}. Values are restricted to the types that
+ * a {@link JsonObject JSON object} can contain. JSON sub-objects and sub-arrays can be represented as
+ * {@link JsonObject} and {@link JsonArray} respectively.
+ * <p>
+ * Operations which return the previous value are optimistic read-modify-writes on the document, retried (without
+ * blocking) if the document has been modified concurrently. Bulk writes are dispatched as multiple mutations of up
+ * to 16 paths each, which are all in flight at the same time.
+ *
+ * @param <E> the type of values in the map.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class AsyncCouchbaseMap<E> {
+
+    private final String id;
+    private final AsyncCollection collection;
+    private final Class<E> entityTypeClass;
+    private final MapOptions.Built mapOptions;
+    private final GetOptions getOptions;
+    private final LookupInOptions lookupInOptions;
+
+    /**
+     * Create a new {@link AsyncCouchbaseMap}, backed by the document identified by <code>id</code>
+     * in the given <code>collection</code>. Note that if the document already exists, its content will be used as
+     * initial content for this map. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the map.
+     * @param collection the {@link AsyncCollection} through which to interact with the document.
+     * @param entityType a {@link Class<E>} describing the type of objects used as values in this map.
+     * @param options a {@link MapOptions} to use for all operations on this instance of the map.
+     */
+    public AsyncCouchbaseMap(String id, AsyncCollection collection, Class<E> entityType, MapOptions options) {
+        notNull(collection, "Collection", () -> ReducedKeyValueErrorContext.create(id, null, null, null));
+        notNullOrEmpty(id, "Id", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(entityType, "EntityType", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(options, "MapOptions", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        this.id = id;
+        this.collection = collection;
+        this.entityTypeClass = entityType;
+
+        MapOptions.Built optionsIn = options.build();
+        MapOptions mapOpts = MapOptions.mapOptions();
+        optionsIn.copyInto(mapOpts);
+        this.mapOptions = mapOpts.build();
+        this.getOptions = optionsIn.getOptions();
+        this.lookupInOptions = optionsIn.lookupInOptions();
+    }
+
+    /**
+     * Associates the value with the key, creating the map if it does not exist yet.
+     *
+     * @param key the key to associate the value with.
+     * @param value the value to store.
+     * @return a {@link CompletableFuture} completing with the previous value, or null if there was none.
+     */
+    public CompletableFuture<E> put(final String key, final E value) {
+        checkKey(key);
+        return retryOnCasMismatch(() -> collection
+          .lookupIn(id, Collections.singletonList(LookupInSpec.get(key)), lookupInOptions)
+          .handle((current, error) -> {
+              final CompletableFuture<E> previous;
+              if (error == null) {
+                  E existing = current.exists(0) ? current.contentAs(0, entityTypeClass) : null;
+                  previous = collection.mutateIn(
+                    id,
+                    Collections.singletonList(MutateInSpec.upsert(key, value)),
+                    mapOptions.mutateInOptions().cas(current.cas())
+                  ).thenApply(result -> existing);
+              } else if (unwrap(error) instanceof DocumentNotFoundException) {
+                  // fails with a DocumentExistsException (and is retried) if the map is created concurrently
+                  previous = collection.mutateIn(
+                    id,
+                    Collections.singletonList(MutateInSpec.upsert(key, value)),
+                    mapOptions.mutateInOptions().storeSemantics(StoreSemantics.INSERT)
+                  ).thenApply(result -> null);
+              } else {
+                  throw new CompletionException(unwrap(error));
+              }
+              return previous;
+          })
+          .thenCompose(Function.identity()), mapOptions.casMismatchRetries(), "AsyncCouchbaseMap put");
+    }
+
+    /**
+     * Associates all values with their keys, creating the map if it does not exist yet.
+     * <p>
+     * The values are written with one mutation per 16 keys, all dispatched at once. Note that the mutations are not
+     * atomic as a whole: if one of them fails, the others might still have been applied.
+     *
+     * @param values the values to store.
+     * @return a {@link CompletableFuture} completing once all values are stored.
+     */
+    public CompletableFuture<Void> putAll(final Map<String, ? extends E> values) {
+        List<MutateInSpec> specs = new ArrayList<>(values.size());
+        for (Map.Entry<String, ? extends E> entry : values.entrySet()) {
+            specs.add(MutateInSpec.upsert(checkKey(entry.getKey()), entry.getValue()));
+        }
+
+        List<CompletableFuture<?>> mutations = new ArrayList<>();
+        for (List<MutateInSpec> chunk : BulkMutations.chunks(specs)) {
+            mutations.add(collection.mutateIn(id, chunk, mapOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)));
+        }
+        return CompletableFuture.allOf(mutations.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key the key to look up.
+     * @return a {@link CompletableFuture} completing with the value, or null if there is none.
+     */
+    public CompletableFuture<E> get(final String key) {
+        checkKey(key);
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.get(key)), lookupInOptions)
+            .thenApply(result -> result.exists(0) ? result.contentAs(0, entityTypeClass) : null),
+          () -> null,
+          DocumentNotFoundException.class,
+          PathNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes the value associated with the key.
+     *
+     * @param key the key to remove.
+     * @return a {@link CompletableFuture} completing with the removed value, or null if there was none.
+     */
+    public CompletableFuture<E> remove(final String key) {
+        checkKey(key);
+        return retryOnCasMismatch(() -> recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.get(key)), lookupInOptions)
+            .thenCompose(current -> {
+                if (!current.exists(0)) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                E previous = current.contentAs(0, entityTypeClass);
+                return collection.mutateIn(
+                  id,
+                  Collections.singletonList(MutateInSpec.remove(key)),
+                  mapOptions.mutateInOptions().cas(current.cas())
+                ).thenApply(result -> previous);
+            }),
+          () -> null,
+          DocumentNotFoundException.class,
+          PathNotFoundException.class
+        ), mapOptions.casMismatchRetries(), "AsyncCouchbaseMap remove");
+    }
+
+    /**
+     * Checks if a value is associated with the key.
+     *
+     * @param key the key to check.
+     * @return a {@link CompletableFuture} completing with true if the key is present.
+     */
+    public CompletableFuture<Boolean> containsKey(final String key) {
+        checkKey(key);
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.exists(key)), lookupInOptions)
+            .thenApply(result -> result.exists(0)),
+          () -> false,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return a {@link CompletableFuture} completing with the size of the map.
+     */
+    public CompletableFuture<Integer> size() {
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.count("")), lookupInOptions)
+            .thenApply(result -> result.contentAs(0, Integer.class)),
+          () -> 0,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Loads a snapshot of all entries with a single fetch of the document.
+     *
+     * @return a {@link CompletableFuture} completing with the entries of the map.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<String, E>> entries() {
+        return recover(
+          collection.get(id, getOptions).thenApply(result -> (Map<String, E>) result.contentAsObject().toMap()),
+          Collections::emptyMap,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes all entries by removing the backing document.
+     *
+     * @return a {@link CompletableFuture} completing once the map is cleared.
+     */
+    public CompletableFuture<Void> clear() {
+        return recover(
+          collection.remove(id).thenApply(result -> (Void) null),
+          () -> null,
+          DocumentNotFoundException.class
+        );
+    }
+
+    private String checkKey(final String key) {
+        if (key == null) {
+            throw new NullPointerException("Unsupported null key");
+        }
+        return key;
+    }
+
+}
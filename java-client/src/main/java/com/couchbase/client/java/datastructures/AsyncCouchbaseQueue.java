@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.context.ReducedKeyValueErrorContext;
+import com.couchbase.client.core.error.subdoc.PathNotFoundException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.LookupInOptions;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.QueueOptions;
+import com.couchbase.client.java.kv.StoreSemantics;
+
+import static com.couchbase.client.core.util.Validators.notNull;
+import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.recover;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.retryOnCasMismatch;
+
+/**
+ * A non-blocking counterpart of the {@link CouchbaseQueue}, backed by a {@link AsyncCollection Couchbase} document
+ * (more specifically a {@link JsonArray JSON array}).
+ * <p>
+ * Elements are offered to the front of the array and polled from its back, so that the queue is FIFO. Polling is
+ * an optimistic read-modify-write on the document which is retried (without blocking) if the document has been
+ * modified concurrently. Null values are not allowed.
+ * <p>
+ * Since every operation is already non-blocking, there is no local write-behind buffer: options with
+ * {@link QueueOptions#writeBehindBuffer(int)} enabled are rejected.
+ *
+ * @param <E> the type of values in the queue.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class AsyncCouchbaseQueue<E> {
+
+    /**
+     * The maximum number of elements polled at once (one lookup is needed for the size of the queue).
+     */
+    static final int MAX_POLL_BATCH = BulkMutations.MAX_SPECS_PER_MUTATION - 1;
+
+    private final String id;
+    private final AsyncCollection collection;
+    private final Class<E> entityTypeClass;
+    private final QueueOptions.Built queueOptions;
+    private final GetOptions getOptions;
+    private final LookupInOptions lookupInOptions;
+
+    /**
+     * Create a new {@link AsyncCollection Couchbase-backed} Queue, backed by the document identified by
+     * <code>id</code> in <code>collection</code>. Note that if the document already exists, its content will be used
+     * as initial content for this queue. Otherwise it is created on the first offer.
+     *
+     * @param id the id of the Couchbase document to back the queue.
+     * @param collection the {@link AsyncCollection} through which to interact with the document.
+     * @param entityType a {@link Class<E>} describing the type of objects in this queue.
+     * @param options a {@link QueueOptions} to use for all operations on this instance of the queue.
+     * @throws InvalidArgumentException if the options enable the write-behind buffer, which is not supported.
+     */
+    public AsyncCouchbaseQueue(String id, AsyncCollection collection, Class<E> entityType, QueueOptions options) {
+        notNull(collection, "Collection", () -> ReducedKeyValueErrorContext.create(id, null, null, null));
+        notNullOrEmpty(id, "Id", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(entityType, "EntityType", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        notNull(options, "QueueOptions", () ->  ReducedKeyValueErrorContext.create(id, collection.bucketName(), collection.scopeName(), collection.name()));
+        this.collection = collection;
+        this.id = id;
+        this.entityTypeClass = entityType;
+
+        // copy the options just in case they are reused later
+        QueueOptions.Built optionsIn = options.build();
+        if (optionsIn.writeBehindBuffer() > 0) {
+            throw InvalidArgumentException.fromMessage("The write-behind buffer is only supported by the "
+                + "blocking CouchbaseQueue");
+        }
+        QueueOptions opts = QueueOptions.queueOptions();
+        optionsIn.copyInto(opts);
+        this.queueOptions = opts.build();
+        this.getOptions = optionsIn.getOptions();
+        this.lookupInOptions = optionsIn.lookupInOptions();
+    }
+
+    /**
+     * Adds the element to the back of the queue, creating the queue if it does not exist yet.
+     *
+     * @param e the element to add.
+     * @return a {@link CompletableFuture} completing once the element is added.
+     */
+    public CompletableFuture<Void> offer(final E e) {
+        if (e == null) {
+            throw new NullPointerException("Unsupported null value");
+        }
+        return prepend(Collections.singletonList(e));
+    }
+
+    /**
+     * Adds all elements (in iteration order) to the back of the queue with a single mutation.
+     *
+     * @param values the elements to add.
+     * @return a {@link CompletableFuture} completing once the elements are added.
+     */
+    public CompletableFuture<Void> offerAll(final java.util.Collection<? extends E> values) {
+        List<E> reversed = new ArrayList<>(values);
+        for (E value : reversed) {
+            if (value == null) {
+                throw new NullPointerException("Unsupported null value");
+            }
+        }
+        if (reversed.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // the head of the queue is the end of the array, so the first value offered needs to end up last
+        Collections.reverse(reversed);
+        return prepend(reversed);
+    }
+
+    private CompletableFuture<Void> prepend(final List<E> values) {
+        return collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayPrepend("", values)),
+          queueOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+        ).thenApply(result -> null);
+    }
+
+    /**
+     * Retrieves and removes the head of the queue.
+     *
+     * @return a {@link CompletableFuture} completing with the head of the queue, or null if it is empty.
+     */
+    public CompletableFuture<E> poll() {
+        return poll(1).thenApply(values -> values.isEmpty() ? null : values.get(0));
+    }
+
+    /**
+     * Retrieves and removes up to the given number of elements from the head of the queue.
+     * <p>
+     * At most {@value #MAX_POLL_BATCH} elements are polled at once, since they are read and removed with a single
+     * lookup and mutation each.
+     *
+     * @param maxElements the maximum number of elements to poll.
+     * @return a {@link CompletableFuture} completing with the polled elements in queue order, empty if the queue is.
+     */
+    public CompletableFuture<List<E>> poll(final int maxElements) {
+        if (maxElements < 1) {
+            throw InvalidArgumentException.fromMessage("The number of elements to poll must be positive, but got "
+                + maxElements);
+        }
+        final int batch = Math.min(maxElements, MAX_POLL_BATCH);
+
+        final List<LookupInSpec> specs = new ArrayList<>(batch + 1);
+        specs.add(LookupInSpec.count(""));
+        for (int i = 1; i <= batch; i++) {
+            specs.add(LookupInSpec.get("[-" + i + "]"));
+        }
+
+        return retryOnCasMismatch(() -> recover(
+          collection.lookupIn(id, specs, lookupInOptions).thenCompose(result -> {
+              int size = Math.min(batch, result.contentAs(0, Integer.class));
+              if (size == 0) {
+                  return CompletableFuture.completedFuture(Collections.<E>emptyList());
+              }
+
+              List<E> values = new ArrayList<>(size);
+              List<MutateInSpec> removes = new ArrayList<>(size);
+              for (int i = 1; i <= size; i++) {
+                  values.add(result.contentAs(i, entityTypeClass));
+                  removes.add(MutateInSpec.remove("[-1]"));
+              }
+              return collection
+                .mutateIn(id, removes, queueOptions.mutateInOptions().cas(result.cas()))
+                .thenApply(r -> values);
+          }),
+          Collections::emptyList,
+          DocumentNotFoundException.class
+        ), queueOptions.casMismatchRetries(), "AsyncCouchbaseQueue poll");
+    }
+
+    /**
+     * Retrieves, but does not remove, the head of the queue.
+     *
+     * @return a {@link CompletableFuture} completing with the head of the queue, or null if it is empty.
+     */
+    public CompletableFuture<E> peek() {
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.get("[-1]")), lookupInOptions)
+            .thenApply(result -> result.exists(0) ? result.contentAs(0, entityTypeClass) : null),
+          () -> null,
+          DocumentNotFoundException.class,
+          PathNotFoundException.class
+        );
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return a {@link CompletableFuture} completing with the size of the queue.
+     */
+    public CompletableFuture<Integer> size() {
+        return recover(
+          collection
+            .lookupIn(id, Collections.singletonList(LookupInSpec.count("")), lookupInOptions)
+            .thenApply(result -> result.contentAs(0, Integer.class)),
+          () -> 0,
+          DocumentNotFoundException.class
+        );
+    }
+
+    /**
+     * Removes all elements which are contained in the given collection.
+     * <p>
+     * The matching elements are found with a single fetch of the document and removed with one mutation per 16
+     * elements, each checked against the cas of the one before. If the document has been modified concurrently, the
+     * removal is retried (without blocking) on the current content.
+     *
+     * @param c the elements to remove.
+     * @return a {@link CompletableFuture} completing with true if the queue changed.
+     */
+    public CompletableFuture<Boolean> removeAll(final java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        return BulkMutations.removeFromArray(collection, id, getOptions, queueOptions::mutateInOptions,
+          queueOptions.casMismatchRetries(), c::contains, "AsyncCouchbaseQueue removeAll");
+    }
+
+    /**
+     * Removes all elements which are not contained in the given collection.
+     * <p>
+     * The elements are removed like with {@link #removeAll(java.util.Collection)}.
+     *
+     * @param c the elements to retain.
+     * @return a {@link CompletableFuture} completing with true if the queue changed.
+     */
+    public CompletableFuture<Boolean> retainAll(final java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        return BulkMutations.removeFromArray(collection, id, getOptions, queueOptions::mutateInOptions,
+          queueOptions.casMismatchRetries(), value -> !c.contains(value), "AsyncCouchbaseQueue retainAll");
+    }
+
+    /**
+     * Removes all elements by removing the backing document.
+     *
+     * @return a {@link CompletableFuture} completing once the queue is cleared.
+     */
+    public CompletableFuture<Void> clear() {
+        return recover(
+          collection.remove(id).thenApply(result -> (Void) null),
+          () -> null,
+          DocumentNotFoundException.class
+        );
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentLockedException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.ServerOutOfMemoryException;
+import com.couchbase.client.core.error.TemporaryFailureException;
+import com.couchbase.client.core.error.UnambiguousTimeoutException;
+import com.couchbase.client.core.error.ValueTooLargeException;
+import com.couchbase.client.core.error.subdoc.DocumentNotJsonException;
+import com.couchbase.client.core.error.subdoc.DocumentTooDeepException;
+import com.couchbase.client.core.error.subdoc.PathMismatchException;
+import com.couchbase.client.core.error.subdoc.ValueTooDeepException;
+import com.couchbase.client.core.retry.reactor.RetryExhaustedException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInSpec;
+
+import static com.couchbase.client.java.datastructures.DatastructureFutures.recover;
+import static com.couchbase.client.java.datastructures.DatastructureFutures.retryOnCasMismatch;
+
+/**
+ * Applies bulk modifications to the document backing a datastructure with as few round trips as possible.
+ *
+ * @since 3.1.0
+ */
+final class BulkMutations {
+
+    /**
+     * The maximum number of specs the server accepts in a single sub-document mutation.
+     */
+    static final int MAX_SPECS_PER_MUTATION = 16;
+
+    private BulkMutations() { }
+
+    /**
+     * Splits the specs (in order) into chunks which fit into a single mutation each.
+     *
+     * @param specs the specs to split.
+     * @return the chunks, as views of the given specs.
+     */
+    static List<List<MutateInSpec>> chunks(final List<MutateInSpec> specs) {
+        List<List<MutateInSpec>> chunks = new ArrayList<>();
+        for (int start = 0; start < specs.size(); start += MAX_SPECS_PER_MUTATION) {
+            chunks.add(specs.subList(start, Math.min(specs.size(), start + MAX_SPECS_PER_MUTATION)));
+        }
+        return chunks;
+    }
+
+    /**
+     * Applies the specs in order, packed into as few mutations as possible.
+     * <p>
+     * If a cas is provided, every mutation is checked against the cas returned by the one before, so that the
+     * sequence fails with a {@link CasMismatchException} if the document is modified concurrently. Note that the
+     * mutations which succeeded up to that point are not rolled back.
+     *
+     * @param collection the collection holding the document.
+     * @param id the id of the document.
+     * @param specs the specs to apply.
+     * @param options creates fresh options for each mutation.
+     * @param cas the cas to check the first mutation against, 0 to not check it.
+     * @return the cas of the document after the last mutation.
+     */
+    static long mutateIn(final Collection collection, final String id, final List<MutateInSpec> specs,
+                         final Supplier<MutateInOptions> options, long cas) {
+        final boolean checkCas = cas != 0;
+        for (List<MutateInSpec> chunk : chunks(specs)) {
+            MutateInOptions opts = options.get();
+            if (checkCas) {
+                opts.cas(cas);
+            }
+            cas = collection.mutateIn(id, chunk, opts).cas();
+        }
+        return cas;
+    }
+
+    /**
+     * Removes all elements matching the filter from the JSON array document.
+     * <p>
+     * The elements are removed from the back so the indexes of the remaining ones do not shift, and the whole
+     * sequence is checked against the cas of the loaded content. If the document has been modified concurrently,
+     * the removal is retried on the current content.
+     *
+     * @param collection the collection holding the document.
+     * @param id the id of the document.
+     * @param getOptions the options to load the document with.
+     * @param options creates fresh options for each mutation.
+     * @param retries how often to retry on concurrent modifications.
+     * @param filter returns true for each element to remove.
+     * @param operation the name of the datastructure operation, for error reporting.
+     * @return true if at least one element has been removed.
+     */
+    static boolean removeFromArray(final Collection collection, final String id, final GetOptions getOptions,
+                                   final Supplier<MutateInOptions> options, final int retries,
+                                   final Predicate<Object> filter, final String operation) {
+        boolean modified = false;
+        for (int i = 0; i < retries; i++) {
+            try {
+                GetResult result = collection.get(id, getOptions);
+                List<MutateInSpec> specs = arrayRemovals(result.contentAsArray(), filter);
+                if (specs.isEmpty()) {
+                    return modified;
+                }
+
+                long cas = result.cas();
+                for (List<MutateInSpec> chunk : chunks(specs)) {
+                    cas = collection.mutateIn(id, chunk, options.get().cas(cas)).cas();
+                    // if a later chunk fails, the elements of this one are removed already
+                    modified = true;
+                }
+                return true;
+            } catch (DocumentNotFoundException e) {
+                return modified;
+            } catch (CasMismatchException e) {
+                // will retry on the current content
+            }
+        }
+        throw new CouchbaseException(operation + " failed",
+          new RetryExhaustedException("Couldn't perform " + operation + " in less than "
+            + retries
+            + " iterations. It is likely concurrent modifications of this document are the reason")
+        );
+    }
+
+    /**
+     * Non-blocking variant of {@link #removeFromArray(Collection, String, GetOptions, Supplier, int, Predicate, String)}.
+     * <p>
+     * The chunks are mutated one after the other, each one only once the previous one completed, so that every
+     * mutation can be checked against the cas returned by the one before.
+     *
+     * @param collection the collection holding the document.
+     * @param id the id of the document.
+     * @param getOptions the options to load the document with.
+     * @param options creates fresh options for each mutation.
+     * @param retries how often to retry on concurrent modifications.
+     * @param filter returns true for each element to remove.
+     * @param operation the name of the datastructure operation, for error reporting.
+     * @return a future completing with true if at least one element has been removed.
+     */
+    static CompletableFuture<Boolean> removeFromArray(final AsyncCollection collection, final String id,
+                                                      final GetOptions getOptions,
+                                                      final Supplier<MutateInOptions> options, final int retries,
+                                                      final Predicate<Object> filter, final String operation) {
+        // if a later chunk fails, the elements of the ones before are removed already
+        final AtomicBoolean modified = new AtomicBoolean();
+        return retryOnCasMismatch(() -> recover(
+          collection.get(id, getOptions).thenCompose(result -> {
+              CompletableFuture<Long> cas = CompletableFuture.completedFuture(result.cas());
+              for (List<MutateInSpec> chunk : chunks(arrayRemovals(result.contentAsArray(), filter))) {
+                  cas = cas
+                    .thenCompose(previous -> collection.mutateIn(id, chunk, options.get().cas(previous)))
+                    .thenApply(mutation -> {
+                        modified.set(true);
+                        return mutation.cas();
+                    });
+              }
+              return cas.thenApply(last -> modified.get());
+          }),
+          modified::get,
+          DocumentNotFoundException.class
+        ), retries, operation);
+    }
+
+    /**
+     * Creates the specs to remove all elements matching the filter from the JSON array, from the back so the indexes
+     * of the remaining ones do not shift.
+     */
+    private static List<MutateInSpec> arrayRemovals(final JsonArray current, final Predicate<Object> filter) {
+        List<MutateInSpec> specs = new ArrayList<>();
+        for (int index = current.size() - 1; index >= 0; index--) {
+            if (filter.test(current.get(index))) {
+                specs.add(MutateInSpec.remove("[" + index + "]"));
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Checks if a failed mutation has definitely not been applied, so that its values can be written again without
+     * duplicating them.
+     * <p>
+     * Only failures which the server (or the client, before sending) reported for certain qualify. Anything else,
+     * like an ambiguous timeout or a cancellation, might have been applied already.
+     *
+     * @param ex the failure of the mutation.
+     * @return true if the mutation has not been applied.
+     */
+    static boolean notApplied(final RuntimeException ex) {
+        return ex instanceof UnambiguousTimeoutException
+          || ex instanceof InvalidArgumentException
+          || ex instanceof ValueTooLargeException
+          || ex instanceof DocumentLockedException
+          || ex instanceof TemporaryFailureException
+          || ex instanceof ServerOutOfMemoryException
+          || ex instanceof DocumentNotJsonException
+          || ex instanceof DocumentTooDeepException
+          || ex instanceof PathMismatchException
+          || ex instanceof ValueTooDeepException;
+    }
+
+}
@@ -22,6 +22,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
 
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.error.CouchbaseException;
@@ -44,6 +45,7 @@ import com.couchbase.client.java.kv.LookupInSpec;
 import com.couchbase.client.java.kv.MutateInResult;
 import com.couchbase.client.java.kv.MutateInSpec;
 import com.couchbase.client.java.kv.MutationResult;
+import com.couchbase.client.java.kv.StoreSemantics;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -56,6 +58,10 @@ import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
  * can contain. JSON objects and sub-arrays can be represented as {@link JsonObject} and {@link JsonArray}
  * respectively.
  *
+ * Bulk operations ({@link #addAll(java.util.Collection)}, {@link #removeAll(java.util.Collection)} and
+ * {@link #retainAll(java.util.Collection)}) are packed into as few sub-document mutations as possible. Appends can
+ * also be buffered locally (see {@link ArrayListOptions#writeBehindBuffer(int)}) until {@link #flush()} is called.
+ *
  * @param <E> the type of values in the list.
  *
  * @since 2.3.6
@@ -70,6 +76,8 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
     private final LookupInOptions lookupInOptions;
     private final InsertOptions insertOptions;
     private final Class<E> entityTypeClass;
+    private final int writeBehindBuffer;
+    private final List<E> pendingWrites = new ArrayList<>();
 
     /**
      * Create a new {@link Collection Couchbase-backed} List, backed by the document identified by <code>id</code>
@@ -99,10 +107,12 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         this.getOptions = optionsIn.getOptions();
         this.lookupInOptions = optionsIn.lookupInOptions();
         this.insertOptions = optionsIn.insertOptions();
+        this.writeBehindBuffer = optionsIn.writeBehindBuffer();
     }
 
     @Override
     public E get(int index) {
+        flush();
         //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
         if (index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index);
@@ -129,6 +139,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public int size() {
+        flush();
         try {
             final LookupInResult result = collection.lookupIn(
               id,
@@ -143,6 +154,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public boolean isEmpty() {
+        flush();
         try {
             LookupInResult current = collection.lookupIn(
               id,
@@ -157,6 +169,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public E set(int index, E element) {
+        flush();
         //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
         if (index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index);
@@ -197,6 +210,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public void add(int index, E element) {
+        flush();
         //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
         if (index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index);
@@ -224,6 +238,7 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
 
     @Override
     public E remove(int index) {
+        flush();
         //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
         if (index < 0) {
             throw new IndexOutOfBoundsException("Index: " + index);
@@ -270,17 +285,130 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
     @Override
     public Iterator<E> iterator() {
         // This grabs entire list to create iterator
+        flush();
         return new CouchbaseListIterator(0);
     }
 
     @Override
     public ListIterator<E> listIterator(int index) {
         // This grabs entire list to create iterator
+        flush();
         return new CouchbaseListIterator(index);
     }
 
+    @Override
+    public boolean add(E element) {
+        if (writeBehindBuffer > 0) {
+            synchronized (pendingWrites) {
+                pendingWrites.add(element);
+                if (pendingWrites.size() < writeBehindBuffer) {
+                    return true;
+                }
+            }
+            flush();
+        } else {
+            append(Collections.singletonList(element));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        flush();
+        if (c.isEmpty()) {
+            return false;
+        }
+        append(new ArrayList<>(c));
+        return true;
+    }
+
+    @Override
+    public boolean addAll(int index, java.util.Collection<? extends E> c) {
+        //fail fast on negative values, as they are interpreted as "starting from the back of the array" otherwise
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        flush();
+        if (c.isEmpty()) {
+            return false;
+        }
+        List<E> values = new ArrayList<>(c);
+        int retry = 0;
+        try {
+            while (retry < 2) {
+                try {
+                    collection.mutateIn(
+                      id,
+                      Collections.singletonList(MutateInSpec.arrayInsert("[" + index + "]", values)),
+                      arrayListOptions.mutateInOptions()
+                    );
+                    return true;
+                } catch (DocumentNotFoundException e) {
+                    // empty list, create empty one and try again
+                    createEmptyList();
+                    retry += 1;
+                }
+            }
+        } catch (PathNotFoundException e) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        flush();
+        return BulkMutations.removeFromArray(collection, id, getOptions, arrayListOptions::mutateInOptions,
+            arrayListOptions.casMismatchRetries(), c::contains, "CouchbaseArrayList removeAll");
+    }
+
+    @Override
+    public boolean retainAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        flush();
+        return BulkMutations.removeFromArray(collection, id, getOptions, arrayListOptions::mutateInOptions,
+            arrayListOptions.casMismatchRetries(), value -> !c.contains(value), "CouchbaseArrayList retainAll");
+    }
+
+    /**
+     * Writes all elements which are buffered locally to the document.
+     * <p>
+     * This is a no-op if the write-behind buffer is disabled or empty. Note that every other operation on this list
+     * flushes the buffer first, so it only needs to be called explicitly to make sure the elements are persisted.
+     * <p>
+     * If the write fails, the elements are kept buffered for the next flush only if they have definitely not been
+     * written. On ambiguous failures (like a timeout) they are dropped, since writing them again might duplicate them.
+     */
+    @Stability.Volatile
+    public void flush() {
+        final List<E> values;
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            values = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+
+        try {
+            append(values);
+        } catch (RuntimeException ex) {
+            // keep the elements around so the flush can be retried, unless they might have been written already
+            if (BulkMutations.notApplied(ex)) {
+                synchronized (pendingWrites) {
+                    pendingWrites.addAll(0, values);
+                }
+            }
+            throw ex;
+        }
+    }
+
     @Override
     public void clear() {
+       synchronized (pendingWrites) {
+           pendingWrites.clear();
+       }
        try {
            collection.remove(id);
        } catch (DocumentNotFoundException e) {
@@ -437,6 +565,17 @@ public class CouchbaseArrayList<E> extends AbstractList<E> {
         }
     }
 
+    /**
+     * Helper method to append the values with a single mutation, creating the list if it does not exist yet.
+     */
+    private void append(final List<?> values) {
+        collection.mutateIn(
+          id,
+          Collections.singletonList(MutateInSpec.arrayAppend("", values)),
+          arrayListOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT)
+        );
+    }
+
     /**
      * Helper method to create an empty list (an empty document with a toplevel array).
      */
@@ -16,10 +16,14 @@
 package com.couchbase.client.java.datastructures;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.couchbase.client.core.annotation.Stability;
 
@@ -42,6 +46,7 @@ import com.couchbase.client.java.kv.LookupInResult;
 import com.couchbase.client.java.kv.LookupInSpec;
 import com.couchbase.client.java.kv.MapOptions;
 import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.StoreSemantics;
 
 import static com.couchbase.client.core.util.Validators.notNull;
 import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
@@ -56,6 +61,9 @@ import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
  * can contain. JSON sub-objects and sub-arrays can be represented as {@link JsonObject} and {@link JsonArray}
  * respectively.
  *
+ * {@link #putAll(Map)} and bulk removals through the {@link #entrySet()} are packed into as few sub-document
+ * mutations as possible.
+ *
  * @param <E> the type of values in the map (restricted to {@link JsonObject}.
  *
  * @since 2.3.6
@@ -138,6 +146,16 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
         );
     }
 
+    @Override
+    public void putAll(Map<? extends String, ? extends E> m) {
+        List<MutateInSpec> specs = new ArrayList<>(m.size());
+        for (Entry<? extends String, ? extends E> entry : m.entrySet()) {
+            specs.add(MutateInSpec.upsert(checkKey(entry.getKey()), entry.getValue()));
+        }
+        BulkMutations.mutateIn(collection, id, specs,
+            () -> mapOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT), 0);
+    }
+
     @Override
     public E get(Object key) {
         String idx = checkKey(key);
@@ -230,6 +248,26 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
         }
     }
 
+    /**
+     * Removes the given keys, packed into as few mutations as possible.
+     */
+    private void removeKeys(final List<String> keys) {
+        List<MutateInSpec> specs = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            specs.add(MutateInSpec.remove(key));
+        }
+        try {
+            BulkMutations.mutateIn(collection, id, specs, mapOptions::mutateInOptions, 0);
+        } catch (PathNotFoundException e) {
+            // some keys have been removed concurrently, which fails the whole mutation, so remove the rest one by one
+            for (String key : keys) {
+                remove(key);
+            }
+        } catch (DocumentNotFoundException e) {
+            // nothing left to remove
+        }
+    }
+
     private String checkKey(final Object key) {
         if (key == null) {
             throw new NullPointerException("Unsupported null key");
@@ -307,12 +345,34 @@ public class CouchbaseMap<E> extends AbstractMap<String, E> {
 
         @Override
         public boolean retainAll(java.util.Collection<?> c) {
-            return delegate.retainAll(c);
+            Objects.requireNonNull(c);
+            return removeEntries(entry -> !c.contains(entry));
         }
 
         @Override
         public boolean removeAll(java.util.Collection<?> c) {
-            return delegate.removeAll(c);
+            Objects.requireNonNull(c);
+            return removeEntries(c::contains);
+        }
+
+        /**
+         * Removes the matching entries from this snapshot and the backing document.
+         */
+        private boolean removeEntries(final Predicate<Entry<String, E>> filter) {
+            List<String> keys = new ArrayList<>();
+            Iterator<Entry<String, E>> it = delegate.iterator();
+            while (it.hasNext()) {
+                Entry<String, E> entry = it.next();
+                if (filter.test(entry)) {
+                    keys.add(entry.getKey());
+                    it.remove();
+                }
+            }
+            if (keys.isEmpty()) {
+                return false;
+            }
+            CouchbaseMap.this.removeKeys(keys);
+            return true;
         }
 
         @Override
@@ -16,9 +16,12 @@
 package com.couchbase.client.java.datastructures;
 
 import java.util.AbstractQueue;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
 
 import com.couchbase.client.core.annotation.Stability;
@@ -34,6 +37,7 @@ import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.core.error.CasMismatchException;
 import com.couchbase.client.java.kv.CommonDatastructureOptions;
+import com.couchbase.client.java.kv.GetOptions;
 import com.couchbase.client.java.kv.GetResult;
 import com.couchbase.client.java.kv.LookupInOptions;
 import com.couchbase.client.java.kv.LookupInResult;
@@ -55,6 +59,10 @@ import static com.couchbase.client.core.util.Validators.notNullOrEmpty;
  * respectively. Null values are not allowed as they have special meaning for the {@link #peek()} and {@link #remove()}
  * methods of a queue.
  *
+ * Bulk operations ({@link #addAll(java.util.Collection)}, {@link #removeAll(java.util.Collection)} and
+ * {@link #retainAll(java.util.Collection)}) are packed into as few sub-document mutations as possible. Offers can
+ * also be buffered locally (see {@link QueueOptions#writeBehindBuffer(int)}) until {@link #flush()} is called.
+ *
  * @param <E> the type of values in the queue.
  *
  * @since 2.3.6
@@ -68,6 +76,9 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
     private final Class<E> entityTypeClass;
     private final QueueOptions.Built queueOptions;
     private final LookupInOptions lookupInOptions;
+    private final GetOptions getOptions;
+    private final int writeBehindBuffer;
+    private final List<E> pendingWrites = new ArrayList<>();
 
     /**
      * Create a new {@link Collection Couchbase-backed} Queue, backed by the document identified by <code>id</code>
@@ -94,13 +105,19 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
         optionsIn.copyInto(opts);
         this.queueOptions = opts.build();
         this.lookupInOptions = optionsIn.lookupInOptions();
+        this.getOptions = optionsIn.getOptions();
+        this.writeBehindBuffer = optionsIn.writeBehindBuffer();
     }
 
     @Override
-    public Iterator<E> iterator() { return new CouchbaseQueueIterator<>(); }
+    public Iterator<E> iterator() {
+        flush();
+        return new CouchbaseQueueIterator<>();
+    }
 
     @Override
     public int size() {
+        flush();
         try {
             LookupInResult result = collection.lookupIn(id,
                     Collections.singletonList(LookupInSpec.count("")),
@@ -113,6 +130,9 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
 
     @Override
     public void clear() {
+        synchronized (pendingWrites) {
+            pendingWrites.clear();
+        }
         collection.remove(id);
     }
 
@@ -121,14 +141,103 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
         if (e == null) {
             throw new NullPointerException("Unsupported null value");
         }
+        if (writeBehindBuffer > 0) {
+            synchronized (pendingWrites) {
+                pendingWrites.add(e);
+                if (pendingWrites.size() < writeBehindBuffer) {
+                    return true;
+                }
+            }
+            flush();
+        } else {
+            prepend(Collections.singletonList(e));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot add a queue to itself");
+        }
+        List<E> values = new ArrayList<>(c);
+        for (E value : values) {
+            if (value == null) {
+                throw new NullPointerException("Unsupported null value");
+            }
+        }
+        flush();
+        if (values.isEmpty()) {
+            return false;
+        }
+        prepend(values);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        flush();
+        return BulkMutations.removeFromArray(collection, id, getOptions, queueOptions::mutateInOptions,
+            queueOptions.casMismatchRetries(), c::contains, "CouchbaseQueue removeAll");
+    }
+
+    @Override
+    public boolean retainAll(java.util.Collection<?> c) {
+        Objects.requireNonNull(c);
+        flush();
+        return BulkMutations.removeFromArray(collection, id, getOptions, queueOptions::mutateInOptions,
+            queueOptions.casMismatchRetries(), value -> !c.contains(value), "CouchbaseQueue retainAll");
+    }
+
+    /**
+     * Writes all elements which are buffered locally to the document.
+     * <p>
+     * This is a no-op if the write-behind buffer is disabled or empty. Note that every other operation on this queue
+     * flushes the buffer first, so it only needs to be called explicitly to make sure the elements are persisted.
+     * <p>
+     * If the write fails, the elements are kept buffered for the next flush only if they have definitely not been
+     * written. On ambiguous failures (like a timeout) they are dropped, since writing them again might duplicate them.
+     */
+    @Stability.Volatile
+    public void flush() {
+        final List<E> values;
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            values = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+
+        try {
+            prepend(values);
+        } catch (RuntimeException ex) {
+            // keep the elements around so the flush can be retried, unless they might have been written already
+            if (BulkMutations.notApplied(ex)) {
+                synchronized (pendingWrites) {
+                    pendingWrites.addAll(0, values);
+                }
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Helper method to add the values (in offer order) with a single mutation, creating the queue if needed.
+     */
+    private void prepend(final List<E> values) {
+        // the head of the queue is the end of the array, so the first value offered needs to end up last
+        List<E> reversed = new ArrayList<>(values);
+        Collections.reverse(reversed);
         collection.mutateIn(id,
-                Collections.singletonList(MutateInSpec.arrayPrepend("", Collections.singletonList(e))),
+                Collections.singletonList(MutateInSpec.arrayPrepend("", reversed)),
                 queueOptions.mutateInOptions().storeSemantics(StoreSemantics.UPSERT));
-        return true;
     }
 
     @Override
     public E poll() {
+        flush();
         String idx = "[-1]"; //FIFO queue as offer uses ARRAY_PREPEND
         for(int i = 0; i < queueOptions.casMismatchRetries(); i++) {
             try {
@@ -156,6 +265,7 @@ public class CouchbaseQueue<E> extends AbstractQueue<E> {
 
     @Override
     public E peek() {
+        flush();
         try {
             LookupInResult result = collection.lookupIn(
               id,
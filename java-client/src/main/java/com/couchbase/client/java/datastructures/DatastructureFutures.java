@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentExistsException;
+import com.couchbase.client.core.retry.reactor.RetryExhaustedException;
+
+/**
+ * Helpers to compose the futures of the non-blocking datastructures.
+ *
+ * @since 3.1.0
+ */
+final class DatastructureFutures {
+
+    private DatastructureFutures() { }
+
+    /**
+     * Completes with the fallback value if the future fails with one of the given (expected) exceptions.
+     *
+     * @param future the future to recover.
+     * @param fallback supplies the value to complete with instead.
+     * @param expected the types of exceptions to recover from.
+     * @return the recovered future.
+     */
+    @SafeVarargs
+    static <T> CompletableFuture<T> recover(final CompletableFuture<T> future, final Supplier<T> fallback,
+                                            final Class<? extends Throwable>... expected) {
+        return future.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = unwrap(error);
+            for (Class<? extends Throwable> type : expected) {
+                if (type.isInstance(cause)) {
+                    return fallback.get();
+                }
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Runs an optimistic read-modify-write attempt, starting it over as long as it fails with a
+     * {@link CasMismatchException} (or a {@link DocumentExistsException}, if the document has been created
+     * concurrently) and retries are left.
+     * <p>
+     * Each attempt is only started once the previous one completed, so no thread is blocked in between.
+     *
+     * @param attempt starts a new attempt.
+     * @param retries the maximum number of attempts.
+     * @param operation the name of the datastructure operation, for error reporting.
+     * @return a future completing with the result of the first successful attempt.
+     */
+    static <T> CompletableFuture<T> retryOnCasMismatch(final Supplier<CompletableFuture<T>> attempt,
+                                                       final int retries, final String operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(attempt, retries, 1, operation, result);
+        return result;
+    }
+
+    private static <T> void attempt(final Supplier<CompletableFuture<T>> attempt, final int retries,
+                                    final int current, final String operation, final CompletableFuture<T> result) {
+        if (current > retries) {
+            result.completeExceptionally(new CouchbaseException(operation + " failed",
+              new RetryExhaustedException("Couldn't perform " + operation + " in less than "
+                + retries
+                + " iterations. It is likely concurrent modifications of this document are the reason")
+            ));
+            return;
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return;
+        }
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                Throwable cause = unwrap(error);
+                if (cause instanceof CasMismatchException || cause instanceof DocumentExistsException) {
+                    attempt(attempt, retries, current + 1, operation, result);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the actual cause of a failed future stage.
+     */
+    static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+}
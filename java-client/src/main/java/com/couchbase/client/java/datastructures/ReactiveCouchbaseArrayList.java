@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive counterpart of the {@link CouchbaseArrayList}, backed by a {@link ReactiveCollection Couchbase}
+ * document (more specifically a {@link JsonArray JSON array}).
+ * <p>
+ * All operations are deferred until subscription and are executed through an {@link AsyncCouchbaseArrayList}.
+ * Operations on an index which does not exist fail with an {@link IndexOutOfBoundsException}.
+ *
+ * @param <E> the type of values in the list.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ReactiveCouchbaseArrayList<E> {
+
+    private final AsyncCouchbaseArrayList<E> async;
+
+    /**
+     * Create a new {@link ReactiveCollection Couchbase-backed} List, backed by the document identified by
+     * <code>id</code> in <code>collection</code>. Note that if the document already exists, its content will be used
+     * as initial content for this list. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the list.
+     * @param collection the {@link ReactiveCollection} through which to interact with the document.
+     * @param entityType a Class<E> describing the type of objects in this list.
+     * @param options a {@link ArrayListOptions} to use for all operations on this instance of the list.
+     * @throws InvalidArgumentException if the options enable the write-behind buffer, which is not supported.
+     */
+    public ReactiveCouchbaseArrayList(String id, ReactiveCollection collection, Class<E> entityType,
+                                      ArrayListOptions options) {
+        this.async = new AsyncCouchbaseArrayList<>(id, collection == null ? null : collection.async(), entityType,
+          options);
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index the index of the element.
+     * @return a {@link Mono} with the element, empty if it is null.
+     */
+    public Mono<E> get(final int index) {
+        return Reactor.toMono(() -> async.get(index));
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return a {@link Mono} with the size of the list.
+     */
+    public Mono<Integer> size() {
+        return Reactor.toMono(async::size);
+    }
+
+    /**
+     * Appends the element to the end of the list, creating the list if it does not exist yet.
+     *
+     * @param element the element to append.
+     * @return a {@link Mono} completing once the element is appended.
+     */
+    public Mono<Void> add(final E element) {
+        return Reactor.toMono(() -> async.add(element));
+    }
+
+    /**
+     * Appends all elements (in iteration order) to the end of the list with a single mutation.
+     *
+     * @param elements the elements to append.
+     * @return a {@link Mono} completing once the elements are appended.
+     */
+    public Mono<Void> addAll(final java.util.Collection<? extends E> elements) {
+        return Reactor.toMono(() -> async.addAll(elements));
+    }
+
+    /**
+     * Inserts the element at the given index.
+     *
+     * @param index the index to insert the element at.
+     * @param element the element to insert.
+     * @return a {@link Mono} completing once the element is inserted.
+     */
+    public Mono<Void> add(final int index, final E element) {
+        return Reactor.toMono(() -> async.add(index, element));
+    }
+
+    /**
+     * Replaces the element at the given index.
+     *
+     * @param index the index of the element to replace.
+     * @param element the element to store.
+     * @return a {@link Mono} with the replaced element, empty if it was null.
+     */
+    public Mono<E> set(final int index, final E element) {
+        return Reactor.toMono(() -> async.set(index, element));
+    }
+
+    /**
+     * Removes the element at the given index.
+     *
+     * @param index the index of the element to remove.
+     * @return a {@link Mono} with the removed element, empty if it was null.
+     */
+    public Mono<E> remove(final int index) {
+        return Reactor.toMono(() -> async.remove(index));
+    }
+
+    /**
+     * Removes all elements which are contained in the given collection, with one mutation per 16 elements.
+     *
+     * @param c the elements to remove.
+     * @return a {@link Mono} with true if the list changed.
+     */
+    public Mono<Boolean> removeAll(final java.util.Collection<?> c) {
+        return Reactor.toMono(() -> async.removeAll(c));
+    }
+
+    /**
+     * Removes all elements which are not contained in the given collection, with one mutation per 16 elements.
+     *
+     * @param c the elements to retain.
+     * @return a {@link Mono} with true if the list changed.
+     */
+    public Mono<Boolean> retainAll(final java.util.Collection<?> c) {
+        return Reactor.toMono(() -> async.retainAll(c));
+    }
+
+    /**
+     * Streams a snapshot of all elements, loaded with a single fetch of the document.
+     * <p>
+     * Note that null elements cannot be emitted and are skipped.
+     *
+     * @return a {@link Flux} of the elements of the list.
+     */
+    public Flux<E> values() {
+        return Reactor.toMono(async::values).flatMapIterable(values -> values).filter(value -> value != null);
+    }
+
+    /**
+     * Removes all elements by removing the backing document.
+     *
+     * @return a {@link Mono} completing once the list is cleared.
+     */
+    public Mono<Void> clear() {
+        return Reactor.toMono(async::clear);
+    }
+
+}
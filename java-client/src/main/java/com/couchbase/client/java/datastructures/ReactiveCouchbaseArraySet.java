@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.ArraySetOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive counterpart of the {@link CouchbaseArraySet}, backed by a {@link ReactiveCollection Couchbase}
+ * document (more specifically a {@link JsonArray JSON array}).
+ * <p>
+ * All operations are deferred until subscription and are executed through an {@link AsyncCouchbaseArraySet}.
+ *
+ * @param <T> the type of values in the set.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ReactiveCouchbaseArraySet<T> {
+
+    private final AsyncCouchbaseArraySet<T> async;
+
+    /**
+     * Create a new {@link ReactiveCouchbaseArraySet}, backed by the document identified by <code>id</code>
+     * in the given Couchbase <code>collection</code>. Note that if the document already exists,
+     * its content will be used as initial content for this set. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the set.
+     * @param collection the {@link ReactiveCollection} through which to interact with the document.
+     * @param entityType a Class<T> describing the type of objects in this Set.
+     * @param options a {@link ArraySetOptions} to use for all operations on this instance of the set.
+     */
+    public ReactiveCouchbaseArraySet(String id, ReactiveCollection collection, Class<T> entityType,
+                                     ArraySetOptions options) {
+        this.async = new AsyncCouchbaseArraySet<>(id, collection == null ? null : collection.async(), entityType,
+          options);
+    }
+
+    /**
+     * Adds the value to the set, creating the set if it does not exist yet.
+     *
+     * @param t the value to add.
+     * @return a {@link Mono} with true if the value was added, false if it was already present.
+     */
+    public Mono<Boolean> add(final T t) {
+        return Reactor.toMono(() -> async.add(t));
+    }
+
+    /**
+     * Checks if the value is part of the set.
+     *
+     * @param t the value to look for.
+     * @return a {@link Mono} with true if the set contains the value.
+     */
+    public Mono<Boolean> contains(final T t) {
+        return Reactor.toMono(() -> async.contains(t));
+    }
+
+    /**
+     * Removes the value from the set.
+     *
+     * @param t the value to remove.
+     * @return a {@link Mono} with true if the value was removed, false if it was not present.
+     */
+    public Mono<Boolean> remove(final T t) {
+        return Reactor.toMono(() -> async.remove(t));
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return a {@link Mono} with the size of the set.
+     */
+    public Mono<Integer> size() {
+        return Reactor.toMono(async::size);
+    }
+
+    /**
+     * Streams a snapshot of all values, loaded with a single fetch of the document.
+     * <p>
+     * Note that a null value cannot be emitted and is skipped.
+     *
+     * @return a {@link Flux} of the values of the set.
+     */
+    public Flux<T> values() {
+        return Reactor.toMono(async::values).flatMapIterable(values -> values).filter(value -> value != null);
+    }
+
+    /**
+     * Removes all values by removing the backing document.
+     *
+     * @return a {@link Mono} completing once the set is cleared.
+     */
+    public Mono<Void> clear() {
+        return Reactor.toMono(async::clear);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.Map;
+
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.MapOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive counterpart of the {@link CouchbaseMap}, backed by a {@link ReactiveCollection Couchbase} document
+ * (more specifically a {@link JsonObject JSON object}) with {@link String} keys.
+ * <p>
+ * All operations are deferred until subscription and are executed through an {@link AsyncCouchbaseMap}.
+ *
+ * @param <E> the type of values in the map.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ReactiveCouchbaseMap<E> {
+
+    private final AsyncCouchbaseMap<E> async;
+
+    /**
+     * Create a new {@link ReactiveCouchbaseMap}, backed by the document identified by <code>id</code>
+     * in the given <code>collection</code>. Note that if the document already exists, its content will be used as
+     * initial content for this map. Otherwise it is created on the first write.
+     *
+     * @param id the id of the Couchbase document to back the map.
+     * @param collection the {@link ReactiveCollection} through which to interact with the document.
+     * @param entityType a {@link Class<E>} describing the type of objects used as values in this map.
+     * @param options a {@link MapOptions} to use for all operations on this instance of the map.
+     */
+    public ReactiveCouchbaseMap(String id, ReactiveCollection collection, Class<E> entityType, MapOptions options) {
+        this.async = new AsyncCouchbaseMap<>(id, collection == null ? null : collection.async(), entityType, options);
+    }
+
+    /**
+     * Associates the value with the key, creating the map if it does not exist yet.
+     *
+     * @param key the key to associate the value with.
+     * @param value the value to store.
+     * @return a {@link Mono} with the previous value, empty if there was none.
+     */
+    public Mono<E> put(final String key, final E value) {
+        return Reactor.toMono(() -> async.put(key, value));
+    }
+
+    /**
+     * Stores all entries, creating the map if it does not exist yet.
+     *
+     * @param values the entries to store.
+     * @return a {@link Mono} completing once all entries are stored.
+     */
+    public Mono<Void> putAll(final Map<String, ? extends E> values) {
+        return Reactor.toMono(() -> async.putAll(values));
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key the key to look up.
+     * @return a {@link Mono} with the value, empty if there is none.
+     */
+    public Mono<E> get(final String key) {
+        return Reactor.toMono(() -> async.get(key));
+    }
+
+    /**
+     * Removes the value associated with the key.
+     *
+     * @param key the key to remove.
+     * @return a {@link Mono} with the removed value, empty if there was none.
+     */
+    public Mono<E> remove(final String key) {
+        return Reactor.toMono(() -> async.remove(key));
+    }
+
+    /**
+     * Checks if a value is associated with the key.
+     *
+     * @param key the key to check.
+     * @return a {@link Mono} with true if the key is present.
+     */
+    public Mono<Boolean> containsKey(final String key) {
+        return Reactor.toMono(() -> async.containsKey(key));
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return a {@link Mono} with the size of the map.
+     */
+    public Mono<Integer> size() {
+        return Reactor.toMono(async::size);
+    }
+
+    /**
+     * Streams a snapshot of all entries, loaded with a single fetch of the document.
+     *
+     * @return a {@link Flux} of the entries of the map.
+     */
+    public Flux<Map.Entry<String, E>> entries() {
+        return Reactor.toMono(async::entries).flatMapIterable(Map::entrySet);
+    }
+
+    /**
+     * Removes all entries by removing the backing document.
+     *
+     * @return a {@link Mono} completing once the map is cleared.
+     */
+    public Mono<Void> clear() {
+        return Reactor.toMono(async::clear);
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.couchbase.client.java.datastructures;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.couchbase.client.core.Reactor;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.QueueOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+import static com.couchbase.client.java.datastructures.DatastructureFutures.unwrap;
+
+/**
+ * A reactive counterpart of the {@link CouchbaseQueue}, backed by a {@link ReactiveCollection Couchbase} document
+ * (more specifically a {@link JsonArray JSON array}).
+ * <p>
+ * All operations are deferred until subscription and are executed through an {@link AsyncCouchbaseQueue}. Null values
+ * are not allowed.
+ *
+ * @param <E> the type of values in the queue.
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public class ReactiveCouchbaseQueue<E> {
+
+    private final AsyncCouchbaseQueue<E> async;
+
+    /**
+     * Create a new {@link ReactiveCouchbaseQueue}, backed by the document identified by <code>id</code>
+     * in the given Couchbase <code>collection</code>. Note that if the document already exists,
+     * its content will be used as initial content for this queue. Otherwise it is created on the first offer.
+     *
+     * @param id the id of the Couchbase document to back the queue.
+     * @param collection the {@link ReactiveCollection} through which to interact with the document.
+     * @param entityType a Class<E> describing the type of objects in this Queue.
+     * @param options a {@link QueueOptions} to use for all operations on this instance of the queue.
+     * @throws InvalidArgumentException if the options enable the write-behind buffer, which is not supported.
+     */
+    public ReactiveCouchbaseQueue(String id, ReactiveCollection collection, Class<E> entityType, QueueOptions options) {
+        this.async = new AsyncCouchbaseQueue<>(id, collection == null ? null : collection.async(), entityType, options);
+    }
+
+    /**
+     * Adds the element to the back of the queue, creating the queue if it does not exist yet.
+     *
+     * @param e the element to add.
+     * @return a {@link Mono} completing once the element is added.
+     */
+    public Mono<Void> offer(final E e) {
+        return Reactor.toMono(() -> async.offer(e));
+    }
+
+    /**
+     * Adds all elements (in iteration order) to the back of the queue with a single mutation.
+     *
+     * @param values the elements to add.
+     * @return a {@link Mono} completing once the elements are added.
+     */
+    public Mono<Void> offerAll(final java.util.Collection<? extends E> values) {
+        return Reactor.toMono(() -> async.offerAll(values));
+    }
+
+    /**
+     * Retrieves and removes the head of the queue.
+     *
+     * @return a {@link Mono} with the head of the queue, empty if the queue is.
+     */
+    public Mono<E> poll() {
+        return Reactor.toMono(async::poll);
+    }
+
+    /**
+     * Retrieves and removes up to the given number of elements from the head of the queue.
+     *
+     * @param maxElements the maximum number of elements to poll.
+     * @return a {@link Flux} of the polled elements in queue order.
+     */
+    public Flux<E> poll(final int maxElements) {
+        return Reactor.toFlux(() -> async.poll(maxElements));
+    }
+
+    /**
+     * Drains the queue, polling elements in batches as the subscriber requests them.
+     * <p>
+     * Each batch polls at most as many elements as have been requested and not delivered yet (and never more than
+     * <code>prefetch</code>), so a slow subscriber is never handed more elements than it asked for. The flux completes
+     * once a poll finds the queue empty. Note that elements are removed from the queue before they are delivered: if
+     * the subscription is cancelled while a batch is in flight, the elements of that batch are lost, which is at most
+     * the outstanding demand.
+     *
+     * @param prefetch the maximum number of elements to poll with a single round trip.
+     * @return a {@link Flux} of the polled elements in queue order.
+     */
+    public Flux<E> pollAll(final int prefetch) {
+        if (prefetch < 1) {
+            throw InvalidArgumentException.fromMessage("The prefetch must be positive, but got " + prefetch);
+        }
+        return Flux.create(sink -> {
+            Drain<E> drain = new Drain<>(async, sink, prefetch);
+            sink.onRequest(drain::request);
+        });
+    }
+
+    /**
+     * Retrieves, but does not remove, the head of the queue.
+     *
+     * @return a {@link Mono} with the head of the queue, empty if the queue is.
+     */
+    public Mono<E> peek() {
+        return Reactor.toMono(async::peek);
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return a {@link Mono} with the size of the queue.
+     */
+    public Mono<Integer> size() {
+        return Reactor.toMono(async::size);
+    }
+
+    /**
+     * Removes all elements which are contained in the given collection, with one mutation per 16 elements.
+     *
+     * @param c the elements to remove.
+     * @return a {@link Mono} with true if the queue changed.
+     */
+    public Mono<Boolean> removeAll(final java.util.Collection<?> c) {
+        return Reactor.toMono(() -> async.removeAll(c));
+    }
+
+    /**
+     * Removes all elements which are not contained in the given collection, with one mutation per 16 elements.
+     *
+     * @param c the elements to retain.
+     * @return a {@link Mono} with true if the queue changed.
+     */
+    public Mono<Boolean> retainAll(final java.util.Collection<?> c) {
+        return Reactor.toMono(() -> async.retainAll(c));
+    }
+
+    /**
+     * Removes all elements by removing the backing document.
+     *
+     * @return a {@link Mono} completing once the queue is cleared.
+     */
+    public Mono<Void> clear() {
+        return Reactor.toMono(async::clear);
+    }
+
+    /**
+     * Polls batches for the outstanding demand of a {@link #pollAll(int)} subscriber, one batch at a time.
+     */
+    private static class Drain<E> {
+
+        private final AsyncCouchbaseQueue<E> queue;
+        private final FluxSink<E> sink;
+        private final int prefetch;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean polling = new AtomicBoolean();
+
+        Drain(final AsyncCouchbaseQueue<E> queue, final FluxSink<E> sink, final int prefetch) {
+            this.queue = queue;
+            this.sink = sink;
+            this.prefetch = prefetch;
+        }
+
+        void request(final long n) {
+            demand.accumulateAndGet(n, Operators::addCap);
+            poll();
+        }
+
+        private void poll() {
+            // the flag is released before the demand is checked again, so a concurrent request is never missed
+            if (sink.isCancelled() || demand.get() == 0 || !polling.compareAndSet(false, true)) {
+                return;
+            }
+            queue.poll((int) Math.min(demand.get(), prefetch)).whenComplete(this::onBatch);
+        }
+
+        private void onBatch(final List<E> values, final Throwable error) {
+            if (error != null) {
+                sink.error(unwrap(error));
+                return;
+            }
+            if (values.isEmpty()) {
+                sink.complete();
+                return;
+            }
+            if (demand.get() != Long.MAX_VALUE) {
+                demand.addAndGet(-values.size());
+            }
+            for (E value : values) {
+                sink.next(value);
+            }
+            polling.set(false);
+            poll();
+        }
+
+    }
+
+}
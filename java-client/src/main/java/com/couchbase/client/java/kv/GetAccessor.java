@@ -18,6 +18,7 @@ package com.couchbase.client.java.kv;
 
 import com.couchbase.client.core.Core;
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.msg.kv.CodecFlags;
@@ -28,13 +29,24 @@ import com.couchbase.client.core.msg.kv.SubDocumentField;
 import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
 import com.couchbase.client.core.msg.kv.SubdocGetRequest;
 import com.couchbase.client.core.msg.kv.SubdocGetResponse;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
+import com.couchbase.client.core.projections.JsonPathParser;
+import com.couchbase.client.core.projections.PathArray;
+import com.couchbase.client.core.projections.PathElement;
+import com.couchbase.client.core.projections.PathObjectOrField;
+import com.couchbase.client.core.projections.ProjectionWriter;
 import com.couchbase.client.java.codec.Transcoder;
-import com.couchbase.client.java.json.JsonObject;
-import com.couchbase.client.java.kv.projections.ProjectionsApplier;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static com.couchbase.client.core.error.DefaultErrorUtil.keyValueStatusToException;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -48,6 +60,26 @@ public enum GetAccessor {
    */
   public static final String EXPIRATION_MACRO = "$document.exptime";
 
+  /**
+   * The maximum number of paths the server allows to look up in a single request.
+   */
+  public static final int MAX_LOOKUP_PATHS = 16;
+
+  /**
+   * Up to this size (in bytes), loading the full document is cheaper than splitting up the lookups.
+   */
+  static final int MAX_FILTERED_DOCUMENT_SIZE = 16 * 1024;
+
+  /**
+   * Without a size hint, up to this many lookups are used before loading the full document instead.
+   */
+  static final int MAX_SPLIT_LOOKUPS = 4;
+
+  /**
+   * How often split lookups are attempted if the document keeps changing in between and cannot be filtered instead.
+   */
+  static final int MAX_SPLIT_ATTEMPTS = 3;
+
   /**
    * Takes a {@link GetRequest} and dispatches, converts and returns the result.
    *
@@ -58,6 +90,17 @@ public enum GetAccessor {
    */
   public static CompletableFuture<GetResult> get(final Core core, final GetRequest request, final Transcoder transcoder) {
     core.send(request);
+    return getResult(request, transcoder);
+  }
+
+  /**
+   * Converts the response of an already dispatched {@link GetRequest} into a {@link GetResult}.
+   *
+   * @param request the dispatched request to convert once a response arrives.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return a {@link CompletableFuture} once the document is fetched and decoded.
+   */
+  public static CompletableFuture<GetResult> getResult(final GetRequest request, final Transcoder transcoder) {
     return request
       .response()
       .thenApply(response -> {
@@ -108,6 +151,18 @@ public enum GetAccessor {
   public static CompletableFuture<GetResult> subdocGet(final Core core, final SubdocGetRequest request,
                                                        final Transcoder transcoder) {
     core.send(request);
+    return subdocGetResult(request, transcoder);
+  }
+
+  /**
+   * Converts the response of an already dispatched {@link SubdocGetRequest} into a {@link GetResult}.
+   *
+   * @param request the dispatched request to convert once a response arrives.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return a {@link CompletableFuture} once the document is fetched and decoded.
+   */
+  public static CompletableFuture<GetResult> subdocGetResult(final SubdocGetRequest request,
+                                                             final Transcoder transcoder) {
     return request
       .response()
       .thenApply(response -> {
@@ -138,29 +193,316 @@ public enum GetAccessor {
       }
     }
 
+    Optional<ProjectionStrategy> strategy = Optional.empty();
     if (content == null) {
       try {
         content = projectRecursive(response);
+        strategy = Optional.of(ProjectionStrategy.SINGLE_LOOKUP);
       } catch (Exception e) {
         throw new CouchbaseException("Unexpected Exception while decoding Sub-Document get", e);
       }
     }
 
-    Optional<Duration> expiration = exptime == null
+    return new GetResult(content, CodecFlags.JSON_COMPAT_FLAGS, cas, parseExpiration(exptime), transcoder, strategy);
+  }
+
+  /**
+   * Converts the responses of already dispatched {@link SubdocGetRequest SubdocGetRequests}, each looking up a part
+   * of the projected paths, into a single {@link GetResult}.
+   * <p>
+   * The lookups are not atomic as a whole, so if the document has been modified in between (as indicated by
+   * differing CAS values) the projection is fetched again. If the full document can be filtered down to the
+   * projected paths, this is done through the fallback request which loads the full document. Otherwise (which is
+   * why the paths have been split up in the first place) the lookups are retried, up to {@value #MAX_SPLIT_ATTEMPTS}
+   * times overall.
+   *
+   * @param core the core reference to dispatch the retried lookups or the fallback into.
+   * @param requests the dispatched requests to convert once all responses arrive.
+   * @param retry creates the lookup requests again if the lookups saw different versions of the document.
+   * @param fallback creates the full document request if the lookups saw different versions of the document.
+   * @param projections the projected paths, used to filter the full document in the fallback case.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return a {@link CompletableFuture} once the document is fetched and decoded.
+   */
+  public static CompletableFuture<GetResult> splitSubdocGetResult(final Core core,
+                                                                  final List<SubdocGetRequest> requests,
+                                                                  final Supplier<List<SubdocGetRequest>> retry,
+                                                                  final Supplier<SubdocGetRequest> fallback,
+                                                                  final List<String> projections,
+                                                                  final Transcoder transcoder) {
+    return splitSubdocGetResult(core, requests, retry, fallback, projections, transcoder, MAX_SPLIT_ATTEMPTS - 1);
+  }
+
+  private static CompletableFuture<GetResult> splitSubdocGetResult(final Core core,
+                                                                   final List<SubdocGetRequest> requests,
+                                                                   final Supplier<List<SubdocGetRequest>> retry,
+                                                                   final Supplier<SubdocGetRequest> fallback,
+                                                                   final List<String> projections,
+                                                                   final Transcoder transcoder,
+                                                                   final int retriesLeft) {
+    final List<CompletableFuture<SubdocGetResponse>> responses = new ArrayList<>(requests.size());
+    for (SubdocGetRequest request : requests) {
+      responses.add(subdocGetResponse(request));
+    }
+
+    return CompletableFuture
+      .allOf(responses.toArray(new CompletableFuture[0]))
+      .thenCompose(ignored -> {
+        final long cas = responses.get(0).join().cas();
+        for (CompletableFuture<SubdocGetResponse> response : responses) {
+          if (response.join().cas() != cas) {
+            if (canFilter(projections)) {
+              SubdocGetRequest request = fallback.get();
+              core.send(request);
+              return filteredSubdocGetResult(request, projections, transcoder);
+            }
+            if (retriesLeft == 0) {
+              throw new CouchbaseException("The document has been modified while looking up its projected paths, "
+                + "giving up after " + MAX_SPLIT_ATTEMPTS + " attempts");
+            }
+            List<SubdocGetRequest> retried = retry.get();
+            for (SubdocGetRequest request : retried) {
+              core.send(request);
+            }
+            return splitSubdocGetResult(core, retried, retry, fallback, projections, transcoder, retriesLeft - 1);
+          }
+        }
+
+        byte[] exptime = null;
+        ProjectionWriter out = new ProjectionWriter();
+        for (CompletableFuture<SubdocGetResponse> response : responses) {
+          for (SubDocumentField value : response.join().values()) {
+            if (value == null || value.status() != SubDocumentOpResponseStatus.SUCCESS) {
+              continue;
+            }
+            if (EXPIRATION_MACRO.equals(value.path())) {
+              exptime = value.value();
+            } else {
+              out.add(value.path(), value.value());
+            }
+          }
+        }
+
+        byte[] content;
+        try {
+          content = out.toBytes();
+        } catch (Exception e) {
+          throw new CouchbaseException("Unexpected Exception while decoding Sub-Document get", e);
+        }
+        return CompletableFuture.completedFuture(new GetResult(content, CodecFlags.JSON_COMPAT_FLAGS, cas,
+          parseExpiration(exptime), transcoder, Optional.of(ProjectionStrategy.SPLIT_LOOKUPS)));
+      });
+  }
+
+  /**
+   * Converts the response of an already dispatched {@link SubdocGetRequest}, which loads the full document, into
+   * a {@link GetResult} holding only the projected paths.
+   *
+   * @param request the dispatched request to convert once a response arrives.
+   * @param projections the projected paths to filter the document with.
+   * @param transcoder the transcoder used to decode the response body.
+   * @return a {@link CompletableFuture} once the document is fetched and filtered.
+   */
+  public static CompletableFuture<GetResult> filteredSubdocGetResult(final SubdocGetRequest request,
+                                                                     final List<String> projections,
+                                                                     final Transcoder transcoder) {
+    return subdocGetResponse(request).thenApply(response -> {
+      byte[] exptime = null;
+      byte[] document = null;
+
+      for (SubDocumentField value : response.values()) {
+        if (value != null) {
+          if (EXPIRATION_MACRO.equals(value.path())) {
+            exptime = value.value();
+          } else if (value.path().isEmpty()) {
+            document = value.value();
+          }
+        }
+      }
+
+      byte[] content;
+      try {
+        content = filterProjections(document, projections);
+      } catch (Exception e) {
+        throw new CouchbaseException("Unexpected Exception while filtering the projected document", e);
+      }
+      return new GetResult(content, CodecFlags.JSON_COMPAT_FLAGS, response.cas(), parseExpiration(exptime),
+        transcoder, Optional.of(ProjectionStrategy.FULL_DOCUMENT));
+    });
+  }
+
+  /**
+   * Waits for the response of a {@link SubdocGetRequest} and turns unsuccessful ones into exceptions.
+   */
+  private static CompletableFuture<SubdocGetResponse> subdocGetResponse(final SubdocGetRequest request) {
+    return request
+      .response()
+      .thenApply(response -> {
+        if (response.status().success() || response.status() == ResponseStatus.SUBDOC_FAILURE) {
+          if (response.error().isPresent()) {
+            throw response.error().get();
+          }
+          return response;
+        }
+        throw keyValueStatusToException(request, response);
+      }).whenComplete((t, e) -> request.context().logicallyComplete());
+  }
+
+  private static Optional<Duration> parseExpiration(final byte[] exptime) {
+    return exptime == null
       ? Optional.empty()
       : Optional.of(Duration.ofSeconds(Long.parseLong(new String(exptime, UTF_8))));
+  }
+
+  /**
+   * Picks the strategy to fetch the given projections with.
+   * <p>
+   * As long as all paths fit into a single lookup, nothing else is needed. Otherwise small documents are fetched
+   * in full and filtered, since that takes only one round trip, while large documents are fetched through multiple
+   * lookups so that only the projected fields go over the wire. Without a size hint, a few lookups are preferred over
+   * loading the full document, but once many lookups would be needed the full document is fetched instead.
+   *
+   * @param projections the projected paths.
+   * @param withExpiry if the expiry is fetched alongside, which takes up one path of a lookup.
+   * @param documentSizeHint the expected size of the document in bytes, 0 if unknown.
+   * @return the strategy to use.
+   */
+  public static ProjectionStrategy projectionStrategy(final List<String> projections, final boolean withExpiry,
+                                                      final int documentSizeHint) {
+    int lookups = splitProjections(projections, withExpiry).size();
+    if (lookups <= 1) {
+      return ProjectionStrategy.SINGLE_LOOKUP;
+    }
+    if (!canFilter(projections)) {
+      return ProjectionStrategy.SPLIT_LOOKUPS;
+    }
+    if (documentSizeHint > 0) {
+      return documentSizeHint <= MAX_FILTERED_DOCUMENT_SIZE
+        ? ProjectionStrategy.FULL_DOCUMENT
+        : ProjectionStrategy.SPLIT_LOOKUPS;
+    }
+    return lookups <= MAX_SPLIT_LOOKUPS ? ProjectionStrategy.SPLIT_LOOKUPS : ProjectionStrategy.FULL_DOCUMENT;
+  }
+
+  /**
+   * Splits the projected paths into chunks which each fit into a single lookup.
+   *
+   * @param projections the projected paths.
+   * @param withExpiry if the expiry is fetched alongside, which takes up one path of the first lookup.
+   * @return the paths of each lookup, in order.
+   */
+  public static List<List<String>> splitProjections(final List<String> projections, final boolean withExpiry) {
+    List<List<String>> lookups = new ArrayList<>();
+    int start = 0;
+    int capacity = withExpiry ? MAX_LOOKUP_PATHS - 1 : MAX_LOOKUP_PATHS;
+    do {
+      int end = Math.min(projections.size(), start + capacity);
+      lookups.add(projections.subList(start, end));
+      start = end;
+      capacity = MAX_LOOKUP_PATHS;
+    } while (start < projections.size());
+    return lookups;
+  }
+
+  /**
+   * Checks if the projected paths can be filtered out of the full document in one pass.
+   * <p>
+   * This is not the case if a path does not convert into a JSON pointer, or if one path is a parent of another (the
+   * stream parser matches each value only once).
+   */
+  static boolean canFilter(final List<String> projections) {
+    Set<String> pointers = new HashSet<>();
+    try {
+      for (String path : projections) {
+        pointers.add(jsonPointer(path));
+      }
+    } catch (Exception e) {
+      return false;
+    }
 
-    return new GetResult(content, CodecFlags.JSON_COMPAT_FLAGS, cas, expiration, transcoder);
+    for (String pointer : pointers) {
+      for (int i = pointer.lastIndexOf('/'); i > 0; i = pointer.lastIndexOf('/', i - 1)) {
+        if (pointers.contains(pointer.substring(0, i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Filters the projected paths out of the full document in a single streaming pass.
+   *
+   * @param document the full document.
+   * @param projections the projected paths.
+   * @return the projected document, encoded as a byte array.
+   */
+  static byte[] filterProjections(final byte[] document, final List<String> projections) {
+    final List<String> pointers = new ArrayList<>(projections.size());
+    final Map<String, byte[]> matches = new HashMap<>();
+    final JsonStreamParser.Builder builder = JsonStreamParser.builder();
+    for (String path : projections) {
+      String pointer = jsonPointer(path);
+      pointers.add(pointer);
+      if (!matches.containsKey(pointer)) {
+        matches.put(pointer, null);
+        builder.doOnValue(pointer, value -> matches.put(pointer, value.readBytes()));
+      }
+    }
+
+    try (JsonStreamParser parser = builder.build()) {
+      parser.feed(Unpooled.wrappedBuffer(document));
+      parser.endOfInput();
+    }
+
+    // Written in the order of the paths, so the result is the same as if they have been looked up.
+    ProjectionWriter out = new ProjectionWriter();
+    for (int i = 0; i < projections.size(); i++) {
+      byte[] value = matches.get(pointers.get(i));
+      if (value != null) {
+        out.add(projections.get(i), value);
+      }
+    }
+    return out.toBytes();
+  }
+
+  /**
+   * Converts a sub-document path (like "foo.bar[2]") into the equivalent JSON pointer (like "/foo/bar/2").
+   *
+   * @throws IllegalArgumentException if the path cannot be expressed as a JSON pointer the stream parser matches.
+   */
+  static String jsonPointer(final String path) {
+    StringBuilder pointer = new StringBuilder(path.length() + 8);
+    for (PathElement element : JsonPathParser.parse(path)) {
+      if (element instanceof PathArray) {
+        PathArray array = (PathArray) element;
+        if (!array.str().isEmpty()) {
+          appendPointerName(pointer, array.str());
+        }
+        pointer.append('/').append(array.idx());
+      } else {
+        appendPointerName(pointer, ((PathObjectOrField) element).str());
+      }
+    }
+    return pointer.toString();
+  }
+
+  private static void appendPointerName(final StringBuilder pointer, final String name) {
+    if (name.equals("-")) {
+      // the stream parser treats this as a wildcard for all array elements
+      throw new IllegalArgumentException("The field name \"-\" is not supported in a JSON pointer");
+    }
+    pointer.append('/').append(name.replace("~", "~0").replace("/", "~1"));
   }
 
   /**
-   * Helper method to recursively project subdocument fields into a json object structure.
+   * Helper method to assemble the projected subdocument fields into a json document.
    *
    * @param response the raw response from the server.
    * @return the document, encoded as a byte array.
    */
   static byte[] projectRecursive(final SubdocGetResponse response) {
-    JsonObject out = JsonObject.create();
+    ProjectionWriter out = new ProjectionWriter();
 
     for (SubDocumentField value : response.values()) {
       if (value == null
@@ -170,7 +512,7 @@ public enum GetAccessor {
         continue;
       }
 
-      ProjectionsApplier.parse(out, value.path(), value.value());
+      out.add(value.path(), value.value());
     }
 
     return out.toBytes();
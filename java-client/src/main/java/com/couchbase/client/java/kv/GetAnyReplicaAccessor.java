@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.cnc.Meter;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentUnretrievableException;
+import com.couchbase.client.core.error.context.AggregateErrorContext;
+import com.couchbase.client.core.error.context.ErrorContext;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
+import com.couchbase.client.core.service.ServiceType;
+import com.couchbase.client.java.codec.Transcoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a document from the active or any of the replicas, whichever responds first.
+ * <p>
+ * If a hedge delay is given, only the active is read at first and the replicas are only read once the delay
+ * elapsed (or the active failed). As soon as one read succeeds, all others which are still outstanding are
+ * cancelled.
+ */
+@Stability.Internal
+public enum GetAnyReplicaAccessor {
+  ;
+
+  private static final Map<String, String> METRIC_TAGS =
+    Collections.singletonMap(Meter.TAG_SERVICE, ServiceType.KV.ident());
+
+  /**
+   * Dispatches the given requests and completes with the first successful result.
+   *
+   * @param core the core reference to dispatch into.
+   * @param requests the requests to dispatch, the first one being the one against the active.
+   * @param transcoder the transcoder used to decode the response body.
+   * @param hedgeDelay the delay after which the replicas are read, or null if all should be read at once.
+   * @param latencyTracker the tracker which records the latency of the read against the active.
+   * @return a {@link CompletableFuture} with the first result, or failed if none of them succeeded.
+   */
+  public static CompletableFuture<GetReplicaResult> getAnyReplica(final Core core, final List<GetRequest> requests,
+                                                                  final Transcoder transcoder,
+                                                                  final Duration hedgeDelay,
+                                                                  final ReplicaLatencyTracker latencyTracker) {
+    final CompletableFuture<GetReplicaResult> result = new CompletableFuture<>();
+    final AtomicInteger outstanding = new AtomicInteger(requests.size());
+    final Queue<ErrorContext> nestedContexts = new ConcurrentLinkedQueue<>();
+    final boolean hedged = hedgeDelay != null;
+
+    // Once we have a result (or the caller is not interested anymore), the outstanding reads are of no use.
+    result.whenComplete((r, t) -> {
+      for (GetRequest request : requests) {
+        if (!request.completed()) {
+          request.cancel(CancellationReason.STOPPED_LISTENING);
+        }
+      }
+    });
+
+    final AtomicBoolean replicasDispatched = new AtomicBoolean(false);
+    final Runnable dispatchReplicas = () -> {
+      if (result.isDone() || !replicasDispatched.compareAndSet(false, true)) {
+        return;
+      }
+      if (hedged) {
+        core.context().environment().meter().counter(Meter.METRIC_REPLICA_HEDGES_FIRED, METRIC_TAGS).incrementBy(1);
+      }
+      for (int i = 1; i < requests.size(); i++) {
+        dispatch(core, requests.get(i), transcoder, result, outstanding, nestedContexts, hedged);
+      }
+    };
+
+    final GetRequest active = requests.get(0);
+    final long start = System.nanoTime();
+    dispatch(core, active, transcoder, result, outstanding, nestedContexts, hedged).whenComplete((r, t) -> {
+      if (t == null) {
+        // Only successful reads are a sample of how fast the active is, fast failures (or the cancellation once a
+        // replica won) would pull the hedge delay down.
+        latencyTracker.record(System.nanoTime() - start);
+      } else {
+        // No need to wait for the delay, the replicas are our only chance now.
+        dispatchReplicas.run();
+      }
+    });
+
+    if (hedged) {
+      final Timeout timeout = core.context().environment().timer().schedule(dispatchReplicas, hedgeDelay);
+      if (timeout != null) {
+        result.whenComplete((r, t) -> timeout.cancel());
+      }
+    } else {
+      dispatchReplicas.run();
+    }
+
+    return result;
+  }
+
+  /**
+   * Dispatches a single request and completes the shared result if it is the first successful one.
+   */
+  private static CompletableFuture<GetResult> dispatch(final Core core, final GetRequest request,
+                                                       final Transcoder transcoder,
+                                                       final CompletableFuture<GetReplicaResult> result,
+                                                       final AtomicInteger outstanding,
+                                                       final Queue<ErrorContext> nestedContexts,
+                                                       final boolean hedged) {
+    final boolean isReplica = request instanceof ReplicaGetRequest;
+    final CompletableFuture<GetResult> response = GetAccessor.get(core, request, transcoder);
+    response.whenComplete((getResult, error) -> {
+      if (getResult != null) {
+        if (result.complete(GetReplicaResult.from(getResult, isReplica)) && hedged && isReplica) {
+          core.context().environment().meter().counter(Meter.METRIC_REPLICA_HEDGES_WON, METRIC_TAGS).incrementBy(1);
+        }
+        return;
+      }
+
+      if (error instanceof CompletionException && error.getCause() instanceof CouchbaseException) {
+        nestedContexts.add(((CouchbaseException) error.getCause()).context());
+      }
+      if (outstanding.decrementAndGet() == 0) {
+        result.completeExceptionally(
+          new DocumentUnretrievableException(new AggregateErrorContext(new ArrayList<>(nestedContexts)))
+        );
+      }
+    });
+    return response;
+  }
+
+}
@@ -20,6 +20,9 @@ import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.java.CommonOptions;
 import com.couchbase.client.java.codec.Transcoder;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import static com.couchbase.client.core.util.Validators.notNull;
 
 public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
@@ -29,6 +32,16 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
    */
   private Transcoder transcoder;
 
+  /**
+   * The delay after which the replicas are read if the active did not respond yet, if set.
+   */
+  private Duration hedgeDelay;
+
+  /**
+   * If the hedge delay should be derived from the recently observed latencies.
+   */
+  private boolean adaptiveHedgeDelay = false;
+
   /**
    * Creates a new set of {@link GetAnyReplicaOptions}.
    *
@@ -53,6 +66,39 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
     return this;
   }
 
+  /**
+   * Reads from the active partition first and only reads from the replicas if it did not respond within the
+   * given delay (or failed earlier).
+   * <p>
+   * By default the active and all replicas are read at the same time, which multiplies the load on the cluster.
+   * Once one of the reads succeeded, all outstanding reads are cancelled in both modes.
+   *
+   * @param hedgeDelay the delay after which the replicas are read as well.
+   * @return the {@link GetAnyReplicaOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetAnyReplicaOptions hedgeDelay(final Duration hedgeDelay) {
+    notNull(hedgeDelay, "HedgeDelay");
+    this.hedgeDelay = hedgeDelay;
+    return this;
+  }
+
+  /**
+   * Reads from the active partition first and derives the delay after which the replicas are read as well from
+   * the 95th percentile of the recently observed latencies of the active reads.
+   * <p>
+   * Until enough latencies have been observed, the {@link #hedgeDelay(Duration)} is used if set, otherwise the
+   * active and all replicas are read at the same time.
+   *
+   * @param adaptiveHedgeDelay true if the hedge delay should adapt to the observed latencies.
+   * @return the {@link GetAnyReplicaOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetAnyReplicaOptions adaptiveHedgeDelay(final boolean adaptiveHedgeDelay) {
+    this.adaptiveHedgeDelay = adaptiveHedgeDelay;
+    return this;
+  }
+
   @Stability.Internal
   public Built build() {
     return new Built();
@@ -66,6 +112,21 @@ public class GetAnyReplicaOptions extends CommonOptions<GetAnyReplicaOptions> {
       return transcoder;
     }
 
+    public Optional<Duration> hedgeDelay() {
+      return Optional.ofNullable(hedgeDelay);
+    }
+
+    public boolean adaptiveHedgeDelay() {
+      return adaptiveHedgeDelay;
+    }
+
+    /**
+     * Returns true if the replicas should only be read after a delay.
+     */
+    public boolean hedged() {
+      return hedgeDelay != null || adaptiveHedgeDelay;
+    }
+
   }
 
 }
@@ -17,6 +17,7 @@
 package com.couchbase.client.java.kv;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
 import com.couchbase.client.java.CommonOptions;
 import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.json.JsonObject;
@@ -50,6 +51,11 @@ public class GetOptions extends CommonOptions<GetOptions> {
    */
   private List<String> projections;
 
+  /**
+   * The expected size of the document in bytes, 0 if unknown.
+   */
+  private int documentSizeHint;
+
   /**
    * Creates a new set of {@link GetOptions} with a {@link JsonObject} target.
    *
@@ -83,8 +89,9 @@ public class GetOptions extends CommonOptions<GetOptions> {
   /**
    * Allows to specify a custom list paths to fetch from the document instead of the whole.
    * <p>
-   * Note that a maximum of 16 individual paths can be projected at a time due to a server limitation. If you need
-   * more than that, think about fetching less-generic paths or the full document straight away.
+   * Note that a maximum of 16 individual paths can be looked up at a time due to a server limitation. If more paths
+   * are projected, the client either splits them up into multiple lookups or fetches the full document and filters
+   * it (see {@link #documentSizeHint(int)} and {@link ProjectionStrategy}).
    *
    * @param path a path that should be loaded if present.
    * @param morePaths additional paths that should be loaded if present.
@@ -98,8 +105,9 @@ public class GetOptions extends CommonOptions<GetOptions> {
   /**
    * Allows to specify a custom list paths to fetch from the document instead of the whole.
    * <p>
-   * Note that a maximum of 16 individual paths can be projected at a time due to a server limitation. If you need
-   * more than that, think about fetching less-generic paths or the full document straight away.
+   * Note that a maximum of 16 individual paths can be looked up at a time due to a server limitation. If more paths
+   * are projected, the client either splits them up into multiple lookups or fetches the full document and filters
+   * it (see {@link #documentSizeHint(int)} and {@link ProjectionStrategy}).
    *
    * @param paths each individual path that should be loaded if present.
    * @return the {@link GetOptions} to allow method chaining.
@@ -118,6 +126,26 @@ public class GetOptions extends CommonOptions<GetOptions> {
     return this;
   }
 
+  /**
+   * Provides the expected size of the document, which helps to pick the cheapest strategy when more paths are
+   * projected than fit into a single lookup.
+   * <p>
+   * Small documents are fetched in full and filtered on the client side, while the projected paths of large
+   * documents are split up into multiple lookups so that only the requested fields go over the wire. Without a hint
+   * the decision is made based on the number of projected paths alone.
+   *
+   * @param bytes the expected size of the document in bytes.
+   * @return the {@link GetOptions} to allow method chaining.
+   */
+  @Stability.Volatile
+  public GetOptions documentSizeHint(final int bytes) {
+    if (bytes < 0) {
+      throw InvalidArgumentException.fromMessage("The document size hint must not be negative, but got " + bytes);
+    }
+    this.documentSizeHint = bytes;
+    return this;
+  }
+
   /**
    * Allows to specify a custom transcoder that is used to decode the content of the result.
    *
@@ -152,6 +180,10 @@ public class GetOptions extends CommonOptions<GetOptions> {
       return transcoder;
     }
 
+    public int documentSizeHint() {
+      return documentSizeHint;
+    }
+
   }
 
 }
@@ -16,6 +16,7 @@
 
 package com.couchbase.client.java.kv;
 
+import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
 import com.couchbase.client.core.deps.io.netty.buffer.ByteBufUtil;
 import com.couchbase.client.core.deps.io.netty.buffer.Unpooled;
@@ -66,6 +67,11 @@ public class GetResult {
    */
   protected final Transcoder transcoder;
 
+  /**
+   * The strategy used to fetch the projection, if projected.
+   */
+  private final Optional<ProjectionStrategy> projectionStrategy;
+
   /**
    * Creates a new {@link GetResult}.
    *
@@ -73,11 +79,24 @@ public class GetResult {
    * @param expiry the expiry if fetched from the doc.
    */
   GetResult(final byte[] content, final int flags, final long cas, final Optional<Duration> expiry, Transcoder transcoder) {
+    this(content, flags, cas, expiry, transcoder, Optional.empty());
+  }
+
+  /**
+   * Creates a new {@link GetResult} for a projected document.
+   *
+   * @param cas the cas from the doc.
+   * @param expiry the expiry if fetched from the doc.
+   * @param projectionStrategy the strategy used to fetch the projection.
+   */
+  GetResult(final byte[] content, final int flags, final long cas, final Optional<Duration> expiry,
+            final Transcoder transcoder, final Optional<ProjectionStrategy> projectionStrategy) {
     this.cas = cas;
     this.content = content;
     this.flags = flags;
     this.expiry = expiry;
     this.transcoder = transcoder;
+    this.projectionStrategy = projectionStrategy;
   }
 
   /**
@@ -104,6 +123,14 @@ public class GetResult {
     return expiry;
   }
 
+  /**
+   * If the get has been executed with projections, returns the strategy which has been used to fetch them.
+   */
+  @Stability.Volatile
+  public Optional<ProjectionStrategy> projectionStrategy() {
+    return projectionStrategy;
+  }
+
   /**
    * Decodes the content of the document into a {@link JsonObject}.
    */
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+
+/**
+ * Describes how a projected get has been executed against the server.
+ *
+ * <p>The server only allows 16 paths to be looked up in one request, so when more paths are projected the client
+ * picks one of the other strategies based on the number of paths and the (optional) document size hint provided
+ * through {@link GetOptions#documentSizeHint(int)}.</p>
+ *
+ * @since 3.1.0
+ */
+@Stability.Volatile
+public enum ProjectionStrategy {
+  /**
+   * All projected paths (and the expiry, if requested) have been fetched with a single sub-document lookup.
+   */
+  SINGLE_LOOKUP,
+  /**
+   * The projected paths have been split up into multiple sub-document lookups which were dispatched together and
+   * merged into one document afterwards.
+   */
+  SPLIT_LOOKUPS,
+  /**
+   * The full document has been fetched and the projected paths have been filtered out of it on the client side.
+   */
+  FULL_DOCUMENT
+}
@@ -16,14 +16,44 @@
 package com.couchbase.client.java.kv;
 
 import com.couchbase.client.core.annotation.Stability;
+import com.couchbase.client.core.error.InvalidArgumentException;
 
 public class QueueOptions extends CommonDatastructureOptions<QueueOptions> {
     public static QueueOptions queueOptions() { return new QueueOptions(); }
 
+    /**
+     * The maximum number of writes to buffer locally before they are flushed, 0 if disabled.
+     */
+    private int writeBehindBuffer;
+
     private QueueOptions() {
 
     }
 
+    /**
+     * Enables a local write-behind buffer for elements offered to the queue.
+     * <p>
+     * Instead of one round trip per {@code offer(E)}, up to the given number of elements are collected locally
+     * and written with a single sub-document mutation once the buffer is full, {@code flush()} is called or any
+     * other operation is performed on the same instance. Buffered elements are not visible to other instances until
+     * then, and are lost if the application goes away before they are flushed.
+     * <p>
+     * Only the blocking {@code CouchbaseQueue} buffers writes: the non-blocking and reactive variants reject options with
+     * the buffer enabled.
+     *
+     * @param maxBufferedWrites the maximum number of buffered elements, 0 to disable buffering (the default).
+     * @return this options class for chaining purposes.
+     */
+    @Stability.Volatile
+    public QueueOptions writeBehindBuffer(final int maxBufferedWrites) {
+        if (maxBufferedWrites < 0) {
+            throw InvalidArgumentException.fromMessage("The write-behind buffer size must not be negative, but got "
+                + maxBufferedWrites);
+        }
+        this.writeBehindBuffer = maxBufferedWrites;
+        return this;
+    }
+
     @Stability.Internal
     public QueueOptions.Built build() {
         return new QueueOptions.Built();
@@ -33,5 +63,9 @@ public class QueueOptions extends CommonDatastructureOptions<QueueOptions> {
 
         Built() { }
 
+        public int writeBehindBuffer() {
+            return writeBehindBuffer;
+        }
+
     }
 }
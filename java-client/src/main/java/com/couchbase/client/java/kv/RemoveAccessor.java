@@ -35,6 +35,16 @@ public enum RemoveAccessor {
                                                          final String key, final PersistTo persistTo,
                                                          final ReplicateTo replicateTo) {
     core.send(request);
+    return removeResult(core, request, key, persistTo, replicateTo);
+  }
+
+  /**
+   * Converts the response of an already dispatched {@link RemoveRequest} into a {@link MutationResult}, applying
+   * legacy durability if requested.
+   */
+  public static CompletableFuture<MutationResult> removeResult(final Core core, final RemoveRequest request,
+                                                                final String key, final PersistTo persistTo,
+                                                                final ReplicateTo replicateTo) {
     final CompletableFuture<MutationResult> mutationResult = request
       .response()
       .thenApply(response -> {
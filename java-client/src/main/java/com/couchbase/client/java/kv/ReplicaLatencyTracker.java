@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.annotation.Stability;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of the latencies of recent reads against the active partition, so that hedged replica reads can
+ * derive their delay from the observed latency distribution.
+ * <p>
+ * The samples are kept in a fixed size ring buffer, and the 95th percentile is recomputed every couple of samples
+ * by the recording thread, so looking it up is just a volatile read.
+ *
+ * @since 2.1.0
+ */
+@Stability.Internal
+public class ReplicaLatencyTracker {
+
+  /**
+   * The number of recent samples kept in the window.
+   */
+  static final int WINDOW_SIZE = 256;
+
+  /**
+   * The minimum number of samples needed before a percentile is reported.
+   */
+  static final int MIN_SAMPLES = 32;
+
+  /**
+   * After how many recorded samples the percentile is computed again.
+   */
+  private static final int RECOMPUTE_INTERVAL = 16;
+
+  private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+  private final AtomicLong recorded = new AtomicLong();
+  private volatile long p95Nanos = -1;
+
+  /**
+   * Records the latency of a single read against the active partition.
+   *
+   * @param latencyNanos the latency in nanoseconds.
+   */
+  public void record(final long latencyNanos) {
+    long count = recorded.getAndIncrement();
+    samples.set((int) (count % WINDOW_SIZE), latencyNanos);
+    count++;
+    if (count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0) {
+      recompute((int) Math.min(count, WINDOW_SIZE));
+    }
+  }
+
+  /**
+   * Returns the 95th percentile of the recent latencies, if enough samples have been recorded.
+   */
+  public Optional<Duration> p95() {
+    long p95 = p95Nanos;
+    return p95 < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(p95));
+  }
+
+  private void recompute(final int filled) {
+    long[] snapshot = new long[filled];
+    for (int i = 0; i < filled; i++) {
+      snapshot[i] = samples.get(i);
+    }
+    Arrays.sort(snapshot);
+    p95Nanos = snapshot[(int) Math.ceil(filled * 0.95) - 1];
+  }
+
+}
@@ -33,6 +33,16 @@ public enum UpsertAccessor {
                                                          final String key, final PersistTo persistTo,
                                                          final ReplicateTo replicateTo) {
     core.send(request);
+    return upsertResult(core, request, key, persistTo, replicateTo);
+  }
+
+  /**
+   * Converts the response of an already dispatched {@link UpsertRequest} into a {@link MutationResult}, applying
+   * legacy durability if requested.
+   */
+  public static CompletableFuture<MutationResult> upsertResult(final Core core, final UpsertRequest request,
+                                                                final String key, final PersistTo persistTo,
+                                                                final ReplicateTo replicateTo) {
     final CompletableFuture<MutationResult> mutationResult = request
       .response()
       .thenApply(response -> {
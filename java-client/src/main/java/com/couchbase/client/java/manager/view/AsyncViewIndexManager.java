@@ -33,7 +33,9 @@ import com.couchbase.client.core.error.DesignDocumentNotFoundException;
 import com.couchbase.client.core.error.HttpStatusCodeException;
 import com.couchbase.client.core.error.context.ReducedViewErrorContext;
 import com.couchbase.client.core.json.Mapper;
+import com.couchbase.client.core.json.stream.JsonStreamParser;
 import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.manager.GenericManagerRequest;
 import com.couchbase.client.core.msg.manager.GenericManagerResponse;
 import com.couchbase.client.core.msg.view.GenericViewRequest;
 import com.couchbase.client.core.msg.view.GenericViewResponse;
@@ -46,6 +48,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static com.couchbase.client.core.deps.io.netty.handler.codec.http.HttpMethod.DELETE;
@@ -81,6 +84,10 @@ public class AsyncViewIndexManager {
     public CompletableFuture<GenericManagerResponse> sendRequest(HttpMethod method, String path, CommonOptions<?>.BuiltCommonOptions options) {
       return super.sendRequest(method, path, options);
     }
+
+    public CompletableFuture<GenericManagerResponse> sendRequest(GenericManagerRequest request) {
+      return super.sendRequest(request);
+    }
   }
 
   public AsyncViewIndexManager(Core core, String bucket) {
@@ -117,28 +124,39 @@ public class AsyncViewIndexManager {
     notNull(namespace, "DesignDocumentNamespace", () -> new ReducedViewErrorContext(null, null, bucket));
     notNull(options, "GetAllDesignDocumentsOptions", () -> new ReducedViewErrorContext(null, null, bucket));
 
-    return new ConfigManager().sendRequest(GET, pathForAllDesignDocuments(), options.build()).thenApply(response -> {
+    // The listing contains the design documents of all namespaces, so stream through the rows and only
+    // keep the ones we are interested in instead of loading the whole body into memory.
+    final List<DesignDocument> result = new ArrayList<>();
+    final JsonStreamParser.Builder parser = JsonStreamParser.builder()
+      .doOnValue("/rows/-/doc", doc -> parseDesignDocumentRow(doc.readTree(), namespace).ifPresent(result::add));
+
+    final CommonOptions<?>.BuiltCommonOptions built = options.build();
+    final GenericManagerRequest request = new GenericManagerRequest(timeout(built), core.context(),
+      retryStrategy(built), () -> new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, GET, pathForAllDesignDocuments()),
+      true, () -> {
+        // Called for every response, so documents of an earlier attempt are dropped.
+        result.clear();
+        return parser.build();
+      });
+
+    return new ConfigManager().sendRequest(request).thenApply(response -> {
       // Unlike the other view management requests, this request goes through the config manager endpoint.
       // That endpoint treats any complete HTTP response as a success, so it's up to us to check the status code.
       if (response.status() != ResponseStatus.SUCCESS) {
         throw new CouchbaseException("Failed to get all design documents; response status=" + response.status()
           + "; response body=" + new String(response.content(), UTF_8));
       }
-      return parseAllDesignDocuments(Mapper.decodeIntoTree(response.content()), namespace);
+      return result;
     });
   }
 
-  private static List<DesignDocument> parseAllDesignDocuments(JsonNode node, DesignDocumentNamespace namespace) {
-    List<DesignDocument> result = new ArrayList<>();
-    node.get("rows").forEach(row -> {
-      String metaId = row.path("doc").path("meta").path("id").asText();
-      String ddocName = removeStart(metaId, "_design/");
-      if (namespace.contains(ddocName)) {
-        JsonNode ddocDef = row.path("doc").path("json");
-        result.add(parseDesignDocument(ddocName, ddocDef));
-      }
-    });
-    return result;
+  private static Optional<DesignDocument> parseDesignDocumentRow(JsonNode doc, DesignDocumentNamespace namespace) {
+    String metaId = doc.path("meta").path("id").asText();
+    String ddocName = removeStart(metaId, "_design/");
+    if (namespace.contains(ddocName)) {
+      return Optional.of(parseDesignDocument(ddocName, doc.path("json")));
+    }
+    return Optional.empty();
   }
 
   /**
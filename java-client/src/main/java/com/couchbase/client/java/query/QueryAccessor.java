@@ -20,6 +20,7 @@ import com.couchbase.client.core.Core;
 import com.couchbase.client.core.Reactor;
 import com.couchbase.client.core.annotation.Stability;
 import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.Meter;
 import com.couchbase.client.core.cnc.events.request.PreparedStatementRetriedEvent;
 import com.couchbase.client.core.config.ClusterCapabilities;
 import com.couchbase.client.core.config.ClusterConfig;
@@ -30,7 +31,7 @@ import com.couchbase.client.core.msg.query.QueryRequest;
 import com.couchbase.client.core.msg.query.QueryResponse;
 import com.couchbase.client.core.retry.RetryReason;
 import com.couchbase.client.core.service.ServiceType;
-import com.couchbase.client.core.util.LRUCache;
+import com.couchbase.client.core.util.ConcurrentLRUCache;
 import com.couchbase.client.java.codec.JsonSerializer;
 import com.couchbase.client.java.json.JsonObject;
 import reactor.core.publisher.Mono;
@@ -43,6 +44,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import static com.couchbase.client.core.retry.RetryOrchestrator.capDuration;
@@ -61,16 +63,15 @@ import static com.couchbase.client.java.query.QueryOptions.queryOptions;
 public class QueryAccessor {
 
     /**
-     * The maximum number of prepared queries that will be kept around if the cache is enabled.
+     * Holds the query cache.
      */
-    private static final int QUERY_CACHE_SIZE = 5000;
+    private final ConcurrentLRUCache<String, QueryCacheEntry> queryCache;
 
     /**
-     * Holds the query cache.
+     * Holds the prepares which are currently in-flight, so that concurrent misses for the same statement
+     * wait for a single prepare instead of all sending their own.
      */
-    private final Map<String, QueryCacheEntry> queryCache = Collections.synchronizedMap(
-      new LRUCache<>(QUERY_CACHE_SIZE)
-    );
+    private final Map<String, CompletableFuture<Void>> inFlightPrepares = new ConcurrentHashMap<>();
 
     private final Core core;
 
@@ -81,6 +82,12 @@ public class QueryAccessor {
 
     public QueryAccessor(final Core core) {
         this.core = core;
+        final CoreEnvironment env = core.context().environment();
+        this.queryCache = new ConcurrentLRUCache<>(
+          env.preparedStatementCacheSize(),
+          env.meter(),
+          Collections.singletonMap(Meter.TAG_CACHE, "query_prepared")
+        );
 
         core
           .configurationProvider()
@@ -172,6 +179,10 @@ public class QueryAccessor {
      * <p>The code also checks if the cache entry is still valid, to handle the upgrade scenario an potentially
      * flush the cache entry in this case to then execute with the newer approach.</p>
      *
+     * <p>Only one prepare per statement is in-flight at any time: if another caller is already preparing the
+     * same statement, this method waits for it to finish and then tries again with the (hopefully) primed
+     * cache.</p>
+     *
      * @param request the request to perform.
      * @param options query options to use.
      * @return the mono once the result is complete.
@@ -184,7 +195,40 @@ public class QueryAccessor {
         if (cacheEntry != null && cacheEntryStillValid(cacheEntry, enhancedEnabled)) {
             return queryInternal(buildExecuteRequest(cacheEntry, request, options), options, true, serializer)
                 .onErrorResume(new PreparedRetryFunction(request, options, serializer));
-        } else if (enhancedEnabled) {
+        }
+
+        return Mono.defer(() -> {
+            final CompletableFuture<Void> pending = new CompletableFuture<>();
+            final CompletableFuture<Void> existing = inFlightPrepares.putIfAbsent(request.statement(), pending);
+            if (existing != null) {
+                // The outcome of the other prepare does not matter, if it failed we just try again ourselves.
+                return Mono
+                  .fromFuture(existing)
+                  .onErrorResume(t -> Mono.empty())
+                  .then(Mono.defer(() -> maybePrepareAndExecute(request, options, serializer)));
+            }
+
+            final Runnable release = () -> {
+                inFlightPrepares.remove(request.statement(), pending);
+                pending.complete(null);
+            };
+            return prepareAndExecute(request, options, serializer, enhancedEnabled, release);
+        });
+    }
+
+    /**
+     * Performs the actual prepare (and with enhanced prepared statements also the execute) of the statement.
+     *
+     * @param request the request to perform.
+     * @param options query options to use.
+     * @param enhancedEnabled if enhanced prepared statements are enabled.
+     * @param release releases the in-flight prepare once the prepare phase is done.
+     * @return the mono once the result is complete.
+     */
+    private Mono<QueryResponse> prepareAndExecute(final QueryRequest request, final QueryOptions.Built options,
+                                                  final JsonSerializer serializer, final boolean enhancedEnabled,
+                                                  final Runnable release) {
+        if (enhancedEnabled) {
             return queryInternal(buildPrepareRequest(request, options), options, true, serializer)
               .flatMap(qr -> {
                   Optional<String> preparedName = qr.header().prepared();
@@ -198,7 +242,8 @@ public class QueryAccessor {
                     new QueryCacheEntry(false, null, preparedName.get())
                   );
                   return Mono.just(qr);
-              });
+              })
+              .doFinally(signalType -> release.run());
         } else {
             return queryReactive(buildPrepareRequest(request, options), queryOptions().build(), serializer)
               .flatMap(result -> result.rowsAsObject().next())
@@ -213,6 +258,7 @@ public class QueryAccessor {
                   );
                   return row;
               })
+              .doFinally(signalType -> release.run())
               .then(Mono.defer(() -> maybePrepareAndExecute(request, options, serializer)));
         }
     }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.EventBus;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.RequestTracer;
+import com.couchbase.client.core.env.TimeoutConfig;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.KeyValueRequest;
+import com.couchbase.client.core.msg.kv.RemoveRequest;
+import com.couchbase.client.core.msg.kv.RemoveResponse;
+import com.couchbase.client.core.msg.kv.UpsertRequest;
+import com.couchbase.client.core.msg.kv.UpsertResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import com.couchbase.client.java.env.ClusterEnvironment;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.MutationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the bulk operations of the {@link AsyncCollection} and the {@link ReactiveCollection}.
+ */
+class AsyncCollectionTest {
+
+  private Core core;
+  private AsyncCollection collection;
+
+  @BeforeEach
+  void setup() {
+    core = mock(Core.class);
+    when(core.context()).thenReturn(mock(CoreContext.class));
+
+    RequestTracer tracer = mock(RequestTracer.class);
+    when(tracer.internalSpan(anyString(), any())).thenReturn(mock(InternalSpan.class));
+
+    ClusterEnvironment environment = mock(ClusterEnvironment.class);
+    when(environment.timeoutConfig()).thenReturn(TimeoutConfig.create());
+    when(environment.retryStrategy()).thenReturn(BestEffortRetryStrategy.INSTANCE);
+    when(environment.requestTracer()).thenReturn(tracer);
+    when(environment.eventBus()).thenReturn(mock(EventBus.class));
+    when(environment.transcoder()).thenReturn(JsonTranscoder.create(DefaultJsonSerializer.create()));
+
+    collection = new AsyncCollection("_default", "_default", "bucket", core, environment);
+  }
+
+  @Test
+  void getMultiCompletesEachDistinctIdIndividually() throws Exception {
+    Map<String, CompletableFuture<GetResult>> results = collection.getMulti(Arrays.asList("c", "a", "c", "b"));
+    assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(results.keySet()));
+
+    List<KeyValueRequest<?>> requests = sentBatch();
+    assertEquals(Arrays.asList("c", "a", "b"), keys(requests));
+
+    succeed((GetRequest) requests.get(2), "{\"name\":\"b\"}");
+    fail((GetRequest) requests.get(1), ResponseStatus.NOT_FOUND);
+    succeed((GetRequest) requests.get(0), "{\"name\":\"c\"}");
+
+    assertEquals("b", results.get("b").get().contentAsObject().getString("name"));
+    assertEquals("c", results.get("c").get().contentAsObject().getString("name"));
+    ExecutionException ex = assertThrows(ExecutionException.class, () -> results.get("a").get());
+    assertTrue(ex.getCause() instanceof DocumentNotFoundException);
+  }
+
+  @Test
+  void upsertMultiCompletesEachDocumentIndividually() throws Exception {
+    Map<String, Object> documents = new LinkedHashMap<>();
+    documents.put("b", JsonObject.create().put("name", "b"));
+    documents.put("a", JsonObject.create().put("name", "a"));
+
+    Map<String, CompletableFuture<MutationResult>> results = collection.upsertMulti(documents);
+    assertEquals(Arrays.asList("b", "a"), new ArrayList<>(results.keySet()));
+
+    List<KeyValueRequest<?>> requests = sentBatch();
+    assertEquals(Arrays.asList("b", "a"), keys(requests));
+
+    UpsertResponse failed = mock(UpsertResponse.class);
+    when(failed.status()).thenReturn(ResponseStatus.TOO_BIG);
+    ((UpsertRequest) requests.get(0)).succeed(failed);
+    UpsertResponse succeeded = mock(UpsertResponse.class);
+    when(succeeded.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(succeeded.cas()).thenReturn(42L);
+    ((UpsertRequest) requests.get(1)).succeed(succeeded);
+
+    assertEquals(42, results.get("a").get().cas());
+    ExecutionException ex = assertThrows(ExecutionException.class, () -> results.get("b").get());
+    assertTrue(ex.getCause() instanceof CouchbaseException);
+  }
+
+  @Test
+  void removeMultiCompletesEachDistinctIdIndividually() throws Exception {
+    Map<String, CompletableFuture<MutationResult>> results = collection.removeMulti(Arrays.asList("a", "b", "a"));
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(results.keySet()));
+
+    List<KeyValueRequest<?>> requests = sentBatch();
+    assertEquals(Arrays.asList("a", "b"), keys(requests));
+
+    RemoveResponse missing = mock(RemoveResponse.class);
+    when(missing.status()).thenReturn(ResponseStatus.NOT_FOUND);
+    ((RemoveRequest) requests.get(0)).succeed(missing);
+    RemoveResponse removed = mock(RemoveResponse.class);
+    when(removed.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(removed.cas()).thenReturn(7L);
+    ((RemoveRequest) requests.get(1)).succeed(removed);
+
+    assertEquals(7, results.get("b").get().cas());
+    ExecutionException ex = assertThrows(ExecutionException.class, () -> results.get("a").get());
+    assertTrue(ex.getCause() instanceof DocumentNotFoundException);
+  }
+
+  @Test
+  void reactiveGetMultiSkipsMissingDocuments() {
+    ReactiveCollection reactive = new ReactiveCollection(collection);
+
+    StepVerifier
+      .create(reactive
+        .getMulti(Arrays.asList("a", "b", "c"))
+        .map(result -> Tuples.of(result.getT1(), result.getT2().contentAsObject().getString("name"))))
+      .then(() -> {
+        List<KeyValueRequest<?>> requests = sentBatch();
+        succeed((GetRequest) requests.get(2), "{\"name\":\"c\"}");
+        fail((GetRequest) requests.get(1), ResponseStatus.NOT_FOUND);
+        succeed((GetRequest) requests.get(0), "{\"name\":\"a\"}");
+      })
+      .expectNext(Tuples.of("c", "c"), Tuples.of("a", "a"))
+      .verifyComplete();
+  }
+
+  @Test
+  void reactiveGetMultiFailsOnOtherErrors() {
+    ReactiveCollection reactive = new ReactiveCollection(collection);
+
+    StepVerifier
+      .create(reactive.getMulti(Arrays.asList("a", "b")))
+      .then(() -> fail((GetRequest) sentBatch().get(0), ResponseStatus.TEMPORARY_FAILURE))
+      .expectError(CouchbaseException.class)
+      .verify();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<KeyValueRequest<?>> sentBatch() {
+    ArgumentCaptor<List<KeyValueRequest<?>>> batch = ArgumentCaptor.forClass(List.class);
+    verify(core, times(1)).sendBatch(batch.capture());
+    return batch.getValue();
+  }
+
+  private static List<String> keys(final List<KeyValueRequest<?>> requests) {
+    List<String> keys = new ArrayList<>();
+    for (KeyValueRequest<?> request : requests) {
+      keys.add(new String(request.key(), UTF_8));
+    }
+    return keys;
+  }
+
+  private static void succeed(final GetRequest request, final String content) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.content()).thenReturn(content.getBytes(UTF_8));
+    when(response.flags()).thenReturn(0x02000000);
+    request.succeed(response);
+  }
+
+  private static void fail(final GetRequest request, final ResponseStatus status) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(status);
+    request.succeed(response);
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.codec;
+
+import com.couchbase.client.core.deps.io.netty.buffer.ByteBuf;
+import com.couchbase.client.core.encryption.CryptoManager;
+import com.couchbase.client.core.msg.kv.CodecFlags;
+import com.couchbase.client.java.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the functionality of the {@link TranscoderAdapter}.
+ */
+class TranscoderAdapterTest {
+
+  @Test
+  void streamsIntoBufferWithStreamingTranscoder() {
+    JsonObject input = JsonObject.create();
+    for (int i = 0; i < 5000; i++) {
+      input.put("field" + i, "value" + i);
+    }
+
+    for (JsonSerializer serializer : new JsonSerializer[] {
+      DefaultJsonSerializer.create(),
+      JacksonJsonSerializer.create((CryptoManager) null)
+    }) {
+      Transcoder transcoder = JsonTranscoder.create(serializer);
+      TranscoderAdapter.EncodedBuffer encoded = TranscoderAdapter.encode(transcoder, input);
+
+      assertEquals(CodecFlags.JSON_COMPAT_FLAGS, encoded.flags());
+      assertEquals(input, JsonObject.fromJson(toBytes(encoded.encoded())));
+    }
+  }
+
+  /**
+   * A serializer which can only produce byte arrays must not be streamed, since that would copy its output.
+   */
+  @Test
+  void wrapsOutputOfNonStreamingSerializer() {
+    byte[] output = "{\"custom\":true}".getBytes(StandardCharsets.UTF_8);
+    JsonSerializer bytesOnly = new JsonSerializer() {
+      @Override
+      public byte[] serialize(final Object input) {
+        return output;
+      }
+
+      @Override
+      public <T> T deserialize(final Class<T> target, final byte[] input) {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    JsonTranscoder transcoder = JsonTranscoder.create(bytesOnly);
+    assertFalse(transcoder.streamingSupported());
+    assertTrue(JsonTranscoder.create(DefaultJsonSerializer.create()).streamingSupported());
+
+    TranscoderAdapter.EncodedBuffer encoded = TranscoderAdapter.encode(transcoder, JsonObject.create());
+    assertEquals(CodecFlags.JSON_COMPAT_FLAGS, encoded.flags());
+    assertSame(output, encoded.encoded().array());
+  }
+
+  @Test
+  void wrapsEncodedValueOfOtherTranscoders() {
+    byte[] input = "{\"foo\":\"bar\"}".getBytes(StandardCharsets.UTF_8);
+    TranscoderAdapter.EncodedBuffer encoded = TranscoderAdapter.encode(RawJsonTranscoder.INSTANCE, input);
+
+    assertEquals(CodecFlags.JSON_COMPAT_FLAGS, encoded.flags());
+    assertSame(input, encoded.encoded().array());
+  }
+
+  private static byte[] toBytes(final ByteBuf buffer) {
+    byte[] bytes = new byte[buffer.readableBytes()];
+    buffer.getBytes(buffer.readerIndex(), bytes);
+    return bytes;
+  }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.datastructures;
+
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.InvalidArgumentException;
+import com.couchbase.client.core.error.subdoc.PathExistsException;
+import com.couchbase.client.java.AsyncCollection;
+import com.couchbase.client.java.ReactiveCollection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import com.couchbase.client.java.kv.ArraySetOptions;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.LookupInOptions;
+import com.couchbase.client.java.kv.LookupInResult;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MapOptions;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInResult;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.QueueOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the non-blocking and reactive datastructures against a mocked {@link AsyncCollection}.
+ */
+class AsyncDatastructuresTest {
+
+    private static final String ID = "doc";
+
+    private AsyncCollection collection;
+
+    @BeforeEach
+    void setup() {
+        collection = mock(AsyncCollection.class);
+        when(collection.bucketName()).thenReturn("bucket");
+        when(collection.scopeName()).thenReturn("scope");
+        when(collection.name()).thenReturn("collection");
+    }
+
+    @Test
+    void pollsBatchWithSingleLookupAndMutation() {
+        List<String> content = fakeQueue("a", "b", "c", "d");
+        AsyncCouchbaseQueue<String> queue = queue();
+
+        assertEquals(Arrays.asList("a", "b", "c"), queue.poll(3).join());
+        assertEquals(Arrays.asList("d"), content);
+
+        assertEquals(Arrays.asList(4), lookupSizes(1));
+        ArgumentCaptor<MutateInOptions> options = ArgumentCaptor.forClass(MutateInOptions.class);
+        verify(collection).mutateIn(eq(ID), anyList(), options.capture());
+        assertEquals(1L, options.getValue().build().cas());
+    }
+
+    @Test
+    void limitsPollToSingleMutation() {
+        fakeQueue("a", "b");
+        queue().poll(100).join();
+        assertEquals(Arrays.asList(AsyncCouchbaseQueue.MAX_POLL_BATCH + 1), lookupSizes(1));
+    }
+
+    @Test
+    void pollsNothingFromEmptyQueue() {
+        fakeQueue();
+        assertTrue(queue().poll(3).join().isEmpty());
+        verify(collection, times(0)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void retriesPollOnCasMismatch() {
+        List<String> content = fakeQueue("a", "b");
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenReturn(failed(mock(CasMismatchException.class)))
+            .thenAnswer(invocation -> removeFromFakeQueue(content, invocation.getArgument(1)));
+
+        assertEquals(Arrays.asList("a"), queue().poll(1).join());
+        assertEquals(Arrays.asList("b"), content);
+        verify(collection, times(2)).lookupIn(eq(ID), anyList(), any(LookupInOptions.class));
+    }
+
+    @Test
+    void failsOnceCasMismatchRetriesAreExhausted() {
+        fakeQueue("a");
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenAnswer(invocation -> failed(mock(CasMismatchException.class)));
+
+        AsyncCouchbaseQueue<String> queue = new AsyncCouchbaseQueue<>(ID, collection, String.class,
+            QueueOptions.queueOptions().casMismatchRetries(3));
+        CompletionException ex = assertThrows(CompletionException.class, () -> queue.poll().join());
+        assertTrue(ex.getCause().getMessage().contains("AsyncCouchbaseQueue poll failed"));
+        verify(collection, times(3)).lookupIn(eq(ID), anyList(), any(LookupInOptions.class));
+    }
+
+    @Test
+    void pollAllOnlyPollsWhatIsRequested() {
+        List<String> content = fakeQueue("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+        ReactiveCouchbaseQueue<String> queue = reactiveQueue();
+
+        StepVerifier.create(queue.pollAll(5), 0)
+            .thenRequest(3)
+            .expectNext("a", "b", "c")
+            .thenCancel()
+            .verify();
+
+        assertEquals(7, content.size());
+        assertEquals(Arrays.asList(4), lookupSizes(1));
+    }
+
+    @Test
+    void pollAllDrainsQueueInPrefetchSizedBatches() {
+        List<String> content = fakeQueue("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+
+        StepVerifier.create(reactiveQueue().pollAll(4))
+            .expectNext("a", "b", "c", "d", "e", "f", "g", "h", "i", "j")
+            .verifyComplete();
+
+        assertTrue(content.isEmpty());
+        // three batches and the empty poll which completes the flux
+        assertEquals(Arrays.asList(5, 5, 5, 5), lookupSizes(4));
+    }
+
+    @Test
+    void putReturnsReplacedValueAndRetriesOnCasMismatch() {
+        LookupInResult current = lookupResult(7);
+        when(current.exists(0)).thenReturn(true);
+        when(current.contentAs(0, String.class)).thenReturn("old");
+        when(collection.lookupIn(anyString(), anyList(), any(LookupInOptions.class)))
+            .thenReturn(CompletableFuture.completedFuture(current));
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenReturn(failed(mock(CasMismatchException.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(MutateInResult.class)));
+
+        AsyncCouchbaseMap<String> map = new AsyncCouchbaseMap<>(ID, collection, String.class, MapOptions.mapOptions());
+        assertEquals("old", map.put("key", "new").join());
+        verify(collection, times(2)).lookupIn(eq(ID), anyList(), any(LookupInOptions.class));
+    }
+
+    @Test
+    void listFailsWithIndexOutOfBounds() {
+        LookupInResult current = lookupResult(7);
+        when(current.exists(0)).thenReturn(false);
+        when(collection.lookupIn(anyString(), anyList(), any(LookupInOptions.class)))
+            .thenReturn(CompletableFuture.completedFuture(current));
+
+        AsyncCouchbaseArrayList<String> list = new AsyncCouchbaseArrayList<>(ID, collection, String.class,
+            ArrayListOptions.arrayListOptions());
+        CompletionException ex = assertThrows(CompletionException.class, () -> list.set(3, "value").join());
+        assertTrue(ex.getCause() instanceof IndexOutOfBoundsException);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+    }
+
+    @Test
+    void setAddReportsExistingValues() {
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(MutateInResult.class)))
+            .thenReturn(failed(mock(PathExistsException.class)));
+
+        AsyncCouchbaseArraySet<String> set = new AsyncCouchbaseArraySet<>(ID, collection, String.class,
+            ArraySetOptions.arraySetOptions());
+        assertTrue(set.add("value").join());
+        assertFalse(set.add("value").join());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listRemovesAllInChunksChainedByCas() {
+        JsonArray content = JsonArray.create();
+        for (int i = 0; i < 30; i++) {
+            content.add(i % 3 == 0 ? "keep" : "drop");
+        }
+        stubGet(content, 42);
+        AtomicLong cas = new AtomicLong(100);
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class))).thenAnswer(invocation -> {
+            MutateInResult result = mock(MutateInResult.class);
+            long next = cas.incrementAndGet();
+            when(result.cas()).thenReturn(next);
+            return CompletableFuture.completedFuture(result);
+        });
+
+        AsyncCouchbaseArrayList<String> list = new AsyncCouchbaseArrayList<>(ID, collection, String.class,
+            ArrayListOptions.arrayListOptions());
+        assertTrue(list.removeAll(Arrays.asList("drop")).join());
+
+        ArgumentCaptor<List<MutateInSpec>> specs = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<MutateInOptions> options = ArgumentCaptor.forClass(MutateInOptions.class);
+        verify(collection, times(2)).mutateIn(eq(ID), specs.capture(), options.capture());
+        assertEquals(16, specs.getAllValues().get(0).size());
+        assertEquals(4, specs.getAllValues().get(1).size());
+        assertEquals(42L, options.getAllValues().get(0).build().cas());
+        assertEquals(101L, options.getAllValues().get(1).build().cas());
+    }
+
+    @Test
+    void queueRetainAllRetriesOnCasMismatch() {
+        stubGet(JsonArray.from("a", "b"), 42);
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenReturn(failed(mock(CasMismatchException.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(MutateInResult.class)));
+
+        assertTrue(queue().retainAll(Arrays.asList("a")).join());
+        verify(collection, times(2)).get(eq(ID), any(GetOptions.class));
+    }
+
+    @Test
+    void skipsRemovalIfNothingMatches() {
+        stubGet(JsonArray.from("a", "b"), 42);
+
+        StepVerifier.create(reactiveQueue().removeAll(Arrays.asList("c")))
+            .expectNext(false)
+            .verifyComplete();
+        verify(collection, times(0)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void rejectsWriteBehindBuffer() {
+        assertThrows(InvalidArgumentException.class, () -> new AsyncCouchbaseArrayList<>(ID, collection,
+            String.class, ArrayListOptions.arrayListOptions().writeBehindBuffer(10)));
+        assertThrows(InvalidArgumentException.class, () -> new AsyncCouchbaseQueue<>(ID, collection,
+            String.class, QueueOptions.queueOptions().writeBehindBuffer(10)));
+    }
+
+    private AsyncCouchbaseQueue<String> queue() {
+        return new AsyncCouchbaseQueue<>(ID, collection, String.class, QueueOptions.queueOptions());
+    }
+
+    private ReactiveCouchbaseQueue<String> reactiveQueue() {
+        ReactiveCollection reactive = mock(ReactiveCollection.class);
+        when(reactive.async()).thenReturn(collection);
+        return new ReactiveCouchbaseQueue<>(ID, reactive, String.class, QueueOptions.queueOptions());
+    }
+
+    /**
+     * Backs the mocked collection with an in-memory queue, whose head is at the front of the given values.
+     */
+    private List<String> fakeQueue(final String... values) {
+        // the queue document stores its head at the end of the array
+        List<String> content = new ArrayList<>(Arrays.asList(values));
+        AtomicLong cas = new AtomicLong();
+        when(collection.lookupIn(anyString(), anyList(), any(LookupInOptions.class))).thenAnswer(invocation -> {
+            LookupInResult result = lookupResult(cas.incrementAndGet());
+            when(result.contentAs(0, Integer.class)).thenReturn(content.size());
+            List<LookupInSpec> specs = invocation.getArgument(1);
+            for (int i = 1; i < specs.size() && i <= content.size(); i++) {
+                when(result.contentAs(i, String.class)).thenReturn(content.get(i - 1));
+            }
+            return CompletableFuture.completedFuture(result);
+        });
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenAnswer(invocation -> removeFromFakeQueue(content, invocation.getArgument(1)));
+        return content;
+    }
+
+    private static CompletableFuture<MutateInResult> removeFromFakeQueue(final List<String> content,
+                                                                         final List<MutateInSpec> removes) {
+        content.subList(0, removes.size()).clear();
+        return CompletableFuture.completedFuture(mock(MutateInResult.class));
+    }
+
+    private void stubGet(final JsonArray content, final long cas) {
+        GetResult result = mock(GetResult.class);
+        when(result.contentAsArray()).thenReturn(content);
+        when(result.cas()).thenReturn(cas);
+        when(collection.get(eq(ID), any(GetOptions.class))).thenReturn(CompletableFuture.completedFuture(result));
+    }
+
+    private static LookupInResult lookupResult(final long cas) {
+        LookupInResult result = mock(LookupInResult.class);
+        when(result.cas()).thenReturn(cas);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Integer> lookupSizes(final int times) {
+        ArgumentCaptor<List<LookupInSpec>> specs = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(times)).lookupIn(eq(ID), specs.capture(), any(LookupInOptions.class));
+        List<Integer> sizes = new ArrayList<>();
+        for (List<LookupInSpec> lookup : specs.getAllValues()) {
+            sizes.add(lookup.size());
+        }
+        return sizes;
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+}
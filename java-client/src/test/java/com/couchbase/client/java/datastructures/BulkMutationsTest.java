@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.datastructures;
+
+import com.couchbase.client.core.error.AmbiguousTimeoutException;
+import com.couchbase.client.core.error.CasMismatchException;
+import com.couchbase.client.core.error.UnambiguousTimeoutException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.kv.ArrayListOptions;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
+import com.couchbase.client.java.kv.MapOptions;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInResult;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.QueueOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that bulk operations on the datastructures are packed into as few mutations as possible.
+ */
+class BulkMutationsTest {
+
+    private static final String ID = "doc";
+
+    private Collection collection;
+    private AtomicLong cas;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        collection = mock(Collection.class);
+        cas = new AtomicLong(100);
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class))).thenAnswer(invocation -> {
+            MutateInResult result = mock(MutateInResult.class);
+            long next = cas.incrementAndGet();
+            when(result.cas()).thenReturn(next);
+            return result;
+        });
+    }
+
+    @Test
+    void packsSpecsIntoChunksAndChainsCas() {
+        List<MutateInSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            specs.add(MutateInSpec.remove("[" + i + "]"));
+        }
+
+        long last = BulkMutations.mutateIn(collection, ID, specs, MutateInOptions::mutateInOptions, 5);
+        assertEquals(103, last);
+
+        List<List<MutateInSpec>> chunks = captureMutations(3);
+        assertEquals(Arrays.asList(16, 16, 8), sizes(chunks));
+        assertEquals(Arrays.asList(5L, 101L, 102L), casValues(3));
+    }
+
+    @Test
+    void removesMatchingElementsWithCas() {
+        JsonArray content = JsonArray.create();
+        for (int i = 0; i < 30; i++) {
+            content.add(i % 3 == 0 ? "keep" : "drop");
+        }
+        stubGet(content, 42);
+
+        assertTrue(BulkMutations.removeFromArray(collection, ID, GetOptions.getOptions(),
+            MutateInOptions::mutateInOptions, 10, "drop"::equals, "removeAll"));
+
+        assertEquals(Arrays.asList(16, 4), sizes(captureMutations(2)));
+        assertEquals(Arrays.asList(42L, 101L), casValues(2));
+    }
+
+    @Test
+    void retriesRemovalOnCasMismatch() {
+        stubGet(JsonArray.from("a", "b"), 42);
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenThrow(mock(CasMismatchException.class))
+            .thenReturn(mock(MutateInResult.class));
+
+        assertTrue(BulkMutations.removeFromArray(collection, ID, GetOptions.getOptions(),
+            MutateInOptions::mutateInOptions, 10, "a"::equals, "removeAll"));
+        verify(collection, times(2)).get(eq(ID), any(GetOptions.class));
+    }
+
+    @Test
+    void skipsMutationIfNothingToRemove() {
+        stubGet(JsonArray.from("a", "b"), 42);
+
+        assertFalse(BulkMutations.removeFromArray(collection, ID, GetOptions.getOptions(),
+            MutateInOptions::mutateInOptions, 10, "c"::equals, "removeAll"));
+        verify(collection, never()).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void listAppendsAllWithSingleMutation() {
+        CouchbaseArrayList<Integer> list = new CouchbaseArrayList<>(ID, collection, Integer.class,
+            ArrayListOptions.arrayListOptions());
+
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add(i);
+        }
+        assertTrue(list.addAll(values));
+        assertEquals(Arrays.asList(1), sizes(captureMutations(1)));
+    }
+
+    @Test
+    void listBuffersAppendsUntilFull() {
+        CouchbaseArrayList<Integer> list = new CouchbaseArrayList<>(ID, collection, Integer.class,
+            ArrayListOptions.arrayListOptions().writeBehindBuffer(3));
+
+        list.add(1);
+        list.add(2);
+        verify(collection, never()).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+
+        list.add(3);
+        verify(collection, times(1)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+
+        list.add(4);
+        list.flush();
+        list.flush();
+        verify(collection, times(2)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void keepsBufferedAppendsIfFlushWasNotApplied() {
+        CouchbaseArrayList<Integer> list = new CouchbaseArrayList<>(ID, collection, Integer.class,
+            ArrayListOptions.arrayListOptions().writeBehindBuffer(10));
+        list.add(1);
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenThrow(mock(UnambiguousTimeoutException.class))
+            .thenReturn(mock(MutateInResult.class));
+
+        assertThrows(UnambiguousTimeoutException.class, list::flush);
+        list.flush();
+        verify(collection, times(2)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void dropsBufferedOffersIfFlushIsAmbiguous() {
+        CouchbaseQueue<String> queue = new CouchbaseQueue<>(ID, collection, String.class,
+            QueueOptions.queueOptions().writeBehindBuffer(10));
+        queue.offer("a");
+        when(collection.mutateIn(anyString(), anyList(), any(MutateInOptions.class)))
+            .thenThrow(mock(AmbiguousTimeoutException.class))
+            .thenReturn(mock(MutateInResult.class));
+
+        assertThrows(AmbiguousTimeoutException.class, queue::flush);
+        // the offer might have been written already, so it must not be written again
+        queue.flush();
+        verify(collection, times(1)).mutateIn(anyString(), anyList(), any(MutateInOptions.class));
+    }
+
+    @Test
+    void queueBuffersOffersUntilFlushed() {
+        CouchbaseQueue<String> queue = new CouchbaseQueue<>(ID, collection, String.class,
+            QueueOptions.queueOptions().writeBehindBuffer(10));
+
+        queue.offer("a");
+        queue.addAll(Arrays.asList("b", "c"));
+
+        // the buffered offer is flushed before the bulk add, which is a single mutation on its own
+        assertEquals(Arrays.asList(1, 1), sizes(captureMutations(2)));
+    }
+
+    @Test
+    void mapPacksPutAllIntoChunks() {
+        CouchbaseMap<Integer> map = new CouchbaseMap<>(ID, collection, Integer.class, MapOptions.mapOptions());
+
+        Map<String, Integer> values = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            values.put("key" + i, i);
+        }
+        map.putAll(values);
+
+        assertEquals(Arrays.asList(16, 4), sizes(captureMutations(2)));
+    }
+
+    private void stubGet(final JsonArray content, final long cas) {
+        GetResult result = mock(GetResult.class);
+        when(result.contentAsArray()).thenReturn(content);
+        when(result.cas()).thenReturn(cas);
+        when(collection.get(eq(ID), any(GetOptions.class))).thenReturn(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<MutateInSpec>> captureMutations(final int count) {
+        ArgumentCaptor<List<MutateInSpec>> captor = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(count)).mutateIn(eq(ID), captor.capture(), any(MutateInOptions.class));
+        return captor.getAllValues();
+    }
+
+    private List<Long> casValues(final int count) {
+        ArgumentCaptor<MutateInOptions> captor = ArgumentCaptor.forClass(MutateInOptions.class);
+        verify(collection, times(count)).mutateIn(eq(ID), anyList(), captor.capture());
+        List<Long> values = new ArrayList<>();
+        for (MutateInOptions options : captor.getAllValues()) {
+            values.add(options.build().cas());
+        }
+        return values;
+    }
+
+    private static List<Integer> sizes(final List<List<MutateInSpec>> chunks) {
+        List<Integer> sizes = new ArrayList<>();
+        for (List<MutateInSpec> chunk : chunks) {
+            sizes.add(chunk.size());
+        }
+        return sizes;
+    }
+
+}
@@ -16,22 +16,47 @@
 
 package com.couchbase.client.java.kv;
 
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.io.CollectionIdentifier;
 import com.couchbase.client.core.msg.ResponseStatus;
 import com.couchbase.client.core.msg.kv.SubdocCommandType;
 import com.couchbase.client.core.msg.kv.SubDocumentField;
 import com.couchbase.client.core.msg.kv.SubDocumentOpResponseStatus;
+import com.couchbase.client.core.msg.kv.SubdocGetRequest;
 import com.couchbase.client.core.msg.kv.SubdocGetResponse;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.DefaultJsonSerializer;
+import com.couchbase.client.java.codec.JsonTranscoder;
+import com.couchbase.client.java.codec.Transcoder;
 import com.couchbase.client.java.json.JsonObject;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class GetAccessorTest {
 
+  private static final Transcoder TRANSCODER = JsonTranscoder.create(DefaultJsonSerializer.create());
+
   @Test
   void projectNonRecursive() {
     Map<String, String> paths = new HashMap<>();
@@ -98,13 +123,216 @@ class GetAccessorTest {
      assertEquals(expected, JsonObject.fromJson(result));
   }
 
+  @Test
+  void keepsFieldsOfObjectProjectedBeforeItsChild() {
+    Map<String, String> paths = new LinkedHashMap<>();
+    paths.put("address", "{\"street\":\"Main\",\"city\":\"Old\"}");
+    paths.put("address.city", "\"Springfield\"");
+
+    byte[] result = GetAccessor.projectRecursive(response(paths));
+
+    JsonObject expected = JsonObject.create()
+      .put("address", JsonObject.create()
+        .put("street", "Main")
+        .put("city", "Springfield")
+      );
+
+    assertEquals(expected, JsonObject.fromJson(result));
+  }
+
+  @Test
+  void picksSingleLookupIfPathsFit() {
+    assertEquals(ProjectionStrategy.SINGLE_LOOKUP, GetAccessor.projectionStrategy(paths(16), false, 0));
+    assertEquals(ProjectionStrategy.SINGLE_LOOKUP, GetAccessor.projectionStrategy(paths(15), true, 1024 * 1024));
+  }
+
+  @Test
+  void picksStrategyBySizeHint() {
+    assertEquals(ProjectionStrategy.FULL_DOCUMENT, GetAccessor.projectionStrategy(paths(16), true, 2048));
+    assertEquals(ProjectionStrategy.SPLIT_LOOKUPS, GetAccessor.projectionStrategy(paths(17), false, 1024 * 1024));
+  }
+
+  @Test
+  void picksStrategyByPathCountWithoutSizeHint() {
+    assertEquals(ProjectionStrategy.SPLIT_LOOKUPS, GetAccessor.projectionStrategy(paths(64), false, 0));
+    assertEquals(ProjectionStrategy.FULL_DOCUMENT, GetAccessor.projectionStrategy(paths(64), true, 0));
+  }
+
+  @Test
+  void splitsLookupsIfDocumentCannotBeFiltered() {
+    List<String> paths = paths(17);
+    paths.add("field1.nested");
+    assertEquals(ProjectionStrategy.SPLIT_LOOKUPS, GetAccessor.projectionStrategy(paths, false, 2048));
+  }
+
+  @Test
+  void splitsProjectionsIntoLookups() {
+    List<List<String>> lookups = GetAccessor.splitProjections(paths(40), true);
+    assertEquals(3, lookups.size());
+    assertEquals(15, lookups.get(0).size());
+    assertEquals(16, lookups.get(1).size());
+    assertEquals(9, lookups.get(2).size());
+    assertEquals("field15", lookups.get(1).get(0));
+  }
+
+  @Test
+  void convertsPathsToJsonPointers() {
+    assertEquals("/foo", GetAccessor.jsonPointer("foo"));
+    assertEquals("/foo/bar/2/baz", GetAccessor.jsonPointer("foo.bar[2].baz"));
+    assertEquals("/grid/1/0", GetAccessor.jsonPointer("grid[1][0]"));
+    assertEquals("/a~1b/c~0d", GetAccessor.jsonPointer("a/b.c~d"));
+  }
+
+  @Test
+  void filtersSameDocumentAsLookups() {
+    String document = "{\"name\":\"Emmy\",\"age\":12,\"attributes\":{\"hair\":\"brown\","
+      + "\"dimensions\":{\"height\":67,\"weight\":175},\"hobbies\":[{\"type\":\"winter\",\"name\":\"curling\"},"
+      + "{\"type\":\"summer\",\"name\":\"water skiing\",\"details\":{\"location\":{\"lat\":49.28,"
+      + "\"long\":-123.12}}}]},\"tags\":[\"a\",\"b\"]}";
+    List<String> paths = Arrays.asList("attributes.dimensions.weight", "name", "attributes.hobbies[1].details.location",
+      "tags[1]", "attributes.hair", "missing", "name");
+
+    Map<String, String> lookedUp = new LinkedHashMap<>();
+    lookedUp.put("attributes.dimensions.weight", "175");
+    lookedUp.put("name", "\"Emmy\"");
+    lookedUp.put("attributes.hobbies[1].details.location", "{\"lat\":49.28,\"long\":-123.12}");
+    lookedUp.put("tags[1]", "\"b\"");
+    lookedUp.put("attributes.hair", "\"brown\"");
+
+    byte[] filtered = GetAccessor.filterProjections(document.getBytes(UTF_8), paths);
+    assertEquals(new String(GetAccessor.projectRecursive(response(lookedUp)), UTF_8), new String(filtered, UTF_8));
+  }
+
+  @Test
+  void mergesSplitLookups() throws Exception {
+    Core core = mock(Core.class);
+    Map<String, String> first = new LinkedHashMap<>();
+    first.put(GetAccessor.EXPIRATION_MACRO, "100");
+    first.put("a", "1");
+    first.put("b.c", "\"x\"");
+    List<SubdocGetRequest> requests = Arrays.asList(
+      lookup(response(first, 5)),
+      lookup(response(Collections.singletonMap("b.d", "true"), 5))
+    );
+
+    GetResult result = GetAccessor.splitSubdocGetResult(core, requests, failingSupplier(), failingSupplier(),
+      Arrays.asList("a", "b.c", "b.d"), TRANSCODER).get();
+
+    JsonObject expected = JsonObject.create()
+      .put("a", 1)
+      .put("b", JsonObject.create().put("c", "x").put("d", true));
+    assertEquals(expected, result.contentAsObject());
+    assertEquals(5, result.cas());
+    assertEquals(Optional.of(Duration.ofSeconds(100)), result.expiry());
+    assertEquals(Optional.of(ProjectionStrategy.SPLIT_LOOKUPS), result.projectionStrategy());
+    verify(core, never()).send(any());
+  }
+
+  @Test
+  void fallsBackToFilteredDocumentOnCasMismatch() throws Exception {
+    Core core = mock(Core.class);
+    List<SubdocGetRequest> requests = Arrays.asList(
+      lookup(response(Collections.singletonMap("a", "1"), 5)),
+      lookup(response(Collections.singletonMap("b", "2"), 6))
+    );
+    SubdocGetRequest fallback = lookup(response(Collections.singletonMap("", "{\"a\":3,\"b\":4,\"c\":5}"), 7));
+
+    GetResult result = GetAccessor.splitSubdocGetResult(core, requests, failingSupplier(), () -> fallback,
+      Arrays.asList("a", "b"), TRANSCODER).get();
+
+    assertEquals(JsonObject.create().put("a", 3).put("b", 4), result.contentAsObject());
+    assertEquals(7, result.cas());
+    assertEquals(Optional.of(ProjectionStrategy.FULL_DOCUMENT), result.projectionStrategy());
+    verify(core).send(fallback);
+  }
+
+  @Test
+  void retriesSplitLookupsOnCasMismatchIfDocumentCannotBeFiltered() throws Exception {
+    Core core = mock(Core.class);
+    List<String> projections = Arrays.asList("a", "a.b");
+    assertFalse(GetAccessor.canFilter(projections));
+
+    List<SubdocGetRequest> requests = Arrays.asList(
+      lookup(response(Collections.singletonMap("a", "{\"b\":1}"), 5)),
+      lookup(response(Collections.singletonMap("a.b", "1"), 6))
+    );
+    List<SubdocGetRequest> retried = Arrays.asList(
+      lookup(response(Collections.singletonMap("a", "{\"b\":2}"), 7)),
+      lookup(response(Collections.singletonMap("a.b", "2"), 7))
+    );
+
+    GetResult result = GetAccessor.splitSubdocGetResult(core, requests, () -> retried, failingSupplier(),
+      projections, TRANSCODER).get();
+
+    assertEquals(JsonObject.create().put("a", JsonObject.create().put("b", 2)), result.contentAsObject());
+    assertEquals(7, result.cas());
+    assertEquals(Optional.of(ProjectionStrategy.SPLIT_LOOKUPS), result.projectionStrategy());
+    verify(core).send(retried.get(0));
+    verify(core).send(retried.get(1));
+  }
+
+  @Test
+  void givesUpSplitLookupsIfDocumentKeepsChanging() {
+    Core core = mock(Core.class);
+    AtomicInteger cas = new AtomicInteger();
+    List<String> projections = Arrays.asList("a", "a.b");
+    assertFalse(GetAccessor.canFilter(projections));
+    Supplier<List<SubdocGetRequest>> lookups = () -> Arrays.asList(
+      lookup(response(Collections.singletonMap("a", "1"), cas.incrementAndGet())),
+      lookup(response(Collections.singletonMap("a.b", "2"), cas.incrementAndGet()))
+    );
+
+    CompletableFuture<GetResult> result = GetAccessor.splitSubdocGetResult(core, lookups.get(), lookups,
+      failingSupplier(), projections, TRANSCODER);
+
+    ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+    assertTrue(ex.getCause() instanceof CouchbaseException);
+    verify(core, times((GetAccessor.MAX_SPLIT_ATTEMPTS - 1) * 2)).send(any());
+  }
+
+  /**
+   * Creates a lookup request which has already been completed with the given response.
+   */
+  private static SubdocGetRequest lookup(final SubdocGetResponse response) {
+    SubdocGetRequest request = new SubdocGetRequest(Duration.ofSeconds(1), mock(CoreContext.class),
+      CollectionIdentifier.fromDefault("bucket"), BestEffortRetryStrategy.INSTANCE, "key", (byte) 0,
+      Collections.emptyList(), mock(InternalSpan.class));
+    request.succeed(response);
+    return request;
+  }
+
+  private static <T> Supplier<T> failingSupplier() {
+    return () -> {
+      throw new AssertionError("Not expected to be called");
+    };
+  }
+
+  private static List<String> paths(final int count) {
+    List<String> paths = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      paths.add("field" + i);
+    }
+    return paths;
+  }
+
   /**
    * Helper method to build the response from a list of paths and values.
    *
    * @param paths the paths and values.
    * @return a created response.
    */
-  private SubdocGetResponse response(final Map<String, String> paths) {
+  private static SubdocGetResponse response(final Map<String, String> paths) {
+    return response(paths, 0);
+  }
+
+  /**
+   * Helper method to build the response from a list of paths and values, with the given CAS.
+   *
+   * @param paths the paths and values.
+   * @param cas the CAS of the looked up document.
+   * @return a created response.
+   */
+  private static SubdocGetResponse response(final Map<String, String> paths, final long cas) {
     List<SubDocumentField> values = paths
       .entrySet()
             .stream()
@@ -118,6 +346,6 @@ class GetAccessorTest {
                     )
             )
       .collect(Collectors.toList());
-    return new SubdocGetResponse(ResponseStatus.SUCCESS, Optional.empty(), values.toArray(new SubDocumentField[values.size()]), 0, false);
+    return new SubdocGetResponse(ResponseStatus.SUCCESS, Optional.empty(), values.toArray(new SubDocumentField[values.size()]), cas, false);
   }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import com.couchbase.client.core.Core;
+import com.couchbase.client.core.CoreContext;
+import com.couchbase.client.core.Timer;
+import com.couchbase.client.core.cnc.InternalSpan;
+import com.couchbase.client.core.cnc.metrics.NoopMeter;
+import com.couchbase.client.core.deps.io.netty.util.Timeout;
+import com.couchbase.client.core.env.CoreEnvironment;
+import com.couchbase.client.core.error.DocumentUnretrievableException;
+import com.couchbase.client.core.io.CollectionIdentifier;
+import com.couchbase.client.core.msg.CancellationReason;
+import com.couchbase.client.core.msg.ResponseStatus;
+import com.couchbase.client.core.msg.kv.GetRequest;
+import com.couchbase.client.core.msg.kv.GetResponse;
+import com.couchbase.client.core.msg.kv.ReplicaGetRequest;
+import com.couchbase.client.core.retry.BestEffortRetryStrategy;
+import com.couchbase.client.java.codec.RawBinaryTranscoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the hedging and cancellation behavior of the {@link GetAnyReplicaAccessor}.
+ */
+class GetAnyReplicaAccessorTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(2);
+  private static final Duration HEDGE_DELAY = Duration.ofMillis(10);
+
+  private Core core;
+  private CoreContext coreContext;
+  private Timer timer;
+  private Timeout timeout;
+  private ReplicaLatencyTracker latencyTracker;
+
+  @BeforeEach
+  void setup() {
+    core = mock(Core.class);
+    coreContext = mock(CoreContext.class);
+    CoreEnvironment env = mock(CoreEnvironment.class);
+    timer = mock(Timer.class);
+    timeout = mock(Timeout.class);
+
+    when(core.context()).thenReturn(coreContext);
+    when(coreContext.environment()).thenReturn(env);
+    when(env.timer()).thenReturn(timer);
+    when(env.meter()).thenReturn(NoopMeter.INSTANCE);
+    when(timer.schedule(any(Runnable.class), any(Duration.class))).thenReturn(timeout);
+
+    latencyTracker = new ReplicaLatencyTracker();
+  }
+
+  @Test
+  void readsAllAtOnceWithoutHedgeDelay() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, null, latencyTracker
+    );
+
+    verify(core, times(3)).send(any());
+    succeed(requests.get(2));
+
+    assertTrue(result.get().isReplica());
+    assertCancelled(requests.get(0));
+    assertCancelled(requests.get(1));
+  }
+
+  @Test
+  void onlyReadsActiveIfFastEnough() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, HEDGE_DELAY, latencyTracker
+    );
+
+    verify(core, times(1)).send(requests.get(0));
+    verify(core, never()).send(requests.get(1));
+    succeed(requests.get(0));
+
+    assertFalse(result.get().isReplica());
+    verify(timeout).cancel();
+    verify(core, times(1)).send(any());
+  }
+
+  @Test
+  void readsReplicasOnceDelayElapsed() throws Exception {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, HEDGE_DELAY, latencyTracker
+    );
+
+    ArgumentCaptor<Runnable> hedge = ArgumentCaptor.forClass(Runnable.class);
+    verify(timer).schedule(hedge.capture(), eq(HEDGE_DELAY));
+    hedge.getValue().run();
+
+    verify(core, times(3)).send(any());
+    succeed(requests.get(1));
+
+    assertTrue(result.get().isReplica());
+    assertCancelled(requests.get(0));
+    assertCancelled(requests.get(2));
+  }
+
+  @Test
+  void readsReplicasImmediatelyIfActiveFails() {
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, HEDGE_DELAY, latencyTracker
+    );
+
+    fail(requests.get(0));
+    verify(core, times(3)).send(any());
+
+    fail(requests.get(1));
+    fail(requests.get(2));
+    ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+    assertTrue(ex.getCause() instanceof DocumentUnretrievableException);
+  }
+
+  @Test
+  void recordsLatencyOfSuccessfulActiveRead() throws Exception {
+    ReplicaLatencyTracker tracker = mock(ReplicaLatencyTracker.class);
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, HEDGE_DELAY, tracker
+    );
+
+    succeed(requests.get(0));
+    result.get();
+    verify(tracker, times(1)).record(anyLong());
+  }
+
+  @Test
+  void doesNotRecordLatencyOfFailedOrCancelledActiveRead() throws Exception {
+    ReplicaLatencyTracker tracker = mock(ReplicaLatencyTracker.class);
+    List<GetRequest> requests = requests();
+    CompletableFuture<GetReplicaResult> result = GetAnyReplicaAccessor.getAnyReplica(
+      core, requests, RawBinaryTranscoder.INSTANCE, null, tracker
+    );
+    succeed(requests.get(1));
+    result.get();
+    assertCancelled(requests.get(0));
+
+    requests = requests();
+    GetAnyReplicaAccessor.getAnyReplica(core, requests, RawBinaryTranscoder.INSTANCE, HEDGE_DELAY, tracker);
+    fail(requests.get(0));
+
+    verify(tracker, never()).record(anyLong());
+  }
+
+  private List<GetRequest> requests() {
+    CollectionIdentifier collection = CollectionIdentifier.fromDefault("bucket");
+    return Arrays.asList(
+      new GetRequest("key", TIMEOUT, coreContext, collection, BestEffortRetryStrategy.INSTANCE,
+        mock(InternalSpan.class)),
+      new ReplicaGetRequest("key", TIMEOUT, coreContext, collection, BestEffortRetryStrategy.INSTANCE,
+        (short) 1, mock(InternalSpan.class)),
+      new ReplicaGetRequest("key", TIMEOUT, coreContext, collection, BestEffortRetryStrategy.INSTANCE,
+        (short) 2, mock(InternalSpan.class))
+    );
+  }
+
+  private static void succeed(final GetRequest request) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.SUCCESS);
+    when(response.content()).thenReturn(new byte[] {1, 2, 3});
+    request.succeed(response);
+  }
+
+  private static void fail(final GetRequest request) {
+    GetResponse response = mock(GetResponse.class);
+    when(response.status()).thenReturn(ResponseStatus.NOT_FOUND);
+    request.succeed(response);
+  }
+
+  private static void assertCancelled(final GetRequest request) {
+    assertTrue(request.cancelled());
+    assertEquals(CancellationReason.STOPPED_LISTENING, request.cancellationReason());
+  }
+
+}
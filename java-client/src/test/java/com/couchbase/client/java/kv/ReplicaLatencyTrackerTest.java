@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 Couchbase, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.couchbase.client.java.kv;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ReplicaLatencyTrackerTest {
+
+  @Test
+  void needsMinimumNumberOfSamples() {
+    ReplicaLatencyTracker tracker = new ReplicaLatencyTracker();
+    for (int i = 0; i < ReplicaLatencyTracker.MIN_SAMPLES - 1; i++) {
+      tracker.record(1000);
+    }
+    assertFalse(tracker.p95().isPresent());
+  }
+
+  @Test
+  void computesPercentileOfRecentSamples() {
+    ReplicaLatencyTracker tracker = new ReplicaLatencyTracker();
+    for (int i = 1; i <= 160; i++) {
+      tracker.record(i);
+    }
+    assertEquals(Optional.of(Duration.ofNanos(152)), tracker.p95());
+
+    // Once the window is full of new samples, the old ones do not matter anymore.
+    for (int i = 0; i < ReplicaLatencyTracker.WINDOW_SIZE; i++) {
+      tracker.record(5000);
+    }
+    assertEquals(Optional.of(Duration.ofNanos(5000)), tracker.p95());
+  }
+
+}